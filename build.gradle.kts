@@ -17,6 +17,7 @@ plugins {
   java
   application
   id("com.github.johnrengelman.shadow") version "7.1.2"
+  id("me.champeau.jmh") version "0.6.8"
   id("org.sonarqube") version "3.4.0.2513"
 }
 
@@ -55,6 +56,16 @@ dependencies {
   testImplementation("org.mockito:mockito-junit-jupiter:4.7.0")
 }
 
+/**
+ * Benchmarks of the simulation core, see docs/developers.md. Run with `./gradlew jmh`.
+ */
+jmh {
+  jmhVersion.set("1.35")
+  resultFormat.set("JSON")
+  resultsFile.set(file("${buildDir}/reports/jmh/results.json"))
+  jvmArgs.add("-Djava.awt.headless=true")
+}
+
 /**
  * Strings used as keys to reference shared variables (via `ext.*`)
  */
@@ -671,6 +682,11 @@ tasks {
     options.compilerArgs = compilerOptions
     dependsOn("genFiles")
   }
+  named<JavaCompile>("compileJmhJava") {
+    options.encoding = "UTF-8"
+    options.compilerArgs = compilerOptions
+    dependsOn("genFiles")
+  }
 
   test {
     useJUnitPlatform()
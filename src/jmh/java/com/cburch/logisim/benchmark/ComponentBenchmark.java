@@ -0,0 +1,65 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.benchmark;
+
+import com.cburch.logisim.circuit.CircuitState;
+import com.cburch.logisim.circuit.Propagator;
+import com.cburch.logisim.comp.Component;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of the {@code propagate} methods of the components of each sample: gates in the adder,
+ * RAMs and a counter in the array, and an adder, registers, a counter and a RAM in the datapath.
+ * Each operation propagates every component once and then processes the events that result; as
+ * no input changes, these events do not reach other components.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ComponentBenchmark {
+  @Param({SampleCircuits.RIPPLE_ADDER, SampleCircuits.RAM_ARRAY, SampleCircuits.SMALL_CPU})
+  public String sample;
+
+  private CircuitState state;
+  private Propagator prop;
+  private Component[] comps;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    state = SampleCircuits.open(sample).getCircuitState();
+    prop = state.getPropagator();
+    comps = state.getCircuit().getNonWires().toArray(new Component[0]);
+    prop.propagate();
+  }
+
+  @Benchmark
+  public Propagator propagate() {
+    for (final var comp : comps) {
+      comp.propagate(state);
+    }
+    prop.propagate();
+    return prop;
+  }
+}
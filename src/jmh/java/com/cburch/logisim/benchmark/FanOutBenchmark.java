@@ -0,0 +1,88 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.benchmark;
+
+import com.cburch.logisim.circuit.Circuit;
+import com.cburch.logisim.circuit.CircuitMutation;
+import com.cburch.logisim.circuit.CircuitState;
+import com.cburch.logisim.circuit.Propagator;
+import com.cburch.logisim.circuit.Wire;
+import com.cburch.logisim.data.Location;
+import com.cburch.logisim.std.memory.DFlipFlop;
+import com.cburch.logisim.std.wiring.Clock;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of one clock edge against the number of flip-flops the clock drives. Only the clock inputs
+ * are connected, so an edge does little more than mark every flip-flop dirty and propagate it; the
+ * time per edge should grow linearly with the fan-out.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class FanOutBenchmark {
+  private static final int SPACING = 80;
+
+  @Param({"16", "256", "4096"})
+  public int fanOut;
+
+  private Propagator prop;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    // Any sample will do for the project and its simulation options.
+    final var proj = SampleCircuits.open(SampleCircuits.RIPPLE_ADDER, "heap");
+    final var circuit = new Circuit("fanout", null, null);
+    final var xn = new CircuitMutation(circuit);
+    final var factory = new DFlipFlop();
+    Location prev = null;
+    for (var i = 0; i < fanOut; i++) {
+      final var ff =
+          factory.createComponent(
+              Location.create(200, 100 + i * SPACING, true), factory.createAttributeSet());
+      xn.add(ff);
+      // The clock input follows the data inputs.
+      final var clk = ff.getEnd(1).getLocation();
+      if (prev == null) {
+        final var clockLoc = clk.translate(-40, 0);
+        xn.add(Clock.FACTORY.createComponent(clockLoc, Clock.FACTORY.createAttributeSet()));
+        xn.add(Wire.create(clockLoc, clk));
+      } else {
+        xn.add(Wire.create(prev, clk));
+      }
+      prev = clk;
+    }
+    xn.execute();
+    prop = new CircuitState(proj, circuit).getPropagator();
+    prop.propagate();
+  }
+
+  @Benchmark
+  public Propagator edge() {
+    prop.toggleClocks();
+    prop.propagate();
+    return prop;
+  }
+}
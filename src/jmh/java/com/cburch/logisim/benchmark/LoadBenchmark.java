@@ -0,0 +1,54 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.benchmark;
+
+import com.cburch.logisim.Main;
+import com.cburch.logisim.file.LoadFailedException;
+import com.cburch.logisim.file.Loader;
+import com.cburch.logisim.file.LogisimFile;
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Time to load each sample through the XmlReader, from the file to a complete LogisimFile. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class LoadBenchmark {
+  @Param({SampleCircuits.RIPPLE_ADDER, SampleCircuits.RAM_ARRAY, SampleCircuits.SMALL_CPU})
+  public String sample;
+
+  private File file;
+
+  @Setup
+  public void setup() {
+    Main.headless = true;
+    file = SampleCircuits.extract(sample);
+  }
+
+  @Benchmark
+  public LogisimFile load() throws LoadFailedException {
+    // A fresh loader each time, as a loader keeps track of the main file it has opened.
+    return new Loader(null).openLogisimFile(file);
+  }
+}
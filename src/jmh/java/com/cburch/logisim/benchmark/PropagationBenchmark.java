@@ -0,0 +1,96 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.benchmark;
+
+import com.cburch.logisim.circuit.CircuitState;
+import com.cburch.logisim.circuit.Propagator;
+import com.cburch.logisim.comp.Component;
+import com.cburch.logisim.data.Value;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Propagation throughput of the 32-bit gate-level ripple-carry adder. Each operation applies a new
+ * pair of random operands and propagates until the circuit is stable; the {@code events} counter
+ * reports the propagation events processed per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PropagationBenchmark {
+  private static final int PATTERNS = 1024;
+
+  @Param({"heap", "calendar"})
+  public String scheduler;
+
+  private CircuitState state;
+  private Propagator prop;
+  private Component[] inputs;
+  private Value[][] patterns;
+  private int next;
+
+  /** Counts the propagation events; JMH reports the field as a rate next to the ops/s. */
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  @State(Scope.Thread)
+  public static class Events {
+    public long events;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      events = 0;
+    }
+  }
+
+  @Setup(Level.Trial)
+  public void setup() {
+    final var proj = SampleCircuits.open(SampleCircuits.RIPPLE_ADDER, scheduler);
+    state = proj.getCircuitState();
+    prop = state.getPropagator();
+    inputs = SampleCircuits.pins(state, true).toArray(new Component[0]);
+    // Fixed seed, so that every run sees the same sequence of operands.
+    final var rand = new Random(42);
+    patterns = new Value[PATTERNS][inputs.length];
+    for (final var pattern : patterns) {
+      for (var i = 0; i < inputs.length; i++) {
+        pattern[i] = rand.nextBoolean() ? Value.TRUE : Value.FALSE;
+      }
+    }
+    prop.propagate();
+  }
+
+  @Benchmark
+  public Propagator propagate(Events counter) {
+    final var pattern = patterns[next];
+    next = (next + 1) % PATTERNS;
+    for (var i = 0; i < inputs.length; i++) {
+      SampleCircuits.setInput(state, inputs[i], pattern[i]);
+    }
+    final var before = prop.getEventCount();
+    prop.propagate();
+    counter.events += prop.getEventCount() - before;
+    return prop;
+  }
+}
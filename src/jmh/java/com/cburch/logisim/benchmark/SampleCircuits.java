@@ -0,0 +1,93 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.benchmark;
+
+import com.cburch.logisim.Main;
+import com.cburch.logisim.circuit.CircuitState;
+import com.cburch.logisim.comp.Component;
+import com.cburch.logisim.data.Value;
+import com.cburch.logisim.file.LoadFailedException;
+import com.cburch.logisim.file.Options;
+import com.cburch.logisim.proj.Project;
+import com.cburch.logisim.proj.ProjectActions;
+import com.cburch.logisim.std.wiring.Pin;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Access to the sample circuits bundled with the benchmarks. The samples are copied to temporary
+ * files, as the loader resolves libraries and relative paths against a file.
+ */
+final class SampleCircuits {
+  static final String RIPPLE_ADDER = "ripple-adder.circ";
+  static final String RAM_ARRAY = "ram-array.circ";
+  static final String SMALL_CPU = "small-cpu.circ";
+
+  private SampleCircuits() {
+    // dummy
+  }
+
+  /** Copies the named sample to a temporary file that is deleted when the JVM exits. */
+  static File extract(String name) {
+    try (final var in = SampleCircuits.class.getResourceAsStream(name)) {
+      if (in == null) throw new IllegalArgumentException("no such sample: " + name);
+      final var file = File.createTempFile("logisim-bench-", ".circ");
+      file.deleteOnExit();
+      Files.copy(in, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      return file;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** Opens the named sample without a window, as done by {@code --tty}. */
+  static Project open(String name) {
+    Main.headless = true;
+    try {
+      return ProjectActions.doOpenNoWindow(null, extract(name));
+    } catch (LoadFailedException e) {
+      throw new IllegalStateException(e.getMessage(), e);
+    }
+  }
+
+  /** Opens the named sample and selects the event scheduler, "heap" or "calendar". */
+  static Project open(String name, String scheduler) {
+    final var proj = open(name);
+    final var opts = proj.getOptions().getAttributeSet();
+    opts.setValue(
+        Options.ATTR_SIM_SCHEDULER,
+        Options.SIM_SCHEDULER_CALENDAR.getValue().equals(scheduler)
+            ? Options.SIM_SCHEDULER_CALENDAR
+            : Options.SIM_SCHEDULER_HEAP);
+    return proj;
+  }
+
+  /** Returns the input or output pins of the circuit. */
+  static List<Component> pins(CircuitState state, boolean inputs) {
+    final var ret = new ArrayList<Component>();
+    for (final var comp : state.getCircuit().getNonWires()) {
+      if (comp.getFactory() instanceof Pin pin
+          && pin.isInputPin(state.getInstanceState(comp).getInstance()) == inputs) {
+        ret.add(comp);
+      }
+    }
+    return ret;
+  }
+
+  static void setInput(CircuitState state, Component pin, Value val) {
+    Pin.FACTORY.setValue(state.getInstanceState(pin), val);
+    state.markComponentAsDirty(pin);
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.benchmark;
+
+import com.cburch.logisim.circuit.Propagator;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Clock tick rate of the sequential samples: an array of sixteen 256x8 RAMs addressed by a
+ * counter, and a small accumulator datapath. Each operation is one tick, that is, one toggle of
+ * the clocks followed by a full propagation, as counted by {@code --tty tty}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TickBenchmark {
+  @Param({SampleCircuits.RAM_ARRAY, SampleCircuits.SMALL_CPU})
+  public String sample;
+
+  @Param({"heap", "calendar"})
+  public String scheduler;
+
+  private Propagator prop;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    prop = SampleCircuits.open(sample, scheduler).getCircuitState().getPropagator();
+    prop.propagate();
+  }
+
+  @Benchmark
+  public Propagator tick(PropagationBenchmark.Events counter) {
+    final var before = prop.getEventCount();
+    prop.toggleClocks();
+    prop.propagate();
+    counter.events += prop.getEventCount() - before;
+    return prop;
+  }
+}
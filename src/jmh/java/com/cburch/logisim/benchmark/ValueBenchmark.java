@@ -0,0 +1,90 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.benchmark;
+
+import com.cburch.logisim.data.BitWidth;
+import com.cburch.logisim.data.Value;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Throughput of the bitwise operations on {@link Value}, which the gates and the wire bundles
+ * use for every event. The operands are a fixed mix of fully known values and values with
+ * unknown and error bits, so that both the fast and the slow paths are covered.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ValueBenchmark {
+  private static final int OPERANDS = 256;
+
+  @Param({"1", "8", "32", "64"})
+  public int width;
+
+  private Value[] left;
+  private Value[] right;
+
+  @Setup
+  public void setup() {
+    final var rand = new Random(42);
+    final var bits = BitWidth.create(width);
+    left = new Value[OPERANDS];
+    right = new Value[OPERANDS];
+    for (var i = 0; i < OPERANDS; i++) {
+      left[i] = operand(rand, bits);
+      right[i] = operand(rand, bits);
+    }
+  }
+
+  /** Returns a known value three times out of four, otherwise one with unknown or error bits. */
+  private static Value operand(Random rand, BitWidth bits) {
+    final var known = Value.createKnown(bits, rand.nextLong());
+    if (rand.nextInt(4) != 0) return known;
+    final var bit = rand.nextInt(bits.getWidth());
+    final var odd = rand.nextBoolean() ? Value.UNKNOWN : Value.ERROR;
+    final var vals = known.getAll();
+    vals[bit] = odd;
+    return Value.create(vals);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OPERANDS)
+  public void and(Blackhole bh) {
+    for (var i = 0; i < OPERANDS; i++) bh.consume(left[i].and(right[i]));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OPERANDS)
+  public void or(Blackhole bh) {
+    for (var i = 0; i < OPERANDS; i++) bh.consume(left[i].or(right[i]));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OPERANDS)
+  public void combine(Blackhole bh) {
+    for (var i = 0; i < OPERANDS; i++) bh.consume(left[i].combine(right[i]));
+  }
+}
@@ -216,7 +216,8 @@ class MinimizedTab extends AnalyzerTab {
       final var output = getCurrentVariable();
       final var format = outputExprs.getMinimizedFormat(output);
       formatChoice.setSelectedIndex(FormatModel.getFormatIndex(format));
-      outputExprs.setExpression(output, outputExprs.getMinimalExpression(output));
+      final var minimal = outputExprs.getMinimalExpression(output);
+      if (minimal != null) outputExprs.setExpression(output, minimal);
     }
 
     @Override
@@ -227,7 +228,7 @@ class MinimizedTab extends AnalyzerTab {
         minimizedExpr.setExpression(outputExprs.getMinimalExpression(output));
         MinimizedTab.this.validate();
       }
-      setAsExpr.setEnabled(output != null && !outputExprs.isExpressionMinimal(output));
+      updateSetAsExpr(output);
       int format = outputExprs.getMinimizedFormat(output);
       formatChoice.setSelectedIndex(FormatModel.getFormatIndex(format));
     }
@@ -317,7 +318,7 @@ class MinimizedTab extends AnalyzerTab {
     add(buttons);
 
     final var selected = selector.getSelectedOutput();
-    setAsExpr.setEnabled(selected != null && !outputExprs.isExpressionMinimal(selected));
+    updateSetAsExpr(selected);
     setTransferHandler(new MinimizedTransferHandler());
     karnaughMap.setTransferHandler(new KmapTransferHandler());
     minimizedExpr.setTransferHandler(new ExpressionTransferHandler());
@@ -450,7 +451,14 @@ class MinimizedTab extends AnalyzerTab {
     final var format = outputExprs.getMinimizedFormat(output);
     formatChoice.setSelectedIndex(FormatModel.getFormatIndex(format));
     minimizedExpr.setExpression(outputExprs.getMinimalExpression(output));
-    setAsExpr.setEnabled(output != null && !outputExprs.isExpressionMinimal(output));
+    updateSetAsExpr(output);
+  }
+
+  private void updateSetAsExpr(String output) {
+    setAsExpr.setEnabled(
+        output != null
+            && !outputExprs.isExpressionMinimal(output)
+            && !outputExprs.isMinimalPending(output));
   }
 
   @Override
@@ -14,8 +14,12 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 
 import javax.swing.JTextArea;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 
 public class OutputExpressions {
   private class MyListener implements VariableListListener, TruthTableListener {
@@ -114,6 +118,8 @@ public class OutputExpressions {
     Expression minimalExpr = null;
 
     private boolean invalidating = false;
+    // set on the event thread, but cancelled by forcedOptimize() from its own thread
+    private volatile SwingWorker<List<Implicant>, Void> minimizer = null;
 
     OutputData(String output) {
       this.output = output;
@@ -126,14 +132,15 @@ public class OutputExpressions {
 
     String getExpressionString() {
       if (exprString == null) {
-        if (expr == null) invalidate(false, false, null);
+        if (expr == null && minimizer == null) invalidate(false, false, null);
         exprString = expr == null ? "" : expr.toString();
       }
       return exprString;
     }
 
+    /** Returns the minimal expression, or null while it is being computed in the background. */
     Expression getMinimalExpression() {
-      if (minimalExpr == null) invalidate(false, false, null);
+      if (minimalExpr == null && minimizer == null) invalidate(false, false, null);
       return minimalExpr;
     }
 
@@ -147,11 +154,81 @@ public class OutputExpressions {
 
     private void invalidate(boolean initializing, boolean formatChanged, JTextArea outputArea) {
       if (invalidating) return;
+      cancelMinimizer();
+      final var table = model.getTruthTable();
+      final var outputIndex = model.getOutputs().bits.indexOf(output);
+      if (outputArea == null
+          && outputIndex >= 0
+          && table.getInputColumnCount() > Implicant.MAXIMAL_NR_OF_INPUTS_FOR_AUTO_MINIMAL_FORM) {
+        // minimizing a big table takes too long to do it on the event thread; until the worker is
+        // done the previous result is shown, or none if that is in the wrong format
+        startMinimizer(table.getInputColumnCount(), table.getOutputColumn(outputIndex).clone(),
+            formatChanged);
+        if (minimalImplicants == null || formatChanged) {
+          setPending(initializing);
+        } else if (minimalExpr == null) {
+          // an input was renamed, the previous implicants still hold
+          update(minimalImplicants, initializing, formatChanged);
+        }
+        return;
+      }
+      update(Implicant.computeMinimal(format, model, output, outputArea), initializing,
+          formatChanged);
+    }
+
+    private void startMinimizer(int nrOfInputs, Entry[] column, boolean formatChanged) {
+      final var minimizedFormat = format;
+      final var minimizedOutput = output;
+      minimizer =
+          new SwingWorker<>() {
+            @Override
+            protected List<Implicant> doInBackground() {
+              return Implicant.computeMinimal(
+                  minimizedFormat, nrOfInputs, column, minimizedOutput, null);
+            }
+
+            @Override
+            protected void done() {
+              if (minimizer != this || isCancelled()) return;
+              minimizer = null;
+              // the output may have been removed in the meantime
+              if (outputData.get(output) != OutputData.this) return;
+              try {
+                update(get(), false, formatChanged);
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+              }
+            }
+          };
+      minimizer.execute();
+    }
+
+    private void cancelMinimizer() {
+      final var running = minimizer;
+      if (running != null) {
+        running.cancel(true);
+        minimizer = null;
+      }
+    }
+
+    /** Drops the minimal form until the worker publishes the new one. */
+    private void setPending(boolean initializing) {
+      final var wasKnown = minimalImplicants != null;
+      minimalImplicants = null;
+      minimalExpr = null;
+      if (!initializing && wasKnown) {
+        fireModelChanged(OutputExpressionsEvent.OUTPUT_MINIMAL, output);
+      }
+    }
+
+    private void update(List<Implicant> implicants, boolean initializing, boolean formatChanged) {
       invalidating = true;
       try {
         final var oldImplicants = minimalImplicants;
         final var oldMinExpr = minimalExpr;
-        minimalImplicants = Implicant.computeMinimal(format, model, output, outputArea);
+        minimalImplicants = implicants;
         minimalExpr = Implicant.toExpression(format, model, minimalImplicants);
         final var minChanged = !implicantsSame(oldImplicants, minimalImplicants);
 
@@ -234,6 +311,8 @@ public class OutputExpressions {
     }
 
     void setExpression(Expression newExpr, String newExprString) {
+      // no expression while the minimal form is pending is that pending form, not an expression
+      if (newExpr == null && minimizer != null) return;
       expr = newExpr;
       exprString = newExprString;
 
@@ -329,8 +408,18 @@ public class OutputExpressions {
   public void forcedOptimize(JTextArea outtextArea, int format) {
     for (final var output : outputData.keySet()) {
       final var data = outputData.get(output);
-      data.setMinimizedFormat(format);
-      data.invalidate(false, false, outtextArea);
+      final var formatChanged = data.format != format;
+      data.format = format;
+      try {
+        data.invalidate(false, formatChanged, outtextArea);
+      } catch (CancellationException e) {
+        // The interrupt that cancelled the optimization is still set and would cancel the
+        // minimization again; clear it and hand the output back to the background minimizer,
+        // which is started from the event thread.
+        Thread.interrupted();
+        SwingUtilities.invokeLater(() -> data.invalidate(false, formatChanged, null));
+        throw e;
+      }
     }
   }
 
@@ -421,6 +510,7 @@ public class OutputExpressions {
     final var data = getOutputData(output, false);
     if (data != null) {
       if (!allowUpdates) {
+        data.cancelMinimizer();
         outputData.remove(output);
       } else {
         data.invalidate(false, false, null);
@@ -437,6 +527,12 @@ public class OutputExpressions {
     return returnValue;
   }
 
+  /** Returns true while the minimal form of the output is computed in the background. */
+  public boolean isMinimalPending(String output) {
+    final var data = getOutputData(output, false);
+    return data != null && data.minimizer != null && data.minimalExpr == null;
+  }
+
   public boolean isExpressionMinimal(String output) {
     final var data = getOutputData(output, false);
     return data == null || data.isExpressionMinimal();
@@ -0,0 +1,454 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.analyze.model;
+
+import static com.cburch.logisim.analyze.Strings.S;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.CancellationException;
+import javax.swing.JTextArea;
+
+/**
+ * Two-level minimization of one output column of a truth table. A cube (product or sum term) is
+ * packed in a single long, with the don't care mask in the upper and the values in the lower half.
+ *
+ * <p>Up to {@link Implicant#MAXIMAL_NR_OF_INPUTS_FOR_EXACT_MINIMAL_FORM} inputs all prime
+ * implicants are generated (Quine-McCluskey) and covered by column-row reduction, with a greedy
+ * pick when that gets stuck. Bigger tables use an Espresso-like expand and irredundant step that
+ * is fast, but does not always find a minimal cover.
+ *
+ * <p>The minimizer throws a {@link CancellationException} when the thread it runs on is
+ * interrupted.
+ */
+final class TwoLevelMinimizer {
+  private static final byte OFF = 0;
+  private static final byte ON = 1;
+  private static final byte DONT_CARE = 2;
+
+  private final int nrOfInputs;
+  private final int inputMask;
+  private final JTextArea outputArea;
+  private final byte[] kind;
+  // the rows that have to be covered, and for each row its index in there (or -1)
+  private final int[] onRows;
+  private final int[] onIndex;
+  private final boolean allDontCare;
+
+  TwoLevelMinimizer(int format, int nrOfInputs, Entry[] column, JTextArea outputArea) {
+    this.nrOfInputs = nrOfInputs;
+    this.outputArea = outputArea;
+    inputMask = (1 << nrOfInputs) - 1;
+    final var desiredTerm =
+        format == AnalyzerModel.FORMAT_SUM_OF_PRODUCTS ? Entry.ONE : Entry.ZERO;
+    final var skippedTerm = desiredTerm == Entry.ONE ? Entry.ZERO : Entry.ONE;
+    kind = new byte[column.length];
+    onIndex = new int[column.length];
+    var nrOfOnes = 0;
+    var dontCares = 0;
+    for (var row = 0; row < column.length; row++) {
+      if (column[row] == desiredTerm) {
+        kind[row] = ON;
+        onIndex[row] = nrOfOnes++;
+      } else {
+        kind[row] = column[row] == skippedTerm ? OFF : DONT_CARE;
+        if (kind[row] == DONT_CARE) dontCares++;
+        onIndex[row] = -1;
+      }
+    }
+    allDontCare = dontCares == column.length;
+    onRows = new int[nrOfOnes];
+    for (var row = 0; row < column.length; row++) {
+      if (onIndex[row] >= 0) onRows[onIndex[row]] = row;
+    }
+  }
+
+  static long cube(int unknowns, int values) {
+    return ((long) unknowns << 32) | (values & 0xffffffffL);
+  }
+
+  static int unknowns(long cube) {
+    return (int) (cube >>> 32);
+  }
+
+  static int values(long cube) {
+    return (int) cube;
+  }
+
+  /** Returns true if all rows of the column are don't cares, so there is nothing to minimize. */
+  boolean isAllDontCare() {
+    return allDontCare;
+  }
+
+  /** Returns the cubes of a cover of all desired terms, in the order they were picked. */
+  long[] minimize() {
+    if (onRows.length == 0) return new long[0];
+    return nrOfInputs <= Implicant.MAXIMAL_NR_OF_INPUTS_FOR_EXACT_MINIMAL_FORM
+        ? exactCover()
+        : heuristicCover();
+  }
+
+  private static void checkCancelled() {
+    if (Thread.currentThread().isInterrupted()) throw new CancellationException();
+  }
+
+  private void report(String info) {
+    if (outputArea != null) outputArea.append(info);
+  }
+
+  private void reportCube(long cube, long count) {
+    if ((count % 16L) == 0L) report("\n");
+    report(String.format(" %s", getGroupRepresentation(cube)));
+  }
+
+  private String getGroupRepresentation(long cube) {
+    final var result = new StringBuilder();
+    for (var mask = 1 << (nrOfInputs - 1); mask > 0; mask >>= 1) {
+      if ((unknowns(cube) & mask) != 0) {
+        result.append("-");
+      } else {
+        result.append((values(cube) & mask) != 0 ? "1" : "0");
+      }
+    }
+    return result.toString();
+  }
+
+  /** Returns the indices in {@link #onRows} of the desired terms that are in the cube. */
+  private int[] termsOf(long cube) {
+    final var unknowns = unknowns(cube);
+    final var values = values(cube);
+    var terms = new int[16];
+    var count = 0;
+    var subset = 0;
+    do {
+      final var index = onIndex[values | subset];
+      if (index >= 0) {
+        if (count == terms.length) terms = Arrays.copyOf(terms, 2 * count);
+        terms[count++] = index;
+      }
+      subset = (subset - unknowns) & unknowns;
+    } while (subset != 0);
+    return Arrays.copyOf(terms, count);
+  }
+
+  /** Returns true if none of the rows in the cube must be false. */
+  private boolean isAllowed(int unknowns, int values) {
+    var subset = 0;
+    do {
+      if (kind[values | subset] == OFF) return false;
+      subset = (subset - unknowns) & unknowns;
+    } while (subset != 0);
+    return true;
+  }
+
+  private long[] exactCover() {
+    final var primes = new ArrayList<Long>();
+    final var covers = new ArrayList<BitSet>();
+    var level = new CubeSet();
+    for (var row = 0; row < kind.length; row++) {
+      if (kind[row] != OFF) level.add(cube(0, row));
+    }
+    var groupSize = 2;
+    while (level.size() > 0) {
+      report(String.format("\n%s", S.fmt("implicantGroupSize", groupSize)));
+      final var merged = new boolean[level.size()];
+      final var next = new CubeSet();
+      for (var i = 0; i < level.size(); i++) {
+        checkCancelled();
+        final var unknowns = unknowns(level.get(i));
+        final var values = values(level.get(i));
+        // the partner of a cube differs in exactly one of the bits that are zero in this cube
+        for (var free = inputMask & ~unknowns & ~values; free != 0; free &= free - 1) {
+          final var bit = free & -free;
+          final var partner = level.indexOf(cube(unknowns, values | bit));
+          if (partner < 0) continue;
+          merged[i] = merged[partner] = true;
+          next.add(cube(unknowns | bit, values));
+        }
+      }
+      var nrOfPrimes = 0L;
+      for (var i = 0; i < level.size(); i++) {
+        if (merged[i]) continue;
+        final var terms = termsOf(level.get(i));
+        // a group of only don't cares is not needed
+        if (terms.length == 0) continue;
+        final var cover = new BitSet(onRows.length);
+        for (final var term : terms) cover.set(term);
+        primes.add(level.get(i));
+        covers.add(cover);
+        reportCube(level.get(i), nrOfPrimes++);
+      }
+      if (nrOfPrimes == 0) report(String.format("\n%s", S.get("implicantNoneFound")));
+      level = next;
+      groupSize <<= 1;
+    }
+    return selectCover(primes, covers);
+  }
+
+  private long[] selectCover(ArrayList<Long> primes, ArrayList<BitSet> covers) {
+    final var nrOfPrimes = primes.size();
+    final var literals = new int[nrOfPrimes];
+    final var coveredBy = new int[onRows.length][];
+    final var counts = new int[onRows.length];
+    for (var prime = 0; prime < nrOfPrimes; prime++) {
+      literals[prime] = nrOfInputs - Integer.bitCount(unknowns(primes.get(prime)));
+      final var cover = covers.get(prime);
+      for (var term = cover.nextSetBit(0); term >= 0; term = cover.nextSetBit(term + 1)) {
+        counts[term]++;
+      }
+    }
+    for (var term = 0; term < onRows.length; term++) coveredBy[term] = new int[counts[term]];
+    Arrays.fill(counts, 0);
+    for (var prime = 0; prime < nrOfPrimes; prime++) {
+      final var cover = covers.get(prime);
+      for (var term = cover.nextSetBit(0); term >= 0; term = cover.nextSetBit(term + 1)) {
+        coveredBy[term][counts[term]++] = prime;
+      }
+    }
+
+    final var alive = new boolean[nrOfPrimes];
+    Arrays.fill(alive, true);
+    final var toCover = new BitSet(onRows.length);
+    toCover.set(0, onRows.length);
+    final var result = new ArrayList<Long>();
+    report(String.format("\n%s", S.get("implicantColumRowReduction")));
+    var greedy = false;
+    while (!toCover.isEmpty()) {
+      var reduced = true;
+      while (reduced && !toCover.isEmpty()) {
+        reduced = false;
+        // column reduction: a term covered by a single prime makes that prime essential
+        for (var term = toCover.nextSetBit(0); term >= 0; term = toCover.nextSetBit(term + 1)) {
+          checkCancelled();
+          var only = -1;
+          for (final var prime : coveredBy[term]) {
+            if (!alive[prime]) continue;
+            if (only >= 0) {
+              only = -2;
+              break;
+            }
+            only = prime;
+          }
+          if (only >= 0) {
+            select(only, primes, covers, alive, toCover, result);
+            reduced = true;
+          }
+        }
+        // row reduction: drop the primes whose remaining terms are covered by another prime
+        final var remaining = new BitSet[nrOfPrimes];
+        final var sizes = new int[nrOfPrimes];
+        for (var prime = 0; prime < nrOfPrimes; prime++) {
+          if (!alive[prime]) continue;
+          remaining[prime] = (BitSet) covers.get(prime).clone();
+          remaining[prime].and(toCover);
+          sizes[prime] = remaining[prime].cardinality();
+          if (sizes[prime] == 0) {
+            alive[prime] = false;
+            reduced = true;
+          }
+        }
+        for (var prime = 0; prime < nrOfPrimes; prime++) {
+          if (!alive[prime]) continue;
+          checkCancelled();
+          // only the primes that cover the first remaining term can cover all of them
+          for (final var other : coveredBy[remaining[prime].nextSetBit(0)]) {
+            if (other == prime || !alive[other] || sizes[prime] > sizes[other]) continue;
+            if (!isSubset(remaining[prime], remaining[other])) continue;
+            if (remaining[prime].equals(remaining[other])
+                && (literals[prime] < literals[other]
+                    || (literals[prime] == literals[other] && prime < other))) {
+              continue;
+            }
+            alive[prime] = false;
+            reduced = true;
+            break;
+          }
+        }
+      }
+      if (toCover.isEmpty()) break;
+      // It can happen that we still have terms left that are covered by multiple primes. To
+      // find the minimal cover here we should implement Petrick's method, for the moment we
+      // pick the prime that covers most of the remaining terms.
+      if (!greedy) {
+        report(String.format("\n\n%s", S.get("implicantGreedy")));
+        greedy = true;
+      }
+      var best = -1;
+      var bestCount = 0;
+      for (var prime = 0; prime < nrOfPrimes; prime++) {
+        if (!alive[prime]) continue;
+        final var remaining = (BitSet) covers.get(prime).clone();
+        remaining.and(toCover);
+        final var count = remaining.cardinality();
+        if (count > bestCount
+            || (count > 0 && count == bestCount && literals[prime] < literals[best])) {
+          best = prime;
+          bestCount = count;
+        }
+      }
+      select(best, primes, covers, alive, toCover, result);
+    }
+    return toArray(result);
+  }
+
+  private void select(
+      int prime,
+      ArrayList<Long> primes,
+      ArrayList<BitSet> covers,
+      boolean[] alive,
+      BitSet toCover,
+      ArrayList<Long> result) {
+    alive[prime] = false;
+    toCover.andNot(covers.get(prime));
+    reportCube(primes.get(prime), result.size());
+    result.add(primes.get(prime));
+  }
+
+  private static boolean isSubset(BitSet set, BitSet of) {
+    for (var bit = set.nextSetBit(0); bit >= 0; bit = set.nextSetBit(bit + 1)) {
+      if (!of.get(bit)) return false;
+    }
+    return true;
+  }
+
+  private static long[] toArray(ArrayList<Long> cubes) {
+    final var result = new long[cubes.size()];
+    for (var i = 0; i < result.length; i++) result[i] = cubes.get(i);
+    return result;
+  }
+
+  private long[] heuristicCover() {
+    report(String.format("\n%s", S.fmt("implicantHeuristic", nrOfInputs)));
+    final var cubes = new CubeSet();
+    final var covered = new BitSet(onRows.length);
+    for (var term = covered.nextClearBit(0);
+        term < onRows.length;
+        term = covered.nextClearBit(term + 1)) {
+      checkCancelled();
+      final var cube = expand(onRows[term], covered);
+      cubes.add(cube);
+      for (final var index : termsOf(cube)) covered.set(index);
+    }
+    return irredundant(cubes);
+  }
+
+  /**
+   * Grows the row into a cube that contains no row that must be false. The inputs whose neighbour
+   * is a desired term that is not covered yet are tried first.
+   */
+  private long expand(int row, BitSet covered) {
+    var unknowns = 0;
+    var values = row;
+    for (var pass = 0; pass < 2; pass++) {
+      for (var bit = 1; bit <= inputMask; bit <<= 1) {
+        if ((unknowns & bit) != 0) continue;
+        final var neighbour = onIndex[row ^ bit];
+        final var preferred = neighbour >= 0 && !covered.get(neighbour);
+        if (preferred != (pass == 0)) continue;
+        // the cube can grow if the mirrored half has no row that must be false
+        if (isAllowed(unknowns, values ^ bit)) {
+          unknowns |= bit;
+          values &= ~bit;
+        }
+      }
+    }
+    return cube(unknowns, values);
+  }
+
+  /** Removes the cubes of which all terms are also covered by other cubes. */
+  private long[] irredundant(CubeSet cubes) {
+    final var counts = new int[onRows.length];
+    final var covers = new int[cubes.size()][];
+    final var order = new ArrayList<Integer>();
+    for (var i = 0; i < cubes.size(); i++) {
+      covers[i] = termsOf(cubes.get(i));
+      for (final var term : covers[i]) counts[term]++;
+      order.add(i);
+    }
+    // the small cubes are the most likely to be redundant
+    order.sort((a, b) -> Integer.compare(covers[a].length, covers[b].length));
+    final var redundant = new boolean[cubes.size()];
+    for (final var i : order) {
+      checkCancelled();
+      var needed = false;
+      for (final var term : covers[i]) {
+        if (counts[term] == 1) {
+          needed = true;
+          break;
+        }
+      }
+      if (needed) continue;
+      redundant[i] = true;
+      for (final var term : covers[i]) counts[term]--;
+    }
+    final var result = new ArrayList<Long>();
+    for (var i = 0; i < cubes.size(); i++) {
+      if (redundant[i]) continue;
+      reportCube(cubes.get(i), result.size());
+      result.add(cubes.get(i));
+    }
+    return toArray(result);
+  }
+
+  /**
+   * An insertion ordered set of cubes, hashed with open addressing so that looking up the partner
+   * of a cube does not need to box it.
+   */
+  static final class CubeSet {
+    private long[] cubes = new long[16];
+    // index + 1 of the cube in cubes, 0 for a free slot
+    private int[] slots = new int[32];
+    private int size = 0;
+
+    int size() {
+      return size;
+    }
+
+    long get(int index) {
+      return cubes[index];
+    }
+
+    /** Returns the index of the cube, or -1 if it is not in the set. */
+    int indexOf(long cube) {
+      final var mask = slots.length - 1;
+      for (var slot = hash(cube) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+        if (cubes[slots[slot] - 1] == cube) return slots[slot] - 1;
+      }
+      return -1;
+    }
+
+    /** Adds the cube and returns true if it was not in the set yet. */
+    boolean add(long cube) {
+      if (indexOf(cube) >= 0) return false;
+      if (size == cubes.length) cubes = Arrays.copyOf(cubes, 2 * size);
+      cubes[size++] = cube;
+      if (2 * size > slots.length) {
+        slots = new int[2 * slots.length];
+        for (var i = 0; i < size; i++) insert(i);
+      } else {
+        insert(size - 1);
+      }
+      return true;
+    }
+
+    private void insert(int index) {
+      final var mask = slots.length - 1;
+      var slot = hash(cubes[index]) & mask;
+      while (slots[slot] != 0) slot = (slot + 1) & mask;
+      slots[slot] = index + 1;
+    }
+
+    private static int hash(long cube) {
+      final var mixed = cube * 0x9e3779b97f4a7c15L;
+      return (int) (mixed ^ (mixed >>> 32));
+    }
+  }
+}
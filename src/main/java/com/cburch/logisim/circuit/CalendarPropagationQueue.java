@@ -0,0 +1,173 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.circuit;
+
+import com.cburch.logisim.circuit.Propagator.SetData;
+import com.cburch.logisim.comp.Component;
+import com.cburch.logisim.data.Location;
+import com.cburch.logisim.data.Value;
+import java.util.Arrays;
+
+/**
+ * A calendar queue: pending changes are hashed on their time into a ring of buckets, each bucket
+ * being a linked list sorted on (time, serial number). As nearly all delays are much shorter than
+ * the ring, adding a change is an append to a bucket tail and finding the next change is a short
+ * walk along the ring starting at the current time. Records are linked through {@link
+ * SetData#queueNext}, and records handed back through {@link #recycle} are kept in a free list.
+ */
+class CalendarPropagationQueue implements PropagationQueue {
+  private static final int INITIAL_BUCKETS = 256;
+  private static final int MAX_BUCKETS = 1 << 16;
+  private static final int MAX_POOLED = 4096;
+
+  private SetData[] heads = new SetData[INITIAL_BUCKETS];
+  private SetData[] tails = new SetData[INITIAL_BUCKETS];
+  private int mask = INITIAL_BUCKETS - 1;
+  private int size = 0;
+  // No pending change is scheduled before this time.
+  private int cursor = 0;
+  // The earliest pending change, or null if it has to be looked up again.
+  private SetData first = null;
+
+  private SetData pool = null;
+  private int pooled = 0;
+
+  @Override
+  public void add(SetData data) {
+    if (size == 0) {
+      cursor = data.time;
+      first = data;
+    } else {
+      // Subtraction on purpose, see SetData.compareTo()
+      if (data.time - cursor < 0) cursor = data.time;
+      if (first != null && data.compareTo(first) < 0) first = data;
+    }
+    insert(data, heads, tails, mask);
+    size++;
+    if (size > 2 * heads.length && heads.length < MAX_BUCKETS) resize(2 * heads.length);
+  }
+
+  private static void insert(SetData data, SetData[] heads, SetData[] tails, int mask) {
+    final var idx = data.time & mask;
+    data.queueNext = null;
+    final var tail = tails[idx];
+    if (tail == null) {
+      heads[idx] = data;
+      tails[idx] = data;
+    } else if (data.compareTo(tail) > 0) {
+      tail.queueNext = data;
+      tails[idx] = data;
+    } else if (data.compareTo(heads[idx]) < 0) {
+      data.queueNext = heads[idx];
+      heads[idx] = data;
+    } else {
+      var prev = heads[idx];
+      while (prev.queueNext.compareTo(data) < 0) prev = prev.queueNext;
+      data.queueNext = prev.queueNext;
+      prev.queueNext = data;
+    }
+  }
+
+  private void resize(int buckets) {
+    final var newHeads = new SetData[buckets];
+    final var newTails = new SetData[buckets];
+    final var newMask = buckets - 1;
+    for (var i = 0; i < heads.length; i++) {
+      var cur = heads[i];
+      while (cur != null) {
+        final var next = cur.queueNext;
+        insert(cur, newHeads, newTails, newMask);
+        cur = next;
+      }
+    }
+    heads = newHeads;
+    tails = newTails;
+    mask = newMask;
+  }
+
+  private SetData findFirst() {
+    // Within one turn of the ring starting at the cursor, the first bucket whose head is
+    // scheduled for exactly that time holds the earliest change.
+    for (var i = 0; i < heads.length; i++) {
+      final var time = cursor + i;
+      final var head = heads[time & mask];
+      if (head != null && head.time == time) {
+        cursor = time;
+        return head;
+      }
+    }
+    // Everything is at least one turn away; fall back to comparing all bucket heads.
+    SetData best = null;
+    for (final var head : heads) {
+      if (head != null && (best == null || head.compareTo(best) < 0)) best = head;
+    }
+    cursor = best.time;
+    return best;
+  }
+
+  @Override
+  public SetData peek() {
+    if (size == 0) return null;
+    if (first == null) first = findFirst();
+    return first;
+  }
+
+  @Override
+  public SetData poll() {
+    final var ret = peek();
+    if (ret == null) return null;
+    final var idx = ret.time & mask;
+    heads[idx] = ret.queueNext;
+    if (heads[idx] == null) tails[idx] = null;
+    ret.queueNext = null;
+    size--;
+    first = null;
+    return ret;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public void clear() {
+    Arrays.fill(heads, null);
+    Arrays.fill(tails, null);
+    size = 0;
+    first = null;
+  }
+
+  @Override
+  public SetData obtain(int time, int serialNumber, CircuitState state, Location loc,
+      Component cause, Value val) {
+    final var ret = pool;
+    if (ret == null) return new SetData(time, serialNumber, state, loc, cause, val);
+    pool = ret.queueNext;
+    pooled--;
+    ret.queueNext = null;
+    ret.init(time, serialNumber, state, loc, cause, val);
+    return ret;
+  }
+
+  @Override
+  public void recycle(SetData data) {
+    if (pooled >= MAX_POOLED) return;
+    data.init(0, 0, null, null, null, null);
+    data.queueNext = pool;
+    pool = data;
+    pooled++;
+  }
+}
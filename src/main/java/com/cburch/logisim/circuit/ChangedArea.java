@@ -0,0 +1,67 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.circuit;
+
+import com.cburch.logisim.data.Bounds;
+
+/**
+ * The part of a circuit state's drawing that the simulation changed, so that a canvas showing the
+ * state only needs to repaint that part. The simulation adds to it and the canvas takes it once
+ * per frame. Each take starts a new frame; substates use the frame number to report their
+ * subcircuit component only once per frame.
+ */
+final class ChangedArea {
+  private final CircuitState state;
+  private int x0;
+  private int y0;
+  private int x1;
+  private int y1;
+  private boolean empty = true;
+  private volatile long frame = 0;
+
+  ChangedArea(CircuitState state) {
+    this.state = state;
+  }
+
+  CircuitState getState() {
+    return state;
+  }
+
+  long getFrame() {
+    return frame;
+  }
+
+  synchronized void add(int x, int y, int width, int height) {
+    if (empty) {
+      x0 = x;
+      y0 = y;
+      x1 = x + width;
+      y1 = y + height;
+      empty = false;
+    } else {
+      x0 = Math.min(x0, x);
+      y0 = Math.min(y0, y);
+      x1 = Math.max(x1, x + width);
+      y1 = Math.max(y1, y + height);
+    }
+  }
+
+  void add(Bounds bds) {
+    add(bds.getX(), bds.getY(), bds.getWidth(), bds.getHeight());
+  }
+
+  /** Returns the area changed since the last call, or the empty bounds if nothing changed. */
+  synchronized Bounds take() {
+    frame++;
+    if (empty) return Bounds.EMPTY_BOUNDS;
+    empty = true;
+    return Bounds.create(x0, y0, x1 - x0, y1 - y0);
+  }
+}
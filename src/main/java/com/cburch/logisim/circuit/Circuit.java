@@ -39,6 +39,7 @@ import com.cburch.logisim.instance.StdAttr;
 import com.cburch.logisim.prefs.AppPreferences;
 import com.cburch.logisim.proj.Project;
 import com.cburch.logisim.soc.data.SocSimulationManager;
+import com.cburch.logisim.std.base.Text;
 import com.cburch.logisim.std.memory.Rom;
 import com.cburch.logisim.std.wiring.Clock;
 import com.cburch.logisim.std.wiring.Pin;
@@ -134,8 +135,14 @@ public class Circuit {
       return map;
     }
 
+    @Override
+    public void boundsChanged(ComponentEvent e) {
+      index.boundsChanged(e.getSource());
+    }
+
     @Override
     public void labelChanged(ComponentEvent e) {
+      index.labelChanged(e.getSource(), hasLabel(e.getSource()));
       final var attrEvent = (AttributeEvent) e.getData();
       if (attrEvent.getSource() == null || attrEvent.getValue() == null) return;
       final var newLabel = (String) attrEvent.getValue();
@@ -221,6 +228,8 @@ public class Circuit {
   }
 
   private static final int maxTimeoutTestBenchSec = 60000;
+  // how far beyond their bounds components may draw
+  private static final int DRAW_MARGIN = 16;
   private final MyComponentListener myComponentListener = new MyComponentListener();
   private final CircuitAppearance appearance;
   private final AttributeSet staticAttrs;
@@ -228,6 +237,8 @@ public class Circuit {
   private final EventSourceWeakSupport<CircuitListener> listeners = new EventSourceWeakSupport<>();
   private LinkedHashSet<Component> comps = new LinkedHashSet<>(); // doesn't include wires
   CircuitWires wires = new CircuitWires();
+  // components and wires by location, for hit-testing and drawing
+  private final ComponentIndex index = new ComponentIndex();
   private final List<Component> clocks = new ArrayList<>();
   private final CircuitLocker locker;
 
@@ -466,13 +477,23 @@ public class Circuit {
    * Code taken from Cornell's version of Logisim: http://www.cs.cornell.edu/courses/cs3410/2015sp/
    */
   public void doTestVector(Project project, Instance[] pin, Value[] val) throws TestException {
-    final var state = project.getCircuitState();
-    state.reset();
+    doTestVector(project.getCircuitState(), pin, val, true);
+  }
+
+  /**
+   * Applies one test vector row to the given state and checks the output pins. Without a reset
+   * the state keeps everything from the previous row and only the input pins are propagated
+   * again, which gives the same result only for circuits without internal state.
+   */
+  public void doTestVector(CircuitState state, Instance[] pin, Value[] val, boolean reset)
+      throws TestException {
+    if (reset) state.reset();
 
     for (var i = 0; i < pin.length; ++i) {
       if (Pin.FACTORY.isInputPin(pin[i])) {
         final var pinState = state.getInstanceState(pin[i]);
         Pin.FACTORY.setValue(pinState, val[i]);
+        if (!reset) state.markComponentAsDirty(pin[i].getComponent());
       }
     }
 
@@ -511,13 +532,36 @@ public class Circuit {
   // Graphics methods
   //
   public void draw(ComponentDrawContext context, Collection<Component> hidden) {
+    draw(context, hidden, null);
+  }
+
+  /**
+   * Draws the circuit. If an area is given, the wires and components that do not show in it are
+   * skipped, without creating a graphics context for each of them.
+   */
+  public void draw(ComponentDrawContext context, Collection<Component> hidden, Bounds area) {
     final var g = context.getGraphics();
+    Collection<Component> toDraw = comps;
+    ArrayList<Wire> wiresToDraw = null;
+    Bounds margin = null;
+    if (area != null) {
+      margin = area.expand(DRAW_MARGIN);
+      toDraw = new ArrayList<>();
+      wiresToDraw = new ArrayList<>();
+      for (final var c : getAllNear(margin, true)) {
+        if (c instanceof Wire wire) {
+          wiresToDraw.add(wire);
+        } else if (overlaps(c.getBounds(g), margin)) {
+          toDraw.add(c);
+        }
+      }
+    }
+
     var gCopy = g.create();
     context.setGraphics(gCopy);
-    wires.draw(context, hidden);
-
+    wires.draw(context, hidden, wiresToDraw, margin);
     if (CollectionUtil.isNullOrEmpty(hidden)) {
-      for (final var c : comps) {
+      for (final var c : toDraw) {
         final var gNew = g.create();
         context.setGraphics(gNew);
         gCopy.dispose();
@@ -526,7 +570,7 @@ public class Circuit {
         c.draw(context);
       }
     } else {
-      for (final var c : comps) {
+      for (final var c : toDraw) {
         if (!hidden.contains(c)) {
           final var gNew = g.create();
           context.setGraphics(gNew);
@@ -562,7 +606,7 @@ public class Circuit {
 
   public Collection<Component> getAllContaining(Location pt) {
     final var ret = new LinkedHashSet<Component>();
-    for (final var comp : getComponents()) {
+    for (final var comp : getAllNear(Bounds.create(pt), false)) {
       if (comp.contains(pt)) ret.add(comp);
     }
     return ret;
@@ -570,7 +614,7 @@ public class Circuit {
 
   public Collection<Component> getAllContaining(Location pt, Graphics g) {
     final var ret = new LinkedHashSet<Component>();
-    for (final var comp : getComponents()) {
+    for (final var comp : getAllNear(Bounds.create(pt), true)) {
       if (comp.contains(pt, g)) ret.add(comp);
     }
     return ret;
@@ -578,7 +622,7 @@ public class Circuit {
 
   public Collection<Component> getAllWithin(Bounds bds) {
     final var ret = new LinkedHashSet<Component>();
-    for (final var comp : getComponents()) {
+    for (final var comp : getAllNear(bds, false)) {
       if (bds.contains(comp.getBounds())) ret.add(comp);
     }
     return ret;
@@ -586,12 +630,35 @@ public class Circuit {
 
   public Collection<Component> getAllWithin(Bounds bds, Graphics g) {
     final var ret = new LinkedHashSet<Component>();
-    for (final var comp : getComponents()) {
+    // The bounds without labels lie inside the bounds with labels.
+    for (final var comp : getAllNear(bds, false)) {
       if (bds.contains(comp.getBounds(g))) ret.add(comp);
     }
     return ret;
   }
 
+  /**
+   * Returns the components and wires whose bounds may overlap the area, in drawing order, and with
+   * labels, also those having a label.
+   */
+  private List<Component> getAllNear(Bounds area, boolean labels) {
+    return index.query(area.getX(), area.getY(), area.getWidth(), area.getHeight(), labels);
+  }
+
+  private static boolean overlaps(Bounds a, Bounds b) {
+    return a.getX() <= b.getX() + b.getWidth()
+        && b.getX() <= a.getX() + a.getWidth()
+        && a.getY() <= b.getY() + b.getHeight()
+        && b.getY() <= a.getY() + a.getHeight();
+  }
+
+  private static boolean hasLabel(Component comp) {
+    if (comp.getFactory() instanceof Text) return true;
+    final var attrs = comp.getAttributeSet();
+    return attrs.containsAttribute(StdAttr.LABEL)
+        && StringUtil.isNotEmpty(attrs.getValue(StdAttr.LABEL));
+  }
+
   public CircuitAppearance getAppearance() {
     return appearance;
   }
@@ -822,6 +889,7 @@ public class Circuit {
       if (wire.getEnd0().equals(wire.getEnd1())) return;
       var added = wires.add(wire);
       if (!added) return;
+      index.add(wire, false);
     } else {
       // add it into the circuit
       var added = comps.add(c);
@@ -860,6 +928,7 @@ public class Circuit {
         vhdl.addCircuitUsing(c, this);
       }
       c.addComponentListener(myComponentListener);
+      index.add(c, hasLabel(c));
     }
     removeWrongLabels(c.getFactory().getName());
     fireEvent(CircuitEvent.ACTION_ADD, c);
@@ -871,6 +940,7 @@ public class Circuit {
     final var oldComps = comps;
     comps = new LinkedHashSet<>();
     wires = new CircuitWires();
+    index.clear();
     clocks.clear();
     myNetList.clear();
     isAnnotated = false;
@@ -887,6 +957,7 @@ public class Circuit {
 
     isAnnotated = false;
     myNetList.clear();
+    index.remove(c);
     if (c instanceof Wire) {
       wires.remove(c);
     } else {
@@ -15,6 +15,7 @@ import com.cburch.logisim.fpga.data.MappableResourcesContainer;
 import com.cburch.logisim.fpga.designrulecheck.CorrectLabel;
 import com.cburch.logisim.fpga.designrulecheck.Netlist;
 import com.cburch.logisim.fpga.designrulecheck.netlistComponent;
+import com.cburch.logisim.fpga.file.HdlFileWriter;
 import com.cburch.logisim.fpga.gui.Reporter;
 import com.cburch.logisim.fpga.hdlgenerator.AbstractHdlGeneratorFactory;
 import com.cburch.logisim.fpga.hdlgenerator.Hdl;
@@ -88,14 +89,15 @@ public class CircuitHdlGeneratorFactory extends AbstractHdlGeneratorFactory {
   }
 
   @Override
-  public boolean generateAllHDLDescriptions(Set<String> handledComponents, String workingDir, List<String> hierarchy) {
-    return generateAllHDLDescriptions(handledComponents, workingDir, hierarchy, false);
+  public boolean generateAllHDLDescriptions(Set<String> handledComponents, String workingDir, List<String> hierarchy, HdlFileWriter writer) {
+    return generateAllHDLDescriptions(handledComponents, workingDir, hierarchy, writer, false);
   }
 
   public boolean generateAllHDLDescriptions(
       Set<String> handledComponents,
       String workingDir,
       List<String> hierarchy,
+      HdlFileWriter writer,
       boolean gatedInstance) {
     if (myCircuit == null) {
       return false;
@@ -132,6 +134,7 @@ public class CircuitHdlGeneratorFactory extends AbstractHdlGeneratorFactory {
         }
         if (!worker.isOnlyInlined()) {
           if (!Hdl.writeEntity(
+              writer,
               workPath + worker.getRelativeDirectory(),
               worker.getEntity(
                   myNetList,
@@ -141,6 +144,7 @@ public class CircuitHdlGeneratorFactory extends AbstractHdlGeneratorFactory {
             return false;
           }
           if (!Hdl.writeArchitecture(
+              writer,
               workPath + worker.getRelativeDirectory(),
               worker.getArchitecture(
                   myNetList,
@@ -172,7 +176,7 @@ public class CircuitHdlGeneratorFactory extends AbstractHdlGeneratorFactory {
           CorrectLabel.getCorrectLabel(
               thisCircuit.getComponent().getAttributeSet().getValue(StdAttr.LABEL)));
       if (!worker.generateAllHDLDescriptions(
-          handledComponents, workingDir, hierarchy, thisCircuit.isGatedInstance())) {
+          handledComponents, workingDir, hierarchy, writer, thisCircuit.isGatedInstance())) {
         return false;
       }
       hierarchy.remove(hierarchy.size() - 1);
@@ -182,6 +186,7 @@ public class CircuitHdlGeneratorFactory extends AbstractHdlGeneratorFactory {
     if (gatedInstance) componentName = componentName.concat("_gated");
     if (!handledComponents.contains(componentName)) {
       if (!Hdl.writeEntity(
+          writer,
           workPath + getRelativeDirectory(),
           getEntity(myNetList, null, componentName),
           componentName)) {
@@ -189,6 +194,7 @@ public class CircuitHdlGeneratorFactory extends AbstractHdlGeneratorFactory {
       }
 
       if (!Hdl.writeArchitecture(
+          writer,
           workPath + getRelativeDirectory(),
           getArchitecture(myNetList, null, componentName),
           componentName)) {
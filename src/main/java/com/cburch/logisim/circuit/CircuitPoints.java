@@ -18,17 +18,30 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * The components attached to each point of a circuit. Points are only changed while holding the
+ * lock on the owning CircuitWires, but the simulation thread reads them at any time; so the data
+ * of a point is never modified, but replaced as a whole.
+ */
 class CircuitPoints {
   private static class LocationData {
-    BitWidth width = BitWidth.UNKNOWN;
-    final ArrayList<Component> components = new ArrayList<>(4);
-    final ArrayList<EndData> ends = new ArrayList<>(4);
+    final BitWidth width;
+    final List<Component> components;
+    final List<EndData> ends;
     // these lists are parallel - ends corresponding to wires are null
+
+    LocationData(BitWidth width, ArrayList<Component> components, ArrayList<EndData> ends) {
+      this.width = width;
+      this.components = Collections.unmodifiableList(components);
+      this.ends = Collections.unmodifiableList(ends);
+    }
   }
 
-  private final HashMap<Location, LocationData> map = new HashMap<>();
+  private final ConcurrentHashMap<Location, LocationData> map = new ConcurrentHashMap<>();
   private final HashMap<Location, WidthIncompatibilityData> incompatibilityData = new HashMap<>();
 
   public CircuitPoints() {
@@ -56,36 +69,34 @@ class CircuitPoints {
   }
 
   private void addSub(Location loc, Component comp, EndData endData) {
-    var locData = map.get(loc);
-    if (locData == null) {
-      locData = new LocationData();
-      map.put(loc, locData);
-    }
-    locData.components.add(comp);
-    locData.ends.add(endData);
-    computeIncompatibilityData(loc, locData);
+    final var locData = map.get(loc);
+    final var components =
+        locData == null ? new ArrayList<Component>(4) : new ArrayList<>(locData.components);
+    final var ends = locData == null ? new ArrayList<EndData>(4) : new ArrayList<>(locData.ends);
+    components.add(comp);
+    ends.add(endData);
+    update(loc, components, ends);
   }
 
-  private void computeIncompatibilityData(Location loc, LocationData locData) {
+  /** Replaces the data of the point and recomputes its width. */
+  private void update(Location loc, ArrayList<Component> components, ArrayList<EndData> ends) {
     WidthIncompatibilityData error = null;
-    if (locData != null) {
-      var width = BitWidth.UNKNOWN;
-      for (final var endData : locData.ends) {
-        if (endData != null) {
-          final var endWidth = endData.getWidth();
-          if (width == BitWidth.UNKNOWN) {
-            width = endWidth;
-          } else if (width != endWidth && endWidth != BitWidth.UNKNOWN) {
-            if (error == null) {
-              error = new WidthIncompatibilityData();
-              error.add(loc, width);
-            }
-            error.add(loc, endWidth);
+    var width = BitWidth.UNKNOWN;
+    for (final var endData : ends) {
+      if (endData != null) {
+        final var endWidth = endData.getWidth();
+        if (width == BitWidth.UNKNOWN) {
+          width = endWidth;
+        } else if (width != endWidth && endWidth != BitWidth.UNKNOWN) {
+          if (error == null) {
+            error = new WidthIncompatibilityData();
+            error.add(loc, width);
           }
+          error.add(loc, endWidth);
         }
       }
-      locData.width = width;
     }
+    map.put(loc, new LocationData(width, components, ends));
 
     if (error == null) {
       incompatibilityData.remove(loc);
@@ -164,6 +175,16 @@ class CircuitPoints {
     return map.keySet();
   }
 
+  /** Returns the widths of all points whose width is known. */
+  HashMap<Location, BitWidth> getWidths() {
+    final var ret = new HashMap<Location, BitWidth>();
+    for (final var entry : map.entrySet()) {
+      final var width = entry.getValue().width;
+      if (width != BitWidth.UNKNOWN) ret.put(entry.getKey(), width);
+    }
+    return ret;
+  }
+
   BitWidth getWidth(Location loc) {
     final var locData = map.get(loc);
     return locData == null ? BitWidth.UNKNOWN : locData.width;
@@ -220,9 +241,11 @@ class CircuitPoints {
       map.remove(loc);
       incompatibilityData.remove(loc);
     } else {
-      locData.components.remove(index);
-      locData.ends.remove(index);
-      computeIncompatibilityData(loc, locData);
+      final var components = new ArrayList<>(locData.components);
+      final var ends = new ArrayList<>(locData.ends);
+      components.remove(index);
+      ends.remove(index);
+      update(loc, components, ends);
     }
   }
 }
@@ -9,16 +9,17 @@
 
 package com.cburch.logisim.circuit;
 
-import com.cburch.logisim.circuit.Propagator.SetData;
 import com.cburch.logisim.comp.Component;
 import com.cburch.logisim.comp.ComponentDrawContext;
 import com.cburch.logisim.comp.ComponentState;
 import com.cburch.logisim.data.Location;
 import com.cburch.logisim.data.Value;
 import com.cburch.logisim.instance.Instance;
+import com.cburch.logisim.instance.InstanceComponent;
 import com.cburch.logisim.instance.InstanceData;
 import com.cburch.logisim.instance.InstanceFactory;
 import com.cburch.logisim.instance.InstanceState;
+import com.cburch.logisim.instance.InstanceStateImpl;
 import com.cburch.logisim.proj.Project;
 import com.cburch.logisim.std.io.extra.Buzzer;
 import com.cburch.logisim.std.memory.Ram;
@@ -26,12 +27,13 @@ import com.cburch.logisim.std.memory.RamState;
 import com.cburch.logisim.std.wiring.Clock;
 import com.cburch.logisim.std.wiring.Pin;
 import java.util.Collection;
-import java.util.ConcurrentModificationException;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class CircuitState implements InstanceData {
 
@@ -40,6 +42,15 @@ public class CircuitState implements InstanceData {
     public void circuitChanged(CircuitEvent event) {
       int action = event.getAction();
 
+      if (action == CircuitEvent.ACTION_ADD
+          || action == CircuitEvent.ACTION_REMOVE
+          || action == CircuitEvent.ACTION_CLEAR
+          || action == CircuitEvent.TRANSACTION_DONE) {
+        // The edit may have voided the bundle map, which is rebuilt when the points are processed.
+        enrollPoints();
+        if (base != null) base.invalidateLevelized();
+      }
+
       if (action == CircuitEvent.ACTION_ADD) {
         /* Component was added */
         final var comp = (Component) event.getData();
@@ -48,19 +59,25 @@ public class CircuitState implements InstanceData {
           markPointAsDirty(wire.getEnd1());
         } else {
           markComponentAsDirty(comp);
+          if (comp.getFactory() instanceof Clock && base != null) {
+            base.updateClocks(CircuitState.this);
+          }
         }
       } else if (action == CircuitEvent.ACTION_REMOVE) {
         /* Component was removed */
         final var comp = (Component) event.getData();
+        instanceStates.remove(comp);
         if (comp == temporaryClock) temporaryClock = null;
         if (comp.getFactory() instanceof Clock) {
           knownClocks = false; // just in case, will be recomputed by simulator
+          if (base != null) base.updateClocks(CircuitState.this);
         }
         if (comp.getFactory() instanceof SubcircuitFactory) {
           knownClocks = false; // just in case, will be recomputed by simulator
           // disconnect from tree
           final var subState = (CircuitState) getData(comp);
           if (subState != null && subState.parentComp == comp) {
+            if (base != null) base.removeClocks(subState);
             subStates.remove(subState);
             subState.parentState = null;
             subState.parentComp = null;
@@ -80,7 +97,12 @@ public class CircuitState implements InstanceData {
         /* Whole circuit was cleared */
         temporaryClock = null;
         knownClocks = false;
+        if (base != null) {
+          for (final var sub : subStates) base.removeClocks(sub);
+          base.updateClocks(CircuitState.this);
+        }
         subStates.clear();
+        instanceStates.clear();
         wireData = null;
         for (final var comp : componentData.keySet()) {
           if (componentData.get(comp) instanceof ComponentDataGuiProvider dataGuiProvider)
@@ -90,10 +112,9 @@ public class CircuitState implements InstanceData {
           }
         }
         componentData.clear();
-        values.clear();
+        valueTable = new ValueTable(circuit.wires.getLocationIndex());
         dirtyComponents.clear();
         dirtyPoints.clear();
-        causes.clear();
       } else if (action == CircuitEvent.ACTION_INVALIDATE) {
         final var comp = (Component) event.getData();
         markComponentAsDirty(comp);
@@ -106,6 +127,7 @@ public class CircuitState implements InstanceData {
         final var map = event.getResult().getReplacementMap(circuit);
         if (map == null) return;
         for (final var comp : map.getRemovals()) {
+          instanceStates.remove(comp);
           final var compState = componentData.remove(comp);
           if (compState != null) continue;
           Class<?> compFactory = comp.getFactory().getClass();
@@ -120,9 +142,11 @@ public class CircuitState implements InstanceData {
           if (!found && compState instanceof RamState state) Ram.closeHexFrame(state);
           if (!found && compState instanceof CircuitState sub) {
             sub.parentState = null;
+            if (base != null) base.removeClocks(sub);
             subStates.remove(sub);
           }
         }
+        if (base != null) base.updateClocks(CircuitState.this);
       }
     }
   }
@@ -139,17 +163,34 @@ public class CircuitState implements InstanceData {
 
   private CircuitWires.State wireData = null;
   private final HashMap<Component, Object> componentData = new HashMap<>();
-  private final Map<Location, Value> values = new HashMap<>();
-  private CopyOnWriteArraySet<Component> dirtyComponents = new CopyOnWriteArraySet<>();
-  private final CopyOnWriteArraySet<Location> dirtyPoints = new CopyOnWriteArraySet<>();
-  final HashMap<Location, SetData> causes = new HashMap<>();
-
-  private static int lastId = 0;
-  private final int id = lastId++;
+  private final ConcurrentHashMap<Component, InstanceState> instanceStates =
+      new ConcurrentHashMap<>();
+  // wire values and driver lists, indexed by the circuit's location ids
+  private volatile ValueTable valueTable;
+  private final DirtySet<Component> dirtyComponents = new DirtySet<>();
+  private final DirtySet<Location> dirtyPoints = new DirtySet<>();
+  private ComponentPointSet handledPoints = null; // created on first propagation step
+  // set while this state waits in its propagator's list of states with dirty points/components
+  private final AtomicBoolean pointsEnrolled = new AtomicBoolean();
+  private final AtomicBoolean componentsEnrolled = new AtomicBoolean();
+  // the last pass of Propagator.processDirtyComponents() that handled this state
+  long componentPass = 0;
+  // the components whose outputs the levelized engine drives; they are not propagated
+  volatile Set<Component> compiledComponents = null;
+  // the last frame of the propagator's ChangedArea to which this substate reported a change
+  private long changeFrame = -1;
+
+  // states are created on several threads, such as the simulation and event threads
+  private static final AtomicInteger lastId = new AtomicInteger(0);
+  private final int id = lastId.getAndIncrement();
+
+  /** Orders states by creation, which puts each state after the state containing it. */
+  static final Comparator<CircuitState> CREATION_ORDER = Comparator.comparingInt(s -> s.id);
 
   public CircuitState(Project proj, Circuit circuit) {
     this.proj = proj;
     this.circuit = circuit;
+    this.valueTable = new ValueTable(circuit.wires.getLocationIndex());
     circuit.addCircuitListener(myCircuitListener);
   }
 
@@ -167,7 +208,7 @@ public class CircuitState implements InstanceData {
   }
 
   public boolean containsKey(Location pt) {
-    return values.containsKey(pt);
+    return valueTable.getValue(pt) != null;
   }
 
   private void copyFrom(CircuitState src, Propagator base) {
@@ -194,17 +235,19 @@ public class CircuitState implements InstanceData {
         this.componentData.put(key, newValue);
       }
     }
-    for (final var key : src.causes.keySet()) {
-      final var oldValue = src.causes.get(key);
-      final var newValue = oldValue.cloneFor(this);
-      this.causes.put(key, newValue);
-    }
+    final var srcTable = src.valueTable;
+    final var table = getValueTable();
+    srcTable.forEachCause(
+        (id, head) -> table.setCause(table.id(srcTable.getLocation(id)), head.cloneFor(this)));
     if (src.wireData != null) {
       this.wireData = (CircuitWires.State) src.wireData.clone();
     }
-    this.values.putAll(src.values);
-    this.dirtyComponents.addAll(src.dirtyComponents);
-    this.dirtyPoints.addAll(src.dirtyPoints);
+    table.copyValuesFrom(srcTable);
+    src.dirtyComponents.copyTo(this.dirtyComponents);
+    src.dirtyPoints.copyTo(this.dirtyPoints);
+    enrollPoints();
+    enrollComponents();
+    base.updateClocks(this);
   }
 
   public void drawOscillatingPoints(ComponentDrawContext context) {
@@ -218,20 +261,53 @@ public class CircuitState implements InstanceData {
     return circuit;
   }
 
-  Value getComponentOutputAt(Location p) {
-    // for CircuitWires - to get values, ignoring wires' contributions
-    final var causeList = causes.get(p);
-    return Propagator.computeValue(causeList);
+  /**
+   * Records that the value emitted by cause at loc has been handled during the given propagation
+   * step.
+   *
+   * @return false if it was already handled during this step.
+   */
+  boolean markHandled(long step, Component cause, Location loc) {
+    if (handledPoints == null) handledPoints = new ComponentPointSet();
+    return handledPoints.add(step, cause, loc);
+  }
+
+  /**
+   * Returns the value table, first moving its contents over to the circuit's current location
+   * index if that has been replaced. Only the simulation side should call this; readers use the
+   * table as it is.
+   */
+  ValueTable getValueTable() {
+    var table = valueTable;
+    final var index = circuit.wires.getLocationIndex();
+    if (table.index != index) {
+      table = table.migrateTo(index);
+      valueTable = table;
+    }
+    return table;
   }
 
   public Object getData(Component comp) {
     return componentData.get(comp);
   }
 
+  /**
+   * Returns the state of the component in this circuit state. It is created once and then reused
+   * for every propagation of the component, as it holds nothing but the two of them.
+   */
   public InstanceState getInstanceState(Component comp) {
     final var factory = comp.getFactory();
     if (factory instanceof InstanceFactory instanceFactory) {
-      return instanceFactory.createInstanceState(this, comp);
+      var ret = instanceStates.get(comp);
+      if (ret == null) {
+        ret = instanceFactory.createInstanceState(this, comp);
+        instanceStates.put(comp, ret);
+      } else if (comp instanceof InstanceComponent instComp
+          && ret instanceof InstanceStateImpl impl) {
+        // as when the state is created: the component knows the state it was used in last
+        instComp.setInstanceStateImpl(impl);
+      }
+      return ret;
     }
     throw new RuntimeException("getInstanceState requires instance component");
   }
@@ -239,11 +315,40 @@ public class CircuitState implements InstanceData {
   public InstanceState getInstanceState(Instance instance) {
     final var factory = instance.getFactory();
     if (factory instanceof InstanceFactory) {
-      return factory.createInstanceState(this, instance);
+      return getInstanceState(instance.getComponent());
     }
     throw new RuntimeException("getInstanceState() requires instance component");
   }
 
+  /**
+   * Returns the slots of the component's ends in this state's values, or the given slots if they
+   * are still valid.
+   */
+  public PortSlots getPortSlots(Component comp, PortSlots slots) {
+    final var index = valueTable.index;
+    final var ends = comp.getEnds();
+    // an instance component replaces its ends in place, so the list alone does not tell
+    final var version = comp instanceof InstanceComponent instComp ? instComp.getEndsVersion() : 0;
+    if (slots != null
+        && slots.ends == ends
+        && slots.endsVersion == version
+        && slots.index == index) {
+      return slots;
+    }
+    return new PortSlots(ends, version, index);
+  }
+
+  /** Returns the value at an end of a component, like {@link #getValue} at its location. */
+  public Value getPortValue(PortSlots slots, int port) {
+    final var table = valueTable;
+    final var ret =
+        table.index == slots.index
+            ? table.getValue(slots.ids[port])
+            : table.getValue(slots.locations[port]);
+    if (ret != null) return ret;
+    return Value.createUnknown(circuit.getWidth(slots.locations[port]));
+  }
+
   public CircuitState getParentState() {
     return parentState;
   }
@@ -255,7 +360,9 @@ public class CircuitState implements InstanceData {
   public Propagator getPropagator() {
     if (base == null) {
       base = new Propagator(this);
+      base.addClocks(this);
       markAllComponentsDirty();
+      enrollPoints();
     }
     return base;
   }
@@ -269,7 +376,7 @@ public class CircuitState implements InstanceData {
   }
 
   public Value getValue(Location pt) {
-    final var ret = values.get(pt);
+    final var ret = valueTable.getValue(pt);
     if (ret != null) return ret;
 
     final var wid = circuit.getWidth(pt);
@@ -277,7 +384,7 @@ public class CircuitState implements InstanceData {
   }
 
   Value getValueByWire(Location p) {
-    return values.get(p);
+    return valueTable.getValue(p);
   }
 
   CircuitWires.State getWireData() {
@@ -296,92 +403,126 @@ public class CircuitState implements InstanceData {
   //
   private void markAllComponentsDirty() {
     dirtyComponents.addAll(circuit.getNonWires());
+    enrollComponents();
   }
 
   public void markComponentAsDirty(Component comp) {
-    try {
-      dirtyComponents.add(comp);
-    } catch (RuntimeException e) {
-      final var set = new CopyOnWriteArraySet<Component>();
-      set.add(comp);
-      dirtyComponents = set;
-    }
+    dirtyComponents.add(comp);
+    enrollComponents();
   }
 
   public void markComponentsDirty(Collection<Component> comps) {
     dirtyComponents.addAll(comps);
+    enrollComponents();
   }
 
   public void markPointAsDirty(Location pt) {
     dirtyPoints.add(pt);
+    enrollPoints();
   }
 
-  void processDirtyComponents() {
-    if (!dirtyComponents.isEmpty()) {
-      // This seeming wasted copy is to avoid ConcurrentModifications
-      // if we used an iterator instead.
-      Object[] toProcess;
-      RuntimeException firstException = null;
-      for (var tries = 4; true; tries--) {
-        try {
-          toProcess = dirtyComponents.toArray();
-          break;
-        } catch (RuntimeException e) {
-          if (firstException == null) firstException = e;
-          if (tries == 0) {
-            toProcess = new Object[0];
-            dirtyComponents = new CopyOnWriteArraySet<>();
-            throw firstException;
-          }
-        }
-      }
-      dirtyComponents.clear();
-      for (final var compObj : toProcess) {
-        if (compObj instanceof Component comp) {
-          comp.propagate(this);
-          if (comp.getFactory() instanceof Pin && parentState != null) {
-            // should be propagated in superstate
-            parentComp.propagate(parentState);
-          }
-        }
-      }
+  /** Puts this state in its propagator's list of states with dirty points, unless it is there. */
+  private void enrollPoints() {
+    final var prop = base;
+    if (prop != null && !pointsEnrolled.get() && pointsEnrolled.compareAndSet(false, true)) {
+      prop.enrollPoints(this);
     }
+  }
 
-    final var subs = new CircuitState[subStates.size()];
-    for (final var substate : subStates.toArray(subs)) {
-      substate.processDirtyComponents();
+  private void enrollComponents() {
+    final var prop = base;
+    if (prop != null
+        && !componentsEnrolled.get()
+        && componentsEnrolled.compareAndSet(false, true)) {
+      prop.enrollComponents(this);
     }
   }
 
-  void processDirtyPoints() {
-    final var dirty = new HashSet<>(dirtyPoints);
-    dirtyPoints.clear();
-    if (circuit.wires.isMapVoided()) {
-      for (var i = 3; i >= 0; i--) {
-        try {
-          dirty.addAll(circuit.wires.points.getSplitLocations());
-          break;
-        } catch (ConcurrentModificationException e) {
-          // try again...
-          try {
-            Thread.sleep(1);
-          } catch (InterruptedException ignored) {
-          }
-          if (i == 0) e.printStackTrace();
-        }
-      }
+  /**
+   * Records a change of the drawing in the given area if a canvas shows this state. If it shows a
+   * state containing this one, the subcircuit component leading here is recorded instead, once per
+   * frame.
+   */
+  private void noteChange(int x, int y, int width, int height) {
+    final var prop = base;
+    final var area = prop == null ? null : prop.getChangedArea();
+    if (area == null) return;
+    final var shown = area.getState();
+    if (shown == this) {
+      area.add(x, y, width, height);
+      return;
     }
-    if (!dirty.isEmpty()) {
-      circuit.wires.propagate(this, dirty);
+    final var frame = area.getFrame();
+    if (changeFrame == frame) return;
+    changeFrame = frame;
+    for (var state = this; state.parentState != null; state = state.parentState) {
+      if (state.parentState == shown) {
+        final var comp = state.parentComp;
+        if (comp != null) area.add(comp.getBounds());
+        return;
+      }
     }
+  }
 
-    final var subs = new CircuitState[subStates.size()];
-    for (final var substate : subStates.toArray(subs)) {
-      /* TODO: Analyze why this bug happens, e.g. a substate that is null! */
-      if (substate != null) substate.processDirtyPoints();
+  /** Returns false if this state has been removed from the tree of its propagator. */
+  private boolean isAttached() {
+    var state = this;
+    while (state.parentState != null) state = state.parentState;
+    return base != null && state == base.getRootState();
+  }
+
+  /**
+   * Propagates the dirty components of this state, but not of its substates. Called by the
+   * propagator for the states in its list.
+   */
+  void processOwnDirtyComponents() {
+    componentsEnrolled.set(false);
+    if (!isAttached()) return;
+    dirtyComponents.drain(this::propagateComponent);
+  }
+
+  private void propagateComponent(Component comp) {
+    final var bds = comp.getBounds();
+    noteChange(bds.getX(), bds.getY(), bds.getWidth(), bds.getHeight());
+    final var compiled = compiledComponents;
+    if (compiled != null && compiled.contains(comp)) return;
+    comp.propagate(this);
+    if (comp.getFactory() instanceof Pin && parentState != null) {
+      // should be propagated in superstate
+      parentComp.propagate(parentState);
     }
   }
 
+  /**
+   * Propagates the dirty points of this state, but not of its substates, along the wires. This
+   * only touches this state. Called by the propagator for the states in its list.
+   */
+  void processOwnDirtyPoints() {
+    final var dirty = takeDirtyPoints();
+    if (dirty != null) propagatePoints(dirty);
+  }
+
+  /**
+   * Takes the dirty points of this state, but not of its substates, or returns null if there are
+   * none. Called on the thread driving the propagator.
+   */
+  Set<Location> takeDirtyPoints() {
+    pointsEnrolled.set(false);
+    if (!isAttached()) return null;
+    final var dirty = new HashSet<Location>();
+    dirtyPoints.drain(dirty::add);
+    if (circuit.wires.isMapVoided()) dirty.addAll(circuit.wires.points.getSplitLocations());
+    return dirty.isEmpty() ? null : dirty;
+  }
+
+  /**
+   * Propagates the given points along the wires. This only touches this state, so the parallel
+   * engine may run it for several states at once.
+   */
+  void propagatePoints(Set<Location> dirty) {
+    circuit.wires.propagate(this, dirty);
+  }
+
   void reset() {
     temporaryClock = null;
     wireData = null;
@@ -399,10 +540,9 @@ public class CircuitState implements InstanceData {
         componentData.put(comp, null);
       }
     }
-    values.clear();
+    valueTable = new ValueTable(circuit.wires.getLocationIndex());
     dirtyComponents.clear();
     dirtyPoints.clear();
-    causes.clear();
     markAllComponentsDirty();
 
     for (CircuitState sub : subStates) {
@@ -419,6 +559,7 @@ public class CircuitState implements InstanceData {
         // removed.
         if (oldState != null && oldState.parentComp == comp) {
           // it looks like it's being removed
+          if (base != null) base.removeClocks(oldState);
           subStates.remove(oldState);
           oldState.parentState = null;
           oldState.parentComp = null;
@@ -431,6 +572,8 @@ public class CircuitState implements InstanceData {
           newState.parentState = this;
           newState.parentComp = comp;
           newState.markAllComponentsDirty();
+          newState.enrollPoints();
+          if (base != null) base.addClocks(newState);
         }
       }
     } else {
@@ -445,17 +588,29 @@ public class CircuitState implements InstanceData {
     if (base != null) base.setValue(this, pt, val, cause, delay);
   }
 
+  /** Sets the value at an end of a component, like {@link #setValue} at its location. */
+  public void setPortValue(PortSlots slots, int port, Value val, Component cause, int delay) {
+    if (base != null) base.setValue(this, slots, port, val, cause, delay);
+  }
+
   void setValueByWire(Location p, Value v) {
+    final var table = getValueTable();
+    setValueByWire(table, table.id(p), v);
+  }
+
+  void setValueByWire(ValueTable table, int id, Value v) {
     // for CircuitWires - to set value at point
     boolean changed;
     if (v == Value.NIL) {
-      final var old = values.remove(p);
+      final var old = table.putValue(id, null);
       changed = (old != null && old != Value.NIL);
     } else {
-      final var old = values.put(p, v);
+      final var old = table.putValue(id, v);
       changed = !v.equals(old);
     }
     if (changed) {
+      final var p = table.getLocation(id);
+      noteChange(p.getX(), p.getY(), 0, 0);
       var found = false;
       for (final var comp : circuit.getComponents(p)) {
         if (!(comp instanceof Wire) && !(comp instanceof Splitter)) {
@@ -474,6 +629,10 @@ public class CircuitState implements InstanceData {
     wireData = data;
   }
 
+  /**
+   * Toggles the clocks of this state, not those of its substates; the propagator keeps the list
+   * of states that have clocks.
+   */
   boolean toggleClocks(int ticks) {
     var ret = false;
     if (temporaryClock != null)
@@ -481,13 +640,14 @@ public class CircuitState implements InstanceData {
 
     for (final var clock : circuit.getClocks())
       ret |= Clock.tick(this, ticks, clock);
-
-    final var subs = new CircuitState[subStates.size()];
-    for (final var substate : subStates.toArray(subs))
-      ret |= substate.toggleClocks(ticks);
     return ret;
   }
 
+  /** Returns true if this state has clocks to toggle on a tick. */
+  boolean hasClocks() {
+    return temporaryClock != null || !circuit.getClocks().isEmpty();
+  }
+
   private boolean temporaryClockValidateOrTick(int ticks) {
     // temporaryClock.getFactory() will be Pin, normally a 1 bit input
     try {
@@ -523,6 +683,7 @@ public class CircuitState implements InstanceData {
 
   public boolean setTemporaryClock(Component clk) {
     temporaryClock = clk;
+    if (base != null) base.updateClocks(this);
     return clk == null || temporaryClockValidateOrTick(-1);
   }
 
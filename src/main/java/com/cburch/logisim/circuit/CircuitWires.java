@@ -28,14 +28,12 @@ import com.cburch.logisim.util.IteratorUtil;
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
-import java.util.concurrent.CopyOnWriteArraySet;
-import javax.swing.SwingUtilities;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -44,6 +42,9 @@ class CircuitWires {
   static class BundleMap {
     final HashMap<Location, WireBundle> pointBundles = new HashMap<>();
     final HashSet<WireBundle> bundles = new HashSet<>();
+    // the threads and the bundles having threads, indexed by their ids
+    WireThread[] threads = new WireThread[0];
+    WireBundle[] threadBundles = new WireBundle[0];
     boolean isValid = true;
     // NOTE: It would make things more efficient if we also had
     // a set of just the first bundle in each tree.
@@ -97,25 +98,90 @@ class CircuitWires {
   }
 
   static class SplitterData {
+    final EndData[] ends;
+    final byte[] bitEnd;
+    final byte[] bitThread;
     final WireBundle[] endBundle; // PointData associated with each end
 
-    SplitterData(int fanOut) {
-      endBundle = new WireBundle[fanOut + 1];
+    SplitterData(Splitter spl) {
+      synchronized (spl) {
+        ends = spl.getEnds().toArray(new EndData[0]);
+        bitEnd = ((SplitterAttributes) spl.getAttributeSet()).bitEnd.clone();
+        bitThread = spl.bitThread.clone();
+      }
+      endBundle = new WireBundle[ends.length];
+    }
+  }
+
+  /**
+   * The user-given data a bundle map is computed from. It is copied while holding the lock on the
+   * CircuitWires, so that the map can then be computed on any thread while the circuit is edited.
+   */
+  private static class Snapshot {
+    final int version;
+    final Wire[] wires;
+    final Splitter[] splitters;
+    final Location[] tunnelLocations;
+    final String[] tunnelLabels;
+    final Location[] pullLocations;
+    final Value[] pullValues;
+    final HashMap<Location, BitWidth> widths;
+    final ArrayList<WidthIncompatibilityData> incompatibilityData;
+    SplitterData[] splitterData;
+
+    Snapshot(CircuitWires src) {
+      version = src.version;
+      wires = src.wires.toArray(new Wire[0]);
+      splitters = src.splitters.toArray(new Splitter[0]);
+      tunnelLocations = new Location[src.tunnels.size()];
+      tunnelLabels = new String[tunnelLocations.length];
+      var i = 0;
+      for (final var comp : src.tunnels) {
+        tunnelLocations[i] = comp.getLocation();
+        tunnelLabels[i] = comp.getAttributeSet().getValue(StdAttr.LABEL).trim();
+        i++;
+      }
+      pullLocations = new Location[src.pulls.size()];
+      pullValues = new Value[pullLocations.length];
+      i = 0;
+      for (final var comp : src.pulls) {
+        pullLocations[i] = comp.getEnd(0).getLocation();
+        pullValues[i] = PullResistor.getPullValue(Instance.getInstanceFor(comp));
+        i++;
+      }
+      widths = src.points.getWidths();
+      incompatibilityData = new ArrayList<>(src.points.getWidthIncompatibilityData());
+    }
+
+    /** Copies the splitter data; called without holding the lock on the CircuitWires. */
+    void copySplitters() {
+      splitterData = new SplitterData[splitters.length];
+      for (var i = 0; i < splitters.length; i++) {
+        splitterData[i] = new SplitterData(splitters[i]);
+      }
+    }
+
+    BitWidth getWidth(Location loc) {
+      return widths.getOrDefault(loc, BitWidth.UNKNOWN);
     }
   }
 
   static class State {
     final BundleMap bundleMap;
-    final HashMap<WireThread, Value> thrValues = new HashMap<>();
+    final Value[] thrValues; // indexed by thread id
+    // scratch sets of propagate(), empty in between
+    final BitSet dirtyThreads = new BitSet();
+    final BitSet dirtyBundles = new BitSet();
 
     State(BundleMap bundleMap) {
       this.bundleMap = bundleMap;
+      this.thrValues = new Value[bundleMap.threads.length];
     }
 
     @Override
     public Object clone() {
       final var ret = new State(this.bundleMap);
-      ret.thrValues.putAll(this.thrValues);
+      System.arraycopy(this.thrValues, 0, ret.thrValues, 0, thrValues.length);
       return ret;
     }
   }
@@ -181,7 +247,10 @@ class CircuitWires {
   // derived data
   private Bounds bounds = Bounds.EMPTY_BOUNDS;
 
-  private BundleMap masterBundleMap = null;
+  private volatile BundleMap masterBundleMap = null;
+  // incremented whenever the bundle map is voided; guarded by this
+  private int version;
+  private volatile LocationIndex locationIndex = new LocationIndex();
 
   CircuitWires() {}
 
@@ -190,7 +259,7 @@ class CircuitWires {
   //
   // NOTE: this could be made much more efficient in most cases to
   // avoid voiding the bundle map.
-  /*synchronized*/ boolean add(Component comp) {
+  synchronized boolean add(Component comp) {
     var added = true;
     if (comp instanceof Wire wire) {
       added = addWire(wire);
@@ -213,7 +282,7 @@ class CircuitWires {
     return added;
   }
 
-  /*synchronized*/ void add(Component comp, EndData end) {
+  synchronized void add(Component comp, EndData end) {
     points.add(comp, end);
     voidBundleMap();
   }
@@ -229,11 +298,11 @@ class CircuitWires {
   }
 
   // To be called by getBundleMap only
-  private void computeBundleMap(BundleMap ret) {
+  private static void computeBundleMap(Snapshot snapshot, BundleMap ret) {
     // create bundles corresponding to wires and tunnels
-    connectWires(ret);
-    connectTunnels(ret);
-    connectPullResistors(ret);
+    connectWires(snapshot, ret);
+    connectTunnels(snapshot, ret);
+    connectPullResistors(snapshot, ret);
 
     // merge any WireBundle objects united by previous steps
     for (final var it = ret.getBundles().iterator(); it.hasNext(); ) {
@@ -250,9 +319,8 @@ class CircuitWires {
     }
 
     // make a WireBundle object for each end of a splitter
-    for (final var spl : splitters) {
-      final var ends = new ArrayList<>(spl.getEnds());
-      for (final var end : ends) {
+    for (final var spl : snapshot.splitterData) {
+      for (final var end : spl.ends) {
         final var p = end.getLocation();
         final var pb = ret.createBundleAt(p);
         pb.setWidth(end.getWidth(), p);
@@ -263,75 +331,78 @@ class CircuitWires {
     // based on components
     for (final var p : ret.getBundlePoints()) {
       final var pb = ret.getBundleAt(p);
-      final var width = points.getWidth(p);
+      final var width = snapshot.getWidth(p);
       if (width != BitWidth.UNKNOWN) {
         pb.setWidth(width, p);
       }
     }
 
     // determine the bundles at the end of each splitter
-    for (final var spl : splitters) {
-      final var ends = new ArrayList<>(spl.getEnds());
-      int index = -1;
-      for (final var end : ends) {
-        index++;
+    for (final var spl : snapshot.splitterData) {
+      for (var index = 0; index < spl.ends.length; index++) {
+        final var end = spl.ends[index];
         final var p = end.getLocation();
         final var pb = ret.getBundleAt(p);
         if (pb != null) {
           pb.setWidth(end.getWidth(), p);
-          spl.wireData.endBundle[index] = pb;
+          spl.endBundle[index] = pb;
         }
       }
     }
 
     // unite threads going through splitters
-    for (final var spl : splitters) {
-      synchronized (spl) {
-        final var splAttrs = (SplitterAttributes) spl.getAttributeSet();
-        final var bitEnd = splAttrs.bitEnd;
-        final var splData = spl.wireData;
-        final var fromBundle = splData.endBundle[0];
-        if (fromBundle == null || !fromBundle.isValid()) continue;
-
-        for (var i = 0; i < bitEnd.length; i++) {
-          var j = bitEnd[i];
-          if (j > 0) {
-            var thr = spl.bitThread[i];
-            final var toBundle = splData.endBundle[j];
-            final var toThreads = toBundle.threads;
-            if (toThreads != null && toBundle.isValid()) {
-              final var fromThreads = fromBundle.threads;
-              if (i >= fromThreads.length) {
-                throw new ArrayIndexOutOfBoundsException("from " + i + " of " + fromThreads.length);
-              }
-              if (thr >= toThreads.length) {
-                throw new ArrayIndexOutOfBoundsException("to " + thr + " of " + toThreads.length);
-              }
-              fromThreads[i].unite(toThreads[thr]);
+    for (final var spl : snapshot.splitterData) {
+      final var bitEnd = spl.bitEnd;
+      final var fromBundle = spl.endBundle[0];
+      if (fromBundle == null || !fromBundle.isValid()) continue;
+
+      for (var i = 0; i < bitEnd.length; i++) {
+        var j = bitEnd[i];
+        if (j > 0) {
+          var thr = spl.bitThread[i];
+          final var toBundle = spl.endBundle[j];
+          final var toThreads = toBundle.threads;
+          if (toThreads != null && toBundle.isValid()) {
+            final var fromThreads = fromBundle.threads;
+            if (i >= fromThreads.length) {
+              throw new ArrayIndexOutOfBoundsException("from " + i + " of " + fromThreads.length);
+            }
+            if (thr >= toThreads.length) {
+              throw new ArrayIndexOutOfBoundsException("to " + thr + " of " + toThreads.length);
             }
+            fromThreads[i].unite(toThreads[thr]);
           }
         }
       }
     }
 
-    // merge any threads united by previous step
+    // merge any threads united by previous step, and number the threads and their bundles
+    final var threads = new ArrayList<WireThread>();
+    final var threadBundles = new ArrayList<WireBundle>();
     for (final var wireBundle : ret.getBundles()) {
       if (wireBundle.isValid() && wireBundle.threads != null) {
+        wireBundle.id = threadBundles.size();
+        threadBundles.add(wireBundle);
+        wireBundle.threadIds = new int[wireBundle.threads.length];
         for (int i = 0; i < wireBundle.threads.length; i++) {
           final var thr = wireBundle.threads[i].find();
           wireBundle.threads[i] = thr;
+          if (thr.id < 0) {
+            thr.id = threads.size();
+            threads.add(thr);
+          }
+          wireBundle.threadIds[i] = thr.id;
           thr.getBundles().add(new ThreadBundle(i, wireBundle));
         }
       }
     }
+    ret.threads = threads.toArray(new WireThread[0]);
+    ret.threadBundles = threadBundles.toArray(new WireBundle[0]);
 
     // All threads are sewn together! Compute the exception set before
     // leaving
-    final var exceptions = points.getWidthIncompatibilityData();
-    if (CollectionUtil.isNotEmpty(exceptions)) {
-      for (final var wid : exceptions) {
-        ret.addWidthIncompatibilityData(wid);
-      }
+    for (final var wid : snapshot.incompatibilityData) {
+      ret.addWidthIncompatibilityData(wid);
     }
     for (final var wireBundle : ret.getBundles()) {
       final var e = wireBundle.getWidthIncompatibilityData();
@@ -339,28 +410,27 @@ class CircuitWires {
     }
   }
 
-  private void connectPullResistors(BundleMap ret) {
-    for (final var comp : pulls) {
-      final var loc = comp.getEnd(0).getLocation();
+  private static void connectPullResistors(Snapshot snapshot, BundleMap ret) {
+    for (var i = 0; i < snapshot.pullLocations.length; i++) {
+      final var loc = snapshot.pullLocations[i];
       var b = ret.getBundleAt(loc);
       if (b == null) {
         b = ret.createBundleAt(loc);
         b.points.add(loc);
         ret.setBundleAt(loc, b);
       }
-      final var instance = Instance.getInstanceFor(comp);
-      b.addPullValue(PullResistor.getPullValue(instance));
+      b.addPullValue(snapshot.pullValues[i]);
     }
   }
 
-  private void connectTunnels(BundleMap ret) {
+  private static void connectTunnels(Snapshot snapshot, BundleMap ret) {
     // determine the sets of tunnels
     final var tunnelSets = new HashMap<String, ArrayList<Location>>();
-    for (final var comp : tunnels) {
-      final var label = comp.getAttributeSet().getValue(StdAttr.LABEL).trim();
+    for (var i = 0; i < snapshot.tunnelLabels.length; i++) {
+      final var label = snapshot.tunnelLabels[i];
       if (!label.equals("")) {
         final var tunnelSet = tunnelSets.computeIfAbsent(label, k -> new ArrayList<>(3));
-        tunnelSet.add(comp.getLocation());
+        tunnelSet.add(snapshot.tunnelLocations[i]);
       }
     }
 
@@ -394,9 +464,9 @@ class CircuitWires {
     }
   }
 
-  private void connectWires(BundleMap ret) {
+  private static void connectWires(Snapshot snapshot, BundleMap ret) {
     // make a WireBundle object for each tree of connected wires
-    for (final var wire : wires) {
+    for (final var wire : snapshot.wires) {
       final var bundleA = ret.getBundleAt(wire.e0);
       if (bundleA == null) {
         final var bundleB = ret.createBundleAt(wire.e1);
@@ -414,7 +484,13 @@ class CircuitWires {
     }
   }
 
-  void draw(ComponentDrawContext context, Collection<Component> hidden) {
+  /**
+   * Draws the wires and the dots where they join. If an area is given, only the given wires are
+   * drawn, which are those near the area, and the dots outside of it are skipped.
+   */
+  void draw(ComponentDrawContext context, Collection<Component> hidden,
+      Collection<Wire> near, Bounds area) {
+    final Collection<Wire> toDraw = area == null ? wires : near;
     final var showState = context.getShowState();
     final var state = context.getCircuitState();
     final var g = (Graphics2D) context.getGraphics();
@@ -425,7 +501,7 @@ class CircuitWires {
     final var bmap = getBundleMap();
     final var isValid = bmap.isValid();
     if (CollectionUtil.isNullOrEmpty(hidden)) {
-      for (final var wire : wires) {
+      for (final var wire : toDraw) {
         final var s = wire.e0;
         final var t = wire.e1;
         final var wb = bmap.getBundleAt(s);
@@ -470,6 +546,7 @@ class CircuitWires {
       }
 
       for (final var loc : points.getSplitLocations()) {
+        if (area != null && !area.contains(loc)) continue;
         if (points.getComponentCount(loc) > 2) {
           final var wb = bmap.getBundleAt(loc);
           if (wb != null) {
@@ -495,7 +572,7 @@ class CircuitWires {
         }
       }
     } else {
-      for (final var wire : wires) {
+      for (final var wire : toDraw) {
         if (!hidden.contains(wire)) {
           final var s = wire.e0;
           final var t = wire.e1;
@@ -522,6 +599,7 @@ class CircuitWires {
       // the problem is minor, and hidden only exists for a short
       // while at a time anway.
       for (final var loc : points.getSplitLocations()) {
+        if (area != null && !area.contains(loc)) continue;
         if (points.getComponentCount(loc) > 2) {
           var icount = 0;
           for (final var comp : points.getComponents(loc)) {
@@ -549,40 +627,37 @@ class CircuitWires {
     }
   }
 
-  // There are only two threads that need to use the bundle map, I think:
-  // the AWT event thread, and the simulation worker thread.
-  // AWT does modifications to the components and wires, then voids the
-  // masterBundleMap, and eventually recomputes a new map (if needed) during
-  // painting. AWT sometimes locks a splitter, then changes components and
-  // wires.
-  // Computing a new bundle map requires both locking splitters and touching
-  // the components and wires, so to avoid deadlock, only the AWT should
-  // create the new bundle map.
+  // The bundle map is used by the AWT event thread for painting and by the simulation thread for
+  // propagation. Whichever thread first needs it after an edit computes it: the user-given data
+  // is copied while holding the lock that also guards the edits, and the map is then computed
+  // from that copy without any lock held. It is only kept if no edit happened in the meantime;
+  // otherwise the caller uses it once and the next call computes a fresh one. The simulation
+  // thread thus never waits for the AWT event thread, and headless runs never involve it.
 
-  /*synchronized*/ private BundleMap getBundleMap() {
-    if (SwingUtilities.isEventDispatchThread()) {
-      // AWT event thread.
+  BundleMap getBundleMap() {
+    final var map = masterBundleMap;
+    if (map != null) return map;
+
+    final Snapshot snapshot;
+    synchronized (this) {
       if (masterBundleMap != null) return masterBundleMap;
-      final var ret = new BundleMap();
-      try {
-        computeBundleMap(ret);
-        masterBundleMap = ret;
-      } catch (Exception t) {
-        ret.invalidate();
-        logger.error(t.getLocalizedMessage());
-      }
+      snapshot = new Snapshot(this);
+    }
+    final var ret = new BundleMap();
+    try {
+      // Splitters are locked while they reconfigure, and then change the wires in turn; so
+      // they are only locked once the lock on this has been released.
+      snapshot.copySplitters();
+      computeBundleMap(snapshot, ret);
+    } catch (Exception t) {
+      ret.invalidate();
+      logger.error(t.getLocalizedMessage());
       return ret;
-    } else {
-      // Simulation thread.
-      try {
-        final var ret = new BundleMap[1];
-        SwingUtilities.invokeAndWait(() -> ret[0] = getBundleMap());
-        return ret[0];
-      } catch (Exception e) {
-        final var ret = new BundleMap();
-        ret.invalidate();
-        return ret;
-      }
+    }
+    synchronized (this) {
+      if (snapshot.version != version) return ret;
+      if (masterBundleMap == null) masterBundleMap = ret;
+      return masterBundleMap;
     }
   }
 
@@ -590,12 +665,12 @@ class CircuitWires {
     return IteratorUtil.createJoinedIterator(splitters.iterator(), wires.iterator());
   }
 
-  private Value getThreadValue(CircuitState state, WireThread t) {
+  private Value getThreadValue(ValueTable table, WireThread t) {
     var ret = Value.UNKNOWN;
     var pull = Value.UNKNOWN;
     for (final var tb : t.getBundles()) {
-      for (final var p : tb.b.points) {
-        final var val = state.getComponentOutputAt(p);
+      for (final var id : tb.b.getPointIds(table)) {
+        final var val = Propagator.computeValue(table.getCause(id));
         if (val != null && val != Value.NIL) {
           ret = ret.combine(val.get(tb.loc));
         }
@@ -609,6 +684,11 @@ class CircuitWires {
     return ret;
   }
 
+  /** Returns the ids for the locations of this circuit; replaced whenever its points change. */
+  LocationIndex getLocationIndex() {
+    return locationIndex;
+  }
+
   BitWidth getWidth(Location q) {
     final var det = points.getWidth(q);
     if (det != BitWidth.UNKNOWN) return det;
@@ -674,41 +754,33 @@ class CircuitWires {
   //
   void propagate(CircuitState circState, Set<Location> points) {
     final var map = getBundleMap();
-    final var dirtyThreads = new CopyOnWriteArraySet<WireThread>(); // affected threads
 
     // get state, or create a new one if current state is outdated
     var state = circState.getWireData();
     if (state == null || state.bundleMap != map) {
       // if it is outdated, we need to compute for all threads
       state = new State(map);
-      for (final var bundle : map.getBundles()) {
-        final var wireThreads = bundle.threads;
-        if (bundle.isValid() && wireThreads != null) {
-          dirtyThreads.addAll(Arrays.asList(wireThreads));
-        }
-      }
+      state.dirtyThreads.set(0, map.threads.length);
       circState.setWireData(state);
     }
+    final var dirtyThreads = state.dirtyThreads; // affected threads
 
     // determine affected threads, and set values for unwired points
+    final var table = circState.getValueTable();
     for (final var point : points) {
       final var wireBundle = map.getBundleAt(point);
       if (wireBundle == null) { // point is not wired
-        circState.setValueByWire(point, circState.getComponentOutputAt(point));
+        final var id = table.id(point);
+        circState.setValueByWire(table, id, Propagator.computeValue(table.getCause(id)));
       } else {
-        final var th = wireBundle.threads;
+        final var th = wireBundle.threadIds;
         if (!wireBundle.isValid() || th == null) {
           // immediately propagate NILs across invalid bundles
-          final var pbPoints = wireBundle.points;
-          if (pbPoints == null) {
-            circState.setValueByWire(point, Value.NIL);
-          } else {
-            for (final var loc2 : pbPoints) {
-              circState.setValueByWire(loc2, Value.NIL);
-            }
+          for (final var id : wireBundle.getPointIds(table)) {
+            circState.setValueByWire(table, id, Value.NIL);
           }
         } else {
-          dirtyThreads.addAll(Arrays.asList(th));
+          for (final var t : th) dirtyThreads.set(t);
         }
       }
     }
@@ -716,42 +788,43 @@ class CircuitWires {
     if (dirtyThreads.isEmpty()) return;
 
     // determine values of affected threads
-    final var bundles = new HashSet<ThreadBundle>();
-    for (final var t : dirtyThreads) {
-      final var v = getThreadValue(circState, t);
-      state.thrValues.put(t, v);
-      bundles.addAll(t.getBundles());
+    final var thrValues = state.thrValues;
+    final var dirtyBundles = state.dirtyBundles;
+    for (var t = dirtyThreads.nextSetBit(0); t >= 0; t = dirtyThreads.nextSetBit(t + 1)) {
+      final var thread = map.threads[t];
+      thrValues[t] = getThreadValue(table, thread);
+      for (final var tb : thread.getBundles()) dirtyBundles.set(tb.b.id);
     }
+    dirtyThreads.clear();
 
     // now propagate values through circuit
-    for (final var tb : bundles) {
-      final var b = tb.b;
-
-      Value bv = null;
-      if (!b.isValid() || b.threads == null) {
-        // do nothing
-      } else if (b.threads.length == 1) {
-        bv = state.thrValues.get(b.threads[0]);
-      } else {
-        final var tvs = new Value[b.threads.length];
-        var tvsValid = true;
-        for (var i = 0; i < tvs.length; i++) {
-          final var tv = state.thrValues.get(b.threads[i]);
-          if (tv == null) {
-            tvsValid = false;
-            break;
-          }
-          tvs[i] = tv;
-        }
-        if (tvsValid) bv = Value.create(tvs);
-      }
-
+    for (var b = dirtyBundles.nextSetBit(0); b >= 0; b = dirtyBundles.nextSetBit(b + 1)) {
+      final var bundle = map.threadBundles[b];
+      final var bv = getBundleValue(bundle.threadIds, thrValues);
       if (bv != null) {
-        for (final var p : b.points) {
-          circState.setValueByWire(p, bv);
+        for (final var id : bundle.getPointIds(table)) {
+          circState.setValueByWire(table, id, bv);
         }
       }
     }
+    dirtyBundles.clear();
+  }
+
+  /** Assembles the value of a bundle from its threads, or returns null if one has no value yet. */
+  private static Value getBundleValue(int[] threadIds, Value[] thrValues) {
+    if (threadIds.length == 1) return thrValues[threadIds[0]];
+    var error = 0L;
+    var unknown = 0L;
+    var value = 0L;
+    for (var i = 0; i < threadIds.length; i++) {
+      final var tv = thrValues[threadIds[i]];
+      if (tv == null) return null;
+      final var mask = 1L << i;
+      if (tv == Value.TRUE) value |= mask;
+      else if (tv == Value.UNKNOWN) unknown |= mask;
+      else if (tv != Value.FALSE) error |= mask;
+    }
+    return Value.create(threadIds.length, error, unknown, value);
   }
 
   private Bounds recomputeBounds() {
@@ -781,7 +854,7 @@ class CircuitWires {
     return bounds;
   }
 
-  /*synchronized*/ void remove(Component comp) {
+  synchronized void remove(Component comp) {
     if (comp instanceof Wire wire) {
       removeWire(wire);
     } else if (comp instanceof Splitter) {
@@ -800,7 +873,7 @@ class CircuitWires {
     voidBundleMap();
   }
 
-  /*synchronized*/ void remove(Component comp, EndData end) {
+  synchronized void remove(Component comp, EndData end) {
     points.remove(comp, end);
     voidBundleMap();
   }
@@ -817,7 +890,7 @@ class CircuitWires {
     }
   }
 
-  /*synchronized*/ void replace(Component comp, EndData oldEnd, EndData newEnd) {
+  synchronized void replace(Component comp, EndData oldEnd, EndData newEnd) {
     points.remove(comp, oldEnd);
     points.add(comp, newEnd);
     voidBundleMap();
@@ -826,10 +899,12 @@ class CircuitWires {
   //
   // helper methods
   //
-  private void voidBundleMap() {
+  private synchronized void voidBundleMap() {
     // This should really only be called by AWT thread, but main() also
     // calls it during startup. It should not be called by the simulation
     // thread.
+    version++;
     masterBundleMap = null;
+    locationIndex = new LocationIndex();
   }
 }
@@ -0,0 +1,152 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.circuit;
+
+import com.cburch.logisim.comp.Component;
+import com.cburch.logisim.data.Bounds;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * A uniform grid over the bounds of the components and wires of a circuit, so that finding what
+ * lies at a point or inside a rectangle only looks at the nearby components. The circuit keeps it
+ * up to date as components are added, removed, or change their bounds.
+ *
+ * <p>Labels are not covered by the bounds without a graphics context, so the index separately
+ * remembers which components have a label; queries that care about labels check those as well.
+ * Results come in the order the components were added, which is also their drawing order, with
+ * the wires after the other components.
+ */
+final class ComponentIndex {
+  private static final int CELL_BITS = 7; // cells of 128 x 128 pixels
+  // added to the bounds on each side; InstanceFactory.contains() allows an error of one pixel
+  private static final int SLACK = 2;
+
+  private record Entry(Component comp, Bounds bounds, long order) {}
+
+  private static final Comparator<Entry> DRAWING_ORDER =
+      Comparator.comparing((Entry e) -> e.comp instanceof Wire).thenComparingLong(e -> e.order);
+
+  private final HashMap<Long, ArrayList<Entry>> cells = new HashMap<>();
+  private final HashMap<Component, Entry> entries = new HashMap<>();
+  private final HashSet<Component> labelled = new HashSet<>();
+  private long nextOrder = 0;
+
+  private static long cellKey(int cx, int cy) {
+    return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+  }
+
+  synchronized void add(Component comp, boolean hasLabel) {
+    if (entries.containsKey(comp)) return;
+    insert(new Entry(comp, comp.getBounds(), nextOrder++));
+    if (hasLabel) labelled.add(comp);
+  }
+
+  synchronized void remove(Component comp) {
+    final var entry = entries.get(comp);
+    if (entry != null) delete(entry);
+    labelled.remove(comp);
+  }
+
+  synchronized void clear() {
+    cells.clear();
+    entries.clear();
+    labelled.clear();
+  }
+
+  /** Files the component again under its current bounds. */
+  synchronized void boundsChanged(Component comp) {
+    final var entry = entries.get(comp);
+    if (entry == null) return;
+    final var bounds = comp.getBounds();
+    if (bounds.equals(entry.bounds)) return;
+    delete(entry);
+    insert(new Entry(comp, bounds, entry.order));
+  }
+
+  synchronized void labelChanged(Component comp, boolean hasLabel) {
+    if (!entries.containsKey(comp)) return;
+    if (hasLabel) labelled.add(comp);
+    else labelled.remove(comp);
+  }
+
+  /**
+   * Returns the components whose bounds may overlap the given area, in drawing order. With
+   * labels, all components that have a label are included too. The caller does the exact test.
+   */
+  synchronized List<Component> query(int x, int y, int width, int height, boolean labels) {
+    final var found = new HashSet<Entry>();
+    final var cx0 = x >> CELL_BITS;
+    final var cx1 = (x + width) >> CELL_BITS;
+    final var cy0 = y >> CELL_BITS;
+    final var cy1 = (y + height) >> CELL_BITS;
+    if ((long) (cx1 - cx0 + 1) * (cy1 - cy0 + 1) > cells.size()) {
+      // The area covers more cells than are in use.
+      for (final var entry : entries.values()) {
+        if (overlaps(entry.bounds, x, y, width, height)) found.add(entry);
+      }
+    } else {
+      for (var cx = cx0; cx <= cx1; cx++) {
+        for (var cy = cy0; cy <= cy1; cy++) {
+          final var cell = cells.get(cellKey(cx, cy));
+          if (cell == null) continue;
+          for (final var entry : cell) {
+            if (overlaps(entry.bounds, x, y, width, height)) found.add(entry);
+          }
+        }
+      }
+    }
+    if (labels) {
+      for (final var comp : labelled) found.add(entries.get(comp));
+    }
+    final var sorted = new ArrayList<>(found);
+    sorted.sort(DRAWING_ORDER);
+    final var ret = new ArrayList<Component>(sorted.size());
+    for (final var entry : sorted) ret.add(entry.comp);
+    return ret;
+  }
+
+  private static boolean overlaps(Bounds bds, int x, int y, int width, int height) {
+    return bds.getX() - SLACK <= x + width
+        && x <= bds.getX() + bds.getWidth() + SLACK
+        && bds.getY() - SLACK <= y + height
+        && y <= bds.getY() + bds.getHeight() + SLACK;
+  }
+
+  private void insert(Entry entry) {
+    entries.put(entry.comp, entry);
+    forEachCell(
+        entry.bounds, key -> cells.computeIfAbsent(key, k -> new ArrayList<>()).add(entry));
+  }
+
+  private void delete(Entry entry) {
+    entries.remove(entry.comp);
+    forEachCell(
+        entry.bounds,
+        key -> {
+          final var cell = cells.get(key);
+          if (cell != null && cell.remove(entry) && cell.isEmpty()) cells.remove(key);
+        });
+  }
+
+  private static void forEachCell(Bounds bds, LongConsumer action) {
+    final var cx0 = (bds.getX() - SLACK) >> CELL_BITS;
+    final var cx1 = (bds.getX() + bds.getWidth() + SLACK) >> CELL_BITS;
+    final var cy0 = (bds.getY() - SLACK) >> CELL_BITS;
+    final var cy1 = (bds.getY() + bds.getHeight() + SLACK) >> CELL_BITS;
+    for (var cx = cx0; cx <= cx1; cx++) {
+      for (var cy = cy0; cy <= cy1; cy++) action.accept(cellKey(cx, cy));
+    }
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.circuit;
+
+import com.cburch.logisim.comp.Component;
+import com.cburch.logisim.data.Location;
+
+/**
+ * The (component, location) pairs of one {@link CircuitState} that have already been handled
+ * during the current propagation step. This is an open-addressing hash table whose slots are
+ * stamped with the step number, so starting a new step empties the set without touching or
+ * allocating anything.
+ */
+final class ComponentPointSet {
+  private static final int INITIAL_CAPACITY = 64;
+
+  private Component[] causes = new Component[INITIAL_CAPACITY];
+  private Location[] locs = new Location[INITIAL_CAPACITY];
+  private long[] stamps = new long[INITIAL_CAPACITY];
+  private long step = 0;
+  private int size = 0;
+
+  /**
+   * Adds the pair to the set for the given step, which forgets the pairs of all earlier steps.
+   * Step numbers must be positive and increase over time.
+   *
+   * @return false if the pair was already added during this step.
+   */
+  boolean add(long step, Component cause, Location loc) {
+    if (step != this.step) {
+      this.step = step;
+      size = 0;
+    }
+    if (2 * (size + 1) > stamps.length) grow();
+    final var mask = stamps.length - 1;
+    var idx = hash(cause, loc) & mask;
+    while (stamps[idx] == step) {
+      if (locs[idx].equals(loc) && causes[idx].equals(cause)) return false;
+      idx = (idx + 1) & mask;
+    }
+    stamps[idx] = step;
+    causes[idx] = cause;
+    locs[idx] = loc;
+    size++;
+    return true;
+  }
+
+  private static int hash(Component cause, Location loc) {
+    final var h = 31 * cause.hashCode() + loc.hashCode();
+    return h ^ (h >>> 16);
+  }
+
+  private void grow() {
+    final var oldCauses = causes;
+    final var oldLocs = locs;
+    final var oldStamps = stamps;
+    final var capacity = 2 * oldStamps.length;
+    causes = new Component[capacity];
+    locs = new Location[capacity];
+    stamps = new long[capacity];
+    final var mask = capacity - 1;
+    for (var i = 0; i < oldStamps.length; i++) {
+      if (oldStamps[i] != step) continue;
+      var idx = hash(oldCauses[i], oldLocs[i]) & mask;
+      while (stamps[idx] == step) idx = (idx + 1) & mask;
+      stamps[idx] = step;
+      causes[idx] = oldCauses[i];
+      locs[idx] = oldLocs[i];
+    }
+  }
+}
@@ -0,0 +1,167 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.circuit;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * The dirty components or points of a circuit state, in the order they got dirty. The set is
+ * written by one thread at a time: the thread that last drained it, normally the one running the
+ * propagator. That thread appends to an array and records the element in a hash set, so that
+ * adding is a single hash lookup. Other threads, such as the event dispatch thread poking an
+ * input, hand their changes over through a queue, which is applied in order at the start of the
+ * next drain. The caller must make sure a drain follows, which CircuitState does by enrolling
+ * itself with its propagator.
+ *
+ * <p>The owner writes while holding the lock of the set, and a drain takes over the ownership
+ * under that lock. A thread that was the owner therefore finishes its write before another thread
+ * drains, and hands over its later writes like any other thread. The lock is only contended when
+ * the ownership changes.
+ */
+final class DirtySet<T> {
+  private static final Object CLEAR = new Object();
+
+  private record Removal(Object element) {}
+
+  private final ConcurrentLinkedQueue<Object> handOff = new ConcurrentLinkedQueue<>();
+  // the elements in the array, which are dropped again when drained
+  private final HashSet<T> members = new HashSet<>();
+  private Object[] elements = new Object[16];
+  private int size = 0;
+  // the other buffer, null while it is being drained
+  private Object[] spare = new Object[16];
+  private volatile Thread owner = null;
+
+  void add(T element) {
+    if (Thread.currentThread() == owner) {
+      synchronized (this) {
+        if (Thread.currentThread() == owner) {
+          addOwn(element);
+          return;
+        }
+      }
+    }
+    handOff.add(element);
+  }
+
+  void addAll(Collection<? extends T> elements) {
+    if (Thread.currentThread() == owner) {
+      synchronized (this) {
+        if (Thread.currentThread() == owner) {
+          for (final var element : elements) addOwn(element);
+          return;
+        }
+      }
+    }
+    handOff.addAll(elements);
+  }
+
+  void remove(T element) {
+    if (Thread.currentThread() == owner) {
+      synchronized (this) {
+        if (Thread.currentThread() == owner) {
+          removeOwn(element);
+          return;
+        }
+      }
+    }
+    handOff.add(new Removal(element));
+  }
+
+  void clear() {
+    if (Thread.currentThread() == owner) {
+      synchronized (this) {
+        if (Thread.currentThread() == owner) {
+          clearOwn();
+          return;
+        }
+      }
+    }
+    handOff.add(CLEAR);
+  }
+
+  /**
+   * Empties the set and passes its elements, in the order they were added, to the action. Elements
+   * added while the action runs stay in the set. The calling thread becomes the owner.
+   */
+  @SuppressWarnings("unchecked")
+  void drain(Consumer<? super T> action) {
+    final Object[] buffer;
+    final int count;
+    synchronized (this) {
+      owner = Thread.currentThread();
+      for (var op = handOff.poll(); op != null; op = handOff.poll()) {
+        if (op == CLEAR) clearOwn();
+        else if (op instanceof Removal removal) removeOwn((T) removal.element());
+        else addOwn((T) op);
+      }
+      if (size == 0) return;
+      buffer = elements;
+      count = size;
+      for (var i = 0; i < count; i++) members.remove(buffer[i]);
+      elements = spare != null ? spare : new Object[buffer.length];
+      spare = null;
+      size = 0;
+    }
+    try {
+      for (var i = 0; i < count; i++) action.accept((T) buffer[i]);
+    } finally {
+      Arrays.fill(buffer, 0, count, null);
+      synchronized (this) {
+        if (spare == null) spare = buffer;
+      }
+    }
+  }
+
+  /** Copies the elements to the given set. This may run on any thread. */
+  @SuppressWarnings("unchecked")
+  void copyTo(DirtySet<T> dest) {
+    final Object[] copy;
+    synchronized (this) {
+      copy = Arrays.copyOf(elements, size);
+    }
+    for (final var element : copy) dest.add((T) element);
+    for (final var op : handOff) {
+      if (op != CLEAR && !(op instanceof Removal)) dest.add((T) op);
+    }
+  }
+
+  private void addOwn(T element) {
+    if (!members.add(element)) return;
+    if (size == elements.length) elements = Arrays.copyOf(elements, 2 * size);
+    elements[size++] = element;
+  }
+
+  private void removeOwn(T element) {
+    if (!members.remove(element)) return;
+    for (var i = 0; i < size; i++) {
+      if (elements[i].equals(element)) {
+        System.arraycopy(elements, i + 1, elements, i, size - i - 1);
+        elements[--size] = null;
+        return;
+      }
+    }
+  }
+
+  private void clearOwn() {
+    Arrays.fill(elements, 0, size, null);
+    size = 0;
+    members.clear();
+  }
+
+  /** Returns the number of elements whose membership is tracked, which are those not drained. */
+  synchronized int memberCount() {
+    return members.size();
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.circuit;
+
+import com.cburch.logisim.circuit.Propagator.SetData;
+import com.cburch.logisim.comp.Component;
+import com.cburch.logisim.data.Location;
+import com.cburch.logisim.data.Value;
+import java.util.PriorityQueue;
+
+/** The classic scheduler: a binary heap with a freshly allocated record per signal change. */
+class HeapPropagationQueue implements PropagationQueue {
+  private final PriorityQueue<SetData> queue = new PriorityQueue<>();
+
+  @Override
+  public void add(SetData data) {
+    queue.add(data);
+  }
+
+  @Override
+  public SetData peek() {
+    return queue.peek();
+  }
+
+  @Override
+  public SetData poll() {
+    return queue.poll();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return queue.isEmpty();
+  }
+
+  @Override
+  public int size() {
+    return queue.size();
+  }
+
+  @Override
+  public void clear() {
+    queue.clear();
+  }
+
+  @Override
+  public SetData obtain(int time, int serialNumber, CircuitState state, Location loc,
+      Component cause, Value val) {
+    return new SetData(time, serialNumber, state, loc, cause, val);
+  }
+
+  @Override
+  public void recycle(SetData data) {
+    // records are left to the garbage collector
+  }
+}
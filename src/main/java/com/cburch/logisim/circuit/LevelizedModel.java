@@ -0,0 +1,120 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.circuit;
+
+import com.cburch.logisim.data.Location;
+import com.cburch.logisim.data.Value;
+import com.cburch.logisim.instance.InstanceState;
+import java.util.function.Supplier;
+
+/**
+ * Describes a component to the levelized simulation engine, which simulates synchronous designs
+ * without events. A component factory provides it as the feature {@code LevelizedModel.class}.
+ * The model breaks the component down into operations on single bits, connected by the nets that
+ * the compiler assigns to the bits at the component's ends.
+ *
+ * <p>If the engine cannot simulate the component as it is configured, the model throws {@link
+ * UnsupportedDesignException}, and the whole design is left to the event-driven propagator.
+ */
+public interface LevelizedModel {
+  // the values of a bit on a net
+  byte FALSE = 0;
+  byte TRUE = 1;
+  byte UNKNOWN = 2;
+  byte ERROR = 3;
+
+  // the functions of a gate, with the semantics of Value.and, or and xor on each bit
+  int AND = 0;
+  int OR = 1;
+  /** True if an odd number of inputs are true. */
+  int ODD = 2;
+  /** True if exactly one input is true. */
+  int ONE = 3;
+  /** Added to a function to negate its result. */
+  int NEGATED = 4;
+
+  void compile(Compiler compiler) throws UnsupportedDesignException;
+
+  /** Thrown when the levelized engine cannot simulate a design. */
+  class UnsupportedDesignException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    public UnsupportedDesignException(String message) {
+      super(message);
+    }
+  }
+
+  interface Compiler {
+    /** Returns the state of the component being compiled. */
+    InstanceState getInstanceState();
+
+    boolean isCircuitRoot();
+
+    /** Returns true if anything but the component being compiled is attached at the location. */
+    boolean isConnected(Location loc);
+
+    /** Returns the nets of the bits at the location, least significant bit first. */
+    int[] getNets(Location loc, int width) throws UnsupportedDesignException;
+
+    /**
+     * Returns the nets of the port of the subcircuit component that corresponds to the pin being
+     * compiled, which must not be in the root circuit.
+     */
+    int[] getParentNets() throws UnsupportedDesignException;
+
+    /**
+     * Adds a gate computing one bit. An input given as {@code ~net} is negated; a single input is
+     * passed on unchanged by AND, OR and ODD, as the gates do.
+     */
+    void addGate(int function, int[] inputs, int output) throws UnsupportedDesignException;
+
+    /** Returns new nets for the values inside the component being compiled. */
+    int[] newNets(int width);
+
+    /** Adds an operation mapping each of the four values of a bit through the table. */
+    void addMap(int input, byte[] table, int output) throws UnsupportedDesignException;
+
+    void addConstant(int output, byte value) throws UnsupportedDesignException;
+
+    /** Adds nets that are set from outside the design, like the inputs of the root circuit. */
+    void addSource(int[] outputs, Supplier<Value> value) throws UnsupportedDesignException;
+
+    /** Adds an edge-triggered register, which keeps its value and last clock in the storage. */
+    void addRegister(
+        int clock, boolean fallingEdge, int clear, int enable, int[] data, int[] outputs,
+        Storage storage)
+        throws UnsupportedDesignException;
+
+    /**
+     * Adds an edge-triggered flip-flop, which keeps its value and last clock in the storage. Clear
+     * takes precedence over preset. On a clock edge, the flip-flop takes the value of the next net
+     * if that is true or false, and keeps its value otherwise.
+     */
+    void addFlipFlop(
+        int clock, boolean fallingEdge, int clear, int preset, int next, int output,
+        Storage storage)
+        throws UnsupportedDesignException;
+
+    /**
+     * Lets the engine drive the nets at the location in place of the component being compiled,
+     * which is not propagated while the engine runs.
+     */
+    void drive(Location loc, int[] nets);
+  }
+
+  /** Where a register keeps its state, so that the event engine can take over at any time. */
+  interface Storage {
+    Value getValue();
+
+    Value getLastClock();
+
+    void set(Value value, Value lastClock);
+  }
+}
@@ -0,0 +1,673 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.circuit;
+
+import static com.cburch.logisim.circuit.LevelizedModel.AND;
+import static com.cburch.logisim.circuit.LevelizedModel.ERROR;
+import static com.cburch.logisim.circuit.LevelizedModel.FALSE;
+import static com.cburch.logisim.circuit.LevelizedModel.NEGATED;
+import static com.cburch.logisim.circuit.LevelizedModel.ODD;
+import static com.cburch.logisim.circuit.LevelizedModel.ONE;
+import static com.cburch.logisim.circuit.LevelizedModel.OR;
+import static com.cburch.logisim.circuit.LevelizedModel.TRUE;
+import static com.cburch.logisim.circuit.LevelizedModel.UNKNOWN;
+
+import com.cburch.logisim.circuit.LevelizedModel.UnsupportedDesignException;
+import com.cburch.logisim.comp.Component;
+import com.cburch.logisim.data.Location;
+import com.cburch.logisim.data.Value;
+import com.cburch.logisim.instance.InstanceState;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The levelized engine. It flattens the tree of circuit states into nets of single bits, sorts
+ * the gates between the registers so that each comes after the gates driving its inputs, and
+ * then evaluates them in that order in one loop over arrays, without any events. The registers
+ * are clocked after each pass; the passes are repeated as long as a register changes.
+ *
+ * <p>Designs with components that have no {@link LevelizedModel}, wires with several drivers or
+ * pull resistors, and combinational loops are not compiled. A design that does not settle is
+ * handed back to the event engine.
+ *
+ * <p>While the engine is active, it drives the outputs of the components it compiled, which the
+ * event engine then skips. Pins, clocks and subcircuits stay with the event engine, which so
+ * keeps their state and carries the values to the wires and to the components it cannot compile,
+ * like LEDs. In cross-check mode the engine drives nothing; it computes the same propagation as
+ * the event engine and logs where the two disagree.
+ */
+class LevelizedSimulation implements LevelizedModel.Compiler {
+  private static final Logger logger = LoggerFactory.getLogger(LevelizedSimulation.class);
+
+  /** The number of times the registers may clock each other within one propagation. */
+  private static final int PASS_LIMIT = 256;
+  /** The number of disagreements logged by the cross-check. */
+  private static final int REPORT_LIMIT = 20;
+
+  // the function of an operation mapping its input through a table
+  private static final int MAP = -1;
+  private static final byte[] NOT = {TRUE, FALSE, ERROR, ERROR};
+  private static final Value[] VALUES = {Value.FALSE, Value.TRUE, Value.UNKNOWN, Value.ERROR};
+
+  /** The nets of one circuit state. Those of its wires come first, numbered like the threads. */
+  private static final class StateNets {
+    final CircuitState state;
+    final CircuitWires.BundleMap map;
+    final int offset;
+    // the nets of the points that are not on a wire
+    final HashMap<Location, int[]> points = new HashMap<>();
+    // the components whose outputs the engine drives
+    final HashSet<Component> compiled = new HashSet<>();
+
+    StateNets(CircuitState state, CircuitWires.BundleMap map, int offset) {
+      this.state = state;
+      this.map = map;
+      this.offset = offset;
+    }
+  }
+
+  private record Op(int function, int[] inputs, int output, int arg) {}
+
+  private static final class Source {
+    final int[] nets;
+    final Supplier<Value> value;
+    Value last = null;
+
+    Source(int[] nets, Supplier<Value> value) {
+      this.nets = nets;
+      this.value = value;
+    }
+  }
+
+  /** A register or flip-flop. A preset or enable of -1 means that it has none. */
+  private static final class Register {
+    final int clock;
+    final boolean fallingEdge;
+    final int clear;
+    final int preset;
+    final int enable;
+    final int[] data;
+    final int[] outputs;
+    final LevelizedModel.Storage storage;
+    // whether a bit keeps its value when its data is neither true nor false, as in a flip-flop
+    final boolean keepUnknown;
+    final byte[] next;
+    boolean load = false;
+    // the value last read from or written to the storage
+    Value known = null;
+    byte lastClock = FALSE;
+    // whether the value or the last clock differ from the storage
+    boolean dirty = false;
+
+    Register(int clock, boolean fallingEdge, int clear, int preset, int enable, int[] data,
+        int[] outputs, LevelizedModel.Storage storage, boolean keepUnknown) {
+      this.clock = clock;
+      this.fallingEdge = fallingEdge;
+      this.clear = clear;
+      this.preset = preset;
+      this.enable = enable;
+      this.data = data;
+      this.outputs = outputs;
+      this.storage = storage;
+      this.keepUnknown = keepUnknown;
+      this.next = new byte[outputs.length];
+    }
+
+    /** Determines the next value, without changing any net yet. */
+    void sample(byte[] values) {
+      final var clk = values[clock];
+      final var triggered =
+          fallingEdge ? lastClock == TRUE && clk == FALSE : lastClock == FALSE && clk == TRUE;
+      if (clk != lastClock) {
+        lastClock = clk;
+        dirty = true;
+      }
+      if (values[clear] == TRUE) {
+        Arrays.fill(next, FALSE);
+        load = true;
+      } else if (preset >= 0 && values[preset] == TRUE) {
+        Arrays.fill(next, TRUE);
+        load = true;
+      } else if (triggered && (enable < 0 || values[enable] != FALSE)) {
+        for (var i = 0; i < next.length; i++) {
+          final var bit = values[data[i]];
+          next[i] = keepUnknown && bit > TRUE ? values[outputs[i]] : bit;
+        }
+        load = true;
+      } else {
+        load = false;
+      }
+    }
+
+    /** Sets the outputs to the value determined by sample; returns true if it changed. */
+    boolean commit(byte[] values) {
+      if (!load) return false;
+      var changed = false;
+      for (var i = 0; i < outputs.length; i++) {
+        if (values[outputs[i]] != next[i]) {
+          values[outputs[i]] = next[i];
+          changed = true;
+        }
+      }
+      dirty |= changed;
+      return changed;
+    }
+  }
+
+  private static final class Drive {
+    final CircuitState state;
+    final Component comp;
+    final Location loc;
+    final int[] nets;
+    Value written = null;
+
+    Drive(CircuitState state, Component comp, Location loc, int[] nets) {
+      this.state = state;
+      this.comp = comp;
+      this.loc = loc;
+      this.nets = nets;
+    }
+  }
+
+  final int version;
+  private final Propagator prop;
+  private final boolean crossCheck;
+
+  // what is being compiled
+  private final LinkedHashMap<CircuitState, StateNets> states = new LinkedHashMap<>();
+  private StateNets current = null;
+  private Component currentComp = null;
+  private int netCount = 0;
+  private final BitSet driven = new BitSet();
+  private final ArrayList<Op> ops = new ArrayList<>();
+  private final ArrayList<int[]> constants = new ArrayList<>();
+  private final ArrayList<Source> sources = new ArrayList<>();
+  private final ArrayList<Register> registers = new ArrayList<>();
+  private final ArrayList<Drive> drives = new ArrayList<>();
+
+  // the operations in evaluation order; the inputs of operation i are opInputs[opStart[i]...]
+  private int[] opFunction;
+  private int[] opArg;
+  private int[] opOutput;
+  private int[] opStart;
+  private int[] opInputs;
+  private byte[] values;
+  private boolean force = true;
+  private long mismatches = 0;
+
+  LevelizedSimulation(Propagator prop, int version, boolean crossCheck) {
+    this.prop = prop;
+    this.version = version;
+    this.crossCheck = crossCheck;
+  }
+
+  //
+  // compilation
+  //
+
+  /**
+   * Compiles the design below the root state.
+   *
+   * @throws UnsupportedDesignException if the design cannot be simulated by this engine
+   */
+  void compile(CircuitState root) throws UnsupportedDesignException {
+    compileState(root);
+    current = null;
+    currentComp = null;
+    levelize();
+    values = new byte[netCount];
+    Arrays.fill(values, UNKNOWN);
+    for (final var constant : constants) values[constant[0]] = (byte) constant[1];
+  }
+
+  private void compileState(CircuitState state) throws UnsupportedDesignException {
+    final var circuit = state.getCircuit();
+    final var map = circuit.wires.getBundleMap();
+    if (!map.isValid()) {
+      throw new UnsupportedDesignException("the wires of " + circuit.getName() + " conflict");
+    }
+    for (final var bundle : map.threadBundles) {
+      if (bundle.getPullValue() != Value.UNKNOWN) {
+        throw new UnsupportedDesignException("a pull resistor in " + circuit.getName());
+      }
+    }
+    final var nets = new StateNets(state, map, netCount);
+    netCount += map.threads.length;
+    states.put(state, nets);
+
+    for (final var comp : circuit.getNonWires()) {
+      if (comp instanceof Splitter) continue;
+      if (comp.getFactory() instanceof SubcircuitFactory factory) {
+        compileState(factory.getSubstate(state, comp));
+        continue;
+      }
+      current = nets;
+      currentComp = comp;
+      try {
+        final var model = (LevelizedModel) comp.getFeature(LevelizedModel.class);
+        if (model != null) {
+          model.compile(this);
+        } else {
+          for (final var end : comp.getEnds()) {
+            if (end.isOutput()) throw new UnsupportedDesignException("not supported");
+          }
+        }
+      } catch (UnsupportedDesignException e) {
+        throw new UnsupportedDesignException(
+            comp.getFactory().getDisplayName()
+                + " at "
+                + comp.getLocation()
+                + " in "
+                + circuit.getName()
+                + ": "
+                + e.getMessage());
+      }
+    }
+  }
+
+  /** Sorts the operations so that each comes after those driving its inputs. */
+  private void levelize() throws UnsupportedDesignException {
+    final var count = ops.size();
+    final var driverOp = new int[netCount];
+    Arrays.fill(driverOp, -1);
+    for (var i = 0; i < count; i++) driverOp[ops.get(i).output()] = i;
+
+    // the operations reading the output of each operation, and the number of inputs waiting
+    final var waiting = new int[count];
+    final var readerStart = new int[count + 1];
+    for (final var op : ops) {
+      for (final var input : op.inputs()) {
+        final var driver = driverOp[net(input)];
+        if (driver >= 0) readerStart[driver + 1]++;
+      }
+    }
+    for (var i = 0; i < count; i++) readerStart[i + 1] += readerStart[i];
+    final var readers = new int[readerStart[count]];
+    final var fill = Arrays.copyOf(readerStart, count);
+    for (var i = 0; i < count; i++) {
+      for (final var input : ops.get(i).inputs()) {
+        final var driver = driverOp[net(input)];
+        if (driver >= 0) {
+          readers[fill[driver]++] = i;
+          waiting[i]++;
+        }
+      }
+    }
+
+    final var order = new int[count];
+    var done = 0;
+    for (var i = 0; i < count; i++) {
+      if (waiting[i] == 0) order[done++] = i;
+    }
+    for (var next = 0; next < done; next++) {
+      final var op = order[next];
+      for (var r = readerStart[op]; r < readerStart[op + 1]; r++) {
+        if (--waiting[readers[r]] == 0) order[done++] = readers[r];
+      }
+    }
+    if (done < count) throw new UnsupportedDesignException("a combinational loop");
+
+    opFunction = new int[count];
+    opArg = new int[count];
+    opOutput = new int[count];
+    opStart = new int[count + 1];
+    final var inputs = new ArrayList<int[]>(count);
+    for (var i = 0; i < count; i++) {
+      final var op = ops.get(order[i]);
+      opFunction[i] = op.function();
+      opArg[i] = op.arg();
+      opOutput[i] = op.output();
+      opStart[i + 1] = opStart[i] + op.inputs().length;
+      inputs.add(op.inputs());
+    }
+    opInputs = new int[opStart[count]];
+    for (var i = 0; i < count; i++) {
+      System.arraycopy(inputs.get(i), 0, opInputs, opStart[i], inputs.get(i).length);
+    }
+    ops.clear();
+  }
+
+  private static int net(int input) {
+    return input >= 0 ? input : ~input;
+  }
+
+  private void markDriven(int net) throws UnsupportedDesignException {
+    if (driven.get(net)) throw new UnsupportedDesignException("several drivers on a wire");
+    driven.set(net);
+  }
+
+  private int[] getNets(StateNets nets, Location loc, int width)
+      throws UnsupportedDesignException {
+    final var bundle = nets.map.getBundleAt(loc);
+    if (bundle == null) {
+      final var ret = nets.points.computeIfAbsent(loc, l -> allocate(width));
+      if (ret.length != width) throw new UnsupportedDesignException("conflicting widths");
+      return ret;
+    }
+    final var threads = bundle.threadIds;
+    if (threads == null || threads.length != width) {
+      throw new UnsupportedDesignException("conflicting widths");
+    }
+    final var ret = new int[width];
+    for (var i = 0; i < width; i++) ret[i] = nets.offset + threads[i];
+    return ret;
+  }
+
+  private int[] allocate(int width) {
+    final var ret = new int[width];
+    for (var i = 0; i < width; i++) ret[i] = netCount++;
+    return ret;
+  }
+
+  @Override
+  public InstanceState getInstanceState() {
+    return current.state.getInstanceState(currentComp);
+  }
+
+  @Override
+  public boolean isCircuitRoot() {
+    return !current.state.isSubstate();
+  }
+
+  @Override
+  public boolean isConnected(Location loc) {
+    return current.state.getCircuit().isConnected(loc, currentComp);
+  }
+
+  @Override
+  public int[] getNets(Location loc, int width) throws UnsupportedDesignException {
+    return getNets(current, loc, width);
+  }
+
+  @Override
+  public int[] getParentNets() throws UnsupportedDesignException {
+    final var sub = current.state.getSubcircuit();
+    final var parent = states.get(current.state.getParentState());
+    if (sub == null || parent == null) {
+      throw new UnsupportedDesignException("not in a subcircuit");
+    }
+    final var pins = ((CircuitAttributes) sub.getAttributeSet()).getPinInstances();
+    for (var i = 0; i < pins.length; i++) {
+      if (pins[i].getComponent() == currentComp) {
+        final var end = sub.getEnd(i);
+        return getNets(parent, end.getLocation(), end.getWidth().getWidth());
+      }
+    }
+    throw new UnsupportedDesignException("a pin without a port");
+  }
+
+  @Override
+  public void addGate(int function, int[] inputs, int output)
+      throws UnsupportedDesignException {
+    markDriven(output);
+    ops.add(new Op(function & ~NEGATED, inputs.clone(), output, function & NEGATED));
+  }
+
+  @Override
+  public int[] newNets(int width) {
+    return allocate(width);
+  }
+
+  @Override
+  public void addMap(int input, byte[] table, int output) throws UnsupportedDesignException {
+    markDriven(output);
+    var packed = 0;
+    for (var i = 0; i < 4; i++) packed |= table[i] << (2 * i);
+    ops.add(new Op(MAP, new int[] {input}, output, packed));
+  }
+
+  @Override
+  public void addConstant(int output, byte value) throws UnsupportedDesignException {
+    markDriven(output);
+    constants.add(new int[] {output, value});
+  }
+
+  @Override
+  public void addSource(int[] outputs, Supplier<Value> value)
+      throws UnsupportedDesignException {
+    for (final var net : outputs) markDriven(net);
+    sources.add(new Source(outputs.clone(), value));
+  }
+
+  @Override
+  public void addRegister(
+      int clock, boolean fallingEdge, int clear, int enable, int[] data, int[] outputs,
+      LevelizedModel.Storage storage)
+      throws UnsupportedDesignException {
+    for (final var net : outputs) markDriven(net);
+    registers.add(
+        new Register(
+            clock, fallingEdge, clear, -1, enable, data.clone(), outputs.clone(), storage, false));
+  }
+
+  @Override
+  public void addFlipFlop(
+      int clock, boolean fallingEdge, int clear, int preset, int next, int output,
+      LevelizedModel.Storage storage)
+      throws UnsupportedDesignException {
+    markDriven(output);
+    registers.add(
+        new Register(
+            clock, fallingEdge, clear, preset, -1, new int[] {next}, new int[] {output}, storage,
+            true));
+  }
+
+  @Override
+  public void drive(Location loc, int[] nets) {
+    drives.add(new Drive(current.state, currentComp, loc, nets.clone()));
+    current.compiled.add(currentComp);
+  }
+
+  //
+  // simulation
+  //
+
+  boolean isActive() {
+    return !crossCheck;
+  }
+
+  long getMismatchCount() {
+    return mismatches;
+  }
+
+  /**
+   * Takes over the compiled components from the event engine. Returns false if the design does
+   * not settle.
+   */
+  boolean activate() {
+    if (crossCheck) return true;
+    for (final var nets : states.values()) {
+      if (!nets.compiled.isEmpty()) nets.state.compiledComponents = nets.compiled;
+    }
+    force = true;
+    return run();
+  }
+
+  /** Hands the compiled components back to the event engine. */
+  void deactivate() {
+    if (crossCheck) return;
+    for (final var nets : states.values()) {
+      if (nets.state.compiledComponents != nets.compiled) continue;
+      nets.state.compiledComponents = null;
+      for (final var comp : nets.compiled) nets.state.markComponentAsDirty(comp);
+    }
+  }
+
+  /**
+   * Propagates the changes of the sources and registers, and drives the outputs of the compiled
+   * components with the result. Returns false if the design does not settle.
+   */
+  boolean run() {
+    final var changed = force | loadSources() | loadRegisters(false);
+    force = false;
+    if (!changed) return true;
+    if (!settle()) return false;
+    for (final var reg : registers) {
+      if (!reg.dirty) continue;
+      reg.dirty = false;
+      reg.known = toValue(reg.outputs);
+      reg.storage.set(reg.known, VALUES[reg.lastClock]);
+    }
+    for (final var drive : drives) {
+      final var val = toValue(drive.nets);
+      if (val.equals(drive.written)) continue;
+      drive.written = val;
+      prop.setValueNow(drive.state, drive.loc, drive.comp, val);
+    }
+    return true;
+  }
+
+  /** Records the sources and registers before the event engine propagates, for the check. */
+  void load() {
+    loadSources();
+    loadRegisters(true);
+  }
+
+  /**
+   * Propagates what load recorded, and compares the outputs of the compiled components with the
+   * values the event engine found. Returns false if the design does not settle.
+   */
+  boolean check() {
+    if (!settle()) return false;
+    for (final var drive : drives) {
+      final var expected = toValue(drive.nets);
+      final var found = drive.state.getValue(drive.loc);
+      if (expected.equals(found)) continue;
+      mismatches++;
+      if (mismatches <= REPORT_LIMIT) {
+        logger.warn(
+            "Levelized simulation gives {} instead of {} at {} of {} in {}",
+            expected,
+            found,
+            drive.loc,
+            drive.comp.getFactory().getDisplayName(),
+            drive.state.getCircuit().getName());
+      }
+    }
+    return true;
+  }
+
+  private boolean loadSources() {
+    var changed = false;
+    for (final var source : sources) {
+      final var val = source.value.get();
+      if (val.equals(source.last)) continue;
+      source.last = val;
+      setBits(source.nets, val);
+      changed = true;
+    }
+    return changed;
+  }
+
+  /** Reads the registers whose storage changed outside the engine, as by a poke. */
+  private boolean loadRegisters(boolean all) {
+    var changed = false;
+    for (final var reg : registers) {
+      final var stored = reg.storage.getValue();
+      if (stored == reg.known && !all) continue;
+      reg.known = stored;
+      reg.lastClock = toBit(reg.storage.getLastClock());
+      reg.dirty = false;
+      setBits(reg.outputs, stored);
+      changed = true;
+    }
+    return changed;
+  }
+
+  private boolean settle() {
+    for (var pass = 0; pass < PASS_LIMIT; pass++) {
+      evaluate();
+      for (final var reg : registers) reg.sample(values);
+      var changed = false;
+      for (final var reg : registers) changed |= reg.commit(values);
+      if (!changed) return true;
+    }
+    return false;
+  }
+
+  private void evaluate() {
+    final var values = this.values;
+    final var count = opOutput.length;
+    for (var op = 0; op < count; op++) {
+      final var from = opStart[op];
+      byte ret;
+      if (opFunction[op] == MAP) {
+        ret = (byte) ((opArg[op] >> (read(opInputs[from]) << 1)) & 3);
+      } else {
+        ret = evaluateGate(opFunction[op], from, opStart[op + 1]);
+        if (opArg[op] != 0) ret = NOT[ret];
+      }
+      values[opOutput[op]] = ret;
+    }
+  }
+
+  private byte evaluateGate(int function, int from, int to) {
+    if (to - from == 1 && function != ONE) return read(opInputs[from]);
+    if (function == AND || function == OR) {
+      final var dominant = function == AND ? FALSE : TRUE;
+      var ret = function == AND ? TRUE : FALSE;
+      for (var i = from; i < to; i++) {
+        final var bit = read(opInputs[i]);
+        if (bit == dominant) return dominant;
+        if (bit > TRUE) ret = ERROR;
+      }
+      return ret;
+    }
+    var ones = 0;
+    for (var i = from; i < to; i++) {
+      final var bit = read(opInputs[i]);
+      if (bit > TRUE) return ERROR;
+      ones += bit;
+    }
+    if (function == ODD) return (byte) (ones & 1);
+    return ones == 1 ? TRUE : FALSE;
+  }
+
+  private byte read(int input) {
+    return input >= 0 ? values[input] : NOT[values[~input]];
+  }
+
+  private void setBits(int[] nets, Value val) {
+    final var width = val.getWidth();
+    for (var i = 0; i < nets.length; i++) {
+      values[nets[i]] = i < width ? toBit(val.get(i)) : UNKNOWN;
+    }
+  }
+
+  private Value toValue(int[] nets) {
+    if (nets.length == 1) return VALUES[values[nets[0]]];
+    var error = 0L;
+    var unknown = 0L;
+    var value = 0L;
+    for (var i = 0; i < nets.length; i++) {
+      final var mask = 1L << i;
+      switch (values[nets[i]]) {
+        case TRUE -> value |= mask;
+        case UNKNOWN -> unknown |= mask;
+        case ERROR -> error |= mask;
+        default -> {}
+      }
+    }
+    return Value.create(nets.length, error, unknown, value);
+  }
+
+  private static byte toBit(Value val) {
+    if (val == Value.TRUE) return TRUE;
+    if (val == Value.FALSE) return FALSE;
+    return val == Value.UNKNOWN ? UNKNOWN : ERROR;
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.circuit;
+
+import com.cburch.logisim.data.Location;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns dense integer ids to the locations of one circuit, so that per-state simulation data can
+ * live in flat arrays. Ids are handed out on first use and never change; when the circuit's
+ * points change, {@link CircuitWires} drops the index and starts a fresh, compact one, and every
+ * {@link ValueTable} built on the old index migrates its contents on next use.
+ *
+ * <p>Lookups are lock free, so the GUI thread may read while the simulation thread adds ids.
+ */
+final class LocationIndex {
+  private final ConcurrentHashMap<Location, Integer> ids = new ConcurrentHashMap<>();
+  private volatile Location[] locations = new Location[16];
+  private volatile int size = 0;
+
+  /** Returns the id of the given location, or -1 if it has none yet. */
+  int get(Location loc) {
+    final var id = ids.get(loc);
+    return id == null ? -1 : id;
+  }
+
+  /** Returns the id of the given location, assigning the next free id if it has none yet. */
+  int getOrAdd(Location loc) {
+    final var id = ids.get(loc);
+    if (id != null) return id;
+    synchronized (this) {
+      final var again = ids.get(loc);
+      if (again != null) return again;
+      final var ret = size;
+      if (ret == locations.length) locations = Arrays.copyOf(locations, 2 * ret);
+      locations[ret] = loc;
+      size = ret + 1;
+      ids.put(loc, ret);
+      return ret;
+    }
+  }
+
+  Location getLocation(int id) {
+    return locations[id];
+  }
+
+  int size() {
+    return size;
+  }
+}
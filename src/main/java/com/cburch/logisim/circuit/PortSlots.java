@@ -0,0 +1,44 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.circuit;
+
+import com.cburch.logisim.comp.EndData;
+import com.cburch.logisim.data.Location;
+import java.util.List;
+
+/**
+ * The ends of a component resolved to their slots in the value tables of a circuit, so that
+ * reading a port is an array access instead of a map lookup. Obtained from {@link
+ * CircuitState#getPortSlots}, which resolves them again when the ends of the component or the
+ * location index of the circuit change.
+ */
+public final class PortSlots {
+  final List<EndData> ends;
+  final int endsVersion;
+  final LocationIndex index;
+  final Location[] locations;
+  final int[] ids;
+
+  PortSlots(List<EndData> ends, int endsVersion, LocationIndex index) {
+    this.ends = ends;
+    this.endsVersion = endsVersion;
+    this.index = index;
+    locations = new Location[ends.size()];
+    ids = new int[ends.size()];
+    for (var i = 0; i < locations.length; i++) {
+      locations[i] = ends.get(i).getLocation();
+      ids[i] = index.getOrAdd(locations[i]);
+    }
+  }
+
+  public Location getLocation(int port) {
+    return locations[port];
+  }
+}
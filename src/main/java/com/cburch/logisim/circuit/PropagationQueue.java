@@ -0,0 +1,48 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.circuit;
+
+import com.cburch.logisim.circuit.Propagator.SetData;
+import com.cburch.logisim.comp.Component;
+import com.cburch.logisim.data.Location;
+import com.cburch.logisim.data.Value;
+
+/**
+ * Holds the pending signal changes of a {@link Propagator}. Implementations must hand out the
+ * changes in ascending (time, serial number) order, as defined by {@link SetData#compareTo}, so
+ * that the simulation results do not depend on the scheduler in use.
+ */
+interface PropagationQueue {
+
+  void add(SetData data);
+
+  SetData peek();
+
+  SetData poll();
+
+  boolean isEmpty();
+
+  int size();
+
+  void clear();
+
+  /**
+   * Returns a record for a new signal change. Implementations may hand out a record that was
+   * previously passed to {@link #recycle}.
+   */
+  SetData obtain(int time, int serialNumber, CircuitState state, Location loc, Component cause,
+      Value val);
+
+  /**
+   * Hands back a record that has been removed from the queue and is not linked into any list of
+   * causes. The caller must not touch the record afterwards.
+   */
+  void recycle(SetData data);
+}
@@ -13,38 +13,26 @@ import com.cburch.logisim.comp.Component;
 import com.cburch.logisim.comp.ComponentDrawContext;
 import com.cburch.logisim.data.AttributeEvent;
 import com.cburch.logisim.data.AttributeListener;
+import com.cburch.logisim.data.AttributeOption;
+import com.cburch.logisim.data.Bounds;
 import com.cburch.logisim.data.Location;
 import com.cburch.logisim.data.Value;
 import com.cburch.logisim.file.Options;
 import java.lang.ref.WeakReference;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.PriorityQueue;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class Propagator {
-  private static class ComponentPoint {
-    final Component cause;
-    final Location loc;
-
-    public ComponentPoint(Component cause, Location loc) {
-      this.cause = cause;
-      this.loc = loc;
-    }
-
-    @Override
-    public boolean equals(Object other) {
-      return (other instanceof ComponentPoint o)
-             ? this.cause.equals(o.cause) && this.loc.equals(o.loc)
-             : false;
-    }
-
-    @Override
-    public int hashCode() {
-      return 31 * cause.hashCode() + loc.hashCode();
-    }
-  }
-
   private static class Listener implements AttributeListener {
     final WeakReference<Propagator> prop;
 
@@ -64,27 +52,46 @@ public class Propagator {
         e.getSource().removeAttributeListener(this);
       } else if (e.getAttribute().equals(Options.ATTR_SIM_RAND)) {
         p.updateRandomness();
+      } else if (e.getAttribute().equals(Options.ATTR_SIM_SCHEDULER)) {
+        p.updateScheduler();
+      } else if (e.getAttribute().equals(Options.ATTR_SIM_PARALLEL)) {
+        p.updateParallel();
+      } else if (e.getAttribute().equals(Options.ATTR_SIM_ENGINE)) {
+        p.updateEngine();
+      } else if (e.getAttribute().equals(Options.ATTR_GATE_UNDEFINED)) {
+        p.invalidateLevelized();
       }
     }
   }
 
   static class SetData implements Comparable<SetData> {
-    final int time;
-    final int serialNumber;
-    final CircuitState state; // state of circuit containing component
-    final Component cause; // component emitting the value
-    final Location loc; // the location at which value is emitted
+    // Not final, as the calendar scheduler recycles records.
+    int time;
+    int serialNumber;
+    CircuitState state; // state of circuit containing component
+    Component cause; // component emitting the value
+    Location loc; // the location at which value is emitted
+    LocationIndex index; // the index that slot was resolved in, or null if not known
+    int slot; // the id of loc in index
     Value val; // value being emitted
     SetData next = null;
+    SetData queueNext = null; // used by CalendarPropagationQueue
 
-    private SetData(
+    SetData(
+        int time, int serialNumber, CircuitState state, Location loc, Component cause, Value val) {
+      init(time, serialNumber, state, loc, cause, val);
+    }
+
+    void init(
         int time, int serialNumber, CircuitState state, Location loc, Component cause, Value val) {
       this.time = time;
       this.serialNumber = serialNumber;
       this.state = state;
       this.cause = cause;
       this.loc = loc;
+      this.index = null;
       this.val = val;
+      this.next = null;
     }
 
     public SetData cloneFor(CircuitState newState) {
@@ -124,6 +131,8 @@ public class Propagator {
     return ret;
   }
 
+  private static final Logger logger = LoggerFactory.getLogger(Propagator.class);
+
   private final CircuitState root; // root of state tree
 
   /** The number of clock cycles to let pass before deciding that the circuit is oscillating. */
@@ -136,7 +145,16 @@ public class Propagator {
    */
   private volatile int simRandomShift;
 
-  private final PriorityQueue<SetData> toProcess = new PriorityQueue<>();
+  /** The scheduler selected in the project options; picked up by the simulation thread. */
+  private volatile AttributeOption simScheduler;
+
+  /** Whether the changes of a step are applied and spread along the wires in parallel per state. */
+  private volatile boolean simParallel;
+
+  /** The number of changes in a step below which parallel propagation is not worth the overhead. */
+  private static final int PARALLEL_MIN_CHANGES = 64;
+
+  private PropagationQueue toProcess = new HeapPropagationQueue();
   private int clock = 0;
   private boolean isOscillating = false;
   private boolean oscAdding = false;
@@ -146,8 +164,51 @@ public class Propagator {
   private int noiseCount = 0;
 
   private int setDataSerialNumber = 0;
+  private long eventCount = 0;
+  private int stepDuplicates = 0;
+
+  /** The simulation engine selected in the project options. */
+  private volatile AttributeOption simEngine;
+
+  /**
+   * Counts the changes to the design, its options and its state that void a compiled design, so
+   * that the simulation thread drops the levelized engine before it propagates again.
+   */
+  private final AtomicInteger designVersion = new AtomicInteger();
+  // the levelized engine for the current design version, if it could be compiled
+  private LevelizedSimulation levelized = null;
+  // the design version the levelized engine was not used for
+  private int levelizedFailed = -1;
+
+  private long totalDuplicates = 0;
+
+  /**
+   * The states of this tree with dirty points, and those with dirty components. A state enters
+   * when it gets its first dirty item, so that a step only visits the states where something
+   * happens instead of the whole tree. States may be added from any thread.
+   */
+  private final ConcurrentLinkedQueue<CircuitState> pointStates = new ConcurrentLinkedQueue<>();
+  private final ConcurrentLinkedQueue<CircuitState> componentStates =
+      new ConcurrentLinkedQueue<>();
+  private long componentPass = 0;
+
+  /**
+   * The states of this tree that have clocks, so that a tick only visits those instead of the
+   * whole tree. CircuitState updates it when clocks or substates come and go; the tick reads the
+   * array, which is replaced on every change.
+   */
+  private final LinkedHashSet<CircuitState> clockStates = new LinkedHashSet<>();
+  private volatile CircuitState[] clockStateArray = new CircuitState[0];
+  // records what changed in the state shown on a canvas
+  private volatile ChangedArea changedArea = null;
   static int lastId = 0;
 
+  /**
+   * Numbers the propagation steps of all propagators, so that a step number never repeats for a
+   * CircuitState, even if it moves to another propagator.
+   */
+  private static final AtomicLong lastStep = new AtomicLong();
+
   final int id = lastId++;
 
   public Propagator(CircuitState root) {
@@ -155,55 +216,82 @@ public class Propagator {
     final var l = new Listener(this);
     root.getProject().getOptions().getAttributeSet().addAttributeListener(l);
     updateRandomness();
+    updateScheduler();
+    checkScheduler();
+    updateParallel();
+    updateEngine();
   }
 
-  private SetData addCause(CircuitState state, SetData head, SetData data) {
+  /**
+   * Merges the change into the list of causes at the given id.
+   *
+   * @return true if data itself got linked into the list, false if it can be recycled.
+   */
+  private static boolean addCause(ValueTable table, int id, SetData data) {
+    final var head = table.getCause(id);
     if (data.val == null) { // actually, it should be removed
-      return removeCause(state, head, data.loc, data.cause);
+      removeCause(table, id, head, data.cause);
+      return false;
     }
 
-    final var causes = state.causes;
-
     // first check whether this is change of previous info.
-    var replaced = false;
     for (var n = head; n != null; n = n.next) {
       if (n.cause == data.cause) {
         n.val = data.val;
-        replaced = true;
-        break;
+        return false;
       }
     }
 
     // otherwise, insert to list of causes
-    if (!replaced) {
-      if (head == null) {
-        causes.put(data.loc, data);
-        head = data;
-      } else {
-        data.next = head.next;
-        head.next = data;
-      }
+    if (head == null) {
+      table.setCause(id, data);
+    } else {
+      data.next = head.next;
+      head.next = data;
     }
+    return true;
+  }
 
-    return head;
+  /**
+   * Applies one pending change to the state it belongs to. This only touches that state, so the
+   * changes of different states may be applied concurrently.
+   *
+   * @return true if data got linked into a list of causes, false if it can be recycled.
+   */
+  private static boolean applyChange(SetData data) {
+    final var state = data.state;
+    final var loc = data.loc;
+    final var table = state.getValueTable();
+    final var id = data.index == table.index ? table.ensure(data.slot) : table.id(loc);
+    final var oldVal = computeValue(table.getCause(id));
+    final var linked = addCause(table, id, data);
+    final var newVal = computeValue(table.getCause(id));
+
+    // if the value at point has changed, propagate it
+    if (!newVal.equals(oldVal)) {
+      state.markPointAsDirty(loc);
+    }
+    return linked;
   }
 
   //
   // private methods
   //
   void checkComponentEnds(CircuitState state, Component comp) {
+    final var table = state.getValueTable();
     for (final var end : comp.getEnds()) {
       final var loc = end.getLocation();
-      final var oldHead = state.causes.get(loc);
+      final var id = table.id(loc);
+      final var oldHead = table.getCause(id);
       final var oldVal = computeValue(oldHead);
-      final var newHead = removeCause(state, oldHead, loc, comp);
+      final var newHead = removeCause(table, id, oldHead, comp);
       final var newVal = computeValue(newHead);
-      final var wireVal = state.getValueByWire(loc);
+      final var wireVal = table.getValue(id);
 
       if (!newVal.equals(oldVal) || wireVal != null) {
         state.markPointAsDirty(loc);
       }
-      if (wireVal != null) state.setValueByWire(loc, Value.NIL);
+      if (wireVal != null) state.setValueByWire(table, id, Value.NIL);
     }
   }
 
@@ -222,6 +310,43 @@ public class Propagator {
     return halfClockCycles;
   }
 
+  /** Returns the recorder of the changes in the state shown on a canvas, or null if none. */
+  ChangedArea getChangedArea() {
+    return changedArea;
+  }
+
+  /**
+   * Returns the part of the state's drawing that changed since the last call, the empty bounds if
+   * nothing changed, or null if the changes were not recorded so far. The changes of one state
+   * are recorded, the one asked about last.
+   */
+  public Bounds takeChangedArea(CircuitState state) {
+    final var area = changedArea;
+    if (area == null || area.getState() != state) {
+      changedArea = new ChangedArea(state);
+      return null;
+    }
+    return area.take();
+  }
+
+  /** Returns the number of signal changes processed since this propagator was created. */
+  public long getEventCount() {
+    return eventCount;
+  }
+
+  /**
+   * Returns the number of signal changes dropped during the last propagation step because the
+   * same component had already driven the same point in that step.
+   */
+  public int getStepDuplicateCount() {
+    return stepDuplicates;
+  }
+
+  /** Returns the number of duplicate signal changes dropped since this propagator was created. */
+  public long getDuplicateCount() {
+    return totalDuplicates;
+  }
+
   public boolean isOscillating() {
     return isOscillating;
   }
@@ -258,6 +383,59 @@ public class Propagator {
    * clearDirtyPoints(); clearDirtyComponents(); }
    */
 
+  void enrollPoints(CircuitState state) {
+    pointStates.add(state);
+  }
+
+  void enrollComponents(CircuitState state) {
+    componentStates.add(state);
+  }
+
+  /** Removes all states from the queue and returns them, each after the state containing it. */
+  private static List<CircuitState> takeStates(ConcurrentLinkedQueue<CircuitState> queue) {
+    if (queue.isEmpty()) return Collections.emptyList();
+    final var ret = new ArrayList<CircuitState>();
+    for (var state = queue.poll(); state != null; state = queue.poll()) ret.add(state);
+    ret.sort(CircuitState.CREATION_ORDER);
+    return ret;
+  }
+
+  private void processDirtyPoints() {
+    for (final var state : takeStates(pointStates)) state.processOwnDirtyPoints();
+  }
+
+  /**
+   * Propagates the dirty components of all states. A state that gets dirty components while this
+   * runs is handled too, but like in a walk over the tree, each state at most once per call;
+   * otherwise it stays in the list for the next call.
+   */
+  private void processDirtyComponents() {
+    final var pass = ++componentPass;
+    final var again = new ArrayList<CircuitState>();
+    try {
+      for (var states = takeStates(componentStates);
+          !states.isEmpty();
+          states = takeStates(componentStates)) {
+        for (var i = 0; i < states.size(); i++) {
+          final var state = states.get(i);
+          if (state.componentPass == pass) {
+            again.add(state);
+            continue;
+          }
+          state.componentPass = pass;
+          try {
+            state.processOwnDirtyComponents();
+          } catch (RuntimeException e) {
+            again.addAll(states.subList(i + 1, states.size()));
+            throw e;
+          }
+        }
+      }
+    } finally {
+      componentStates.addAll(again);
+    }
+  }
+
   void locationTouched(CircuitState state, Location loc) {
     if (oscAdding) oscPoints.add(state, loc);
   }
@@ -267,9 +445,12 @@ public class Propagator {
   }
 
   public boolean propagate(Simulator.Listener propListener, Simulator.Event propEvent) {
+    checkScheduler();
+    checkLevelized();
     oscPoints.clear();
-    root.processDirtyPoints();
-    root.processDirtyComponents();
+    processDirtyPoints();
+    processDirtyComponents();
+    runLevelized();
 
     final var oscThreshold = simLimit;
     final var logThreshold = 3 * oscThreshold / 4;
@@ -293,16 +474,15 @@ public class Propagator {
     isOscillating = false;
     oscAdding = false;
     oscPoints.clear();
+    finishLevelized();
     return iters > 0;
   }
 
-  private SetData removeCause(CircuitState state, SetData head, Location loc, Component cause) {
-    final var causes = state.causes;
+  private static SetData removeCause(ValueTable table, int id, SetData head, Component cause) {
     if (head == null) {
     } else if (head.cause == cause) {
       head = head.next;
-      if (head == null) causes.remove(loc);
-      else causes.put(loc, head);
+      table.setCause(id, head);
     } else {
       var prev = head;
       var cur = head.next;
@@ -318,7 +498,9 @@ public class Propagator {
     return head;
   }
 
-  void reset() {
+  /** Drops all pending events and puts the states back into their initial state. */
+  public void reset() {
+    invalidateLevelized();
     halfClockCycles = 0;
     toProcess.clear();
     root.reset();
@@ -328,8 +510,26 @@ public class Propagator {
   //
   // package-protected helper methods
   //
+  /**
+   * Schedules a value at a location. Its id in the value table is looked up when the change is
+   * applied; components that know their ends use the {@link PortSlots} variant, which skips that.
+   */
   void setValue(CircuitState state, Location pt, Value val, Component cause, int delay) {
     if (cause instanceof Wire || cause instanceof Splitter) return;
+    schedule(state, pt, val, cause, delay);
+  }
+
+  /** Like {@link #setValue}, for an end whose slot in the value table is already known. */
+  void setValue(CircuitState state, PortSlots slots, int port, Value val, Component cause,
+      int delay) {
+    if (cause instanceof Wire || cause instanceof Splitter) return;
+    final var data = schedule(state, slots.locations[port], val, cause, delay);
+    data.index = slots.index;
+    data.slot = slots.ids[port];
+  }
+
+  private SetData schedule(CircuitState state, Location pt, Value val, Component cause,
+      int delay) {
     if (delay <= 0) {
       delay = 1;
     }
@@ -347,19 +547,106 @@ public class Propagator {
         }
       }
     }
-    toProcess.add(new SetData(clock + delay, setDataSerialNumber, state, pt, cause, val));
+    final var data = toProcess.obtain(clock + delay, setDataSerialNumber, state, pt, cause, val);
+    toProcess.add(data);
     /*
      * DEBUGGING - comment out Simulator.log(clock + ": set " + pt + " in "
      * + state + " to " + val + " by " + cause + " after " + delay); //
      */
 
     setDataSerialNumber++;
+    return data;
+  }
+
+  /**
+   * Applies a value that the levelized engine drives on behalf of a component at once, as if its
+   * event had just been processed.
+   */
+  void setValueNow(CircuitState state, Location pt, Component cause, Value val) {
+    final var data = toProcess.obtain(clock, setDataSerialNumber, state, pt, cause, val);
+    setDataSerialNumber++;
+    if (!applyChange(data)) toProcess.recycle(data);
+  }
+
+  /** Voids the compiled design; may be called from any thread. */
+  void invalidateLevelized() {
+    designVersion.incrementAndGet();
+  }
+
+  /** Returns the levelized engine, or null if the event engine simulates the design. */
+  LevelizedSimulation getLevelized() {
+    return levelized;
+  }
+
+  private void checkLevelized() {
+    if (levelized != null && levelized.version != designVersion.get()) dropLevelized();
+  }
+
+  private void dropLevelized() {
+    final var engine = levelized;
+    levelized = null;
+    engine.deactivate();
+  }
+
+  /**
+   * Lets the levelized engine propagate what changed since the last call. In cross-check mode it
+   * only records where the event engine starts from.
+   */
+  private void runLevelized() {
+    final var engine = levelized;
+    if (engine == null) return;
+    if (!engine.isActive()) {
+      engine.load();
+    } else if (engine.run()) {
+      processDirtyPoints();
+      processDirtyComponents();
+    } else {
+      failLevelized("it does not settle");
+    }
+  }
+
+  /**
+   * Called once the design is stable: compiles the design if the levelized engine is selected, or
+   * completes the cross-check of this propagation.
+   */
+  private void finishLevelized() {
+    final var engine = levelized;
+    if (engine != null) {
+      if (!engine.isActive() && !engine.check()) failLevelized("it does not settle");
+      return;
+    }
+    final var version = designVersion.get();
+    if (simEngine == Options.SIM_ENGINE_EVENT || levelizedFailed == version) return;
+    final var compiled =
+        new LevelizedSimulation(this, version, simEngine == Options.SIM_ENGINE_CHECK);
+    try {
+      compiled.compile(root);
+    } catch (LevelizedModel.UnsupportedDesignException e) {
+      levelizedFailed = version;
+      logger.info("Simulating {} with events: {}", root.getCircuit().getName(), e.getMessage());
+      return;
+    }
+    levelized = compiled;
+    if (!compiled.activate()) failLevelized("it does not settle");
+  }
+
+  private void failLevelized(String reason) {
+    levelizedFailed = levelized.version;
+    logger.warn("Simulating {} with events: {}", root.getCircuit().getName(), reason);
+    dropLevelized();
   }
 
   boolean step(PropagationPoints changedPoints) {
+    checkScheduler();
+    checkLevelized();
+    if (levelized != null) {
+      // single steps show the events, so the event engine keeps the design until it changes
+      levelizedFailed = levelized.version;
+      dropLevelized();
+    }
     oscPoints.clear();
-    root.processDirtyPoints();
-    root.processDirtyComponents();
+    processDirtyPoints();
+    processDirtyComponents();
 
     if (toProcess.isEmpty()) return false;
 
@@ -379,50 +666,137 @@ public class Propagator {
     clock = toProcess.peek().time;
 
     // propagate all values for this clock tick
-    final var visited = new HashMap<CircuitState, HashSet<ComponentPoint>>();
-    while (true) {
-      final var data = toProcess.peek();
-      if (data == null || data.time != clock) break;
-      toProcess.remove();
-      final var state = data.state;
+    final var step = lastStep.incrementAndGet();
+    if (simParallel && changedPoints == null && !oscAdding) {
+      stepParallel(step);
+    } else {
+      var duplicates = 0;
+      while (true) {
+        final var data = toProcess.peek();
+        if (data == null || data.time != clock) break;
+        toProcess.poll();
+        final var state = data.state;
+
+        // if it's already handled for this clock tick, continue
+        if (!state.markHandled(step, data.cause, data.loc)) {
+          duplicates++;
+          toProcess.recycle(data);
+          continue;
+        }
 
-      // if it's already handled for this clock tick, continue
-      var handled = visited.get(state);
-      if (handled != null) {
-        if (!handled.add(new ComponentPoint(data.cause, data.loc))) continue;
-      } else {
-        handled = new HashSet<>();
-        visited.put(state, handled);
-        handled.add(new ComponentPoint(data.cause, data.loc));
-      }
+        /*
+         * DEBUGGING - comment out Simulator.log(data.time + ": proc " +
+         * data.loc + " in " + data.state + " to " + data.val + " by " +
+         * data.cause); //
+         */
 
-      /*
-       * DEBUGGING - comment out Simulator.log(data.time + ": proc " +
-       * data.loc + " in " + data.state + " to " + data.val + " by " +
-       * data.cause); //
-       */
+        if (changedPoints != null) changedPoints.add(state, data.loc);
+        eventCount++;
 
-      if (changedPoints != null) changedPoints.add(state, data.loc);
+        // change the information about value
+        if (!applyChange(data)) toProcess.recycle(data);
+      }
+      stepDuplicates = duplicates;
+      totalDuplicates += duplicates;
 
-      // change the information about value
-      final var oldHead = state.causes.get(data.loc);
-      final var oldVal = computeValue(oldHead);
-      final var newHead = addCause(state, oldHead, data);
-      final var newVal = computeValue(newHead);
+      processDirtyPoints();
+    }
+    processDirtyComponents();
+  }
 
-      // if the value at point has changed, propagate it
-      if (!newVal.equals(oldVal)) {
-        state.markPointAsDirty(data.loc);
+  /**
+   * The changes of one CircuitState within a single step. They are applied in serial number order
+   * by one worker, which never touches any other state.
+   */
+  private static class StateChanges {
+    final ArrayList<SetData> changes = new ArrayList<>();
+    final ArrayList<SetData> unused = new ArrayList<>();
+    int duplicates = 0;
+
+    void apply(long step) {
+      for (final var data : changes) {
+        if (!data.state.markHandled(step, data.cause, data.loc)) {
+          duplicates++;
+          unused.add(data);
+        } else if (!applyChange(data)) {
+          unused.add(data);
+        }
       }
     }
+  }
+
+  private record DirtyPoints(CircuitState state, Set<Location> points) {}
 
-    root.processDirtyPoints();
-    root.processDirtyComponents();
+  /**
+   * The parallel variant of a step. Only the work that stays within one CircuitState is spread
+   * over the fork-join pool: applying the changes, and propagating them along the wires. The
+   * components are then propagated serially in the usual order, so changes crossing
+   * subcircuit boundaries, and the serial numbers of all new changes, come out exactly as with
+   * the serial engine. The dirty sets of the states are only drained on the calling thread; the
+   * workers add to them through their hand-off queues.
+   */
+  private void stepParallel(long step) {
+    final var byState = new LinkedHashMap<CircuitState, StateChanges>();
+    var count = 0;
+    while (true) {
+      final var data = toProcess.peek();
+      if (data == null || data.time != clock) break;
+      toProcess.poll();
+      byState.computeIfAbsent(data.state, s -> new StateChanges()).changes.add(data);
+      count++;
+    }
+
+    final var groups = byState.values();
+    if (groups.size() > 1 && count >= PARALLEL_MIN_CHANGES) {
+      groups.parallelStream().forEach(g -> g.apply(step));
+    } else {
+      for (final var group : groups) group.apply(step);
+    }
+    var duplicates = 0;
+    for (final var group : groups) {
+      duplicates += group.duplicates;
+      for (final var data : group.unused) toProcess.recycle(data);
+    }
+    eventCount += count - duplicates;
+    stepDuplicates = duplicates;
+    totalDuplicates += duplicates;
+
+    // the points are taken on this thread, so that the dirty sets are only drained by it
+    final var dirty = new ArrayList<DirtyPoints>();
+    for (final var state : takeStates(pointStates)) {
+      final var points = state.takeDirtyPoints();
+      if (points != null) dirty.add(new DirtyPoints(state, points));
+    }
+    if (dirty.size() > 1) {
+      dirty.parallelStream().forEach(d -> d.state().propagatePoints(d.points()));
+    } else {
+      for (final var d : dirty) d.state().propagatePoints(d.points());
+    }
   }
 
   public boolean toggleClocks() {
     halfClockCycles++;
-    return root.toggleClocks(halfClockCycles);
+    var ret = false;
+    for (final var state : clockStateArray) ret |= state.toggleClocks(halfClockCycles);
+    return ret;
+  }
+
+  /** Adds the state to the states with clocks if it has any, or removes it if it has none. */
+  synchronized void updateClocks(CircuitState state) {
+    final var changed = state.hasClocks() ? clockStates.add(state) : clockStates.remove(state);
+    if (changed) clockStateArray = clockStates.toArray(new CircuitState[0]);
+  }
+
+  /** Updates the states with clocks for a state that joined the tree, and its substates. */
+  synchronized void addClocks(CircuitState state) {
+    updateClocks(state);
+    for (final var sub : state.getSubStates()) addClocks(sub);
+  }
+
+  /** Removes a state that left the tree, and its substates, from the states with clocks. */
+  synchronized void removeClocks(CircuitState state) {
+    if (clockStates.remove(state)) clockStateArray = clockStates.toArray(new CircuitState[0]);
+    for (final var sub : state.getSubStates()) removeClocks(sub);
   }
 
   @Override
@@ -430,6 +804,34 @@ public class Propagator {
     return "Prop" + id;
   }
 
+  /**
+   * Swaps in the scheduler selected in the project options, carrying over all pending changes.
+   * Only called from the thread driving this propagator, as the queue is not thread safe.
+   */
+  private void checkScheduler() {
+    final var wantCalendar = simScheduler == Options.SIM_SCHEDULER_CALENDAR;
+    if (wantCalendar == (toProcess instanceof CalendarPropagationQueue)) return;
+    final var newQueue = wantCalendar ? new CalendarPropagationQueue() : new HeapPropagationQueue();
+    while (!toProcess.isEmpty()) newQueue.add(toProcess.poll());
+    toProcess = newQueue;
+  }
+
+  private void updateScheduler() {
+    final var opts = root.getProject().getOptions();
+    simScheduler = opts.getAttributeSet().getValue(Options.ATTR_SIM_SCHEDULER);
+  }
+
+  private void updateEngine() {
+    final var opts = root.getProject().getOptions();
+    simEngine = opts.getAttributeSet().getValue(Options.ATTR_SIM_ENGINE);
+    invalidateLevelized();
+  }
+
+  private void updateParallel() {
+    final var opts = root.getProject().getOptions();
+    simParallel = opts.getAttributeSet().getValue(Options.ATTR_SIM_PARALLEL);
+  }
+
   private void updateRandomness() {
     final var opts = root.getProject().getOptions();
     final var rand = opts.getAttributeSet().getValue(Options.ATTR_SIM_RAND);
@@ -27,12 +27,18 @@ public class Simulator {
     private final boolean didTick;
     private final boolean didSingleStep;
     private final boolean didPropagate;
+    private final int tickCount;
 
     public Event(Simulator src, boolean t, boolean s, boolean p) {
+      this(src, t, s, p, t ? 1 : 0);
+    }
+
+    public Event(Simulator src, boolean t, boolean s, boolean p, int ticks) {
       source = src;
       didTick = t;
       didSingleStep = s;
       didPropagate = p;
+      tickCount = ticks;
     }
 
     public Simulator getSource() {
@@ -50,6 +56,14 @@ public class Simulator {
     public boolean didPropagate() {
       return didPropagate;
     }
+
+    /**
+     * Returns the number of ticks since the previous event. At high tick frequencies the simulator
+     * runs the ticks in batches, and reports a batch with a single event.
+     */
+    public int getTickCount() {
+      return tickCount;
+    }
   }
 
   public interface Listener {
@@ -59,6 +73,14 @@ public class Simulator {
       return false;
     }
 
+    /**
+     * Returns true if the listener wants a propagationCompleted for every tick, also when the
+     * ticks are run in a batch. Other listeners get one event per batch.
+     */
+    default boolean wantEveryTick() {
+      return false;
+    }
+
     default void propagationStarted(Event e) {
       // do nothing
     }
@@ -104,10 +126,25 @@ public class Simulator {
   //               only happens when autoTicking is off), the thread wakes up
   //               and invokes step(). If if autoTicking is on and signals are
   //               stable, then toggleClocks() is also called before step().
+  //
+  // When the tick period is shorter than TURBO_SLICE_NANOS, the auto-ticks are
+  // run in batches: the thread wakes up once per slice and does all ticks that
+  // are due, as many as fit in a slice, before it notifies the listeners. A
+  // batch ends early on any request, and when the circuit oscillates or an
+  // exception occurs.
   private static class SimThread extends UniquelyNamedThread {
 
+    private static final long TURBO_SLICE_NANOS = 20_000_000L;
+
     private final Simulator sim;
     private long lastTick = System.nanoTime();
+    private long lastBatch = lastTick;
+    // the measured time and number of events of a tick, also used to size the batches
+    private volatile double tickNanos = 0.0;
+    private volatile double tickEvents = 0.0;
+
+    // Changed on every request, so a batch of ticks can see it without the lock.
+    private volatile int requests = 0;
 
     // NOTE: These variables must only be accessed with lock held.
     private Propagator propagator = null;
@@ -150,6 +187,14 @@ public class Simulator {
       return autoTickFreq;
     }
 
+    double getTickNanos() {
+      return tickNanos;
+    }
+
+    double getTickEvents() {
+      return tickEvents;
+    }
+
     synchronized void drawStepPoints(ComponentDrawContext context) {
       if (!autoPropagating) stepPoints.draw(context);
     }
@@ -166,12 +211,18 @@ public class Simulator {
       return autoPropagating ? "" : stepPoints.getSingleStepMessage();
     }
 
+    // called with the lock held
+    private void wake() {
+      requests++;
+      notifyAll();
+    }
+
     synchronized boolean setPropagator(Propagator value) {
       if (propagator == value) return false;
       propagator = value;
       manualTicksRequested = 0;
       manualStepsRequested = 0;
-      notifyAll();
+      wake();
       return true;
     }
 
@@ -181,14 +232,14 @@ public class Simulator {
       if (autoPropagating)
         manualStepsRequested = 0; // manual steps not allowed in autoPropagating mode
       else nudgeRequested = false; // nudges not allowed in single-step mode
-      notifyAll();
+      wake();
       return true;
     }
 
     synchronized boolean setAutoTicking(boolean value) {
       if (autoTicking == value) return false;
       autoTicking = value;
-      notifyAll();
+      wake();
       return true;
     }
 
@@ -196,38 +247,38 @@ public class Simulator {
       if (autoTickFreq == freq) return false;
       autoTickFreq = freq;
       autoTickNanos = freq <= 0 ? 0 : Math.round(1.0e9 / autoTickFreq);
-      notifyAll();
+      wake();
       return true;
     }
 
     synchronized void requestStep() {
       manualStepsRequested++;
       autoPropagating = false;
-      notifyAll();
+      wake();
     }
 
     synchronized void requestTick(int count) {
       manualTicksRequested += count;
-      notifyAll();
+      wake();
     }
 
     synchronized void requestReset() {
       resetRequested = true;
       manualTicksRequested = 0;
       manualStepsRequested = 0;
-      notifyAll();
+      wake();
     }
 
     synchronized boolean requestNudge() {
       if (!autoPropagating) return false;
       nudgeRequested = true;
-      notifyAll();
+      wake();
       return true;
     }
 
     synchronized void requestShutDown() {
       complete = true;
-      notifyAll();
+      wake();
     }
 
     private boolean loop() {
@@ -240,6 +291,9 @@ public class Simulator {
       boolean doStep = false;
       boolean doProp = false;
       long now = 0;
+      long period = 0;
+      int ticks = 1;
+      int batchRequests = 0;
 
       synchronized (this) {
         boolean ready = false;
@@ -278,12 +332,20 @@ public class Simulator {
           long delta = 0;
           if (autoTicking && autoPropagating && autoTickNanos > 0) {
             // see if it is time to do an auto-tick
-            long deadline = lastTick + autoTickNanos;
+            final var turbo = autoTickNanos < TURBO_SLICE_NANOS;
+            long deadline = turbo ? lastBatch + TURBO_SLICE_NANOS : lastTick + autoTickNanos;
             delta = deadline - now;
             if (delta <= 0) {
               doTick = true;
               doProp = true;
               ready = true;
+              period = autoTickNanos;
+              if (turbo) {
+                final var due = Math.max(1, (now - lastTick) / period);
+                final var fit =
+                    tickNanos > 0 ? Math.max(1, (long) (TURBO_SLICE_NANOS / tickNanos)) : 1;
+                ticks = (int) Math.min(Math.min(due, fit), Integer.MAX_VALUE);
+              }
             }
           }
 
@@ -298,6 +360,7 @@ public class Simulator {
         } while (!ready);
 
         oops = false;
+        batchRequests = requests;
       }
       // DEBUGGING
       // System.out.printf("%d nudge %s tick %s prop %s step %s\n", cnt++, doNudge, doTick, doProp,
@@ -320,24 +383,56 @@ public class Simulator {
           err.printStackTrace();
         }
 
-      if (doTick || (doTickIfStable && prop != null && !prop.isPending())) {
-        lastTick = now;
-        ticked = true;
-        if (prop != null) hasClocks = prop.toggleClocks();
+      final var tickListeners = ticks > 1 ? sim.getTickListeners() : null;
+      final var tickStart = System.nanoTime();
+      final var startEvents = prop == null ? 0 : prop.getEventCount();
+      var ticksDone = 0;
+      while (true) {
+        if (doTick || (doTickIfStable && prop != null && !prop.isPending())) {
+          ticked = true;
+          ticksDone++;
+          if (prop != null) hasClocks = prop.toggleClocks();
+        }
+
+        if (doProp || doNudge)
+          try {
+            if (ticksDone <= 1) sim.firePropagationStarted(ticked); // FIXME: ack, wrong thread!
+            propagated = doProp;
+            final var p = sim.getPropagationListener();
+            final var evt = p == null ? null : new Event(sim, false, false, false);
+            stepPoints.clear();
+            if (prop != null) propagated |= prop.propagate(p, evt);
+          } catch (Exception err) {
+            oops = true;
+            err.printStackTrace();
+          }
+
+        if (!ticked
+            || ticksDone >= ticks
+            || prop == null
+            || !hasClocks
+            || oops
+            || prop.isOscillating()
+            || requests != batchRequests) break;
+        if (!tickListeners.isEmpty()) sim.fireTickCompleted(tickListeners, propagated);
       }
 
-      if (doProp || doNudge)
-        try {
-          sim.firePropagationStarted(ticked); // FIXME: ack, wrong thread!
-          propagated = doProp;
-          final var p = sim.getPropagationListener();
-          final var evt = p == null ? null : new Event(sim, false, false, false);
-          stepPoints.clear();
-          if (prop != null) propagated |= prop.propagate(p, evt);
-        } catch (Exception err) {
-          oops = true;
-          err.printStackTrace();
+      if (ticked) {
+        final var nanos = (double) (System.nanoTime() - tickStart) / ticksDone;
+        tickNanos = tickNanos > 0 ? (tickNanos + nanos) / 2 : nanos;
+        if (prop != null) {
+          final var events = (double) (prop.getEventCount() - startEvents) / ticksDone;
+          tickEvents = tickEvents > 0 ? (tickEvents + events) / 2 : events;
+        }
+        if (period > 0 && period < TURBO_SLICE_NANOS) {
+          lastBatch = now;
+          lastTick += ticksDone * period;
+          // do not try to catch up when the circuit cannot keep up with the frequency
+          if (now - lastTick > TURBO_SLICE_NANOS) lastTick = now;
+        } else {
+          lastTick = now;
         }
+      }
 
       if (doStep)
         try {
@@ -371,7 +466,7 @@ public class Simulator {
       // some components.
       if (ticked || stepped || propagated || doNudge)
         sim.firePropagationCompleted(
-            ticked, stepped && !propagated, propagated); // FIXME: ack, wrong thread!
+            ticked, stepped && !propagated, propagated, ticksDone); // FIXME: ack, wrong thread!
       if (clockDied) sim.fireSimulatorStateChanged(); // FIXME: ack, wrong thread!
       return true;
     }
@@ -476,13 +571,26 @@ public class Simulator {
   }
 
   // called from simThread, but probably should not be
-  private void firePropagationCompleted(boolean t, boolean s, boolean p) {
-    final var event = new Event(this, t, s, p);
+  private void firePropagationCompleted(boolean t, boolean s, boolean p, int ticks) {
+    final var event = new Event(this, t, s, p, ticks);
+    final var lastTick = ticks > 1 ? new Event(this, t, s, p) : event;
     for (final var listener : copyListeners()) {
-      listener.propagationCompleted(event);
+      listener.propagationCompleted(listener.wantEveryTick() ? lastTick : event);
     }
   }
 
+  // called from simThread for the ticks inside a batch
+  private void fireTickCompleted(ArrayList<Listener> tickListeners, boolean p) {
+    final var event = new Event(this, true, false, p);
+    for (final var listener : tickListeners) listener.propagationCompleted(event);
+  }
+
+  private ArrayList<Listener> getTickListeners() {
+    final var result = copyListeners();
+    result.removeIf(listener -> !listener.wantEveryTick());
+    return result;
+  }
+
   // called from simThread, but probably should not be
   private Listener getPropagationListener() {
     Listener propagationListener = null;
@@ -507,6 +615,16 @@ public class Simulator {
     return simThread.getTickFrequency();
   }
 
+  /** Returns the average time the simulation of a tick takes, in nanoseconds, or 0 if unknown. */
+  public double getTickCost() {
+    return simThread.getTickNanos();
+  }
+
+  /** Returns the average number of signal changes a tick causes. */
+  public double getEventsPerTick() {
+    return simThread.getTickEvents();
+  }
+
   public boolean isExceptionEncountered() {
     return simThread.isExceptionEncountered();
   }
@@ -296,14 +296,14 @@ public class SubcircuitFactory extends InstanceFactory {
   }
 
   public CircuitState getSubstate(CircuitState superState, Component comp) {
-    return getSubstate(createInstanceState(superState, comp));
+    return getSubstate(superState.getInstanceState(comp));
   }
 
   //
   // propagation-oriented methods
   //
   public CircuitState getSubstate(CircuitState superState, Instance instance) {
-    return getSubstate(createInstanceState(superState, instance));
+    return getSubstate(superState.getInstanceState(instance));
   }
 
   private CircuitState getSubstate(InstanceState instanceState) {
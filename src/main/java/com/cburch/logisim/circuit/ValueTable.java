@@ -0,0 +1,133 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.circuit;
+
+import com.cburch.logisim.circuit.Propagator.SetData;
+import com.cburch.logisim.data.Location;
+import com.cburch.logisim.data.Value;
+import java.util.Arrays;
+
+/**
+ * The wire values and driver lists of one {@link CircuitState}, held in flat arrays indexed by the
+ * ids of a {@link LocationIndex}. A table is bound to one index for its whole life; {@link
+ * #migrateTo} moves the contents over when the circuit starts a new index.
+ *
+ * <p>Only part of the event path uses the ids directly. A value set through {@link PortSlots}
+ * carries its id to the table. A value set at a {@link Location}, and a point on no wire in
+ * {@code CircuitWires.propagate}, are looked up in the location map of the index instead. The
+ * dirty points and the wire bundles are kept by location too, so a change still hashes its
+ * location there.
+ */
+final class ValueTable {
+  private static final int INITIAL_CAPACITY = 16;
+
+  final LocationIndex index;
+  private Value[] values;
+  private SetData[] causes;
+
+  ValueTable(LocationIndex index) {
+    this.index = index;
+    final var capacity = Math.max(INITIAL_CAPACITY, index.size());
+    values = new Value[capacity];
+    causes = new SetData[capacity];
+  }
+
+  /** Returns a table bound to the given index that holds the same values and causes as this one. */
+  ValueTable migrateTo(LocationIndex newIndex) {
+    final var ret = new ValueTable(newIndex);
+    final var vals = values;
+    final var cs = causes;
+    final var count = Math.min(index.size(), vals.length);
+    for (var id = 0; id < count; id++) {
+      if (vals[id] == null && cs[id] == null) continue;
+      final var newId = ret.id(index.getLocation(id));
+      ret.values[newId] = vals[id];
+      ret.causes[newId] = cs[id];
+    }
+    return ret;
+  }
+
+  /** Returns the id of the given location, making room for it if needed. */
+  int id(Location loc) {
+    return ensure(index.getOrAdd(loc));
+  }
+
+  /** Makes room for an id already handed out by the index of this table, and returns it. */
+  int ensure(int id) {
+    if (id >= values.length) {
+      final var capacity = Math.max(2 * values.length, id + 1);
+      causes = Arrays.copyOf(causes, capacity);
+      values = Arrays.copyOf(values, capacity);
+    }
+    return id;
+  }
+
+  Location getLocation(int id) {
+    return index.getLocation(id);
+  }
+
+  Value getValue(int id) {
+    final var vals = values;
+    return id >= 0 && id < vals.length ? vals[id] : null;
+  }
+
+  Value getValue(Location loc) {
+    return getValue(index.get(loc));
+  }
+
+  /** Stores the value at the given id and returns the previous one. */
+  Value putValue(int id, Value val) {
+    final var old = values[id];
+    values[id] = val;
+    return old;
+  }
+
+  SetData getCause(int id) {
+    final var cs = causes;
+    return id >= 0 && id < cs.length ? cs[id] : null;
+  }
+
+  SetData getCause(Location loc) {
+    return getCause(index.get(loc));
+  }
+
+  void setCause(int id, SetData head) {
+    causes[id] = head;
+  }
+
+  /** Calls the action for every id that has a driver list. */
+  void forEachCause(CauseAction action) {
+    final var cs = causes;
+    final var count = Math.min(index.size(), cs.length);
+    for (var id = 0; id < count; id++) {
+      if (cs[id] != null) action.apply(id, cs[id]);
+    }
+  }
+
+  void copyValuesFrom(ValueTable src) {
+    final var count = Math.min(src.index.size(), src.values.length);
+    for (var id = 0; id < count; id++) {
+      final var val = src.values[id];
+      if (val != null) values[id(src.index.getLocation(id))] = val;
+    }
+  }
+
+  void clearValues() {
+    Arrays.fill(values, null);
+  }
+
+  void clearCauses() {
+    Arrays.fill(causes, null);
+  }
+
+  interface CauseAction {
+    void apply(int id, SetData head);
+  }
+}
@@ -21,10 +21,17 @@ class WireBundle {
   private Location widthDeterminant = null;
   private boolean isBus_ = false;
   WireThread[] threads = null;
+  // index of this bundle in its bundle map and the ids of its threads, set if it has threads
+  int id = -1;
+  int[] threadIds = null;
   final CopyOnWriteArraySet<Location> points = new CopyOnWriteArraySet<>(); // points
   // bundle
   // hits
   private WidthIncompatibilityData incompatibilityData = null;
+  private PointIds pointIds = null;
+
+  // ids of points, resolved against one location index
+  private record PointIds(LocationIndex index, int[] ids) {}
 
   WireBundle() {
     parent = this;
@@ -44,6 +51,17 @@ class WireBundle {
     return ret;
   }
 
+  /** Returns the ids of this bundle's points in the given value table. */
+  int[] getPointIds(ValueTable table) {
+    final var cached = pointIds;
+    if (cached != null && cached.index() == table.index) return cached.ids();
+    final var locs = points.toArray(new Location[0]);
+    final var ids = new int[locs.length];
+    for (var i = 0; i < locs.length; i++) ids[i] = table.id(locs[i]);
+    pointIds = new PointIds(table.index, ids);
+    return ids;
+  }
+
   Value getPullValue() {
     return pullValue;
   }
@@ -9,12 +9,15 @@
 
 package com.cburch.logisim.circuit;
 
-import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.ArrayList;
+import java.util.List;
 
 class WireThread {
   private WireThread parent;
-  private final CopyOnWriteArraySet<CircuitWires.ThreadBundle> bundles =
-      new CopyOnWriteArraySet<>();
+  // only added to while the bundle map is computed
+  private final ArrayList<CircuitWires.ThreadBundle> bundles = new ArrayList<>();
+  // index of this thread in its bundle map, assigned to the representative of each group
+  int id = -1;
 
   WireThread() {
     parent = this;
@@ -30,7 +33,7 @@ class WireThread {
     return ret;
   }
 
-  CopyOnWriteArraySet<CircuitWires.ThreadBundle> getBundles() {
+  List<CircuitWires.ThreadBundle> getBundles() {
     return bundles;
   }
 
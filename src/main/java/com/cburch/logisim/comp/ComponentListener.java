@@ -18,6 +18,11 @@ public interface ComponentListener {
     // no-op implementation
   }
 
+  /** Called when the bounds of the component change without it being moved. */
+  default void boundsChanged(ComponentEvent e) {
+    // no-op implementation
+  }
+
   default void labelChanged(ComponentEvent e) {
     // no-op implementation
   }
@@ -48,7 +48,7 @@ public abstract class ManagedComponent extends AbstractComponent {
       fireEndChanged(new ComponentEvent(this, end, null));
     }
     ends.clear();
-    bounds = null;
+    recomputeBounds();
   }
 
   //
@@ -63,6 +63,14 @@ public abstract class ManagedComponent extends AbstractComponent {
     }
   }
 
+  protected void fireBoundsChanged() {
+    ComponentEvent e = null;
+    for (final var l : listeners) {
+      if (e == null) e = new ComponentEvent(this);
+      l.boundsChanged(e);
+    }
+  }
+
   protected void fireComponentInvalidated(ComponentEvent e) {
     for (final var l : listeners) {
       l.componentInvalidated(e);
@@ -139,6 +147,7 @@ public abstract class ManagedComponent extends AbstractComponent {
 
   protected void recomputeBounds() {
     bounds = null;
+    fireBoundsChanged();
   }
 
   @Override
@@ -156,6 +165,7 @@ public abstract class ManagedComponent extends AbstractComponent {
 
   public void setBounds(Bounds bounds) {
     this.bounds = bounds;
+    fireBoundsChanged();
   }
 
   public void setEnd(int i, EndData data) {
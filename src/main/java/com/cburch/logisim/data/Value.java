@@ -16,7 +16,11 @@ import java.util.Arrays;
 
 public class Value {
 
-  private static Value create(int width, long error, long unknown, long value) {
+  /**
+   * Returns the value of the given width whose bits are error where set in {@code error}, else
+   * unknown where set in {@code unknown}, and else as given by {@code value}.
+   */
+  public static Value create(int width, long error, long unknown, long value) {
     if (width == 0) {
       return Value.NIL;
     } else if (width == 1) {
@@ -12,6 +12,8 @@ package com.cburch.logisim.file;
 import static com.cburch.logisim.file.Strings.S;
 
 import com.cburch.logisim.data.Attribute;
+import com.cburch.logisim.data.AttributeEvent;
+import com.cburch.logisim.data.AttributeListener;
 import com.cburch.logisim.data.AttributeOption;
 import com.cburch.logisim.data.AttributeSet;
 import com.cburch.logisim.data.AttributeSets;
@@ -22,6 +24,16 @@ public class Options {
       new AttributeOption("ignore", S.getter("gateUndefinedIgnore"));
   public static final AttributeOption GATE_UNDEFINED_ERROR =
       new AttributeOption("error", S.getter("gateUndefinedError"));
+  public static final AttributeOption SIM_SCHEDULER_HEAP =
+      new AttributeOption("heap", S.getter("simSchedulerHeap"));
+  public static final AttributeOption SIM_SCHEDULER_CALENDAR =
+      new AttributeOption("calendar", S.getter("simSchedulerCalendar"));
+  public static final AttributeOption SIM_ENGINE_EVENT =
+      new AttributeOption("event", S.getter("simEngineEvent"));
+  public static final AttributeOption SIM_ENGINE_LEVELIZED =
+      new AttributeOption("levelized", S.getter("simEngineLevelized"));
+  public static final AttributeOption SIM_ENGINE_CHECK =
+      new AttributeOption("crosscheck", S.getter("simEngineCheck"));
 
   public static final Attribute<Integer> ATTR_SIM_LIMIT =
       Attributes.forInteger("simlimit", S.getter("simLimitOption"));
@@ -32,22 +44,55 @@ public class Options {
           "gateUndefined",
           S.getter("gateUndefinedOption"),
           new AttributeOption[] {GATE_UNDEFINED_IGNORE, GATE_UNDEFINED_ERROR});
+  public static final Attribute<AttributeOption> ATTR_SIM_SCHEDULER =
+      Attributes.forOption(
+          "simScheduler",
+          S.getter("simSchedulerOption"),
+          new AttributeOption[] {SIM_SCHEDULER_HEAP, SIM_SCHEDULER_CALENDAR});
+  public static final Attribute<Boolean> ATTR_SIM_PARALLEL =
+      Attributes.forBoolean("simParallel", S.getter("simParallelOption"));
+  public static final Attribute<AttributeOption> ATTR_SIM_ENGINE =
+      Attributes.forOption(
+          "simEngine",
+          S.getter("simEngineOption"),
+          new AttributeOption[] {SIM_ENGINE_EVENT, SIM_ENGINE_LEVELIZED, SIM_ENGINE_CHECK});
 
   public static final Integer SIM_RAND_DFLT = 32;
 
   private static final Attribute<?>[] ATTRIBUTES = {
-    ATTR_GATE_UNDEFINED, ATTR_SIM_LIMIT, ATTR_SIM_RAND
+    ATTR_GATE_UNDEFINED,
+    ATTR_SIM_LIMIT,
+    ATTR_SIM_RAND,
+    ATTR_SIM_SCHEDULER,
+    ATTR_SIM_PARALLEL,
+    ATTR_SIM_ENGINE
+  };
+  private static final Object[] DEFAULTS = {
+    GATE_UNDEFINED_IGNORE, 1000, 0, SIM_SCHEDULER_HEAP, Boolean.FALSE, SIM_ENGINE_EVENT
   };
-  private static final Object[] DEFAULTS = {GATE_UNDEFINED_IGNORE, 1000, 0};
 
   private final AttributeSet attrs;
   private final MouseMappings mmappings;
   private final ToolbarData toolbar;
+  // read by the gates on every propagation, so kept apart from the attribute set
+  private volatile boolean gateUndefinedError;
 
   public Options() {
     attrs = AttributeSets.fixedSet(ATTRIBUTES, DEFAULTS);
     mmappings = new MouseMappings();
     toolbar = new ToolbarData();
+    attrs.addAttributeListener(
+        new AttributeListener() {
+          @Override
+          public void attributeValueChanged(AttributeEvent e) {
+            if (e.getAttribute() == ATTR_GATE_UNDEFINED) updateGateUndefined();
+          }
+        });
+    updateGateUndefined();
+  }
+
+  private void updateGateUndefined() {
+    gateUndefinedError = GATE_UNDEFINED_ERROR.equals(attrs.getValue(ATTR_GATE_UNDEFINED));
   }
 
   public void copyFrom(Options other, LogisimFile dest) {
@@ -67,4 +112,9 @@ public class Options {
   public ToolbarData getToolbarData() {
     return toolbar;
   }
+
+  /** Returns true if a gate with an unconnected input outputs an error. */
+  public boolean isGateUndefinedError() {
+    return gateUndefinedError;
+  }
 }
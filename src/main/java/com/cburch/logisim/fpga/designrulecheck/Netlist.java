@@ -33,7 +33,7 @@ import java.awt.Color;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -79,6 +79,9 @@ public class Netlist {
 
   private String circuitName;
   private final ArrayList<Net> myNets = new ArrayList<>();
+  // the net each location belongs to, and the position of each net in myNets
+  private final Map<Location, Net> netAt = new HashMap<>();
+  private final Map<Net, Integer> netIds = new HashMap<>();
   private final ArrayList<netlistComponent> mySubCircuits = new ArrayList<>();
   private final ArrayList<netlistComponent> myComponents = new ArrayList<>();
   private final ArrayList<netlistComponent> myClockGenerators = new ArrayList<>();
@@ -92,7 +95,6 @@ public class Netlist {
   private final ClockTreeFactory myClockInformation = new ClockTreeFactory();
   private final Circuit myCircuit;
   private int drcStatus;
-  private final Set<Wire> wires = new HashSet<>();
   private ArrayList<String> currentHierarchyLevel;
   public static final int DRC_REQUIRED = 4;
   public static final int DRC_PASSED = 0;
@@ -126,6 +128,8 @@ public class Netlist {
     }
     drcStatus = DRC_REQUIRED;
     myNets.clear();
+    netAt.clear();
+    netIds.clear();
     mySubCircuits.clear();
     myComponents.clear();
     myClockGenerators.clear();
@@ -464,11 +468,15 @@ public class Netlist {
 
     /* Only if we are on the top-level we are going to build the clock-tree */
     if (isTopLevel) {
+      var phaseStart = System.nanoTime();
       if (!detectClockTree()) {
         drcStatus = DRC_ERROR;
         return drcStatus;
       }
+      var clockTreeTime = System.nanoTime() - phaseStart;
+      phaseStart = System.nanoTime();
       constructHierarchyTree(null, new ArrayList<>(), 0, 0, 0);
+      reportPhaseTime("DRCPhaseBubbles", System.nanoTime() - phaseStart);
       var ports =
           getNumberOfInputPorts()
               + numberOfOutputPorts()
@@ -481,10 +489,13 @@ public class Netlist {
         return drcStatus;
       }
       /* Check for gated clocks */
+      phaseStart = System.nanoTime();
       if (!detectGatedClocks()) {
         drcStatus = DRC_ERROR;
         return drcStatus;
       }
+      clockTreeTime += System.nanoTime() - phaseStart;
+      reportPhaseTime("DRCPhaseClockTree", clockTreeTime);
     }
 
     Reporter.report.addInfo(S.get("CircuitInfoString", myCircuit.getName(), numberOfNets(), numberOfBusses()));
@@ -541,10 +552,34 @@ public class Netlist {
   }
 
   private Net findConnectedNet(Location loc) {
-    for (final var current : myNets) {
-      if (current.contains(loc)) return current;
-    }
-    return null;
+    return netAt.get(loc);
+  }
+
+  private void addNet(Net net) {
+    myNets.add(net);
+    for (final var loc : net.getPoints()) netAt.put(loc, net);
+    netIds.clear();
+  }
+
+  /**
+   * Merges the second net into the first one, which takes over all its locations. The caller
+   * removes the second net from the list of nets, see {@link #removeNets}.
+   */
+  private boolean mergeNets(Net into, Net from) {
+    if (!into.merge(from)) return false;
+    for (final var loc : from.getPoints()) netAt.put(loc, into);
+    return true;
+  }
+
+  private void removeNets(Set<Net> nets) {
+    if (nets.isEmpty()) return;
+    myNets.removeIf(nets::contains);
+    netIds.clear();
+  }
+
+  private void reportPhaseTime(String phaseKey, long nanos) {
+    Reporter.report.addInfo(
+        S.get("DRCPhaseTime", myCircuit.getName(), S.get(phaseKey), nanos / 1_000_000));
   }
 
   private boolean generateNetlist() {
@@ -563,15 +598,20 @@ public class Netlist {
       progress.setString(S.get("NetListBuild", circuitName, 1));
     }
 
-    wires.clear();
+    var phaseStart = System.nanoTime();
+    // FIRST PASS: In this pass we take all wire segments and join the ones that
+    // share an end point. Each group of connected segments forms a net. The nets
+    // are numbered in the order of their first segment in a hash set of the wires,
+    // as the former pairwise search did, so that the generated net names stay the same.
+    final var wires = new HashSet<Wire>();
     wires.addAll(myCircuit.getWires());
-    // FIRST PASS: In this pass we take all wire segments and see if they
-    // are connected to other segments. If they are connected we build a net.
-    while (wires.size() != 0) {
-      final var newNet = new Net();
-      getNet(null, newNet);
-      if (!newNet.isEmpty()) myNets.add(newNet);
+    final var connected = new UnionFind<Location>();
+    for (final var wire : wires) connected.union(wire.getEnd0(), wire.getEnd1());
+    final var wireNets = new LinkedHashMap<Location, Net>();
+    for (final var wire : wires) {
+      wireNets.computeIfAbsent(connected.find(wire.getEnd0()), root -> new Net()).add(wire);
     }
+    for (final var net : wireNets.values()) addNet(net);
     // Here we start to detect direct input-output component connections, read we detect "hidden"
     // nets
     final var components = myCircuit.getNonWires();
@@ -631,9 +671,9 @@ public class Netlist {
         }
         /* Here we are going to mark the bitwidths on the nets */
         final var width = end.getWidth().getWidth();
-        final var loc = end.getLocation();
-        for (final var thisNet : myNets) {
-          if (thisNet.contains(loc) && !thisNet.setWidth(width)) drc.get(1).addMarkComponents(thisNet.getWires());
+        final var thisNet = findConnectedNet(end.getLocation());
+        if (thisNet != null && !thisNet.setWidth(width)) {
+          drc.get(1).addMarkComponents(thisNet.getWires());
         }
       }
     }
@@ -662,14 +702,10 @@ public class Netlist {
         final var loc = end.getLocation();
         if (points.containsKey(loc)) {
           /* Found a connection already used */
-          var newNet = true;
-          for (final var net : myNets) {
-            if (net.contains(loc)) newNet = false;
-          }
-          if (newNet) {
+          if (findConnectedNet(loc) == null) {
             final var bitWidth = points.get(loc);
             if (bitWidth == end.getWidth().getWidth()) {
-              myNets.add(new Net(loc, bitWidth));
+              addNet(new Net(loc, bitWidth));
             } else {
               drc.get(0).addMarkComponent(comp);
             }
@@ -694,40 +730,43 @@ public class Netlist {
      */
     var areTunnelsPresent = false;
     for (final var comp : tunnelList) {
-      final var ends = comp.getEnds();
-      for (final var end : ends) {
-        for (final var thisNet : myNets) {
-          if (thisNet.contains(end.getLocation())) {
-            thisNet.addTunnel(comp.getAttributeSet().getValue(StdAttr.LABEL));
-            areTunnelsPresent = true;
-          }
+      for (final var end : comp.getEnds()) {
+        final var thisNet = findConnectedNet(end.getLocation());
+        if (thisNet != null) {
+          thisNet.addTunnel(comp.getAttributeSet().getValue(StdAttr.LABEL));
+          areTunnelsPresent = true;
         }
       }
     }
     drc.clear();
     drc.add(new SimpleDrcContainer(myCircuit, S.get("NetMerge_BitWidthError"), SimpleDrcContainer.LEVEL_FATAL, SimpleDrcContainer.MARK_WIRE));
     if (areTunnelsPresent) {
-      final var netIterator = myNets.listIterator();
-      while (netIterator.hasNext()) {
-        final var thisNet = netIterator.next();
-        if (thisNet.hasTunnel() && (myNets.indexOf(thisNet) < (myNets.size() - 1))) {
-          var merged = false;
-          final var searchIterator = myNets.listIterator(myNets.indexOf(thisNet) + 1);
-          while (searchIterator.hasNext() && !merged) {
-            final var searchNet = searchIterator.next();
-            for (final var name : thisNet.getTunnelNames()) {
-              if (searchNet.containsTunnel(name) && !merged) {
-                merged = true;
-                if (!searchNet.merge(thisNet)) {
-                  drc.get(0).addMarkComponents(searchNet.getWires());
-                  drc.get(0).addMarkComponents(thisNet.getWires());
-                }
-              }
-            }
-          }
-          if (merged) netIterator.remove();
+      // Nets that share a tunnel name, directly or through other nets, are merged into the
+      // last net of their group, which keeps its place in the list as with the former
+      // pairwise merging.
+      final var sameTunnel = new UnionFind<Net>();
+      final var firstWithName = new HashMap<String, Net>();
+      for (final var thisNet : myNets) {
+        for (final var name : thisNet.getTunnelNames()) {
+          sameTunnel.union(thisNet, firstWithName.computeIfAbsent(name, key -> thisNet));
         }
       }
+      final var groupNets = new HashMap<Net, Net>();
+      for (final var thisNet : myNets) {
+        if (thisNet.hasTunnel()) groupNets.put(sameTunnel.find(thisNet), thisNet);
+      }
+      final var mergedNets = new HashSet<Net>();
+      for (final var thisNet : myNets) {
+        if (!thisNet.hasTunnel()) continue;
+        final var groupNet = groupNets.get(sameTunnel.find(thisNet));
+        if (groupNet == thisNet) continue;
+        if (!mergeNets(groupNet, thisNet)) {
+          drc.get(0).addMarkComponents(groupNet.getWires());
+          drc.get(0).addMarkComponents(thisNet.getWires());
+        }
+        mergedNets.add(thisNet);
+      }
+      removeNets(mergedNets);
     }
     if (drc.get(0).isDrcInfoPresent()) {
       Reporter.report.addError(drc.get(0));
@@ -737,6 +776,8 @@ public class Netlist {
       progress.setValue(3);
       progress.setString(S.get("NetListBuild", circuitName, 4));
     }
+    reportPhaseTime("DRCPhaseNets", System.nanoTime() - phaseStart);
+    phaseStart = System.nanoTime();
 
     /* At this point all net segments are build. All tunnels have been removed.
      * There is still the processing of the splitters and the determination of
@@ -744,58 +785,48 @@ public class Netlist {
      */
 
     /* First we are going to check on duplicated splitters and remove them */
-    Iterator<Component> mySplitIter = mySplitters.listIterator();
-    while (mySplitIter.hasNext()) {
-      final var thisSplitter = mySplitIter.next();
-      if (mySplitters.indexOf(thisSplitter) < (mySplitters.size() - 1)) {
-        var dupeFound = false;
-        final var searchIter = mySplitters.listIterator(mySplitters.indexOf(thisSplitter) + 1);
-        while (searchIter.hasNext() && !dupeFound) {
-          final var SearchSplitter = searchIter.next();
-          if (SearchSplitter.getLocation().equals(thisSplitter.getLocation())) {
-            dupeFound = true;
-            for (var i = 0; i < SearchSplitter.getEnds().size(); i++) {
-              if (!SearchSplitter.getEnd(i)
-                  .getLocation()
-                  .equals(thisSplitter.getEnd(i).getLocation())) dupeFound = false;
-            }
-          }
-        }
-        if (dupeFound) {
-          final var warn =
-              new SimpleDrcContainer(
-                      myCircuit,
-                      S.get("NetList_duplicatedSplitter"),
-                      SimpleDrcContainer.LEVEL_SEVERE,
-                      SimpleDrcContainer.MARK_INSTANCE);
-          warn.addMarkComponent(thisSplitter);
-          Reporter.report.addWarning(warn);
-          mySplitIter.remove();
-        }
+    // Of the splitters with the same end points only the last one is kept.
+    final var splitterEnds = new HashSet<List<Location>>();
+    final var dupeIter = mySplitters.listIterator(mySplitters.size());
+    while (dupeIter.hasPrevious()) {
+      final var thisSplitter = dupeIter.previous();
+      final var endLocations = new ArrayList<Location>();
+      for (final var end : thisSplitter.getEnds()) endLocations.add(end.getLocation());
+      if (!splitterEnds.add(endLocations)) {
+        final var warn =
+            new SimpleDrcContainer(
+                    myCircuit,
+                    S.get("NetList_duplicatedSplitter"),
+                    SimpleDrcContainer.LEVEL_SEVERE,
+                    SimpleDrcContainer.MARK_INSTANCE);
+        warn.addMarkComponent(thisSplitter);
+        Reporter.report.addWarning(warn);
+        dupeIter.remove();
       }
     }
 
     // In this round we are going to detect the unconnected nets meaning those having a width of 0
     // and remove them
     drc.clear();
-    final Iterator<Net> netIterator = myNets.listIterator();
     drc.add(
         new SimpleDrcContainer(
                 myCircuit,
                 S.get("NetList_emptynets"),
                 SimpleDrcContainer.LEVEL_NORMAL,
                 SimpleDrcContainer.MARK_WIRE));
-    while (netIterator.hasNext()) {
-      final var wire = netIterator.next();
+    final var emptyNets = new HashSet<Net>();
+    for (final var wire : myNets) {
       if (wire.getBitWidth() == 0) {
         drc.get(0).addMarkComponents(wire.getWires());
-        netIterator.remove();
+        for (final var loc : wire.getPoints()) netAt.remove(loc);
+        emptyNets.add(wire);
       }
     }
+    removeNets(emptyNets);
     if (drc.get(0).isDrcInfoPresent()) {
       Reporter.report.addWarning(drc.get(0));
     }
-    mySplitIter = mySplitters.iterator();
+    final var mySplitIter = mySplitters.iterator();
     // We also check quickly the splitters and remove the ones where input-bus is output-bus. We
     // mark those who are not correctly connected and remove both versions from the set.
     drc.clear();
@@ -806,6 +837,7 @@ public class Netlist {
                 SimpleDrcContainer.LEVEL_FATAL,
                 SimpleDrcContainer.MARK_WIRE));
     errors = false;
+    final var mergedNets = new HashSet<Net>();
     while (mySplitIter.hasNext()) {
       final var mySplitter = mySplitIter.next();
       var busWidth = mySplitter.getEnd(0).getWidth().getWidth();
@@ -821,47 +853,22 @@ public class Netlist {
       }
       /* stupid situation first: the splitters bus connection is a single fanout */
       if (busWidth == maxFanoutWidth) {
-        Net busnet = null;
-        Net connectedNet = null;
-        final var busLoc = mySplitter.getEnd(0).getLocation();
-        final var connectedLoc = mySplitter.getEnd(index).getLocation();
-        var issueWarning = false;
         /* here we search for the nets */
-        for (final var currentNet : myNets) {
-          if (currentNet.contains(busLoc)) {
-            if (busnet != null) {
-              Reporter.report.addFatalErrorFmt(
-                  "BUG: Multiple bus nets found for a single splitter\n ==> %s:%d\n",
-                  this.getClass().getName().replace(".", "/"),
-                  Thread.currentThread().getStackTrace()[2].getLineNumber());
-              return false;
-            } else {
-              busnet = currentNet;
-            }
-          }
-          if (currentNet.contains(connectedLoc)) {
-            if (connectedNet != null) {
-              Reporter.report.addFatalErrorFmt(
-                  "BUG: Multiple nets found for a single splitter split connection\n ==> %s:%d\n",
-                  this.getClass().getName().replace(".", "/"),
-                  Thread.currentThread().getStackTrace()[2].getLineNumber());
-              return false;
-            } else {
-              connectedNet = currentNet;
-            }
-          }
-        }
+        final var busnet = findConnectedNet(mySplitter.getEnd(0).getLocation());
+        final var connectedNet = findConnectedNet(mySplitter.getEnd(index).getLocation());
+        var issueWarning = false;
         if (connectedNet != null) {
           if (busnet != null) {
             /* we can merge both nets */
-            if (!busnet.merge(connectedNet)) {
-              Reporter.report.addFatalErrorFmt(
-                  "BUG: Splitter bus merge error\n ==> %s:%d\n",
-                  this.getClass().getName().replace(".", "/"),
-                  Thread.currentThread().getStackTrace()[2].getLineNumber());
-              return false;
-            } else {
-              myNets.remove(connectedNet);
+            if (busnet != connectedNet) {
+              if (!mergeNets(busnet, connectedNet)) {
+                Reporter.report.addFatalErrorFmt(
+                    "BUG: Splitter bus merge error\n ==> %s:%d\n",
+                    this.getClass().getName().replace(".", "/"),
+                    Thread.currentThread().getStackTrace()[2].getLineNumber());
+                return false;
+              }
+              mergedNets.add(connectedNet);
             }
           } else {
             issueWarning = true;
@@ -882,6 +889,7 @@ public class Netlist {
         mySplitIter.remove(); /* Does not exist anymore */
       }
     }
+    removeNets(mergedNets);
 
     if (progress != null) {
       progress.setValue(4);
@@ -897,15 +905,9 @@ public class Netlist {
       // Currently by definition end(0) is the combined end of the splitter
       final var ends = comp.getEnds();
       final var combinedEnd = ends.get(0);
-      var rootNet = -1;
       /* We search for the root net in the list of nets */
-      for (var i = 0; i < myNets.size() && rootNet < 0; i++) {
-        if (myNets.get(i).contains(combinedEnd.getLocation())) {
-          rootNet = i;
-          // FIXME: shouldn't we `break` once we found it?
-        }
-      }
-      if (rootNet < 0) {
+      final var rootNet = findConnectedNet(combinedEnd.getLocation());
+      if (rootNet == null) {
         Reporter.report.addFatalErrorFmt(
             "BUG: Splitter without a bus connection\n ==> %s:%d\n",
             this.getClass().getName().replace(".", "/"),
@@ -915,35 +917,28 @@ public class Netlist {
       }
       // Now we process all the other ends to find the child busses/nets
       // of this root bus
-      final var connections = new ArrayList<Integer>();
+      final var connections = new ArrayList<Net>();
       for (var i = 1; i < ends.size(); i++) {
-        final var thisEnd = ends.get(i);
         /* Find the connected net */
-        var connectedNet = -1;
-        for (var j = 0; j < myNets.size() && connectedNet < 1; j++) {
-          if (myNets.get(j).contains(thisEnd.getLocation())) {
-            connectedNet = j;
-          }
-        }
-        connections.add(connectedNet);
+        connections.add(findConnectedNet(ends.get(i).getLocation()));
       }
       var unconnectedEnds = false;
       var connectedUnknownEnds = false;
       final var sattrs = (SplitterAttributes) comp.getAttributeSet();
       for (var i = 1; i < ends.size(); i++) {
-        var connectedNet = connections.get(i - 1);
-        if (connectedNet >= 0) {
+        final var connectedNet = connections.get(i - 1);
+        if (connectedNet != null) {
           /* Has this end a connection to the root bus? */
           connectedUnknownEnds |= sattrs.isNoConnect(i);
           /* There is a net connected to this splitter's end point */
-          if (!myNets.get(connectedNet).setParent(myNets.get(rootNet))) {
-            myNets.get(connectedNet).forceRootNet();
+          if (!connectedNet.setParent(rootNet)) {
+            connectedNet.forceRootNet();
           }
           /* Here we have to process the inherited bits of the parent */
           final var busBitConnection = ((Splitter) comp).getEndpoints();
           for (byte b = 0; b < busBitConnection.length; b++) {
             if (busBitConnection[b] == i) {
-              myNets.get(connectedNet).addParentBit(b);
+              connectedNet.addParentBit(b);
             }
           }
         } else {
@@ -975,6 +970,8 @@ public class Netlist {
       progress.setValue(5);
       progress.setString(S.get("NetListBuild", circuitName, 6));
     }
+    var splitterTime = System.nanoTime() - phaseStart;
+    phaseStart = System.nanoTime();
     /*
      * Now the complete netlist is created, we have to check that each
      * net/bus entry has only 1 source and 1 or more sinks. If there exist
@@ -1012,6 +1009,8 @@ public class Netlist {
       progress.setValue(6);
       progress.setString(S.get("NetListBuild", circuitName, 7));
     }
+    reportPhaseTime("DRCPhaseConnections", System.nanoTime() - phaseStart);
+    phaseStart = System.nanoTime();
 
     /*
      * Here we are going to process the complex splitters, note that in the
@@ -1027,13 +1026,10 @@ public class Netlist {
             // Currently by definition end(0) is the combined end of the splitter
             final var ends = comp.getEnds();
             final var combinedEnd = ends.get(0);
-            var connectedBus = -1;
             final var sattrs = (SplitterAttributes) comp.getAttributeSet();
             /* We search for the root net in the list of nets */
-            for (var i = 0; i < myNets.size() && connectedBus < 0; i++) {
-              if (myNets.get(i).contains(combinedEnd.getLocation())) connectedBus = i;
-            }
-            if (connectedBus < 0) {
+            final var connectedBus = findConnectedNet(combinedEnd.getLocation());
+            if (connectedBus == null) {
               // This should never happen as we already checked in the first pass.
               Reporter.report.addFatalErrorFmt(
                   "BUG: This is embarasing as this should never happen\n ==> %s:%d\n",
@@ -1057,7 +1053,7 @@ public class Netlist {
                 }
                 byte connectedBusIndex = indexBits.get(bit);
                 // Figure out the rootbusid and rootbusindex
-                var rootBus = myNets.get(connectedBus);
+                var rootBus = connectedBus;
                 while (!rootBus.isRootNet()) {
                   connectedBusIndex = rootBus.getBit(connectedBusIndex);
                   rootBus = rootBus.getParent();
@@ -1082,6 +1078,8 @@ public class Netlist {
         }
       }
     }
+    splitterTime += System.nanoTime() - phaseStart;
+    reportPhaseTime("DRCPhaseSplitters", splitterTime);
     if (progress != null) {
       progress.setMaximum(curMax);
       progress.setValue(curVal);
@@ -1137,7 +1135,7 @@ public class Netlist {
   private List<ConnectionPoint> getHiddenSinks(Net thisNet, Byte bitIndex, List<Component> splitters, Set<String> handledNets, Boolean isSourceNet) {
     final var result = new ArrayList<ConnectionPoint>();
     // to prevent deadlock situations we check if we already looked at this net
-    final var netId = myNets.indexOf(thisNet) + "-" + bitIndex;
+    final var netId = getNetId(thisNet) + "-" + bitIndex;
     if (handledNets.contains(netId)) return result;
     handledNets.add(netId);
 
@@ -1163,10 +1161,7 @@ public class Netlist {
               if (busBitConnection[index] == splitterEnd) netIndex++;
             }
             // Find the connected Net
-            Net slaveNet = null;
-            for (final var thisnet : myNets) {
-              if (thisnet.contains(ends.get(splitterEnd).getLocation())) slaveNet = thisnet;
-            }
+            final var slaveNet = findConnectedNet(ends.get(splitterEnd).getLocation());
             if (slaveNet != null)
               result.addAll(getHiddenSinks(slaveNet, netIndex, splitters, handledNets, false));
           } else {
@@ -1174,10 +1169,7 @@ public class Netlist {
             for (byte b = 0; b < busBitConnection.length; b++) {
               if (busBitConnection[b] == end) rootIndices.add(b);
             }
-            Net rootNet = null;
-            for (final var thisnet : myNets) {
-              if (thisnet.contains(currentSplitter.getEnd(0).getLocation())) rootNet = thisnet;
-            }
+            final var rootNet = findConnectedNet(currentSplitter.getEnd(0).getLocation());
             if (rootNet != null)
               result.addAll(getHiddenSinks(rootNet, rootIndices.get(bitIndex), splitters, handledNets, false));
           }
@@ -1252,28 +1244,11 @@ public class Netlist {
     return components;
   }
 
-  private void getNet(Wire wire, Net thisNet) {
-    final var myIterator = wires.iterator();
-    final var matchedWires = new ArrayList<Wire>();
-    var compWire = wire;
-    while (myIterator.hasNext()) {
-      final var thisWire = myIterator.next();
-      if (compWire == null) {
-        compWire = thisWire;
-        thisNet.add(thisWire);
-        myIterator.remove();
-      } else if (thisWire.sharesEnd(compWire)) {
-        matchedWires.add(thisWire);
-        thisNet.add(thisWire);
-        myIterator.remove();
-      }
-    }
-    for (final var matched : matchedWires) getNet(matched, thisNet);
-    matchedWires.clear();
-  }
-
   public Integer getNetId(Net selectedNet) {
-    return myNets.indexOf(selectedNet);
+    if (netIds.isEmpty()) {
+      for (var i = 0; i < myNets.size(); i++) netIds.put(myNets.get(i), i);
+    }
+    return netIds.getOrDefault(selectedNet, -1);
   }
 
   public ConnectionPoint getNetlistConnectionForSubCircuit(String label, int PortIndex, byte bitindex) {
@@ -1380,12 +1355,12 @@ public class Netlist {
     // If the source net not is null add it to the set of visited nets to prevent back-search on
     // this net
     if (srcNet != null) {
-      final var netId = myNets.indexOf(srcNet) + "-" + srcBitIndex;
+      final var netId = getNetId(srcNet) + "-" + srcBitIndex;
       if (handledNets.contains(netId)) return null;
       handledNets.add(netId);
     }
     // to prevent deadlock situations we check if we already looked at this net
-    final var netId = myNets.indexOf(thisNet) + "-" + bitIndex;
+    final var netId = getNetId(thisNet) + "-" + bitIndex;
     if (handledNets.contains(netId)) return null;
     handledNets.add(netId);
     segments.addAll(thisNet.getWires());
@@ -1418,10 +1393,7 @@ public class Netlist {
               if (busBitConnection[index] == splitterEnd) netIndex++;
             }
             /* Find the connected Net */
-            Net slaveNet = null;
-            for (final var thisnet : myNets) {
-              if (thisnet.contains(ends.get(splitterEnd).getLocation())) slaveNet = thisnet;
-            }
+            final var slaveNet = findConnectedNet(ends.get(splitterEnd).getLocation());
             if (slaveNet != null) {
               final var ret = getHiddenSource(null, (byte) 0, slaveNet, netIndex, splitters, handledNets, segments, splitter);
               if (ret != null) return ret;
@@ -1431,10 +1403,7 @@ public class Netlist {
             for (byte b = 0; b < busBitConnection.length; b++) {
               if (busBitConnection[b] == end) rootIndices.add(b);
             }
-            Net rootNet = null;
-            for (final var thisnet : myNets) {
-              if (thisnet.contains(splitter.getEnd(0).getLocation())) rootNet = thisnet;
-            }
+            final var rootNet = findConnectedNet(splitter.getEnd(0).getLocation());
             if (rootNet != null) {
               final var ret = getHiddenSource(null, (byte) 0, rootNet, rootIndices.get(bitIndex), splitters, handledNets, segments, splitter);
               if (ret != null) return ret;
@@ -1457,12 +1426,12 @@ public class Netlist {
     // If the fannout net not is null add it to the set of visited nets to prevent back-search on
     // this net
     if (fannoutNet != null) {
-      final var netId = myNets.indexOf(fannoutNet) + "-" + fannoutBitIndex;
+      final var netId = getNetId(fannoutNet) + "-" + fannoutBitIndex;
       if (handledNets.contains(netId)) return false;
       handledNets.add(netId);
     }
     // to prevent deadlock situations we check if we already looked at this net
-    final var netId = myNets.indexOf(combinedNet) + "-" + combinedBitIndex;
+    final var netId = getNetId(combinedNet) + "-" + combinedBitIndex;
     if (handledNets.contains(netId)) return false;
     handledNets.add(netId);
     if (combinedNet.hasBitSource(combinedBitIndex)) return true;
@@ -1483,10 +1452,7 @@ public class Netlist {
               if (busBitConnection[index] == splitterEnd) netIndex++;
             }
             // Find the connected Net
-            Net slaveNet = null;
-            for (final var thisnet : myNets) {
-              if (thisnet.contains(ends.get(splitterEnd).getLocation())) slaveNet = thisnet;
-            }
+            final var slaveNet = findConnectedNet(ends.get(splitterEnd).getLocation());
             if (slaveNet != null && hasHiddenSource(null, (byte) 0, slaveNet, netIndex, splitterList, handledNets, currentSplitter))
               return true;
           } else {
@@ -1494,10 +1460,7 @@ public class Netlist {
             for (byte b = 0; b < busBitConnection.length; b++) {
               if (busBitConnection[b] == end) rootIndices.add(b);
             }
-            Net rootNet = null;
-            for (final var thisnet : myNets) {
-              if (thisnet.contains(currentSplitter.getEnd(0).getLocation())) rootNet = thisnet;
-            }
+            final var rootNet = findConnectedNet(currentSplitter.getEnd(0).getLocation());
             if (rootNet != null
                 && hasHiddenSource(null, (byte) 0, rootNet, rootIndices.get(combinedBitIndex), splitterList, handledNets, currentSplitter)) {
               return true;
@@ -0,0 +1,56 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.fpga.designrulecheck;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Disjoint sets over arbitrary elements, with path halving and union by size. The netlist uses it
+ * to find which wire end points are connected to each other in (nearly) linear time.
+ */
+final class UnionFind<T> {
+  private final Map<T, T> parent = new HashMap<>();
+  private final Map<T, Integer> size = new HashMap<>();
+
+  /** Returns the representative of the set that contains the element. */
+  T find(T element) {
+    var current = element;
+    while (true) {
+      final var up = parent.get(current);
+      if (up == null) {
+        if (current == element) {
+          parent.put(element, element);
+          size.put(element, 1);
+        }
+        return current;
+      }
+      if (up.equals(current)) return current;
+      final var grandParent = parent.get(up);
+      parent.put(current, grandParent);
+      current = grandParent;
+    }
+  }
+
+  /** Joins the sets of both elements and returns the representative of the joined set. */
+  T union(T first, T second) {
+    final var root1 = find(first);
+    final var root2 = find(second);
+    if (root1.equals(root2)) return root1;
+    final int size1 = size.get(root1);
+    final int size2 = size.get(root2);
+    final var big = size1 >= size2 ? root1 : root2;
+    final var small = big == root1 ? root2 : root1;
+    parent.put(small, big);
+    size.put(big, size1 + size2);
+    size.remove(small);
+    return big;
+  }
+}
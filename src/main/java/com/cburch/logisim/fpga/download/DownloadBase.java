@@ -11,6 +11,7 @@ package com.cburch.logisim.fpga.download;
 
 import static com.cburch.logisim.fpga.Strings.S;
 
+import com.cburch.logisim.circuit.Circuit;
 import com.cburch.logisim.fpga.data.BoardInformation;
 import com.cburch.logisim.fpga.data.IoComponentTypes;
 import com.cburch.logisim.fpga.data.LedArrayDriving;
@@ -18,6 +19,7 @@ import com.cburch.logisim.fpga.data.MappableResourcesContainer;
 import com.cburch.logisim.fpga.designrulecheck.CorrectLabel;
 import com.cburch.logisim.fpga.designrulecheck.Netlist;
 import com.cburch.logisim.fpga.file.FileWriter;
+import com.cburch.logisim.fpga.file.HdlFileWriter;
 import com.cburch.logisim.fpga.gui.Reporter;
 import com.cburch.logisim.fpga.hdlgenerator.Hdl;
 import com.cburch.logisim.fpga.hdlgenerator.HdlGeneratorFactory;
@@ -145,7 +147,9 @@ public abstract class DownloadBase {
     }
     final var projectDir = getProjDir(selectedCircuit);
     final var rootSheet = myProject.getLogisimFile().getCircuit(selectedCircuit);
-    if (!cleanDirectory(projectDir)) {
+    // The HDL files of the previous run are kept, so that unchanged ones need not be written again.
+    final var hdlDir = projectDir + AppPreferences.HdlType.get().toLowerCase();
+    if (!cleanDirectory(projectDir, hdlDir)) {
       Reporter.report.addFatalError(
           "Unable to cleanup old project files in directory: \"" + projectDir + "\"");
       return false;
@@ -162,13 +166,20 @@ public abstract class DownloadBase {
       }
     }
 
+    final var writer = new HdlFileWriter(hdlDir);
+    final var generated = writeHdlFiles(writer, projectDir, rootSheet, frequency);
+    return writer.finish(generated) && generated;
+  }
+
+  private boolean writeHdlFiles(
+      HdlFileWriter writer, String projectDir, Circuit rootSheet, Double frequency) {
     final var generatedHDLComponents = new HashSet<String>();
     var worker = rootSheet.getSubcircuitFactory().getHDLGenerator(rootSheet.getStaticAttributes());
     if (worker == null) {
       Reporter.report.addFatalError("Internal error on HDL generation, null pointer exception");
       return false;
     }
-    if (!worker.generateAllHDLDescriptions(generatedHDLComponents, projectDir, null)) {
+    if (!worker.generateAllHDLDescriptions(generatedHDLComponents, projectDir, null, writer)) {
       return false;
     }
     /* Here we generate the top-level shell */
@@ -178,6 +189,7 @@ public abstract class DownloadBase {
               myBoardInformation.fpga.getClockFrequency(),
               frequency /* , boardFreq.isSelected() */);
       if (!Hdl.writeEntity(
+          writer,
           projectDir + ticker.getRelativeDirectory(),
           ticker.getEntity(
               rootSheet.getNetList(), null, TickComponentHdlGeneratorFactory.HDL_IDENTIFIER),
@@ -185,6 +197,7 @@ public abstract class DownloadBase {
         return false;
       }
       if (!Hdl.writeArchitecture(
+          writer,
           projectDir + ticker.getRelativeDirectory(),
           ticker.getArchitecture(
               rootSheet.getNetList(), null, TickComponentHdlGeneratorFactory.HDL_IDENTIFIER),
@@ -203,12 +216,14 @@ public abstract class DownloadBase {
       final var compName =
           rootSheet.getNetList().getAllClockSources().get(0).getFactory().getHDLName(null);
       if (!Hdl.writeEntity(
+          writer,
           projectDir + clockGen.getRelativeDirectory(),
           clockGen.getEntity(rootSheet.getNetList(), null, compName),
           compName)) {
         return false;
       }
       if (!Hdl.writeArchitecture(
+          writer,
           projectDir + clockGen.getRelativeDirectory(),
           clockGen.getArchitecture(rootSheet.getNetList(), null, compName),
           compName)) {
@@ -225,12 +240,14 @@ public abstract class DownloadBase {
           final var name = LedArrayGenericHdlGeneratorFactory.getSpecificHDLName(type);
           if (worker != null && name != null) {
             if (!Hdl.writeEntity(
+                writer,
                 projectDir + worker.getRelativeDirectory(),
                 worker.getEntity(rootSheet.getNetList(), null, name),
                 name)) {
               return false;
             }
             if (!Hdl.writeArchitecture(
+                writer,
                 projectDir + worker.getRelativeDirectory(),
                 worker.getArchitecture(rootSheet.getNetList(), null, name),
                 name)) {
@@ -241,6 +258,7 @@ public abstract class DownloadBase {
       }
     }
     if (!Hdl.writeEntity(
+        writer,
         projectDir + top.getRelativeDirectory(),
         top.getEntity(
             rootSheet.getNetList(), null, ToplevelHdlGeneratorFactory.FPGA_TOP_LEVEL_NAME),
@@ -248,6 +266,7 @@ public abstract class DownloadBase {
       return false;
     }
     return Hdl.writeArchitecture(
+        writer,
         projectDir + top.getRelativeDirectory(),
         top.getArchitecture(
             rootSheet.getNetList(), null, ToplevelHdlGeneratorFactory.FPGA_TOP_LEVEL_NAME),
@@ -303,18 +322,23 @@ public abstract class DownloadBase {
     return base + HDLPaths[identifier] + File.separator;
   }
 
-  private boolean cleanDirectory(String dir) {
+  /** Removes the directory and everything in it, except for the directory {@code keep}. */
+  private boolean cleanDirectory(String dir, String keep) {
     try {
       final var thisDir = new File(dir);
       if (!thisDir.exists()) return true;
+      final var keepDir = new File(keep);
+      var keptFiles = false;
       for (var theFiles : thisDir.listFiles()) {
-        if (theFiles.isDirectory()) {
-          if (!cleanDirectory(theFiles.getPath())) return false;
+        if (theFiles.equals(keepDir)) {
+          keptFiles = true;
+        } else if (theFiles.isDirectory()) {
+          if (!cleanDirectory(theFiles.getPath(), keep)) return false;
         } else {
           if (!theFiles.delete()) return false;
         }
       }
-      return thisDir.delete();
+      return keptFiles || thisDir.delete();
     } catch (Exception e) {
       Reporter.report.addFatalError("Could not remove directory tree :" + dir);
       return false;
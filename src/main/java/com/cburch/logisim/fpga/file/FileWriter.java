@@ -14,6 +14,7 @@ import static com.cburch.logisim.fpga.Strings.S;
 import com.cburch.logisim.fpga.gui.Reporter;
 import com.cburch.logisim.fpga.hdlgenerator.Hdl;
 import com.cburch.logisim.generated.BuildInfo;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.util.ArrayList;
@@ -24,33 +25,12 @@ public class FileWriter {
   public static final String ENTITY_EXTENSION = "_entity";
   public static final String ARCHITECTURE_EXTENSION = "_behavior";
 
-  public static File getFilePointer(
-      String targetDirectory, String componentName, boolean isEntity) {
-    final var fileName = new StringBuilder();
-    try {
-      final var outDir = new File(targetDirectory);
-      if (!outDir.exists()) {
-        if (!outDir.mkdirs()) {
-          return null;
-        }
-      }
-      fileName.append(targetDirectory);
-      if (!targetDirectory.endsWith(File.separator)) fileName.append(File.separator);
-      fileName.append(componentName);
-      if (isEntity && Hdl.isVhdl()) fileName.append(ENTITY_EXTENSION);
-      if (!isEntity && Hdl.isVhdl()) fileName.append(ARCHITECTURE_EXTENSION);
-      fileName.append(Hdl.isVhdl() ? ".vhd" : ".v");
-      final var outFile = new File(fileName.toString());
-      Reporter.report.addInfo(S.fmt("fileCreateHDLFile", fileName.toString()));
-      if (outFile.exists()) {
-        Reporter.report.addWarning(S.fmt("fileHDLFileExists", fileName.toString()));
-        return null;
-      }
-      return outFile;
-    } catch (Exception e) {
-      Reporter.report.addFatalError(S.fmt("fileUnableToCreate", fileName.toString()));
-      return null;
-    }
+  public static String getHdlFileName(String componentName, boolean isEntity) {
+    final var fileName = new StringBuilder(componentName);
+    if (isEntity && Hdl.isVhdl()) fileName.append(ENTITY_EXTENSION);
+    if (!isEntity && Hdl.isVhdl()) fileName.append(ARCHITECTURE_EXTENSION);
+    fileName.append(Hdl.isVhdl() ? ".vhd" : ".v");
+    return fileName.toString();
   }
 
   public static File getFilePointer(String targetDirectory, String name) {
@@ -133,15 +113,19 @@ public class FileWriter {
     return lines;
   }
 
+  static byte[] getBytes(List<String> contents) {
+    final var output = new ByteArrayOutputStream();
+    for (var thisLine : contents) {
+      output.writeBytes(thisLine.getBytes());
+      output.write('\n');
+    }
+    return output.toByteArray();
+  }
+
   public static boolean writeContents(File outfile, List<String> contents) {
     try {
       final var output = new FileOutputStream(outfile);
-      for (var thisLine : contents) {
-        if (!thisLine.isEmpty()) {
-          output.write(thisLine.getBytes());
-        }
-        output.write("\n".getBytes());
-      }
+      output.write(getBytes(contents));
       output.flush();
       output.close();
       return true;
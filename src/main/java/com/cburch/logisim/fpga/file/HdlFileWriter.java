@@ -0,0 +1,108 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.fpga.file;
+
+import static com.cburch.logisim.fpga.Strings.S;
+
+import com.cburch.logisim.fpga.gui.Reporter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Writes the HDL files of a project. A file whose contents are the same as those of the file
+ * already on disk is not written again, which keeps its time stamp for the incremental builds of
+ * the synthesis tools. When all files are written, {@link #finish} removes the files left in the
+ * output directory by earlier runs.
+ */
+public class HdlFileWriter {
+
+  private final File outputDirectory;
+  private final Set<Path> paths = new HashSet<>();
+  private int unchanged = 0;
+  private boolean failed = false;
+
+  public HdlFileWriter(String outputDirectory) {
+    this.outputDirectory = new File(outputDirectory);
+  }
+
+  /**
+   * Writes the contents to the HDL file of the component in the target directory, unless the file
+   * already has them. Returns false if the file cannot be written or was already generated in
+   * this run.
+   */
+  public boolean add(
+      String targetDirectory, String componentName, boolean isEntity, List<String> contents) {
+    final var outFile =
+        new File(targetDirectory, FileWriter.getHdlFileName(componentName, isEntity));
+    final var outDir = outFile.getParentFile();
+    if (!outDir.exists() && !outDir.mkdirs()) {
+      Reporter.report.addFatalError(S.fmt("fileUnableToCreate", outFile.getPath()));
+      return false;
+    }
+    Reporter.report.addInfo(S.fmt("fileCreateHDLFile", outFile.getPath()));
+    if (!paths.add(normalized(outFile))) {
+      Reporter.report.addWarning(S.fmt("fileHDLFileExists", outFile.getPath()));
+      return false;
+    }
+    final var bytes = FileWriter.getBytes(contents);
+    try {
+      if (outFile.isFile()
+          && outFile.length() == bytes.length
+          && Arrays.equals(Files.readAllBytes(outFile.toPath()), bytes)) {
+        unchanged++;
+      } else {
+        Files.write(outFile.toPath(), bytes);
+      }
+      return true;
+    } catch (IOException e) {
+      Reporter.report.addFatalError(S.fmt("fileUnableToWrite", outFile.getAbsolutePath()));
+      failed = true;
+      return false;
+    }
+  }
+
+  /**
+   * Reports the number of unchanged files. If all files were written and {@code removeOthers} is
+   * set, the files in the output directory that were not generated in this run are removed.
+   */
+  public boolean finish(boolean removeOthers) {
+    if (unchanged > 0) Reporter.report.addInfo(S.fmt("fileHDLFilesUnchanged", unchanged));
+    var success = !failed;
+    if (success && removeOthers) success = removeOtherFiles(outputDirectory);
+    return success;
+  }
+
+  private boolean removeOtherFiles(File directory) {
+    final var entries = directory.listFiles();
+    if (entries == null) return true;
+    var success = true;
+    for (final var entry : entries) {
+      if (entry.isDirectory()) {
+        success &= removeOtherFiles(entry);
+        // only succeeds if nothing is left in it
+        entry.delete();
+      } else if (!paths.contains(normalized(entry)) && !entry.delete()) {
+        Reporter.report.addFatalError(S.fmt("fileUnableToRemove", entry.getAbsolutePath()));
+        success = false;
+      }
+    }
+    return success;
+  }
+
+  private static Path normalized(File file) {
+    return file.toPath().toAbsolutePath().normalize();
+  }
+}
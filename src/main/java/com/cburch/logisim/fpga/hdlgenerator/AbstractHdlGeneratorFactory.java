@@ -14,6 +14,7 @@ import com.cburch.logisim.fpga.designrulecheck.CorrectLabel;
 import com.cburch.logisim.fpga.designrulecheck.Netlist;
 import com.cburch.logisim.fpga.designrulecheck.netlistComponent;
 import com.cburch.logisim.fpga.file.FileWriter;
+import com.cburch.logisim.fpga.file.HdlFileWriter;
 import com.cburch.logisim.fpga.gui.Reporter;
 import com.cburch.logisim.instance.Port;
 import com.cburch.logisim.instance.StdAttr;
@@ -57,7 +58,8 @@ public class AbstractHdlGeneratorFactory implements HdlGeneratorFactory {
   public boolean generateAllHDLDescriptions(
       Set<String> handledComponents,
       String workingDirectory,
-      List<String> hierarchy) {
+      List<String> hierarchy,
+      HdlFileWriter writer) {
     return true;
   }
 
@@ -11,7 +11,7 @@ package com.cburch.logisim.fpga.hdlgenerator;
 
 import com.cburch.logisim.fpga.designrulecheck.Netlist;
 import com.cburch.logisim.fpga.designrulecheck.netlistComponent;
-import com.cburch.logisim.fpga.file.FileWriter;
+import com.cburch.logisim.fpga.file.HdlFileWriter;
 import com.cburch.logisim.fpga.gui.Reporter;
 import com.cburch.logisim.prefs.AppPreferences;
 import com.cburch.logisim.util.CollectionUtil;
@@ -412,27 +412,23 @@ public class Hdl {
     return contents.toString();
   }
 
-  public static boolean writeEntity(String targetDirectory, List<String> contents, String componentName) {
+  public static boolean writeEntity(HdlFileWriter writer, String targetDirectory, List<String> contents, String componentName) {
     if (!Hdl.isVhdl()) return true;
     if (contents.isEmpty()) {
       // FIXME: hardcoded string
       Reporter.report.addFatalError("INTERNAL ERROR: Empty entity description received!");
       return false;
     }
-    final var outFile = FileWriter.getFilePointer(targetDirectory, componentName, true);
-    if (outFile == null) return false;
-    return FileWriter.writeContents(outFile, contents);
+    return writer.add(targetDirectory, componentName, true, contents);
   }
 
-  public static boolean writeArchitecture(String targetDirectory, List<String> contents, String componentName) {
+  public static boolean writeArchitecture(HdlFileWriter writer, String targetDirectory, List<String> contents, String componentName) {
     if (CollectionUtil.isNullOrEmpty(contents)) {
       // FIXME: hardcoded string
       Reporter.report.addFatalErrorFmt("INTERNAL ERROR: Empty behavior description for Component '%s' received!", componentName);
       return false;
     }
-    final var outFile = FileWriter.getFilePointer(targetDirectory, componentName, false);
-    if (outFile == null)  return false;
-    return FileWriter.writeContents(outFile, contents);
+    return writer.add(targetDirectory, componentName, false, contents);
   }
 
   public static Map<String, String> getNetMap(String sourceName, boolean floatingPinTiedToGround,
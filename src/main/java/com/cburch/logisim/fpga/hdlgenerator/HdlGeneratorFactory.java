@@ -12,6 +12,7 @@ package com.cburch.logisim.fpga.hdlgenerator;
 import com.cburch.logisim.data.AttributeSet;
 import com.cburch.logisim.fpga.designrulecheck.Netlist;
 import com.cburch.logisim.fpga.designrulecheck.netlistComponent;
+import com.cburch.logisim.fpga.file.HdlFileWriter;
 import com.cburch.logisim.util.LineBuffer;
 
 import java.util.List;
@@ -30,7 +31,10 @@ public interface HdlGeneratorFactory {
   String FPGA_TOP_LEVEL_NAME = "logisimTopLevelShell";
 
   boolean generateAllHDLDescriptions(
-      Set<String> handledComponents, String workingDirectory, List<String> hierarchy);
+      Set<String> handledComponents,
+      String workingDirectory,
+      List<String> hierarchy,
+      HdlFileWriter writer);
 
   List<String> getEntity(Netlist theNetlist, AttributeSet attrs, String componentName);
 
@@ -12,6 +12,7 @@ package com.cburch.logisim.fpga.hdlgenerator;
 import com.cburch.logisim.data.AttributeSet;
 import com.cburch.logisim.fpga.designrulecheck.Netlist;
 import com.cburch.logisim.fpga.designrulecheck.netlistComponent;
+import com.cburch.logisim.fpga.file.HdlFileWriter;
 import com.cburch.logisim.util.LineBuffer;
 
 import java.util.List;
@@ -21,7 +22,10 @@ public class InlinedHdlGeneratorFactory implements HdlGeneratorFactory {
 
   @Override
   public boolean generateAllHDLDescriptions(
-      Set<String> handledComponents, String workingDirectory, List<String> hierarchy) {
+      Set<String> handledComponents,
+      String workingDirectory,
+      List<String> hierarchy,
+      HdlFileWriter writer) {
     throw new IllegalAccessError("BUG: generateAllHDLDescriptions not supported");
   }
 
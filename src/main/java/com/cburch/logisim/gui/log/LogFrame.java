@@ -91,6 +91,12 @@ public class LogFrame extends LFrame.SubWindowWithSimulation {
       return curModel.isFine();
     }
 
+    @Override
+    public boolean wantEveryTick() {
+      // the log records the values of every clock cycle
+      return true;
+    }
+
     @Override
     public void propagationInProgress(Simulator.Event e) {
       curModel.propagationCompleted(false, true, false); // treat as a single-step
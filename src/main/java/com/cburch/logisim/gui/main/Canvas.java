@@ -78,6 +78,7 @@ import javax.swing.JPanel;
 import javax.swing.JPopupMenu;
 import javax.swing.JScrollBar;
 import javax.swing.JViewport;
+import javax.swing.SwingUtilities;
 import javax.swing.event.PopupMenuEvent;
 import javax.swing.event.PopupMenuListener;
 
@@ -99,6 +100,11 @@ public class Canvas extends JPanel implements LocaleListener, CanvasPaneContents
   private static final Font ERR_MSG_FONT = new Font("Sans Serif", Font.BOLD, 18);
   private static final Color TICK_RATE_COLOR = new Color(0, 0, 92, 92);
   private static final Font TICK_RATE_FONT = new Font("Monospaced", Font.PLAIN, 28);
+  private static final Font FRAME_TIME_FONT = new Font("Monospaced", Font.PLAIN, 14);
+  // height of the band at the top of the viewport that shows the tick rate and frame time
+  private static final int STATUS_HEIGHT = 80;
+  // how far around a changed value or component the simulation may change the drawing
+  private static final int CHANGE_MARGIN = 16;
   private static final Color SINGLE_STEP_MSG_COLOR = Color.BLUE;
   private static final Font SINGLE_STEP_MSG_FONT = new Font("Sans Serif", Font.BOLD, 12);
   public static final Color DEFAULT_ZOOM_BUTTON_COLOR = Color.WHITE;
@@ -109,6 +115,7 @@ public class Canvas extends JPanel implements LocaleListener, CanvasPaneContents
   private final MyViewport viewport = new MyViewport();
   private final MyProjectListener myProjectListener = new MyProjectListener();
   private final TickCounter tickCounter;
+  private final FrameTimer frameTimer = new FrameTimer();
   private final CanvasPaintThread paintThread;
   private final CanvasPainter painter;
   private final Object repaintLock = new Object(); // for waitForRepaintDone
@@ -506,6 +513,7 @@ public class Canvas extends JPanel implements LocaleListener, CanvasPaneContents
 
     inPaint = true;
     try {
+      final var start = System.nanoTime();
       super.paintComponent(g);
       boolean clear = false;
       do {
@@ -523,6 +531,7 @@ public class Canvas extends JPanel implements LocaleListener, CanvasPaneContents
         clear = true;
         painter.paintContents(g, proj);
       } while (paintDirty);
+      frameTimer.frame(System.nanoTime() - start);
       if (canvasPane == null) {
         viewport.paintContents(g);
       }
@@ -551,6 +560,53 @@ public class Canvas extends JPanel implements LocaleListener, CanvasPaneContents
     computeSize(true);
   }
 
+  /**
+   * Repaints the given area of the circuit, in canvas coordinates before zoom, together with the
+   * tick rate display. An empty area only repaints the tick rate display.
+   */
+  void repaintCircuitArea(Rectangle rect) {
+    if (inPaint) {
+      paintDirty = true;
+      return;
+    }
+    final var zoom = getZoomFactor();
+    final var area =
+        new Rectangle(
+            (int) Math.floor(rect.x * zoom) - 1,
+            (int) Math.floor(rect.y * zoom) - 1,
+            (int) Math.ceil(rect.width * zoom) + 3,
+            (int) Math.ceil(rect.height * zoom) + 3);
+    if (canvasPane == null) {
+      if (!rect.isEmpty()) super.repaint(area);
+      return;
+    }
+    if (!rect.isEmpty()) viewport.repaint(SwingUtilities.convertRectangle(this, area, viewport));
+    if (AppPreferences.SHOW_TICK_RATE.getBoolean()) {
+      viewport.repaint(0, 0, viewport.getWidth(), STATUS_HEIGHT);
+    }
+  }
+
+  /**
+   * Repaints what the simulation changed in the shown circuit state. Everything is repainted if
+   * the changes are not known, or if the simulator shows more than values, such as oscillations
+   * or the pending inputs of single stepping.
+   */
+  private void repaintChanges() {
+    final var sim = proj.getSimulator();
+    final var state = proj.getCircuitState();
+    final var changed = state == null ? null : state.getPropagator().takeChangedArea(state);
+    if (changed == null
+        || sim.isOscillating()
+        || sim.isExceptionEncountered()
+        || !sim.isAutoPropagating()) {
+      paintThread.requestRepaint();
+    } else if (changed == Bounds.EMPTY_BOUNDS) {
+      paintThread.requestRepaint(new Rectangle());
+    } else {
+      paintThread.requestRepaint(changed.expand(CHANGE_MARGIN).toRectangle());
+    }
+  }
+
   @Override
   public void repaint() {
     if (inPaint) {
@@ -1093,6 +1149,7 @@ public class Canvas extends JPanel implements LocaleListener, CanvasPaneContents
           Propagator newProp = newState.getPropagator();
           if (oldProp != newProp) {
             tickCounter.clear();
+            frameTimer.clear();
           }
         }
       }
@@ -1111,7 +1168,7 @@ public class Canvas extends JPanel implements LocaleListener, CanvasPaneContents
 
     @Override
     public void propagationCompleted(Simulator.Event e) {
-      paintThread.requestRepaint();
+      repaintChanges();
       if (e.didTick()) waitForRepaintDone();
     }
 
@@ -1271,6 +1328,14 @@ public class Canvas extends JPanel implements LocaleListener, CanvasPaneContents
           g.setColor(new Color(AppPreferences.CLOCK_FREQUENCY_COLOR.get()));
           g.setFont(TICK_RATE_FONT);
           g.drawString(hz, x, y);
+          g.setFont(FRAME_TIME_FONT);
+          final var lineHeight = g.getFontMetrics().getHeight() + 4;
+          final var tickCost = tickCounter.getTickCost();
+          for (final var line : new String[] {tickCost, frameTimer.getFrameTime()}) {
+            if (line.isEmpty()) continue;
+            y += lineHeight;
+            g.drawString(line, x, y);
+          }
         }
       }
 
@@ -31,15 +31,20 @@ class CanvasPaintThread extends UniquelyNamedThread {
     nextRepaint = System.currentTimeMillis();
   }
 
-  public void requentRepaint(Rectangle rect) {
+  /**
+   * Requests a repaint of the given area of the circuit, in canvas coordinates before zoom. An
+   * empty area only refreshes the tick rate display.
+   */
+  public void requestRepaint(Rectangle rect) {
     synchronized (lock) {
       if (repaintRequested) {
-        if (repaintRectangle != null) {
-          repaintRectangle.add(rect);
+        if (repaintRectangle != null && !rect.isEmpty()) {
+          if (repaintRectangle.isEmpty()) repaintRectangle.setBounds(rect);
+          else repaintRectangle.add(rect);
         }
       } else {
         repaintRequested = true;
-        repaintRectangle = rect;
+        repaintRectangle = new Rectangle(rect);
         lock.notifyAll();
       }
     }
@@ -47,9 +52,9 @@ class CanvasPaintThread extends UniquelyNamedThread {
 
   public void requestRepaint() {
     synchronized (lock) {
+      repaintRectangle = null;
       if (!repaintRequested) {
         repaintRequested = true;
-        repaintRectangle = null;
         lock.notifyAll();
       }
     }
@@ -65,6 +70,7 @@ class CanvasPaintThread extends UniquelyNamedThread {
   @Override
   public void run() {
     while (alive) {
+      Rectangle rect;
       long now = System.currentTimeMillis();
       synchronized (lock) {
         long wait = nextRepaint - now;
@@ -82,9 +88,12 @@ class CanvasPaintThread extends UniquelyNamedThread {
         }
         if (!alive) break;
         repaintRequested = false;
+        rect = repaintRectangle;
+        repaintRectangle = null;
         nextRepaint = now + REPAINT_TIMESPAN;
       }
-      canvas.repaint();
+      if (rect == null) canvas.repaint();
+      else canvas.repaintCircuitArea(rect);
     }
   }
 }
@@ -13,6 +13,7 @@ import com.cburch.logisim.circuit.Circuit;
 import com.cburch.logisim.circuit.WireSet;
 import com.cburch.logisim.comp.Component;
 import com.cburch.logisim.comp.ComponentDrawContext;
+import com.cburch.logisim.data.Bounds;
 import com.cburch.logisim.data.Value;
 import com.cburch.logisim.gui.generic.GridPainter;
 import com.cburch.logisim.prefs.AppPreferences;
@@ -138,7 +139,8 @@ class CanvasPainter implements PropertyChangeListener {
     final var circState = proj.getCircuitState();
     final var context = new ComponentDrawContext(canvas, circ, circState, base, g, false);
     context.setHighlightedWires(highlightedWires);
-    circ.draw(context, hidden);
+    final var clip = g.getClipBounds();
+    circ.draw(context, hidden, clip == null ? null : Bounds.create(clip));
     sel.draw(context, hidden);
 
     // draw tool
@@ -188,6 +190,10 @@ class CanvasPainter implements PropertyChangeListener {
       clip = new Rectangle(0, 0, size.width, size.height);
     }
 
+    // While simulating only the changed area is repainted, and the rest stays in Swing's back
+    // buffer. The grid comes from a cached tile. The circuit itself has no cached static layer:
+    // component bodies draw their state and overlap the wires, so no part of them can be drawn
+    // once and kept when a value changes.
     grid.paintGrid(g);
     g.setColor(Color.black);
 
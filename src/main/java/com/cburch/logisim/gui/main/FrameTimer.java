@@ -0,0 +1,33 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.gui.main;
+
+import java.util.Locale;
+
+/** Measures how long the canvas takes to paint a frame, as an average over the recent frames. */
+class FrameTimer {
+  // weight of the newest frame in the average
+  private static final double WEIGHT = 0.1;
+
+  private double averageNanos = -1;
+
+  public void frame(long nanos) {
+    averageNanos = averageNanos < 0 ? nanos : averageNanos + WEIGHT * (nanos - averageNanos);
+  }
+
+  public void clear() {
+    averageNanos = -1;
+  }
+
+  public String getFrameTime() {
+    if (averageNanos < 0) return "";
+    return String.format(Locale.ROOT, "%.1f ms/frame", averageNanos / 1e6);
+  }
+}
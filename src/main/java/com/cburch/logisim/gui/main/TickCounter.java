@@ -15,6 +15,7 @@ import com.cburch.logisim.circuit.Simulator;
 
 import java.math.RoundingMode;
 import java.text.DecimalFormat;
+import java.util.Locale;
 
 public class TickCounter implements Simulator.Listener {
   private final DecimalFormat formatter;
@@ -27,7 +28,6 @@ public class TickCounter implements Simulator.Listener {
   static final int NANOSECONDS_PER_SECONDS = 1_000_000_000;
   static final int UNIT_UPDATE_THRESHOLD_NANOSECONDS = NANOSECONDS_PER_SECONDS / 2;
   static final int TICKS_THRESHOLD_BEFORE_HISTORY_WEIGHT_REDUCTION = 1000;
-  static final int WEIGHT_REDUCTION_TICKS_COUNT = TICKS_THRESHOLD_BEFORE_HISTORY_WEIGHT_REDUCTION / 2;
 
   public TickCounter() {
     clear();
@@ -84,10 +84,12 @@ public class TickCounter implements Simulator.Listener {
       elapsedTimeSinceLastUnitUpdate = 0;
     }
 
-    // If we accumulated a lot of ticks then lets reduce the weight of the past.
+    // If we accumulated a lot of ticks then lets reduce the weight of the past. At high
+    // frequencies the ticks come in batches, so drop half of the history at once.
     if (tickCount > TICKS_THRESHOLD_BEFORE_HISTORY_WEIGHT_REDUCTION) {
-      tickCount -= WEIGHT_REDUCTION_TICKS_COUNT;
-      final var nanoseconds = WEIGHT_REDUCTION_TICKS_COUNT / ticksPerNanoseconds;
+      final var droppedTicks = tickCount / 2;
+      tickCount -= droppedTicks;
+      final var nanoseconds = droppedTicks / ticksPerNanoseconds;
       startTime += nanoseconds;
     }
 
@@ -98,6 +100,18 @@ public class TickCounter implements Simulator.Listener {
     }
   }
 
+  /** Returns what a tick costs: the time its simulation takes and the signal changes it causes. */
+  public String getTickCost() {
+    if (simulator == null || !simulator.isAutoTicking()) return "";
+    final var nanos = simulator.getTickCost();
+    if (nanos <= 0) return "";
+    return String.format(
+        Locale.ROOT,
+        "%.1f \u00b5s/tick, %.0f events/tick",
+        nanos / 1e3,
+        simulator.getEventsPerTick());
+  }
+
   public void simulatorStateChanged(Simulator.Event e) {
     simulator = e.getSource();
     clear();
@@ -113,7 +127,7 @@ public class TickCounter implements Simulator.Listener {
   public void propagationCompleted(Simulator.Event e) {
     if (e.didTick()) {
       simulator = e.getSource();
-      tickCount++;
+      tickCount += e.getTickCount();
     }
   }
 }
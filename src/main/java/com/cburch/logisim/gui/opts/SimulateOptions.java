@@ -37,6 +37,7 @@ class SimulateOptions extends OptionsPanel {
           });
 
   private final JCheckBox simRandomness = new JCheckBox();
+  private final JCheckBox simParallel = new JCheckBox();
   private final JCheckBox memUnknown = new JCheckBox();
   private final JLabel gateUndefinedLabel = new JLabel();
 
@@ -48,6 +49,27 @@ class SimulateOptions extends OptionsPanel {
             new ComboOption(Options.GATE_UNDEFINED_ERROR)
           });
 
+  private final JLabel simSchedulerLabel = new JLabel();
+
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  private final JComboBox simScheduler =
+      new JComboBox(
+          new Object[] {
+            new ComboOption(Options.SIM_SCHEDULER_HEAP),
+            new ComboOption(Options.SIM_SCHEDULER_CALENDAR)
+          });
+
+  private final JLabel simEngineLabel = new JLabel();
+
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  private final JComboBox simEngine =
+      new JComboBox(
+          new Object[] {
+            new ComboOption(Options.SIM_ENGINE_EVENT),
+            new ComboOption(Options.SIM_ENGINE_LEVELIZED),
+            new ComboOption(Options.SIM_ENGINE_CHECK)
+          });
+
   public SimulateOptions(OptionsFrame window) {
     super(window);
 
@@ -61,7 +83,18 @@ class SimulateOptions extends OptionsPanel {
     gateUndefinedPanel.add(gateUndefined);
     gateUndefined.addActionListener(myListener);
 
+    final var simSchedulerPanel = new JPanel();
+    simSchedulerPanel.add(simSchedulerLabel);
+    simSchedulerPanel.add(simScheduler);
+    simScheduler.addActionListener(myListener);
+
+    final var simEnginePanel = new JPanel();
+    simEnginePanel.add(simEngineLabel);
+    simEnginePanel.add(simEngine);
+    simEngine.addActionListener(myListener);
+
     simRandomness.addActionListener(myListener);
+    simParallel.addActionListener(myListener);
 
     memUnknown.addActionListener(myListener);
     memUnknown.setSelected(AppPreferences.Memory_Startup_Unknown.get());
@@ -70,13 +103,19 @@ class SimulateOptions extends OptionsPanel {
     add(memUnknown);
     add(simLimitPanel);
     add(gateUndefinedPanel);
+    add(simEnginePanel);
+    add(simSchedulerPanel);
     add(simRandomness);
+    add(simParallel);
 
     window.getOptions().getAttributeSet().addAttributeListener(myListener);
     final var attrs = getOptions().getAttributeSet();
     myListener.loadSimLimit(attrs.getValue(Options.ATTR_SIM_LIMIT));
     myListener.loadGateUndefined(attrs.getValue(Options.ATTR_GATE_UNDEFINED));
     myListener.loadSimRandomness(attrs.getValue(Options.ATTR_SIM_RAND));
+    myListener.loadSimScheduler(attrs.getValue(Options.ATTR_SIM_SCHEDULER));
+    myListener.loadSimParallel(attrs.getValue(Options.ATTR_SIM_PARALLEL));
+    myListener.loadSimEngine(attrs.getValue(Options.ATTR_SIM_ENGINE));
   }
 
   @Override
@@ -94,6 +133,9 @@ class SimulateOptions extends OptionsPanel {
     simLimitLabel.setText(S.get("simulateLimit"));
     gateUndefinedLabel.setText(S.get("gateUndefined"));
     simRandomness.setText(S.get("simulateRandomness"));
+    simParallel.setText(S.get("simulateParallel"));
+    simSchedulerLabel.setText(S.get("simulateScheduler"));
+    simEngineLabel.setText(S.get("simulateEngine"));
     memUnknown.setText(S.get("MemoriesStartupUnknown"));
   }
 
@@ -111,6 +153,10 @@ class SimulateOptions extends OptionsPanel {
         final var attrs = getOptions().getAttributeSet();
         Object val = simRandomness.isSelected() ? Options.SIM_RAND_DFLT : Integer.valueOf(0);
         getProject().doAction(OptionsActions.setAttribute(attrs, Options.ATTR_SIM_RAND, val));
+      } else if (source == simParallel) {
+        final var attrs = getOptions().getAttributeSet();
+        final var val = simParallel.isSelected();
+        getProject().doAction(OptionsActions.setAttribute(attrs, Options.ATTR_SIM_PARALLEL, val));
       } else if (source == gateUndefined) {
         final var opt = (ComboOption) gateUndefined.getSelectedItem();
         if (opt != null) {
@@ -119,6 +165,22 @@ class SimulateOptions extends OptionsPanel {
               .doAction(
                   OptionsActions.setAttribute(attrs, Options.ATTR_GATE_UNDEFINED, opt.getValue()));
         }
+      } else if (source == simScheduler) {
+        final var opt = (ComboOption) simScheduler.getSelectedItem();
+        if (opt != null) {
+          final var attrs = getOptions().getAttributeSet();
+          getProject()
+              .doAction(
+                  OptionsActions.setAttribute(attrs, Options.ATTR_SIM_SCHEDULER, opt.getValue()));
+        }
+      } else if (source == simEngine) {
+        final var opt = (ComboOption) simEngine.getSelectedItem();
+        if (opt != null) {
+          final var attrs = getOptions().getAttributeSet();
+          getProject()
+              .doAction(
+                  OptionsActions.setAttribute(attrs, Options.ATTR_SIM_ENGINE, opt.getValue()));
+        }
       } else if (source == memUnknown) {
         AppPreferences.Memory_Startup_Unknown.set(memUnknown.isSelected());
         final var sim = getProject().getSimulator();
@@ -136,6 +198,12 @@ class SimulateOptions extends OptionsPanel {
         loadSimRandomness((Integer) val);
       } else if (attr == Options.ATTR_GATE_UNDEFINED) {
         loadGateUndefined(val);
+      } else if (attr == Options.ATTR_SIM_SCHEDULER) {
+        loadSimScheduler(val);
+      } else if (attr == Options.ATTR_SIM_PARALLEL) {
+        loadSimParallel((Boolean) val);
+      } else if (attr == Options.ATTR_SIM_ENGINE) {
+        loadSimEngine(val);
       }
     }
 
@@ -143,6 +211,14 @@ class SimulateOptions extends OptionsPanel {
       ComboOption.setSelected(gateUndefined, val);
     }
 
+    private void loadSimScheduler(Object val) {
+      ComboOption.setSelected(simScheduler, val);
+    }
+
+    private void loadSimEngine(Object val) {
+      ComboOption.setSelected(simEngine, val);
+    }
+
     @SuppressWarnings("rawtypes")
     private void loadSimLimit(Integer val) {
       final var value = val;
@@ -158,5 +234,9 @@ class SimulateOptions extends OptionsPanel {
     private void loadSimRandomness(Integer val) {
       simRandomness.setSelected(val > 0);
     }
+
+    private void loadSimParallel(Boolean val) {
+      simParallel.setSelected(val);
+    }
   }
 }
@@ -0,0 +1,269 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.gui.start;
+
+import static com.cburch.logisim.gui.Strings.S;
+
+import com.cburch.logisim.circuit.Circuit;
+import com.cburch.logisim.circuit.CircuitState;
+import com.cburch.logisim.data.BitWidth;
+import com.cburch.logisim.data.Value;
+import com.cburch.logisim.instance.Instance;
+import com.cburch.logisim.instance.StdAttr;
+import com.cburch.logisim.proj.Project;
+import com.cburch.logisim.std.wiring.Pin;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Truth table generation for {@code --tty table,fast}. Instead of building a fresh circuit state
+ * for every row, one state is reused and the rows are visited in Gray-code order, so that going
+ * from one row to the next flips a single input bit and only re-propagates what that bit affects.
+ * The rows are split into aligned blocks; each block is simulated in Gray-code order and then
+ * written out in natural order through one buffered writer. With {@code parallel} the blocks are
+ * handed to a pool of workers, each holding its own circuit state. The states are all created on
+ * the calling thread, as creating one registers it with the circuit.
+ *
+ * <p>As the state carries over from one row to the next, this is meant for combinational
+ * circuits; circuits with memory may print different rows than the default table mode.
+ */
+final class FastTableAnalysis {
+  private static final int BLOCK_BITS = 12;
+  // the rows are numbered by an int
+  private static final int MAX_INPUT_BITS = Integer.SIZE - 1;
+  private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+
+  private final Project proj;
+  private final Circuit circuit;
+  private final int format;
+  private final Instance[] inputPins;
+  private final Instance[] outputPins;
+  private final BitWidth[] inputWidths;
+  private final int[] inputShifts;
+  private final int[] inputMasks;
+  private final String[] headers;
+  private final int inputCount;
+  private final int blockBits;
+
+  private FastTableAnalysis(Project proj, Circuit circuit, Map<Instance, String> pinLabels,
+      int format) {
+    this.proj = proj;
+    this.circuit = circuit;
+    this.format = format;
+    final var inputs = new ArrayList<Instance>();
+    final var outputs = new ArrayList<Instance>();
+    final var inputHeaders = new ArrayList<String>();
+    final var outputHeaders = new ArrayList<String>();
+    for (final var entry : pinLabels.entrySet()) {
+      final var pin = entry.getKey();
+      if (Pin.FACTORY.isInputPin(pin)) {
+        inputs.add(pin);
+        inputHeaders.add(entry.getValue());
+      } else {
+        outputs.add(pin);
+        outputHeaders.add(entry.getValue());
+      }
+    }
+    inputPins = inputs.toArray(new Instance[0]);
+    outputPins = outputs.toArray(new Instance[0]);
+    inputHeaders.addAll(outputHeaders);
+    headers = inputHeaders.toArray(new String[0]);
+
+    // The first input pin holds the most significant bits of the row number, as in
+    // TruthTable.isInputSet().
+    var bits = 0;
+    for (final var pin : inputPins) bits += pin.getAttributeValue(StdAttr.WIDTH).getWidth();
+    inputCount = bits;
+    inputWidths = new BitWidth[inputPins.length];
+    inputShifts = new int[inputPins.length];
+    inputMasks = new int[inputPins.length];
+    for (var i = 0; i < inputPins.length; i++) {
+      inputWidths[i] = inputPins[i].getAttributeValue(StdAttr.WIDTH);
+      bits -= inputWidths[i].getWidth();
+      inputShifts[i] = bits;
+      inputMasks[i] = (int) inputWidths[i].getMask() << bits;
+    }
+    blockBits = Math.min(inputCount, BLOCK_BITS);
+  }
+
+  static int run(Project proj, Circuit circuit, Map<Instance, String> pinLabels, int format,
+      int threads) {
+    final var analysis = new FastTableAnalysis(proj, circuit, pinLabels, format);
+    if (analysis.inputCount > MAX_INPUT_BITS) {
+      TtyInterface.logger.error("{}", S.get("ttyTableTooManyInputs", MAX_INPUT_BITS));
+      return -1;
+    }
+    final var out = new BufferedWriter(
+        new OutputStreamWriter(System.out, StandardCharsets.UTF_8), OUTPUT_BUFFER_SIZE);
+    try {
+      analysis.write(out, Math.max(1, threads));
+      out.flush();
+    } catch (IOException e) {
+      TtyInterface.logger.error("{}", e.toString());
+      return -1;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return -1;
+    } catch (ExecutionException e) {
+      TtyInterface.logger.error("{}", e.getCause().toString());
+      return -1;
+    }
+    return 0;
+  }
+
+  private void write(Writer out, int threads)
+      throws IOException, InterruptedException, ExecutionException {
+    final var blockCount = 1 << (inputCount - blockBits);
+    String[] formats = null;
+    if (threads == 1) {
+      final var worker = new Worker();
+      for (var block = 0; block < blockCount; block++) {
+        formats = writeBlock(out, formats, block, simulateBlock(worker, block));
+      }
+      return;
+    }
+    // each task borrows a worker, so that no two threads ever share a circuit state
+    final var idle = new ArrayBlockingQueue<Worker>(threads);
+    for (var i = 0; i < threads; i++) idle.add(new Worker());
+    final var pool = Executors.newFixedThreadPool(threads);
+    try {
+      // Keep a bounded number of blocks in flight so that memory use does not depend on the
+      // size of the table, and write them out in order as they complete.
+      final var pending = new ArrayDeque<Future<Value[][]>>();
+      var next = 0;
+      for (var block = 0; block < blockCount; block++) {
+        while (next < blockCount && pending.size() < 2 * threads) {
+          final var toSimulate = next++;
+          pending.add(
+              pool.submit(
+                  () -> {
+                    final var worker = idle.take();
+                    try {
+                      return simulateBlock(worker, toSimulate);
+                    } finally {
+                      idle.add(worker);
+                    }
+                  }));
+        }
+        formats = writeBlock(out, formats, block, pending.poll().get());
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  /** Simulates all rows of the block and returns the output values, indexed by row offset. */
+  private Value[][] simulateBlock(Worker worker, int block) {
+    final var base = block << blockBits;
+    final var size = 1 << blockBits;
+    final var results = new Value[size][];
+    var row = base;
+    results[0] = worker.evaluate(row);
+    for (var step = 1; step < size; step++) {
+      // Gray-code order: step n flips the bit at the number of trailing zeros of n.
+      row ^= 1 << Integer.numberOfTrailingZeros(step);
+      results[row - base] = worker.evaluate(row);
+    }
+    return results;
+  }
+
+  private Value inputValue(int pin, int row) {
+    return Value.createKnown(inputWidths[pin], (row & inputMasks[pin]) >>> inputShifts[pin]);
+  }
+
+  private String[] writeBlock(Writer out, String[] formats, int block, Value[][] results)
+      throws IOException {
+    final var base = block << blockBits;
+    final var cells = new String[headers.length];
+    for (var offset = 0; offset < results.length; offset++) {
+      final var row = base + offset;
+      for (var i = 0; i < inputPins.length; i++) {
+        cells[i] = TtyInterface.valueFormat(inputValue(i, row), format);
+      }
+      final var outputs = results[offset];
+      for (var i = 0; i < outputs.length; i++) {
+        cells[inputPins.length + i] = TtyInterface.valueFormat(outputs[i], format);
+      }
+      if (formats == null) {
+        formats = columnWidths(cells);
+        writeRow(out, headers, formats);
+      }
+      writeRow(out, cells, formats);
+    }
+    return formats;
+  }
+
+  /** Returns the padded width of each column, following TtyInterface.displayTableRow(). */
+  private String[] columnWidths(String[] firstRow) {
+    final var pretty =
+        (format & (TtyInterface.FORMAT_TABLE_TABBED | TtyInterface.FORMAT_TABLE_CSV)) == 0;
+    final var ret = new String[headers.length];
+    for (var i = 0; i < headers.length; i++) {
+      ret[i] = pretty ? " ".repeat(Math.max(headers[i].length(), firstRow[i].length())) : "";
+    }
+    return ret;
+  }
+
+  private void writeRow(Writer out, String[] cells, String[] padding) throws IOException {
+    final var sep = (format & TtyInterface.FORMAT_TABLE_TABBED) != 0 ? '\t'
+        : (format & TtyInterface.FORMAT_TABLE_CSV) != 0 ? ',' : ' ';
+    for (var i = 0; i < cells.length; i++) {
+      if (i != 0) out.write(sep);
+      final var pad = padding[i].length() - cells[i].length();
+      if (pad > 0) out.write(padding[i], 0, pad);
+      out.write(cells[i]);
+    }
+    out.write('\n');
+  }
+
+  /** A circuit state used by one thread at a time, together with the row it currently holds. */
+  private final class Worker {
+    private final CircuitState state = new CircuitState(proj, circuit);
+    private int row = -1;
+
+    /** Switches the state to the given row, propagates, and returns the output pin values. */
+    Value[] evaluate(int newRow) {
+      final var changed = row < 0 ? -1 : row ^ newRow;
+      for (var i = 0; i < inputPins.length; i++) {
+        if ((changed & inputMasks[i]) == 0) continue;
+        Pin.FACTORY.setValue(state.getInstanceState(inputPins[i]), inputValue(i, newRow));
+        state.markComponentAsDirty(inputPins[i].getComponent());
+      }
+      row = newRow;
+
+      final var prop = state.getPropagator();
+      prop.propagate();
+      final var ret = new Value[outputPins.length];
+      if (prop.isOscillating()) {
+        for (var i = 0; i < outputPins.length; i++) {
+          ret[i] = Value.createError(outputPins[i].getAttributeValue(StdAttr.WIDTH));
+        }
+        // Do not carry an oscillating state over to the next row.
+        prop.reset();
+        row = -1;
+      } else {
+        for (var i = 0; i < outputPins.length; i++) {
+          ret[i] = Pin.FACTORY.getValue(state.getInstanceState(outputPins[i]));
+        }
+      }
+      return ret;
+    }
+  }
+}
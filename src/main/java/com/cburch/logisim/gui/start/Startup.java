@@ -92,6 +92,9 @@ public class Startup implements AWTEventListener {
   private boolean templEmpty = false;
   private boolean templPlain = false;
   private String testVector = null;
+  private int testVectorThreads = 1;
+  private File testVectorReport = null;
+  private boolean testVectorIncremental = false;
   private String circuitToTest = null;
   private boolean exitAfterStartup = false;
   private boolean showSplash;
@@ -164,6 +167,9 @@ public class Startup implements AWTEventListener {
   private static final String ARG_VERSION_LONG = "version";
   private static final String ARG_TEST_VECTOR_SHORT = "w";
   private static final String ARG_TEST_VECTOR_LONG = "test-vector";
+  private static final String ARG_TEST_THREADS_LONG = "test-threads";
+  private static final String ARG_TEST_REPORT_LONG = "test-report";
+  private static final String ARG_TEST_INCREMENTAL_LONG = "test-incremental";
   private static final String ARG_NO_SPLASH_LONG = "no-splash";
   private static final String ARG_MAIN_CIRCUIT = "toplevel-circuit";
 
@@ -324,6 +330,9 @@ public class Startup implements AWTEventListener {
     addOption(opts, "argNoSplashOption", ARG_NO_SPLASH_LONG);
     addOption(opts, "argMainCircuitOption", ARG_MAIN_CIRCUIT, 1);
     addOption(opts, "argTestVectorOption", ARG_TEST_VECTOR_LONG, ARG_TEST_VECTOR_SHORT, 2);
+    addOption(opts, "argTestThreadsOption", ARG_TEST_THREADS_LONG, 1);
+    addOption(opts, "argTestReportOption", ARG_TEST_REPORT_LONG, 1);
+    addOption(opts, "argTestIncrementalOption", ARG_TEST_INCREMENTAL_LONG);
     addOption(opts, "argTestCircuitOption", ARG_TEST_CIRCUIT_LONG, ARG_TEST_CIRCUIT_SHORT, 1);     // FIXME add "Option" suffix to key name
     addOption(opts, "argTestCircGenOption", ARG_TEST_CIRC_GEN_LONG, ARG_TEST_CIRC_GEN_SHORT, 2);   // FIXME add "Option" suffix to key name
 
@@ -389,6 +398,9 @@ public class Startup implements AWTEventListener {
         case ARG_TEMPLATE_LONG -> handleArgTemplate(startup, opt);
         case ARG_NO_SPLASH_LONG -> handleArgNoSplash(startup, opt);
         case ARG_TEST_VECTOR_LONG -> handleArgTestVector(startup, opt);
+        case ARG_TEST_THREADS_LONG -> handleArgTestThreads(startup, opt);
+        case ARG_TEST_REPORT_LONG -> handleArgTestReport(startup, opt);
+        case ARG_TEST_INCREMENTAL_LONG -> handleArgTestIncremental(startup, opt);
         case ARG_TEST_FGPA_LONG -> handleArgTestFpga(startup, opt);
         case ARG_TEST_CIRCUIT_LONG -> handleArgTestCircuit(startup, opt);
         case ARG_TEST_CIRC_GEN_LONG -> handleArgTestCircGen(startup, opt);
@@ -466,6 +478,8 @@ public class Startup implements AWTEventListener {
           case "hex" -> TtyInterface.FORMAT_TABLE_HEX;
           case "csv" -> TtyInterface.FORMAT_TABLE_CSV;
           case "tabs" -> TtyInterface.FORMAT_TABLE_TABBED;
+          case "fast" -> TtyInterface.FORMAT_TABLE_FAST;
+          case "parallel" -> TtyInterface.FORMAT_TABLE_PARALLEL;
           default -> 0;
         };
 
@@ -474,8 +488,8 @@ public class Startup implements AWTEventListener {
           return RC.QUIT;
         }
         startup.ttyFormat |= val;
-        return RC.OK;
       }
+      return RC.OK;
     }
     logger.error(S.get("ttyFormatError"));
     return RC.QUIT;
@@ -629,6 +643,31 @@ public class Startup implements AWTEventListener {
     return RC.OK;
   }
 
+  private static RC handleArgTestThreads(Startup startup, Option opt) {
+    final var value = opt.getValue();
+    try {
+      startup.testVectorThreads =
+          value.equals("auto") ? Runtime.getRuntime().availableProcessors() : Integer.parseInt(value);
+    } catch (NumberFormatException e) {
+      startup.testVectorThreads = 0;
+    }
+    if (startup.testVectorThreads < 1) {
+      logger.error(S.get("argTestThreadsError"));
+      return RC.QUIT;
+    }
+    return RC.OK;
+  }
+
+  private static RC handleArgTestReport(Startup startup, Option opt) {
+    startup.testVectorReport = new File(opt.getValue());
+    return RC.OK;
+  }
+
+  private static RC handleArgTestIncremental(Startup startup, Option opt) {
+    startup.testVectorIncremental = true;
+    return RC.OK;
+  }
+
   private static RC handleArgMainCircuit(Startup startup, Option opt) {
     startup.circuitToTest = opt.getValues()[0];
     return RC.OK;
@@ -930,7 +969,9 @@ public class Startup implements AWTEventListener {
         try {
           if (testVector != null) {
             proj = ProjectActions.doOpenNoWindow(monitor, fileToOpen);
-            proj.doTestVector(testVector, circuitToTest);
+            proj.doTestVector(
+                testVector, circuitToTest, testVectorThreads, testVectorReport,
+                testVectorIncremental);
           } else if (testCircPathInput != null && testCircPathOutput != null) {
             /* This part of the function will create a new circuit file (
              * XML) which will be open and saved again using the  */
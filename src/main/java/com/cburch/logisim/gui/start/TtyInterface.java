@@ -52,6 +52,8 @@ public class TtyInterface {
   public static final int FORMAT_TABLE_CSV = 64;
   public static final int FORMAT_TABLE_BIN = 128;
   public static final int FORMAT_TABLE_HEX = 256;
+  public static final int FORMAT_TABLE_FAST = 512;
+  public static final int FORMAT_TABLE_PARALLEL = 1024;
   static final Logger logger = LoggerFactory.getLogger(TtyInterface.class);
   private static boolean lastIsNewline = true;
 
@@ -78,6 +80,12 @@ public class TtyInterface {
     System.out.printf(S.get("ttySpeedMsg") + "\n", hertzStr, tickCount, elapse);
   }
 
+  private static void displayEventSpeed(long eventCount, long elapse) {
+    final var perSecond =
+        elapse == 0 ? eventCount : Math.round((double) eventCount / elapse * 1000.0);
+    System.out.printf(S.get("ttyEventSpeedMsg") + "\n", perSecond, eventCount, elapse);
+  }
+
   private static void displayStatistics(LogisimFile file, Circuit circuit) {
     final var stats = FileStatistics.compute(file, circuit);
     final var total = stats.getTotalWithSubcircuits();
@@ -186,7 +194,7 @@ public class TtyInterface {
     return shouldPrint;
   }
 
-  private static String valueFormat(Value v, int format) {
+  static String valueFormat(Value v, int format) {
     if ((format & FORMAT_TABLE_BIN) != 0) {
       // everything in binary
       return v.toString();
@@ -353,6 +361,13 @@ public class TtyInterface {
   }
 
   private static int doTableAnalysis(Project proj, Circuit circuit, Map<Instance, String> pinLabels, int format) {
+    if ((format & FORMAT_TABLE_PARALLEL) != 0) {
+      final var threads = Runtime.getRuntime().availableProcessors();
+      return FastTableAnalysis.run(proj, circuit, pinLabels, format, threads);
+    }
+    if ((format & FORMAT_TABLE_FAST) != 0) {
+      return FastTableAnalysis.run(proj, circuit, pinLabels, format, 1);
+    }
 
     final var inputPins = new ArrayList<Instance>();
     final var inputVars = new ArrayList<Var>();
@@ -476,6 +491,7 @@ public class TtyInterface {
     var halted = false;
     ArrayList<Value> prevOutputs = null;
     final var prop = circState.getPropagator();
+    final var startEvents = prop.getEventCount();
     while (true) {
       final var curOutputs = new ArrayList<Value>();
       for (final var pin : outputPins) {
@@ -523,6 +539,7 @@ public class TtyInterface {
     }
     if (showSpeed) {
       displaySpeed(tickCount, elapse);
+      displayEventSpeed(prop.getEventCount() - startEvents, elapse);
     }
     return retCode;
   }
@@ -25,6 +25,9 @@ import com.cburch.logisim.instance.StdAttr;
 import com.cburch.logisim.proj.Project;
 import com.cburch.logisim.std.wiring.Pin;
 import com.cburch.logisim.util.UniquelyNamedThread;
+import java.io.File;
+import java.io.IOException;
+import java.util.function.IntConsumer;
 
 public class TestThread extends UniquelyNamedThread implements CircuitListener {
 
@@ -61,6 +64,12 @@ public class TestThread extends UniquelyNamedThread implements CircuitListener {
 
   // used only for automated testing via command line arguments
   public static int doTestVector(Project proj, Circuit circuit, String vectorname) {
+    return doTestVector(proj, circuit, vectorname, 1, null, false);
+  }
+
+  // used only for automated testing via command line arguments
+  public static int doTestVector(Project proj, Circuit circuit, String vectorname, int threads,
+      File report, boolean incremental) {
     System.out.println(S.get("testLoadingVector", vectorname));
     TestVector vec;
     try {
@@ -80,26 +89,44 @@ public class TestThread extends UniquelyNamedThread implements CircuitListener {
 
     System.out.println(S.get("testRunning", Integer.toString(vec.data.size())));
 
+    final var runner = new TestVectorRunner(proj, circuit, vec, tester.pin, incremental);
+    final IntConsumer progress = threads > 1 ? done -> { } : done -> System.out.print(done + " \r");
+    TestVectorRunner.Result[] results;
+    try {
+      results = runner.run(threads, progress);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return -1;
+    }
+
     int numPass = 0;
     int numFail = 0;
-    for (int i = 0; i < vec.data.size(); i++) {
-      try {
-        System.out.print((i + 1) + " \r");
-        tester.test(i);
+    for (int i = 0; i < results.length; i++) {
+      final var error = results[i].error();
+      if (error == null) {
         numPass++;
-      } catch (FailException e) {
+      } else if (error instanceof FailException e) {
         System.out.println();
         System.err.println(S.get("testFailed", Integer.toString(i + 1)));
         for (FailException e1 : e.getAll()) System.out.println("  " + e1.getMessage());
         numFail++;
-      } catch (TestException e) {
+      } else {
         System.out.println();
-        System.err.println(S.get("testFailed", (i + 1) + " " + e.getMessage()));
+        System.err.println(S.get("testFailed", (i + 1) + " " + error.getMessage()));
         numFail++;
       }
     }
     System.out.println();
     System.out.println(S.get("testResults", Integer.toString(numPass), Integer.toString(numFail)));
+
+    if (report != null) {
+      try {
+        runner.writeReport(report, vectorname);
+      } catch (IOException e) {
+        System.err.println(S.get("testReportFailed", e.getMessage()));
+        return -1;
+      }
+    }
     return 0;
   }
 
@@ -0,0 +1,230 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.gui.test;
+
+import com.cburch.logisim.circuit.Circuit;
+import com.cburch.logisim.circuit.CircuitState;
+import com.cburch.logisim.circuit.SplitterFactory;
+import com.cburch.logisim.circuit.SubcircuitFactory;
+import com.cburch.logisim.data.FailException;
+import com.cburch.logisim.data.TestException;
+import com.cburch.logisim.data.TestVector;
+import com.cburch.logisim.instance.Instance;
+import com.cburch.logisim.proj.Project;
+import com.cburch.logisim.std.arith.ArithmeticLibrary;
+import com.cburch.logisim.std.base.Text;
+import com.cburch.logisim.std.gates.GatesLibrary;
+import com.cburch.logisim.std.plexers.PlexersLibrary;
+import com.cburch.logisim.std.wiring.Clock;
+import com.cburch.logisim.std.wiring.PowerOnReset;
+import com.cburch.logisim.std.wiring.WiringLibrary;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import org.apache.commons.text.StringEscapeUtils;
+
+/**
+ * Runs all rows of a test vector for {@code --test-vector}. The rows are split into contiguous
+ * shards, one per thread. A single shard works on the project's circuit state as before; with
+ * more shards each one builds its own state, as copies would still share the contents of memories.
+ * The state is reset before each row, unless incremental runs are asked for and every component
+ * in the circuit hierarchy comes from a library without internal state; then only the input pins
+ * are updated and re-propagated.
+ */
+final class TestVectorRunner {
+  private static final Set<Package> STATELESS_PACKAGES =
+      Set.of(
+          GatesLibrary.class.getPackage(),
+          PlexersLibrary.class.getPackage(),
+          ArithmeticLibrary.class.getPackage());
+
+  /** The outcome of one row; {@code error} is null if the row passed. */
+  record Result(long nanos, TestException error) {}
+
+  private final Project project;
+  private final Circuit circuit;
+  private final TestVector vector;
+  private final Instance[] pins;
+  private final boolean incremental;
+  private final Result[] results;
+
+  /**
+   * Creates the runner. As feedback loops built from gates are not detected, the rows are only
+   * run incrementally if the caller asks for it.
+   */
+  TestVectorRunner(Project project, Circuit circuit, TestVector vector, Instance[] pins,
+      boolean incremental) {
+    this.project = project;
+    this.circuit = circuit;
+    this.vector = vector;
+    this.pins = pins;
+    this.incremental = incremental && isCombinational(circuit, new HashSet<>());
+    this.results = new Result[vector.data.size()];
+  }
+
+  /**
+   * Returns true if no component of the circuit or its subcircuits keeps state from one
+   * propagation to the next. Feedback loops built from gates are not detected.
+   */
+  static boolean isCombinational(Circuit circuit, Set<Circuit> visited) {
+    if (!visited.add(circuit)) return true;
+    for (final var comp : circuit.getNonWires()) {
+      final var factory = comp.getFactory();
+      if (factory instanceof SubcircuitFactory sub) {
+        if (!isCombinational(sub.getSubcircuit(), visited)) return false;
+      } else if (factory instanceof Clock || factory instanceof PowerOnReset) {
+        return false;
+      } else if (factory instanceof SplitterFactory) {
+        continue;
+      } else if (!STATELESS_PACKAGES.contains(factory.getClass().getPackage())
+          && factory.getClass().getPackage() != WiringLibrary.class.getPackage()
+          && factory != Text.FACTORY) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  boolean isIncremental() {
+    return incremental;
+  }
+
+  /**
+   * Runs all rows, spread over the given number of threads, and returns their results in row
+   * order. The listener is called with the number of finished rows after each row.
+   */
+  Result[] run(int threads, IntConsumer progress) throws InterruptedException {
+    final var rows = results.length;
+    final var shards = Math.max(1, Math.min(threads, rows));
+    final var done = new AtomicInteger();
+    final var workers = new Thread[shards];
+    for (var i = 0; i < shards; i++) {
+      final var from = (int) ((long) rows * i / shards);
+      final var to = (int) ((long) rows * (i + 1) / shards);
+      final var state =
+          shards == 1 ? project.getCircuitState() : new CircuitState(project, circuit);
+      workers[i] =
+          new Thread(() -> runShard(state, from, to, done, progress), "TestVectorRunner-" + i);
+      workers[i].start();
+    }
+    for (final var worker : workers) worker.join();
+    return results;
+  }
+
+  private void runShard(CircuitState state, int from, int to, AtomicInteger done,
+      IntConsumer progress) {
+    var first = true;
+    for (var row = from; row < to; row++) {
+      final var start = System.nanoTime();
+      TestException error = null;
+      try {
+        circuit.doTestVector(state, pins, vector.data.get(row), first || !incremental);
+      } catch (TestException e) {
+        error = e;
+      }
+      results[row] = new Result(System.nanoTime() - start, error);
+      // An oscillating state is not a good starting point for the next row.
+      first = error != null && !(error instanceof FailException);
+      progress.accept(done.incrementAndGet());
+    }
+  }
+
+  /** Writes the results as a JUnit XML report, or as JSON if the file name ends in .json. */
+  void writeReport(File file, String vectorName) throws IOException {
+    try (final var out = new PrintWriter(file, StandardCharsets.UTF_8)) {
+      if (file.getName().toLowerCase().endsWith(".json")) {
+        writeJson(out, vectorName);
+      } else {
+        writeJunitXml(out, vectorName);
+      }
+    }
+  }
+
+  private void writeJunitXml(PrintWriter out, String vectorName) {
+    var failures = 0;
+    var errors = 0;
+    var nanos = 0L;
+    for (final var result : results) {
+      if (result.error() instanceof FailException) failures++;
+      else if (result.error() != null) errors++;
+      nanos += result.nanos();
+    }
+    final var suite = StringEscapeUtils.escapeXml10(circuit.getName());
+    out.println("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+    out.printf(
+        "<testsuite name=\"%s\" tests=\"%d\" failures=\"%d\" errors=\"%d\" time=\"%s\">%n",
+        suite, results.length, failures, errors, seconds(nanos));
+    final var className = StringEscapeUtils.escapeXml10(vectorName);
+    for (var row = 0; row < results.length; row++) {
+      final var result = results[row];
+      out.printf(
+          "  <testcase classname=\"%s\" name=\"row %d\" time=\"%s\"",
+          className, row + 1, seconds(result.nanos()));
+      if (result.error() == null) {
+        out.println("/>");
+        continue;
+      }
+      out.println(">");
+      final var tag = result.error() instanceof FailException ? "failure" : "error";
+      out.printf(
+          "    <%s message=\"%s\"/>%n",
+          tag, StringEscapeUtils.escapeXml10(messages(result.error())));
+      out.println("  </testcase>");
+    }
+    out.println("</testsuite>");
+  }
+
+  private void writeJson(PrintWriter out, String vectorName) {
+    var passed = 0;
+    for (final var result : results) if (result.error() == null) passed++;
+    out.println("{");
+    out.printf("  \"circuit\": \"%s\",%n", StringEscapeUtils.escapeJson(circuit.getName()));
+    out.printf("  \"vector\": \"%s\",%n", StringEscapeUtils.escapeJson(vectorName));
+    out.printf("  \"incremental\": %s,%n", incremental);
+    out.printf("  \"passed\": %d,%n", passed);
+    out.printf("  \"failed\": %d,%n", results.length - passed);
+    out.println("  \"rows\": [");
+    for (var row = 0; row < results.length; row++) {
+      final var result = results[row];
+      out.printf("    {\"row\": %d, \"nanos\": %d, ", row + 1, result.nanos());
+      if (result.error() == null) {
+        out.print("\"status\": \"pass\"}");
+      } else {
+        out.printf(
+            "\"status\": \"%s\", \"message\": \"%s\"}",
+            result.error() instanceof FailException ? "fail" : "error",
+            StringEscapeUtils.escapeJson(messages(result.error())));
+      }
+      out.println(row + 1 < results.length ? "," : "");
+    }
+    out.println("  ]");
+    out.println("}");
+  }
+
+  private static String messages(TestException error) {
+    if (!(error instanceof FailException fail)) return error.getMessage();
+    final var ret = new StringBuilder();
+    for (final var e : fail.getAll()) {
+      if (ret.length() > 0) ret.append("; ");
+      ret.append(e.getMessage());
+    }
+    return ret.toString();
+  }
+
+  private static String seconds(long nanos) {
+    return String.format(Locale.ROOT, "%.6f", nanos / 1e9);
+  }
+}
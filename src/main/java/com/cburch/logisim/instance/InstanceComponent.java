@@ -50,6 +50,8 @@ public final class InstanceComponent implements Component, AttributeListener, To
   private List<Port> portList;
   private EndData[] endArray;
   private List<EndData> endList;
+  // counts the changes of the ends, which are replaced in place when their number stays the same
+  private volatile int endsVersion;
   private boolean hasToolTips;
   private HashSet<Attribute<BitWidth>> widthAttrs;
   private final AttributeSet attrs;
@@ -58,6 +60,12 @@ public final class InstanceComponent implements Component, AttributeListener, To
   private InstanceStateImpl instanceState;
   private boolean doMarkInstance;
   private boolean doMarkLabel;
+  // the configuration derived from the attributes, see InstanceConfig
+  private boolean configRequested;
+  private volatile int attrChanges;
+  private volatile ConfigSnapshot config;
+
+  private record ConfigSnapshot(InstanceConfig<?> key, int attrChanges, Object value) {}
 
   public InstanceComponent(InstanceFactory factory, Location loc, AttributeSet attrs) {
     this.listeners = null;
@@ -80,10 +88,29 @@ public final class InstanceComponent implements Component, AttributeListener, To
   void addAttributeListener(Instance instance) {
     if (!attrListenRequested) {
       attrListenRequested = true;
-      if (widthAttrs == null) getAttributeSet().addAttributeListener(this);
+      if (widthAttrs == null && !configRequested) getAttributeSet().addAttributeListener(this);
     }
   }
 
+  @SuppressWarnings("unchecked")
+  <C> C getConfig(InstanceConfig<C> key) {
+    final var snapshot = config;
+    final var changes = attrChanges;
+    if (snapshot != null && snapshot.key() == key && snapshot.attrChanges() == changes) {
+      return (C) snapshot.value();
+    }
+    synchronized (this) {
+      if (!configRequested) {
+        configRequested = true;
+        if (widthAttrs == null && !attrListenRequested) attrs.addAttributeListener(this);
+      }
+    }
+    // an attribute that changes meanwhile bumps attrChanges, so the result is derived again
+    final var value = key.create(attrs);
+    config = new ConfigSnapshot(key, changes, value);
+    return value;
+  }
+
   //
   // DRC mark functions
   //
@@ -125,6 +152,7 @@ public final class InstanceComponent implements Component, AttributeListener, To
   @Override
   public void attributeValueChanged(AttributeEvent e) {
     final var attr = e.getAttribute();
+    attrChanges++;
     if (e.getAttribute().equals(StdAttr.LABEL)) {
       @SuppressWarnings("unchecked")
       final var lAttr = (Attribute<String>) e.getAttribute();
@@ -193,7 +221,7 @@ public final class InstanceComponent implements Component, AttributeListener, To
         if (p.getToolTip() != null) toolTipFound = true;
       }
     }
-    if (!attrListenRequested) {
+    if (!attrListenRequested && !configRequested) {
       final var oldWidthAttrs = widthAttrs;
       if (wAttrs == null && oldWidthAttrs != null) {
         getAttributeSet().removeAttributeListener(this);
@@ -208,6 +236,7 @@ public final class InstanceComponent implements Component, AttributeListener, To
     widthAttrs = wAttrs;
     hasToolTips = toolTipFound;
     if (endsChangedOld != null) {
+      endsVersion++;
       fireEndsChanged(endsChangedOld, endsChangedNew);
     }
   }
@@ -305,6 +334,17 @@ public final class InstanceComponent implements Component, AttributeListener, To
     }
   }
 
+  private void fireBoundsChanged() {
+    final var listeners = this.listeners;
+    if (listeners != null) {
+      ComponentEvent e = null;
+      for (final var listener : listeners) {
+        if (e == null) e = new ComponentEvent(this);
+        listener.boundsChanged(e);
+      }
+    }
+  }
+
   void fireInvalidated() {
     final var listeners = this.listeners;
     if (listeners != null) {
@@ -346,6 +386,14 @@ public final class InstanceComponent implements Component, AttributeListener, To
     return endList;
   }
 
+  /**
+   * Returns a number that changes whenever the ends change. The list returned by {@link #getEnds}
+   * stays the same object when only the location or width of an end changes.
+   */
+  public int getEndsVersion() {
+    return endsVersion;
+  }
+
   //
   // basic information methods
   //
@@ -416,7 +464,9 @@ public final class InstanceComponent implements Component, AttributeListener, To
 
   void recomputeBounds() {
     Location p = loc;
+    final var old = bounds;
     bounds = factory.getOffsetBounds(attrs).translate(p.getX(), p.getY());
+    if (!bounds.equals(old)) fireBoundsChanged();
   }
 
   @Override
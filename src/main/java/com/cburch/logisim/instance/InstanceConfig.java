@@ -0,0 +1,49 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.instance;
+
+import com.cburch.logisim.data.AttributeSet;
+import java.util.function.Function;
+
+/**
+ * The configuration of an instance as its factory needs it in {@link
+ * InstanceFactory#propagate(InstanceState)}: an immutable object derived from the attributes, so
+ * that propagate does not look up the same attributes on every call. A factory declares the
+ * function that derives it once,
+ *
+ * <pre>
+ *   private static final InstanceConfig&lt;Config&gt; CONFIG = new InstanceConfig&lt;&gt;(Config::new);
+ * </pre>
+ *
+ * and obtains the configuration of the instance with {@code CONFIG.get(state)}. The component
+ * keeps the configuration of one such declaration, and derives it again only after one of its
+ * attributes changed.
+ */
+public final class InstanceConfig<C> {
+  private final Function<AttributeSet, C> builder;
+
+  public InstanceConfig(Function<AttributeSet, C> builder) {
+    this.builder = builder;
+  }
+
+  public C get(InstanceState state) {
+    final var instance = state.getInstance();
+    // without a component, as when the tool paints itself, there is nothing to keep it in
+    return instance == null ? create(state.getAttributeSet()) : get(instance);
+  }
+
+  public C get(Instance instance) {
+    return instance.getComponent().getConfig(this);
+  }
+
+  C create(AttributeSet attrs) {
+    return builder.apply(attrs);
+  }
+}
@@ -10,8 +10,8 @@
 package com.cburch.logisim.instance;
 
 import com.cburch.logisim.circuit.CircuitState;
+import com.cburch.logisim.circuit.PortSlots;
 import com.cburch.logisim.comp.Component;
-import com.cburch.logisim.comp.EndData;
 import com.cburch.logisim.data.Attribute;
 import com.cburch.logisim.data.AttributeSet;
 import com.cburch.logisim.data.Value;
@@ -20,6 +20,8 @@ import com.cburch.logisim.proj.Project;
 public class InstanceStateImpl implements InstanceState {
   private CircuitState circuitState;
   private Component component;
+  // the ends of the component resolved in the circuit state, see getSlots()
+  private PortSlots slots;
 
   public InstanceStateImpl(CircuitState circuitState, Component component) {
     this.circuitState = circuitState;
@@ -78,8 +80,13 @@ public class InstanceStateImpl implements InstanceState {
 
   @Override
   public Value getPortValue(int portIndex) {
-    EndData data = component.getEnd(portIndex);
-    return circuitState.getValue(data.getLocation());
+    return circuitState.getPortValue(getSlots(), portIndex);
+  }
+
+  private PortSlots getSlots() {
+    final var ret = circuitState.getPortSlots(component, slots);
+    slots = ret;
+    return ret;
   }
 
   @Override
@@ -100,8 +107,7 @@ public class InstanceStateImpl implements InstanceState {
   @Override
   public boolean isPortConnected(int index) {
     final var circ = circuitState.getCircuit();
-    final var loc = component.getEnd(index).getLocation();
-    return circ.isConnected(loc, component);
+    return circ.isConnected(getSlots().getLocation(index), component);
   }
 
   public void repurpose(CircuitState circuitState, Component component) {
@@ -116,7 +122,6 @@ public class InstanceStateImpl implements InstanceState {
 
   @Override
   public void setPort(int portIndex, Value value, int delay) {
-    final var end = component.getEnd(portIndex);
-    circuitState.setValue(end.getLocation(), value, component, delay);
+    circuitState.setPortValue(getSlots(), portIndex, value, component, delay);
   }
 }
@@ -34,6 +34,7 @@ import com.cburch.logisim.util.EventSourceWeakSupport;
 import com.cburch.logisim.util.JFileChoosers;
 import com.cburch.logisim.vhdl.base.HdlModel;
 import com.cburch.logisim.vhdl.sim.VhdlSimulatorTop;
+import java.io.File;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -212,13 +213,18 @@ public class Project {
   }
 
   public int doTestVector(String vectorname, String name) {
+    return doTestVector(vectorname, name, 1, null, false);
+  }
+
+  public int doTestVector(String vectorname, String name, int threads, File report,
+      boolean incremental) {
     final var circuit = (name == null ? file.getMainCircuit() : file.getCircuit(name));
     if (circuit == null) {
       System.err.println("Circuit '" + name + "' not found.");
       return -1;
     }
     setCurrentCircuit(circuit);
-    return TestThread.doTestVector(this, circuit, vectorname);
+    return TestThread.doTestVector(this, circuit, vectorname, threads, report, incremental);
   }
 
   private void fireEvent(int action, Object data) {
@@ -36,8 +36,11 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.WindowEvent;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
 import javax.swing.JButton;
 import javax.swing.JDialog;
 import javax.swing.JLabel;
@@ -157,6 +160,10 @@ public class SocBusStateInfo extends JDialog
       if (!listeners.contains(l)) listeners.add(l);
     }
 
+    public boolean hasListeners() {
+      return !listeners.isEmpty();
+    }
+
     public void deregisterListener(SocBusStateListener l) {
       listeners.remove(l);
     }
@@ -180,6 +187,8 @@ public class SocBusStateInfo extends JDialog
   private final SocSimulationManager socManager;
   private Component myComp;
   private final ArrayList<SocBusSnifferInterface> sniffers;
+  private final Set<SocBusWriteListener> writeListeners =
+      Collections.newSetFromMap(new WeakHashMap<>());
   private final JButton okButton;
   private final JLabel title;
   private final JScrollPane scroll;
@@ -235,10 +244,43 @@ public class SocBusStateInfo extends JDialog
     sniffers.remove(sniffer);
   }
 
+  /* write listeners are only weakly referenced, so a discarded listener needs no removal */
+  public void registerWriteListener(SocBusWriteListener listener) {
+    synchronized (writeListeners) {
+      writeListeners.add(listener);
+    }
+  }
+
+  public void removeWriteListener(SocBusWriteListener listener) {
+    synchronized (writeListeners) {
+      writeListeners.remove(listener);
+    }
+  }
+
+  private void fireWritten(long address, int access) {
+    synchronized (writeListeners) {
+      if (writeListeners.isEmpty()) return;
+      final var bytes = switch (access) {
+        case SocBusTransaction.WORD_ACCESS -> 4;
+        case SocBusTransaction.HALF_WORD_ACCESS -> 2;
+        default -> 1;
+      };
+      for (final var listener : writeListeners) listener.busWritten(address, bytes);
+    }
+  }
+
   public List<SocBusSlaveInterface> getSlaves() {
     return memMap.getSlaves();
   }
 
+  public SocBusSlaveInterface[] getSlavesAt(long address) {
+    return memMap.getSlavesAt(address);
+  }
+
+  public int getMemoryMapVersion() {
+    return memMap.getMapVersion();
+  }
+
   @Override
   public String getName() {
     var name = myComp.getAttributeSet().getValue(StdAttr.LABEL);
@@ -263,34 +305,39 @@ public class SocBusStateInfo extends JDialog
 
   public void initializeTransaction(SocBusTransaction trans, String busId) {
     int nrOfReponders = 0;
-    int reponder = -1;
-    final var slaves = memMap.getSlaves();
-    if (slaves.isEmpty()) trans.setError(SocBusTransaction.NO_SLAVES_ERROR);
+    SocBusSlaveInterface reponder = null;
+    if (memMap.getSlaves().isEmpty()) trans.setError(SocBusTransaction.NO_SLAVES_ERROR);
     else if (trans.isReadTransaction()
         && trans.isWriteTransaction()
         && !trans.isAtomicTransaction()) {
       trans.setError(SocBusTransaction.NONE_ATOMIC_READ_WRITE_ERROR);
     } else {
-      for (int i = 0; i < slaves.size(); i++) {
-        if (slaves.get(i).canHandleTransaction(trans)) {
+      /* only the slaves mapped at the address can respond */
+      final var address = SocSupport.convUnsignedInt(trans.getAddress());
+      for (final var slave : memMap.getSlavesAt(address)) {
+        if (slave.canHandleTransaction(trans)) {
           nrOfReponders++;
-          reponder = i;
+          reponder = slave;
         }
       }
       if (nrOfReponders == 0) trans.setError(SocBusTransaction.NO_RESPONS_ERROR);
       else if (nrOfReponders != 1) trans.setError(SocBusTransaction.MULTIPLE_SLAVES_ERROR);
-      else slaves.get(reponder).handleTransaction(trans);
+      else {
+        reponder.handleTransaction(trans);
+        if (trans.isWriteTransaction() && !trans.hasError())
+          fireWritten(address, trans.getAccessType());
+      }
     }
-    if (!trans.hasError() && !trans.isHidden()) {
+    if (trans.isHidden()) return;
+    if (!trans.hasError()) {
       for (SocBusSnifferInterface sniffer : sniffers) sniffer.sniffTransaction(trans);
     }
-    if (!trans.isHidden()) {
-      final var data = getRegPropagateState();
-      if (data != null) {
-        data.addTransaction(trans);
-        if (myComp.getAttributeSet().getValue(SocBusAttributes.SOC_TRACE_VISIBLE))
-          ((InstanceComponent) myComp).getInstance().fireInvalidated();
-      }
+    /* the trace is only kept while it is shown on the bus or in a trace window */
+    final var traceVisible = myComp.getAttributeSet().getValue(SocBusAttributes.SOC_TRACE_VISIBLE);
+    final var data = getRegPropagateState();
+    if (data != null && (traceVisible || data.hasListeners())) {
+      data.addTransaction(trans);
+      if (traceVisible) ((InstanceComponent) myComp).getInstance().fireInvalidated();
     }
   }
 
@@ -0,0 +1,16 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.soc.data;
+
+public interface SocBusWriteListener {
+
+  /* called after a slave accepted a write of the given number of bytes at the given address */
+  void busWritten(long address, int bytes);
+}
@@ -19,6 +19,7 @@ import java.awt.Color;
 import java.awt.Component;
 import java.awt.event.MouseEvent;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 import javax.swing.BorderFactory;
@@ -198,7 +199,57 @@ public class SocMemMapModel extends AbstractTableModel
     }
   }
 
+  /*
+   * Address decoding index: the address space split at every slave boundary into regions, sorted
+   * on start address, together with the slaves whose address range covers each region. It is
+   * rebuilt together with the table, so looking up the slaves for a bus transaction does not
+   * have to ask every slave.
+   */
+  private static final class SlaveIndex {
+    private final long[] starts;
+    private final SocBusSlaveInterface[][] covering;
+    private final int nrOfRegions;
+
+    private SlaveIndex(List<SocBusSlaveInterface> slaves) {
+      final var nrOfSlaves = slaves.size();
+      final var slaveStarts = new long[nrOfSlaves];
+      final var slaveEnds = new long[nrOfSlaves];
+      final var bounds = new long[2 * nrOfSlaves];
+      for (var i = 0; i < nrOfSlaves; i++) {
+        final var info = new SlaveInfo(slaves.get(i));
+        slaveStarts[i] = info.getStartAddress();
+        slaveEnds[i] = info.getEndAddress();
+        bounds[2 * i] = slaveStarts[i];
+        bounds[2 * i + 1] = slaveEnds[i] + 1;
+      }
+      Arrays.sort(bounds);
+      starts = new long[bounds.length];
+      covering = new SocBusSlaveInterface[bounds.length][];
+      var regions = 0;
+      for (var i = 0; i < bounds.length; i++) {
+        if (i > 0 && bounds[i] == bounds[i - 1]) continue;
+        final var inRegion = new ArrayList<SocBusSlaveInterface>();
+        for (var j = 0; j < nrOfSlaves; j++) {
+          if (slaveStarts[j] <= bounds[i] && bounds[i] <= slaveEnds[j]) inRegion.add(slaves.get(j));
+        }
+        starts[regions] = bounds[i];
+        covering[regions++] = inRegion.toArray(NO_SLAVES);
+      }
+      nrOfRegions = regions;
+    }
+
+    private SocBusSlaveInterface[] get(long address) {
+      final var idx = Arrays.binarySearch(starts, 0, nrOfRegions, address);
+      final var region = idx >= 0 ? idx : -idx - 2;
+      return region < 0 ? NO_SLAVES : covering[region];
+    }
+  }
+
+  private static final SocBusSlaveInterface[] NO_SLAVES = new SocBusSlaveInterface[0];
+
   private final ArrayList<SocBusSlaveInterface> slaves;
+  private volatile SlaveIndex slaveIndex;
+  private volatile int mapVersion;
   private final SlaveMap slaveMap;
   private final SlaveInfoRenderer slaveRenderer;
   private final MemoryMapHeaderRenderer headRenderer;
@@ -235,6 +286,19 @@ public class SocMemMapModel extends AbstractTableModel
     return slaves;
   }
 
+  /**
+   * Returns the slaves whose address range contains the given (unsigned) address. These are
+   * the only slaves that may be able to handle a transaction on that address.
+   */
+  public SocBusSlaveInterface[] getSlavesAt(long address) {
+    return slaveIndex.get(address);
+  }
+
+  /** Returns a number that changes each time the memory map is rebuilt. */
+  public int getMapVersion() {
+    return mapVersion;
+  }
+
   public SlaveInfoRenderer getCellRender() {
     return slaveRenderer;
   }
@@ -285,6 +349,8 @@ public class SocMemMapModel extends AbstractTableModel
   }
 
   private void rebuild() {
+    slaveIndex = new SlaveIndex(slaves);
+    mapVersion++;
     slaveMap.clear();
     if (slaves.isEmpty())
       slaveMap.add(new SlaveInfo(0, -1));
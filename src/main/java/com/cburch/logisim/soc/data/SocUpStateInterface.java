@@ -48,4 +48,9 @@ public interface SocUpStateInterface {
   int getElfType();
 
   void repaint();
+
+  /* the instructions retired per second in millions, 0 if unknown */
+  default double getMips() {
+    return 0;
+  }
 }
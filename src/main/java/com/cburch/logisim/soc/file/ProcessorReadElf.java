@@ -174,15 +174,25 @@ public class ProcessorReadElf {
         return false;
       }
       long startAddr = ElfHeader.getLongValue(h.getValue(ElfProgramHeader.P_PADDR));
-      for (int j = 0; j < memSize; j++) {
-        int data = (j < buffer.length) ? buffer[j] : 0;
+      int j = 0;
+      while (j < memSize) {
         int addr = ElfHeader.getIntValue(ElfHeader.returnCorrectValue(startAddr + (long) j, true));
+        /* whole aligned words are written in one go, only the unaligned edges byte by byte */
+        boolean wordAccess = ((addr & 3) == 0) && (j + 4 <= memSize);
+        int data;
+        if (wordAccess) {
+          data = 0;
+          for (int b = 3; b >= 0; b--)
+            data = (data << 8) | ((j + b < buffer.length) ? buffer[j + b] & 0xFF : 0);
+        } else {
+          data = (j < buffer.length) ? buffer[j] : 0;
+        }
         SocBusTransaction trans =
             new SocBusTransaction(
                 SocBusTransaction.WRITE_TRANSACTION,
                 addr,
                 data,
-                SocBusTransaction.BYTE_ACCESS,
+                wordAccess ? SocBusTransaction.WORD_ACCESS : SocBusTransaction.BYTE_ACCESS,
                 "elf");
         cpu.insertTransaction(trans, true, cState);
         if (trans.hasError()) {
@@ -191,6 +201,7 @@ public class ProcessorReadElf {
           status = MEM_LOAD_ERROR;
           return false;
         }
+        j += wordAccess ? 4 : 1;
       }
     }
     cpu.setEntryPointandReset(
@@ -198,7 +198,9 @@ public class CpuDrawSupport {
     g2.fillRect(bds.getX(), bds.getY(), bds.getWidth(), bds.getHeight());
     g2.setColor(Color.YELLOW);
     bds = getBounds(207, 6, 0, 0, scale);
-    GraphicsUtil.drawCenteredText(g2, S.get("Rv32imExecutionTrace"), bds.getX(), bds.getY());
+    var title = S.get("Rv32imExecutionTrace");
+    if (cpu.getMips() > 0) title += " " + S.get("Rv32imExecutionRate", cpu.getMips());
+    GraphicsUtil.drawCenteredText(g2, title, bds.getX(), bds.getY());
     g2.setColor(Color.BLACK);
     bds = getBounds(0, 0, 415, 455, scale);
     g2.drawRect(bds.getX(), bds.getY(), bds.getWidth(), bds.getHeight());
@@ -19,78 +19,27 @@ import com.cburch.logisim.soc.data.SocBusTransaction;
 import com.cburch.logisim.soc.data.SocSupport;
 import com.cburch.logisim.util.StringUtil;
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.Random;
 
 public class SocMemoryState implements SocBusSlaveInterface {
 
-  public class SocMemoryInfo implements InstanceData, Cloneable {
-    private class SocMemoryInfoBlock {
-      private final LinkedList<Integer> contents = new LinkedList<>();
-      private int startAddress;
-      private final Random rand = new Random();
-
-      public SocMemoryInfoBlock(int address, int data) {
-        startAddress = (address >> 2) << 2;
-        contents.add(data);
-      }
-
-      public boolean canAddBefore(int address) {
-        final var previousAddress = getStartAddress() - 4;
-        return (address >= previousAddress) && (address < getStartAddress());
-      }
-
-      public boolean canAddAfter(int address) {
-        return (address >= getEndAddress()) && (address < getEndAddress() + 4);
-      }
-
-      public boolean contains(int address) {
-        return (address >= getStartAddress()) && (address < getEndAddress());
-      }
-
-      public boolean canAdd(int address) {
-        return canAddBefore(address) || canAddAfter(address);
-      }
-
-      public boolean addInfo(int address, int data) {
-        if (canAddBefore(address)) {
-          contents.addFirst(data);
-          startAddress -= 4;
-          return true;
-        }
-        if (canAddAfter(address)) {
-          contents.add(data);
-          return true;
-        }
-        if (contains(address)) {
-          final var index = (address - startAddress) >> 2;
-          contents.set(index, data);
-          return true;
-        }
-        return false;
-      }
+  // The 30-bit word index of an address is split into a table index, a page index and the
+  // offset of the word within its page.
+  private static final int PAGE_BITS = 10;
+  private static final int PAGE_WORDS = 1 << PAGE_BITS;
+  private static final int PAGE_MASK = PAGE_WORDS - 1;
 
-      public int getValue(int address) {
-        final var index = (address - startAddress) >> 2;
-        if (index >= contents.size()) {
-          return rand.nextInt();
-        }
-        return contents.get(index);
-      }
-
-      public int getStartAddress() {
-        return startAddress;
-      }
-
-      public int getEndAddress() {
-        return startAddress + contents.size() * 4;
-      }
+  public class SocMemoryInfo implements InstanceData, Cloneable {
+    private static final class Page {
+      private final int[] words = new int[PAGE_WORDS];
+      // Words that were never written read as random values, as in a real memory.
+      private final long[] written = new long[PAGE_WORDS / Long.SIZE];
     }
 
-    private final ArrayList<SocMemoryInfoBlock> memInfo;
+    private final Page[][] pages;
 
     public SocMemoryInfo() {
-      memInfo = new ArrayList<>();
+      pages = new Page[1 << (30 - 2 * PAGE_BITS)][];
     }
 
     @Override
@@ -103,50 +52,33 @@ public class SocMemoryState implements SocBusSlaveInterface {
     }
 
     public int getWord(int address) {
-      for (final var info : memInfo)
-        if (info.contains(address)) return info.getValue(address);
+      final var index = address >>> 2;
+      final var table = pages[index >>> (2 * PAGE_BITS)];
+      if (table != null) {
+        final var page = table[(index >>> PAGE_BITS) & PAGE_MASK];
+        final var offset = index & PAGE_MASK;
+        if (page != null && (page.written[offset >>> 6] & (1L << offset)) != 0) {
+          return page.words[offset];
+        }
+      }
       return rand.nextInt();
     }
 
     public void writeWord(int address, int wdata) {
-      final var adders = new ArrayList<SocMemoryInfoBlock>();
-      for (final var info : memInfo) {
-        if (info.contains(address)) {
-          info.addInfo(address, wdata);
-          return;
-        }
-        if (info.canAdd(address)) adders.add(info);
-      }
-      if (adders.isEmpty()) {
-        /* we have to create a new set */
-        memInfo.add(new SocMemoryInfoBlock(address, wdata));
-        return;
-      }
-      if (adders.size() == 1) {
-        /* easy case we can add in front or at the end of an existing one */
-        adders.get(0).addInfo(address, wdata);
-        return;
-      }
-      if (adders.size() > 2) {
-        // FIXME: hardcoded string
-        System.out.println("BUG! Memory management does not function corectly for the SocMemory component!");
-        return;
-      }
-      final var addBefore = adders.get(0).canAddBefore(address)
-                            ? adders.get(0)
-                            : adders.get(1).canAddBefore(address) ? adders.get(1) : null;
-      final var addAfter = adders.get(0).canAddAfter(address)
-                           ? adders.get(0)
-                           : adders.get(1).canAddAfter(address) ? adders.get(1) : null;
-      if (addBefore == null || addAfter == null) {
-        System.out.println("BUG! Memory management does not function corectly for the SocMemory component!");
-        return;
+      final var index = address >>> 2;
+      var table = pages[index >>> (2 * PAGE_BITS)];
+      if (table == null) {
+        table = new Page[PAGE_WORDS];
+        pages[index >>> (2 * PAGE_BITS)] = table;
       }
-      addAfter.addInfo(address, wdata);
-      for (var i = addBefore.getStartAddress(); i < addBefore.getEndAddress(); i += 4) {
-        addAfter.addInfo(i, addBefore.getValue(i));
+      var page = table[(index >>> PAGE_BITS) & PAGE_MASK];
+      if (page == null) {
+        page = new Page();
+        table[(index >>> PAGE_BITS) & PAGE_MASK] = page;
       }
-      memInfo.remove(addBefore);
+      final var offset = index & PAGE_MASK;
+      page.words[offset] = wdata;
+      page.written[offset >>> 6] |= 1L << offset;
     }
   }
 
@@ -44,6 +44,9 @@ public class Nios2Attributes extends AbstractAttributeSet {
       Attributes.forHexInteger("resetVector", S.getter("rv32ResetVector"));
   public static final Attribute<Integer> EXCEPTION_VECTOR =
       Attributes.forHexInteger("exceptionVector", S.getter("rv32ExceptionVector"));
+  public static final Attribute<Integer> INSTRUCTIONS_PER_TICK =
+      Attributes.forIntegerRange(
+          "instructionsPerTick", S.getter("rv32InstructionsPerTick"), 1, 1000000);
   public static final Attribute<Integer> BREAK_VECTOR =
       Attributes.forHexInteger("breakVector", S.getter("nios2BreakVector"));
   public static final Attribute<Boolean> NIOS_STATE_VISIBLE =
@@ -60,6 +63,7 @@ public class Nios2Attributes extends AbstractAttributeSet {
           EXCEPTION_VECTOR,
           BREAK_VECTOR,
           NR_OF_IRQS,
+          INSTRUCTIONS_PER_TICK,
           NIOS_STATE_VISIBLE,
           StdAttr.LABEL,
           StdAttr.LABEL_FONT,
@@ -89,6 +93,7 @@ public class Nios2Attributes extends AbstractAttributeSet {
     if (attr == EXCEPTION_VECTOR) return (V) upState.getExceptionVector();
     if (attr == BREAK_VECTOR) return (V) upState.getBreakVector();
     if (attr == NR_OF_IRQS) return (V) BitWidth.create(upState.getNrOfIrqs());
+    if (attr == INSTRUCTIONS_PER_TICK) return (V) upState.getInstructionsPerTick();
     if (attr == StdAttr.LABEL) return (V) upState.getLabel();
     if (attr == StdAttr.LABEL_FONT) return (V) labelFont;
     if (attr == StdAttr.LABEL_VISIBILITY) return (V) labelVisible;
@@ -128,6 +133,11 @@ public class Nios2Attributes extends AbstractAttributeSet {
         fireAttributeValueChanged(attr, value, oldValue);
       return;
     }
+    if (attr == INSTRUCTIONS_PER_TICK) {
+      if (upState.setInstructionsPerTick((int) value))
+        fireAttributeValueChanged(attr, value, oldValue);
+      return;
+    }
     if (attr == SocSimulationManager.SOC_BUS_SELECT) {
       if (upState.setAttachedBus((SocBusInfo) value))
         fireAttributeValueChanged(attr, value, oldValue);
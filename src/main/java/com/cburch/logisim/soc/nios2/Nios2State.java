@@ -36,7 +36,10 @@ import com.cburch.logisim.soc.file.ElfProgramHeader;
 import com.cburch.logisim.soc.file.ElfSectionHeader;
 import com.cburch.logisim.soc.gui.BreakpointPanel;
 import com.cburch.logisim.soc.gui.CpuDrawSupport;
+import com.cburch.logisim.soc.util.AssemblerExecutionInterface;
 import com.cburch.logisim.soc.util.AssemblerInterface;
+import com.cburch.logisim.soc.util.DecodedInstructionCache;
+import com.cburch.logisim.soc.util.InstructionRate;
 import com.cburch.logisim.util.GraphicsUtil;
 import com.cburch.logisim.util.StringUtil;
 import java.awt.Color;
@@ -73,6 +76,9 @@ public class Nios2State implements SocUpSimulationStateListener, SocProcessorInt
     private Integer entryPoint;
     private boolean programLoaded;
     private final BreakpointPanel bPanel;
+    private AssemblerExecutionInterface lastExe;
+    private DecodedInstructionCache instructionCache;
+    private final InstructionRate instructionRate = new InstructionRate();
 
     public ProcessorState(Instance inst) {
       registers = new int[32];
@@ -121,7 +127,10 @@ public class Nios2State implements SocUpSimulationStateListener, SocProcessorInt
       bstatus = 0;
       ienable = 0;
       ipending = 0;
+      lastExe = null;
       instrTrace.clear();
+      if (instructionCache != null) instructionCache.clear();
+      instructionRate.reset();
       if (visible) repaint();
       simState.reset();
     }
@@ -279,9 +288,33 @@ public class Nios2State implements SocUpSimulationStateListener, SocProcessorInt
       /* check the simulation state */
       if (!simState.canExecute()) return;
       /* here we handle the custom instructions */
-      if (ASSEMBLER.getExeUnit() != null && ASSEMBLER.getExeUnit() instanceof Nios2CustomInstructions cust) {
+      if (lastExe instanceof Nios2CustomInstructions cust) {
         if (cust.isValid() && cust.waitingOnReady(this, cState)) return;
       }
+      final var batchSize = instructionsPerTick;
+      var retired = 0;
+      if (batchSize <= 1) {
+        if (executeInstruction(cState, null, true)) retired++;
+      } else {
+        /* free-running: execute a batch of instructions from the decoded-instruction cache */
+        if (instructionCache == null) instructionCache = new DecodedInstructionCache();
+        instructionCache.attach(
+            attachedBus.getSocSimulationManager().getSocBusState(attachedBus.getBusId()));
+        final var tracing = visible || myInstance.getAttributeValue(Nios2Attributes.NIOS_STATE_VISIBLE);
+        if (!tracing) instrTrace.clear();
+        while (retired < batchSize && executeInstruction(cState, instructionCache, tracing)) {
+          retired++;
+          /* a custom instruction has to wait for the circuit, so it ends the batch */
+          if (lastExe instanceof Nios2CustomInstructions) break;
+        }
+      }
+      instructionRate.retired(retired);
+      if (visible) repaint();
+    }
+
+    /* returns true if the instruction was executed without problems */
+    private boolean executeInstruction(CircuitState cState, DecodedInstructionCache cache, boolean tracing) {
+      if (!simState.canExecute()) return false;
       Map<Integer, Integer> breakPoints = bPanel.getBreakPoints();
       if (breakPoints.containsKey(pc)) {
         if (simState.breakPointReached()) {
@@ -291,7 +324,7 @@ public class Nios2State implements SocUpSimulationStateListener, SocProcessorInt
               S.get("RV32imBreakPointReached"),
               SocSupport.getMasterName(cState, Nios2State.this.getName()),
               OptionPane.INFORMATION_MESSAGE);
-          return;
+          return false;
         }
       }
       /* check interrupts */
@@ -303,26 +336,21 @@ public class Nios2State implements SocUpSimulationStateListener, SocProcessorInt
           repaint();
         }
       }
-      /* fetch an instruction */
-      SocBusTransaction trans =
-          new SocBusTransaction(SocBusTransaction.READ_TRANSACTION, pc, 0, SocBusTransaction.WORD_ACCESS, attachedBus.getComponent());
-      attachedBus
-          .getSocSimulationManager()
-          .initializeTransaction(trans, attachedBus.getBusId(), cState);
-      if (trans.hasError()) {
-        OptionPane.showMessageDialog(
-            null,
-            trans.getErrorMessage(),
-            SocSupport.getMasterName(cState, Nios2State.this.getName()) + S.get("RV32imFetchTransaction"),
-            OptionPane.ERROR_MESSAGE);
-        simState.errorInExecution();
-        return;
+      var exe = cache == null ? null : cache.lookup(pc);
+      final int instruction;
+      if (exe != null) {
+        instruction = cache.getInstruction(pc);
+      } else {
+        final var trans = fetch(cState);
+        if (trans == null) return false;
+        /* decode instruction */
+        instruction = trans.getReadData();
+        ASSEMBLER.decode(instruction);
+        exe = ASSEMBLER.getExeUnit();
+        if (cache != null && exe != null) cache.put(pc, instruction, exe);
       }
-      /* decode instruction */
-      final var instruction = trans.getReadData();
-      ASSEMBLER.decode(instruction);
       /* execute instruction */
-      final var exe = ASSEMBLER.getExeUnit();
+      lastExe = exe;
       lastRegisterWritten = -1;
       while (instrTrace.size() >= CpuDrawSupport.NR_OF_TRACES)
         instrTrace.removeLast();
@@ -335,10 +363,9 @@ public class Nios2State implements SocUpSimulationStateListener, SocProcessorInt
         simState.errorInExecution();
         instrTrace.addFirst(new TraceInfo(pc, instruction, S.get("RV32imFetchInvInstrAsm"), true));
         pc = pc + 4;
-        if (visible) repaint();
-        return;
+        return false;
       }
-      final var trace = new TraceInfo(pc, instruction, exe.getAsmInstruction(), false);
+      final var trace = tracing ? new TraceInfo(pc, instruction, exe.getAsmInstruction(), false) : null;
       if (!exe.execute(this, cState)) {
         final var s = new StringBuilder();
         s.append(S.get("RV32imFetchExecutionError"));
@@ -350,21 +377,41 @@ public class Nios2State implements SocUpSimulationStateListener, SocProcessorInt
             SocSupport.getMasterName(cState, Nios2State.this.getName()) + S.get("RV32imFetchTransaction"),
             OptionPane.ERROR_MESSAGE);
         simState.errorInExecution();
-        trace.setError();
-        instrTrace.addFirst(trace);
-        if (visible) repaint();
-        return;
+        instrTrace.addFirst(trace != null ? trace : new TraceInfo(pc, instruction, exe.getAsmInstruction(), false));
+        instrTrace.getFirst().setError();
+        return false;
       }
-      instrTrace.addFirst(trace);
+      if (trace != null) instrTrace.addFirst(trace);
       /* all done increment pc */
       if (!exe.performedJump()) pc = pc + 4;
-      if (visible) repaint();
+      return true;
+    }
+
+    /* fetches the instruction at the pc, returns null on a bus error */
+    private SocBusTransaction fetch(CircuitState cState) {
+      SocBusTransaction trans =
+          new SocBusTransaction(SocBusTransaction.READ_TRANSACTION, pc, 0, SocBusTransaction.WORD_ACCESS, attachedBus.getComponent());
+      attachedBus
+          .getSocSimulationManager()
+          .initializeTransaction(trans, attachedBus.getBusId(), cState);
+      if (trans.hasError()) {
+        OptionPane.showMessageDialog(
+            null,
+            trans.getErrorMessage(),
+            SocSupport.getMasterName(cState, Nios2State.this.getName()) + S.get("RV32imFetchTransaction"),
+            OptionPane.ERROR_MESSAGE);
+        simState.errorInExecution();
+        return null;
+      }
+      return trans;
     }
 
     @Override
     public ProcessorState clone() {
       try {
-        return (ProcessorState) super.clone();
+        final var ret = (ProcessorState) super.clone();
+        ret.instructionCache = null;
+        return ret;
       } catch (CloneNotSupportedException e) {
         return null;
       }
@@ -392,6 +439,7 @@ public class Nios2State implements SocUpSimulationStateListener, SocProcessorInt
     @Override
     public void destroy() {
       SocUpMenuProvider.SOCUPMENUPROVIDER.deregisterCpuState(this, myInstance);
+      if (instructionCache != null) instructionCache.detach();
     }
 
     @Override
@@ -441,6 +489,11 @@ public class Nios2State implements SocUpSimulationStateListener, SocProcessorInt
       return instrTrace;
     }
 
+    @Override
+    public double getMips() {
+      return instructionRate.getMips();
+    }
+
     @Override
     public WindowListener getWindowListener() {
       return this;
@@ -476,6 +529,7 @@ public class Nios2State implements SocUpSimulationStateListener, SocProcessorInt
   private int exceptionVector;
   private int breakVector;
   private int nrOfIrqs;
+  private int instructionsPerTick;
   private String label;
   private final SocBusInfo attachedBus;
 
@@ -534,6 +588,7 @@ public class Nios2State implements SocUpSimulationStateListener, SocProcessorInt
     exceptionVector = 0x14;
     breakVector = 0x30;
     nrOfIrqs = 0;
+    instructionsPerTick = 1;
     label = "";
     attachedBus = new SocBusInfo("");
   }
@@ -543,6 +598,7 @@ public class Nios2State implements SocUpSimulationStateListener, SocProcessorInt
     dest.exceptionVector = exceptionVector;
     dest.breakVector = breakVector;
     dest.nrOfIrqs = nrOfIrqs;
+    dest.instructionsPerTick = instructionsPerTick;
     dest.label = label;
     dest.attachedBus.setBusId(attachedBus.getBusId());
   }
@@ -596,6 +652,16 @@ public class Nios2State implements SocUpSimulationStateListener, SocProcessorInt
     return nrOfIrqs;
   }
 
+  public boolean setInstructionsPerTick(int value) {
+    if (instructionsPerTick == value) return false;
+    instructionsPerTick = value;
+    return true;
+  }
+
+  public Integer getInstructionsPerTick() {
+    return instructionsPerTick;
+  }
+
   public boolean setLabel(String value) {
     if (label.equals(value)) return false;
     label = value;
@@ -44,6 +44,9 @@ public class RV32imAttributes extends AbstractAttributeSet {
       Attributes.forHexInteger("resetVector", S.getter("rv32ResetVector"));
   public static final Attribute<Integer> EXCEPTION_VECTOR =
       Attributes.forHexInteger("exceptionVector", S.getter("rv32ExceptionVector"));
+  public static final Attribute<Integer> INSTRUCTIONS_PER_TICK =
+      Attributes.forIntegerRange(
+          "instructionsPerTick", S.getter("rv32InstructionsPerTick"), 1, 1000000);
   public static final Attribute<Boolean> RV32IM_STATE_VISIBLE =
       Attributes.forBoolean("stateVisible", S.getter("rv32StateVisible"));
 
@@ -57,6 +60,7 @@ public class RV32imAttributes extends AbstractAttributeSet {
           RESET_VECTOR,
           EXCEPTION_VECTOR,
           NR_OF_IRQS,
+          INSTRUCTIONS_PER_TICK,
           RV32IM_STATE_VISIBLE,
           StdAttr.LABEL,
           StdAttr.LABEL_FONT,
@@ -85,6 +89,7 @@ public class RV32imAttributes extends AbstractAttributeSet {
     if (attr == RESET_VECTOR) return (V) upState.getResetVector();
     if (attr == EXCEPTION_VECTOR) return (V) upState.getExceptionVector();
     if (attr == NR_OF_IRQS) return (V) BitWidth.create(upState.getNrOfIrqs());
+    if (attr == INSTRUCTIONS_PER_TICK) return (V) upState.getInstructionsPerTick();
     if (attr == StdAttr.LABEL) return (V) upState.getLabel();
     if (attr == StdAttr.LABEL_FONT) return (V) labelFont;
     if (attr == StdAttr.LABEL_VISIBILITY) return (V) labelVisible;
@@ -120,6 +125,11 @@ public class RV32imAttributes extends AbstractAttributeSet {
         fireAttributeValueChanged(attr, value, oldValue);
       return;
     }
+    if (attr == INSTRUCTIONS_PER_TICK) {
+      if (upState.setInstructionsPerTick((int) value))
+        fireAttributeValueChanged(attr, value, oldValue);
+      return;
+    }
     if (attr == SocSimulationManager.SOC_BUS_SELECT) {
       if (upState.setAttachedBus((SocBusInfo) value))
         fireAttributeValueChanged(attr, value, oldValue);
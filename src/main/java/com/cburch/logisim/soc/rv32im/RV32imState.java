@@ -38,6 +38,8 @@ import com.cburch.logisim.soc.file.ElfSectionHeader;
 import com.cburch.logisim.soc.gui.BreakpointPanel;
 import com.cburch.logisim.soc.gui.CpuDrawSupport;
 import com.cburch.logisim.soc.util.AssemblerInterface;
+import com.cburch.logisim.soc.util.DecodedInstructionCache;
+import com.cburch.logisim.soc.util.InstructionRate;
 import com.cburch.logisim.util.GraphicsUtil;
 import com.cburch.logisim.util.StringUtil;
 import java.awt.Color;
@@ -71,6 +73,8 @@ public class RV32imState implements SocUpSimulationStateListener, SocProcessorIn
     private Integer entryPoint;
     private boolean programLoaded;
     private final BreakpointPanel bPanel;
+    private DecodedInstructionCache instructionCache;
+    private final InstructionRate instructionRate = new InstructionRate();
 
     public ProcessorState(Instance inst) {
       registers = new int[32];
@@ -121,6 +125,8 @@ public class RV32imState implements SocUpSimulationStateListener, SocProcessorIn
       }
       lastRegisterWritten = -1;
       instrTrace.clear();
+      if (instructionCache != null) instructionCache.clear();
+      instructionRate.reset();
       if (visible) repaint();
       simState.reset();
     }
@@ -201,8 +207,30 @@ public class RV32imState implements SocUpSimulationStateListener, SocProcessorIn
     }
 
     public void execute(CircuitState cState) {
+      final var batchSize = instructionsPerTick;
+      var retired = 0;
+      if (batchSize <= 1) {
+        if (executeInstruction(cState, null, true)) retired++;
+      } else {
+        /* free-running: execute a batch of instructions from the decoded-instruction cache */
+        if (instructionCache == null) instructionCache = new DecodedInstructionCache();
+        instructionCache.attach(
+            attachedBus.getSocSimulationManager().getSocBusState(attachedBus.getBusId()));
+        final var tracing =
+            visible || myInstance.getAttributeValue(RV32imAttributes.RV32IM_STATE_VISIBLE);
+        if (!tracing) instrTrace.clear();
+        while (retired < batchSize && executeInstruction(cState, instructionCache, tracing))
+          retired++;
+      }
+      instructionRate.retired(retired);
+      if (visible) repaint();
+    }
+
+    /* returns true if the instruction was executed without problems */
+    private boolean executeInstruction(
+        CircuitState cState, DecodedInstructionCache cache, boolean tracing) {
       /* check the simulation state */
-      if (!simState.canExecute()) return;
+      if (!simState.canExecute()) return false;
       final var breakPoints = bPanel.getBreakPoints();
       if (breakPoints.containsKey(pc)) {
         if (simState.breakPointReached()) {
@@ -212,36 +240,24 @@ public class RV32imState implements SocUpSimulationStateListener, SocProcessorIn
               S.get("RV32imBreakPointReached"),
               SocSupport.getMasterName(cState, RV32imState.this.getName()),
               OptionPane.INFORMATION_MESSAGE);
-          return;
+          return false;
         }
       }
       /* TODO: check interrupts */
-      /* fetch an instruction */
-      final var trans =
-          new SocBusTransaction(
-              SocBusTransaction.READ_TRANSACTION,
-              pc,
-              0,
-              SocBusTransaction.WORD_ACCESS,
-              attachedBus.getComponent());
-      attachedBus
-          .getSocSimulationManager()
-          .initializeTransaction(trans, attachedBus.getBusId(), cState);
-      if (trans.hasError()) {
-        OptionPane.showMessageDialog(
-            null,
-            trans.getErrorMessage(),
-            SocSupport.getMasterName(cState, RV32imState.this.getName())
-                + S.get("RV32imFetchTransaction"),
-            OptionPane.ERROR_MESSAGE);
-        simState.errorInExecution();
-        return;
+      var exe = cache == null ? null : cache.lookup(pc);
+      final int instruction;
+      if (exe != null) {
+        instruction = cache.getInstruction(pc);
+      } else {
+        final var trans = fetch(cState);
+        if (trans == null) return false;
+        /* decode instruction */
+        instruction = trans.getReadData();
+        ASSEMBLER.decode(instruction);
+        exe = ASSEMBLER.getExeUnit();
+        if (cache != null && exe != null) cache.put(pc, instruction, exe);
       }
-      /* decode instruction */
-      int instruction = trans.getReadData();
-      ASSEMBLER.decode(instruction);
       /* execute instruction */
-      final var exe = ASSEMBLER.getExeUnit();
       lastRegisterWritten = -1;
       while (instrTrace.size() >= CpuDrawSupport.NR_OF_TRACES) instrTrace.removeLast();
       if (exe == null) {
@@ -254,10 +270,10 @@ public class RV32imState implements SocUpSimulationStateListener, SocProcessorIn
         simState.errorInExecution();
         instrTrace.addFirst(new TraceInfo(pc, instruction, S.get("RV32imFetchInvInstrAsm"), true));
         pc = pc + 4;
-        if (visible) repaint();
-        return;
+        return false;
       }
-      final var trace = new TraceInfo(pc, instruction, exe.getAsmInstruction(), false);
+      final var trace =
+          tracing ? new TraceInfo(pc, instruction, exe.getAsmInstruction(), false) : null;
       if (!exe.execute(this, cState)) {
         final var s = new StringBuilder();
         s.append(S.get("RV32imFetchExecutionError"));
@@ -269,21 +285,48 @@ public class RV32imState implements SocUpSimulationStateListener, SocProcessorIn
                 + S.get("RV32imFetchTransaction"),
             OptionPane.ERROR_MESSAGE);
         simState.errorInExecution();
-        trace.setError();
-        instrTrace.addFirst(trace);
-        if (visible) repaint();
-        return;
+        instrTrace.addFirst(
+            trace != null ? trace : new TraceInfo(pc, instruction, exe.getAsmInstruction(), false));
+        instrTrace.getFirst().setError();
+        return false;
       }
-      instrTrace.addFirst(trace);
+      if (trace != null) instrTrace.addFirst(trace);
       /* all done increment pc */
       if (!exe.performedJump()) pc = pc + 4;
-      if (visible) repaint();
+      return true;
+    }
+
+    /* fetches the instruction at the pc, returns null on a bus error */
+    private SocBusTransaction fetch(CircuitState cState) {
+      final var trans =
+          new SocBusTransaction(
+              SocBusTransaction.READ_TRANSACTION,
+              pc,
+              0,
+              SocBusTransaction.WORD_ACCESS,
+              attachedBus.getComponent());
+      attachedBus
+          .getSocSimulationManager()
+          .initializeTransaction(trans, attachedBus.getBusId(), cState);
+      if (trans.hasError()) {
+        OptionPane.showMessageDialog(
+            null,
+            trans.getErrorMessage(),
+            SocSupport.getMasterName(cState, RV32imState.this.getName())
+                + S.get("RV32imFetchTransaction"),
+            OptionPane.ERROR_MESSAGE);
+        simState.errorInExecution();
+        return null;
+      }
+      return trans;
     }
 
     @Override
     public ProcessorState clone() {
       try {
-        return (ProcessorState) super.clone();
+        final var ret = (ProcessorState) super.clone();
+        ret.instructionCache = null;
+        return ret;
       } catch (CloneNotSupportedException e) {
         return null;
       }
@@ -305,6 +348,7 @@ public class RV32imState implements SocUpSimulationStateListener, SocProcessorIn
     @Override
     public void destroy() {
       SocUpMenuProvider.SOCUPMENUPROVIDER.deregisterCpuState(this, myInstance);
+      if (instructionCache != null) instructionCache.detach();
     }
 
     @Override
@@ -354,6 +398,11 @@ public class RV32imState implements SocUpSimulationStateListener, SocProcessorIn
       return instrTrace;
     }
 
+    @Override
+    public double getMips() {
+      return instructionRate.getMips();
+    }
+
     @Override
     public WindowListener getWindowListener() {
       return this;
@@ -388,6 +437,7 @@ public class RV32imState implements SocUpSimulationStateListener, SocProcessorIn
   private int resetVector;
   private int exceptionVector;
   private int nrOfIrqs;
+  private int instructionsPerTick;
   private String label;
   private final SocBusInfo attachedBus;
 
@@ -418,6 +468,7 @@ public class RV32imState implements SocUpSimulationStateListener, SocProcessorIn
     resetVector = 0;
     exceptionVector = 0x14;
     nrOfIrqs = 0;
+    instructionsPerTick = 1;
     label = "";
     attachedBus = new SocBusInfo("");
   }
@@ -426,6 +477,7 @@ public class RV32imState implements SocUpSimulationStateListener, SocProcessorIn
     dest.resetVector = resetVector;
     dest.exceptionVector = exceptionVector;
     dest.nrOfIrqs = nrOfIrqs;
+    dest.instructionsPerTick = instructionsPerTick;
     dest.label = label;
     dest.attachedBus.setBusId(attachedBus.getBusId());
   }
@@ -472,6 +524,16 @@ public class RV32imState implements SocUpSimulationStateListener, SocProcessorIn
     return nrOfIrqs;
   }
 
+  public boolean setInstructionsPerTick(int value) {
+    if (instructionsPerTick == value) return false;
+    instructionsPerTick = value;
+    return true;
+  }
+
+  public Integer getInstructionsPerTick() {
+    return instructionsPerTick;
+  }
+
   public boolean setLabel(String value) {
     if (label.equals(value)) return false;
     label = value;
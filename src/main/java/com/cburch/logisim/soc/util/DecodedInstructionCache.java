@@ -0,0 +1,94 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.soc.util;
+
+import com.cburch.logisim.soc.data.SocBusStateInfo;
+import com.cburch.logisim.soc.data.SocBusWriteListener;
+import com.cburch.logisim.soc.data.SocSupport;
+import com.cburch.logisim.soc.memory.SocMemoryState;
+import java.util.Arrays;
+
+/**
+ * A direct mapped cache of the instructions a free-running processor fetched, each together with
+ * the execution unit that decoded it. A hit saves the bus fetch and the decoding by all other
+ * execution units. Only words that live in SoC memories are cached; the cache listens to the
+ * writes on its bus and drops overwritten words, and starts over when the memory map changes.
+ */
+public final class DecodedInstructionCache implements SocBusWriteListener {
+  private static final int SIZE_BITS = 12;
+  private static final int MASK = (1 << SIZE_BITS) - 1;
+
+  private final int[] addresses = new int[1 << SIZE_BITS];
+  private final int[] instructions = new int[1 << SIZE_BITS];
+  private final AssemblerExecutionInterface[] units =
+      new AssemblerExecutionInterface[1 << SIZE_BITS];
+  private SocBusStateInfo bus;
+  private int mapVersion;
+
+  /** Connects the cache to the bus the processor fetches from; call before each batch. */
+  public void attach(SocBusStateInfo newBus) {
+    if (newBus != bus) {
+      if (bus != null) bus.removeWriteListener(this);
+      if (newBus != null) newBus.registerWriteListener(this);
+      bus = newBus;
+      clear();
+    } else if (bus != null && bus.getMemoryMapVersion() != mapVersion) {
+      clear();
+    }
+  }
+
+  public void detach() {
+    attach(null);
+  }
+
+  public void clear() {
+    Arrays.fill(units, null);
+    if (bus != null) mapVersion = bus.getMemoryMapVersion();
+  }
+
+  /**
+   * Returns the execution unit holding the instruction at the given address, decoded anew, or
+   * null if the address is not cached.
+   */
+  public AssemblerExecutionInterface lookup(int address) {
+    final var slot = (address >>> 2) & MASK;
+    final var unit = units[slot];
+    if (unit == null || addresses[slot] != address) return null;
+    unit.setBinInstruction(instructions[slot]);
+    return unit;
+  }
+
+  /** Returns the instruction word at the given address; only valid after a hit in lookup. */
+  public int getInstruction(int address) {
+    return instructions[(address >>> 2) & MASK];
+  }
+
+  public void put(int address, int instruction, AssemblerExecutionInterface unit) {
+    if (bus == null || (address & 3) != 0) return;
+    for (final var slave : bus.getSlavesAt(SocSupport.convUnsignedInt(address))) {
+      if (!(slave instanceof SocMemoryState)) return;
+    }
+    final var slot = (address >>> 2) & MASK;
+    addresses[slot] = address;
+    instructions[slot] = instruction;
+    units[slot] = unit;
+  }
+
+  @Override
+  public void busWritten(long address, int bytes) {
+    final var first = (int) address & ~3;
+    final var last = (int) (address + bytes - 1) & ~3;
+    for (var word = first; ; word += 4) {
+      final var slot = (word >>> 2) & MASK;
+      if (addresses[slot] == word) units[slot] = null;
+      if (word == last) break;
+    }
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.soc.util;
+
+/** Measures how many million instructions per second a processor retires. */
+public final class InstructionRate {
+  private static final long WINDOW_NANOS = 1_000_000_000L;
+  /* after this long without instructions the processor counts as stopped */
+  private static final long IDLE_NANOS = 2 * WINDOW_NANOS;
+
+  private long windowStart = System.nanoTime();
+  private long lastRetired = windowStart;
+  private long count;
+  private double mips;
+
+  public void retired(int instructions) {
+    final var now = System.nanoTime();
+    if (instructions > 0) {
+      if (now - lastRetired > IDLE_NANOS) reset(now);
+      lastRetired = now;
+      count += instructions;
+    }
+    final var elapsed = now - windowStart;
+    if (elapsed >= WINDOW_NANOS) {
+      mips = count * 1000.0 / elapsed;
+      windowStart = now;
+      count = 0;
+    }
+  }
+
+  /** Returns the rate measured over the last full second, or 0 if the processor is stopped. */
+  public double getMips() {
+    return System.nanoTime() - lastRetired > IDLE_NANOS ? 0 : mips;
+  }
+
+  public void reset() {
+    reset(System.nanoTime());
+  }
+
+  private void reset(long now) {
+    windowStart = now;
+    count = 0;
+    mips = 0;
+  }
+}
@@ -20,6 +20,7 @@ import com.cburch.logisim.data.Location;
 import com.cburch.logisim.data.Value;
 import com.cburch.logisim.fpga.designrulecheck.CorrectLabel;
 import com.cburch.logisim.gui.icons.ArithmeticIcon;
+import com.cburch.logisim.instance.InstanceConfig;
 import com.cburch.logisim.instance.InstanceFactory;
 import com.cburch.logisim.instance.InstancePainter;
 import com.cburch.logisim.instance.InstanceState;
@@ -148,20 +149,31 @@ public class Adder extends InstanceFactory {
     GraphicsUtil.switchToWidth(g, 1);
   }
 
+  private static final class Config {
+    final BitWidth width;
+    final int delay;
+
+    Config(AttributeSet attrs) {
+      width = attrs.getValue(StdAttr.WIDTH);
+      delay = (width.getWidth() + 2) * PER_DELAY;
+    }
+  }
+
+  private static final InstanceConfig<Config> CONFIG = new InstanceConfig<>(Config::new);
+
   @Override
   public void propagate(InstanceState state) {
     // get attributes
-    BitWidth dataWidth = state.getAttributeValue(StdAttr.WIDTH);
+    final var config = CONFIG.get(state);
 
     // compute outputs
     Value a = state.getPortValue(IN0);
     Value b = state.getPortValue(IN1);
     Value cIn = state.getPortValue(C_IN);
-    Value[] outs = Adder.computeSum(dataWidth, a, b, cIn);
+    Value[] outs = Adder.computeSum(config.width, a, b, cIn);
 
     // propagate them
-    int delay = (dataWidth.getWidth() + 2) * PER_DELAY;
-    state.setPort(OUT, outs[0], delay);
-    state.setPort(C_OUT, outs[1], delay);
+    state.setPort(OUT, outs[0], config.delay);
+    state.setPort(C_OUT, outs[1], config.delay);
   }
 }
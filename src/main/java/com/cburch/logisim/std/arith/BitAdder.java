@@ -20,6 +20,7 @@ import com.cburch.logisim.data.Location;
 import com.cburch.logisim.data.Value;
 import com.cburch.logisim.gui.icons.ArithmeticIcon;
 import com.cburch.logisim.instance.Instance;
+import com.cburch.logisim.instance.InstanceConfig;
 import com.cburch.logisim.instance.InstanceFactory;
 import com.cburch.logisim.instance.InstancePainter;
 import com.cburch.logisim.instance.InstanceState;
@@ -55,7 +56,7 @@ public class BitAdder extends InstanceFactory {
     setIcon(new ArithmeticIcon("#"));
   }
 
-  private int computeOutputBits(int width, int inputs) {
+  private static int computeOutputBits(int width, int inputs) {
     int maxBits = width * inputs;
     int outWidth = 1;
     while ((1 << outWidth) <= maxBits) outWidth++;
@@ -129,10 +130,22 @@ public class BitAdder extends InstanceFactory {
     g.drawLine(x - 5, y + 2, x + 5, y + 2);
   }
 
+  private static final class Config {
+    final int inputs;
+    final int outputBits;
+
+    Config(AttributeSet attrs) {
+      inputs = attrs.getValue(NUM_INPUTS);
+      outputBits = computeOutputBits(attrs.getValue(StdAttr.WIDTH).getWidth(), inputs);
+    }
+  }
+
+  private static final InstanceConfig<Config> CONFIG = new InstanceConfig<>(Config::new);
+
   @Override
   public void propagate(InstanceState state) {
-    int width = state.getAttributeValue(StdAttr.WIDTH).getWidth();
-    int inputs = state.getAttributeValue(NUM_INPUTS);
+    final var config = CONFIG.get(state);
+    int inputs = config.inputs;
 
     // compute the number of 1 bits
     int minCount = 0; // number that are definitely 1
@@ -154,7 +167,7 @@ public class BitAdder extends InstanceFactory {
       unknownMask |= (minCount ^ i);
     }
 
-    Value[] out = new Value[computeOutputBits(width, inputs)];
+    Value[] out = new Value[config.outputBits];
     for (int i = 0; i < out.length; i++) {
       if (((unknownMask >> i) & 1) != 0) {
         out[i] = Value.ERROR;
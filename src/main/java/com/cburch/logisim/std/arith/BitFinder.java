@@ -20,6 +20,7 @@ import com.cburch.logisim.data.Bounds;
 import com.cburch.logisim.data.Value;
 import com.cburch.logisim.gui.icons.ArithmeticIcon;
 import com.cburch.logisim.instance.Instance;
+import com.cburch.logisim.instance.InstanceConfig;
 import com.cburch.logisim.instance.InstanceFactory;
 import com.cburch.logisim.instance.InstancePainter;
 import com.cburch.logisim.instance.InstanceState;
@@ -60,7 +61,7 @@ public class BitFinder extends InstanceFactory {
     setIcon(new ArithmeticIcon("?"));
   }
 
-  private int computeOutputBits(int maxBits) {
+  private static int computeOutputBits(int maxBits) {
     int outWidth = 1;
     while ((1 << outWidth) <= maxBits) outWidth++;
     return outWidth;
@@ -145,11 +146,26 @@ public class BitFinder extends InstanceFactory {
     GraphicsUtil.drawCenteredText(g, bot, x, y0 + 32);
   }
 
+  private static final class Config {
+    final Object type;
+    final BitWidth outWidth;
+    final Value notFound;
+    final Value error;
+
+    Config(AttributeSet attrs) {
+      type = attrs.getValue(TYPE);
+      outWidth = BitWidth.create(computeOutputBits(attrs.getValue(StdAttr.WIDTH).getWidth() - 1));
+      notFound = Value.createKnown(outWidth, 0);
+      error = Value.createError(outWidth);
+    }
+  }
+
+  private static final InstanceConfig<Config> CONFIG = new InstanceConfig<>(Config::new);
+
   @Override
   public void propagate(InstanceState state) {
-    int width = state.getAttributeValue(StdAttr.WIDTH).getWidth();
-    int outWidth = computeOutputBits(width - 1);
-    Object type = state.getAttributeValue(TYPE);
+    final var config = CONFIG.get(state);
+    Object type = config.type;
 
     Value[] bits = state.getPortValue(2).getAll();
     Value want;
@@ -172,16 +188,16 @@ public class BitFinder extends InstanceFactory {
     Value index;
     if (i < 0 || i >= bits.length) {
       present = Value.FALSE;
-      index = Value.createKnown(BitWidth.create(outWidth), 0);
+      index = config.notFound;
     } else if (bits[i] == want) {
       present = Value.TRUE;
-      index = Value.createKnown(BitWidth.create(outWidth), i);
+      index = Value.createKnown(config.outWidth, i);
     } else {
       present = Value.ERROR;
-      index = Value.createError(BitWidth.create(outWidth));
+      index = config.error;
     }
 
-    int delay = outWidth * Adder.PER_DELAY;
+    int delay = config.outWidth.getWidth() * Adder.PER_DELAY;
     state.setPort(0, present, delay);
     state.setPort(1, index, delay);
   }
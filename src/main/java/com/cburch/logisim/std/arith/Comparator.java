@@ -22,6 +22,7 @@ import com.cburch.logisim.data.Value;
 import com.cburch.logisim.fpga.designrulecheck.CorrectLabel;
 import com.cburch.logisim.gui.icons.ArithmeticIcon;
 import com.cburch.logisim.instance.Instance;
+import com.cburch.logisim.instance.InstanceConfig;
 import com.cburch.logisim.instance.InstanceFactory;
 import com.cburch.logisim.instance.InstancePainter;
 import com.cburch.logisim.instance.InstanceState;
@@ -108,10 +109,22 @@ public class Comparator extends InstanceFactory {
     painter.drawPort(LT, "<", Direction.WEST);
   }
 
+  private static final class Config {
+    final boolean unsigned;
+    final int delay;
+
+    Config(AttributeSet attrs) {
+      unsigned = attrs.getValue(MODE_ATTR) == UNSIGNED_OPTION;
+      delay = (attrs.getValue(StdAttr.WIDTH).getWidth() + 2) * Adder.PER_DELAY;
+    }
+  }
+
+  private static final InstanceConfig<Config> CONFIG = new InstanceConfig<>(Config::new);
+
   @Override
   public void propagate(InstanceState state) {
     // get attributes
-    BitWidth dataWidth = state.getAttributeValue(StdAttr.WIDTH);
+    final var config = CONFIG.get(state);
 
     // compute outputs
     Value gt = Value.FALSE;
@@ -127,8 +140,7 @@ public class Comparator extends InstanceFactory {
       Value ab = pos < ax.length ? ax[pos] : Value.ERROR;
       Value bb = pos < bx.length ? bx[pos] : Value.ERROR;
       if (pos == ax.length - 1 && ab != bb) {
-        Object mode = state.getAttributeValue(MODE_ATTR);
-        if (mode != UNSIGNED_OPTION) {
+        if (!config.unsigned) {
           Value t = ab;
           ab = bb;
           bb = t;
@@ -154,9 +166,8 @@ public class Comparator extends InstanceFactory {
     }
 
     // propagate them
-    int delay = (dataWidth.getWidth() + 2) * Adder.PER_DELAY;
-    state.setPort(GT, gt, delay);
-    state.setPort(EQ, eq, delay);
-    state.setPort(LT, lt, delay);
+    state.setPort(GT, gt, config.delay);
+    state.setPort(EQ, eq, config.delay);
+    state.setPort(LT, lt, config.delay);
   }
 }
@@ -12,6 +12,7 @@ package com.cburch.logisim.std.arith;
 import static com.cburch.logisim.std.Strings.S;
 
 import com.cburch.logisim.data.Attribute;
+import com.cburch.logisim.data.AttributeSet;
 import com.cburch.logisim.data.BitWidth;
 import com.cburch.logisim.data.Bounds;
 import com.cburch.logisim.data.Direction;
@@ -19,6 +20,7 @@ import com.cburch.logisim.data.Location;
 import com.cburch.logisim.data.Value;
 import com.cburch.logisim.gui.icons.ArithmeticIcon;
 import com.cburch.logisim.instance.Instance;
+import com.cburch.logisim.instance.InstanceConfig;
 import com.cburch.logisim.instance.InstanceFactory;
 import com.cburch.logisim.instance.InstancePainter;
 import com.cburch.logisim.instance.InstanceState;
@@ -126,22 +128,33 @@ public class Divider extends InstanceFactory {
     GraphicsUtil.switchToWidth(g, 1);
   }
 
+  private static final class Config {
+    final BitWidth width;
+    final boolean unsigned;
+    final int delay;
+
+    Config(AttributeSet attrs) {
+      width = attrs.getValue(StdAttr.WIDTH);
+      unsigned = attrs.getValue(Comparator.MODE_ATTR).equals(Comparator.UNSIGNED_OPTION);
+      delay = width.getWidth() * (width.getWidth() + 2) * PER_DELAY;
+    }
+  }
+
+  private static final InstanceConfig<Config> CONFIG = new InstanceConfig<>(Config::new);
+
   @Override
   public void propagate(InstanceState state) {
     // get attributes
-    BitWidth dataWidth = state.getAttributeValue(StdAttr.WIDTH);
-    boolean unsigned =
-        state.getAttributeValue(Comparator.MODE_ATTR).equals(Comparator.UNSIGNED_OPTION);
+    final var config = CONFIG.get(state);
 
     // compute outputs
     Value a = state.getPortValue(IN0);
     Value b = state.getPortValue(IN1);
     Value upper = state.getPortValue(UPPER);
-    Value[] outs = computeResult(dataWidth, a, b, upper, unsigned);
+    Value[] outs = computeResult(config.width, a, b, upper, config.unsigned);
 
     // propagate them
-    int delay = dataWidth.getWidth() * (dataWidth.getWidth() + 2) * PER_DELAY;
-    state.setPort(OUT, outs[0], delay);
-    state.setPort(REM, outs[1], delay);
+    state.setPort(OUT, outs[0], config.delay);
+    state.setPort(REM, outs[1], config.delay);
   }
 }
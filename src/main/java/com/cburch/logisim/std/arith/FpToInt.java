@@ -13,12 +13,14 @@ import static com.cburch.logisim.std.Strings.S;
 
 import com.cburch.logisim.data.Attribute;
 import com.cburch.logisim.data.AttributeOption;
+import com.cburch.logisim.data.AttributeSet;
 import com.cburch.logisim.data.Attributes;
 import com.cburch.logisim.data.BitWidth;
 import com.cburch.logisim.data.Bounds;
 import com.cburch.logisim.data.Direction;
 import com.cburch.logisim.data.Value;
 import com.cburch.logisim.gui.icons.ArithmeticIcon;
+import com.cburch.logisim.instance.InstanceConfig;
 import com.cburch.logisim.instance.InstanceFactory;
 import com.cburch.logisim.instance.InstancePainter;
 import com.cburch.logisim.instance.InstanceState;
@@ -85,12 +87,27 @@ public class FpToInt extends InstanceFactory {
     painter.drawPort(ERR);
   }
 
+  private static final class Config {
+    final BitWidth dataWidthIn;
+    final BitWidth dataWidthOut;
+    final Object roundMode;
+
+    Config(AttributeSet attrs) {
+      dataWidthIn = attrs.getValue(StdAttr.FP_WIDTH);
+      dataWidthOut = attrs.getValue(StdAttr.WIDTH);
+      roundMode = attrs.getValue(MODE_ATTRIBUTE).getValue();
+    }
+  }
+
+  private static final InstanceConfig<Config> CONFIG = new InstanceConfig<>(Config::new);
+
   @Override
   public void propagate(InstanceState state) {
     // get attributes
-    final var dataWidthIn = state.getAttributeValue(StdAttr.FP_WIDTH);
-    final var dataWidthOut = state.getAttributeValue(StdAttr.WIDTH);
-    final var roundMode = state.getAttributeValue(MODE_ATTRIBUTE);
+    final var config = CONFIG.get(state);
+    final var dataWidthIn = config.dataWidthIn;
+    final var dataWidthOut = config.dataWidthOut;
+    final var roundMode = config.roundMode;
 
     // compute outputs
     final var a = state.getPortValue(IN);
@@ -98,9 +115,9 @@ public class FpToInt extends InstanceFactory {
 
     long out_val;
 
-    if (roundMode.getValue().equals("ceil")) out_val = (long) Math.ceil(a_val);
-    else if (roundMode.getValue().equals("floor")) out_val = (long) Math.floor(a_val);
-    else if (roundMode.getValue().equals("round")) out_val = Math.round(a_val);
+    if (roundMode.equals("ceil")) out_val = (long) Math.ceil(a_val);
+    else if (roundMode.equals("floor")) out_val = (long) Math.floor(a_val);
+    else if (roundMode.equals("round")) out_val = Math.round(a_val);
     else out_val = (long) a_val;
 
     final var out = Value.createKnown(dataWidthOut, out_val);
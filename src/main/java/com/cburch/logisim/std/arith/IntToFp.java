@@ -12,11 +12,13 @@ package com.cburch.logisim.std.arith;
 import static com.cburch.logisim.std.Strings.S;
 
 import com.cburch.logisim.data.Attribute;
+import com.cburch.logisim.data.AttributeSet;
 import com.cburch.logisim.data.BitWidth;
 import com.cburch.logisim.data.Bounds;
 import com.cburch.logisim.data.Direction;
 import com.cburch.logisim.data.Value;
 import com.cburch.logisim.gui.icons.ArithmeticIcon;
+import com.cburch.logisim.instance.InstanceConfig;
 import com.cburch.logisim.instance.InstanceFactory;
 import com.cburch.logisim.instance.InstancePainter;
 import com.cburch.logisim.instance.InstanceState;
@@ -79,13 +81,27 @@ public class IntToFp extends InstanceFactory {
     painter.drawPort(ERR);
   }
 
+  private static final class Config {
+    final BitWidth dataWidthIn;
+    final BitWidth dataWidthOut;
+    final boolean unsigned;
+
+    Config(AttributeSet attrs) {
+      dataWidthIn = attrs.getValue(StdAttr.WIDTH);
+      dataWidthOut = attrs.getValue(StdAttr.FP_WIDTH);
+      unsigned = attrs.getValue(Comparator.MODE_ATTR).equals(Comparator.UNSIGNED_OPTION);
+    }
+  }
+
+  private static final InstanceConfig<Config> CONFIG = new InstanceConfig<>(Config::new);
+
   @Override
   public void propagate(InstanceState state) {
     // get attributes
-    final var dataWidthIn = state.getAttributeValue(StdAttr.WIDTH);
-    final var dataWidthOut = state.getAttributeValue(StdAttr.FP_WIDTH);
-    final var unsigned =
-        state.getAttributeValue(Comparator.MODE_ATTR).equals(Comparator.UNSIGNED_OPTION);
+    final var config = CONFIG.get(state);
+    final var dataWidthIn = config.dataWidthIn;
+    final var dataWidthOut = config.dataWidthOut;
+    final var unsigned = config.unsigned;
 
     // compute outputs
     final var a = state.getPortValue(IN);
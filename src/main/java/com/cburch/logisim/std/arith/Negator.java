@@ -19,6 +19,7 @@ import com.cburch.logisim.data.Direction;
 import com.cburch.logisim.data.Value;
 import com.cburch.logisim.fpga.designrulecheck.CorrectLabel;
 import com.cburch.logisim.gui.icons.ArithmeticIcon;
+import com.cburch.logisim.instance.InstanceConfig;
 import com.cburch.logisim.instance.InstanceFactory;
 import com.cburch.logisim.instance.InstancePainter;
 import com.cburch.logisim.instance.InstanceState;
@@ -68,11 +69,18 @@ public class Negator extends InstanceFactory {
     painter.drawPort(OUT, "-x", Direction.WEST);
   }
 
+  private static final class Config {
+    final int delay;
+
+    Config(AttributeSet attrs) {
+      delay = (attrs.getValue(StdAttr.WIDTH).getWidth() + 2) * Adder.PER_DELAY;
+    }
+  }
+
+  private static final InstanceConfig<Config> CONFIG = new InstanceConfig<>(Config::new);
+
   @Override
   public void propagate(InstanceState state) {
-    // get attributes
-    BitWidth dataWidth = state.getAttributeValue(StdAttr.WIDTH);
-
     // compute outputs
     Value in = state.getPortValue(IN);
     Value out;
@@ -109,7 +117,6 @@ public class Negator extends InstanceFactory {
     }
 
     // propagate them
-    int delay = (dataWidth.getWidth() + 2) * Adder.PER_DELAY;
-    state.setPort(OUT, out, delay);
+    state.setPort(OUT, out, CONFIG.get(state).delay);
   }
 }
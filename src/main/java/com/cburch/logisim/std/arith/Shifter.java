@@ -21,6 +21,7 @@ import com.cburch.logisim.data.Location;
 import com.cburch.logisim.data.Value;
 import com.cburch.logisim.gui.icons.ArithmeticIcon;
 import com.cburch.logisim.instance.Instance;
+import com.cburch.logisim.instance.InstanceConfig;
 import com.cburch.logisim.instance.InstanceFactory;
 import com.cburch.logisim.instance.InstancePainter;
 import com.cburch.logisim.instance.InstanceState;
@@ -157,17 +158,32 @@ public class Shifter extends InstanceFactory {
     }
   }
 
+  private static final class Config {
+    final BitWidth width;
+    final Object shift;
+    final int delay;
+
+    Config(AttributeSet attrs) {
+      width = attrs.getValue(StdAttr.WIDTH);
+      shift = attrs.getValue(ATTR_SHIFT);
+      delay = width.getWidth() * (3 * Adder.PER_DELAY);
+    }
+  }
+
+  private static final InstanceConfig<Config> CONFIG = new InstanceConfig<>(Config::new);
+
   @Override
   public void propagate(InstanceState state) {
     // compute output
-    BitWidth dataWidth = state.getAttributeValue(StdAttr.WIDTH);
-    int bits = dataWidth == null ? 32 : dataWidth.getWidth();
+    final var config = CONFIG.get(state);
+    BitWidth dataWidth = config.width;
+    int bits = dataWidth.getWidth();
     Value vx = state.getPortValue(IN0);
     Value vd = state.getPortValue(IN1);
     Value vy; // y will by x shifted by d
     if (vd.isFullyDefined() && vx.getWidth() == bits) {
       int d = (int) vd.toLongValue();
-      Object shift = state.getAttributeValue(ATTR_SHIFT);
+      Object shift = config.shift;
       if (d == 0) {
         vy = vx;
       } else if (vx.isFullyDefined()) {
@@ -219,7 +235,6 @@ public class Shifter extends InstanceFactory {
     }
 
     // propagate them
-    int delay = dataWidth.getWidth() * (3 * Adder.PER_DELAY);
-    state.setPort(OUT, vy, delay);
+    state.setPort(OUT, vy, config.delay);
   }
 }
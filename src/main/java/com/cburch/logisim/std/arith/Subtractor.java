@@ -19,6 +19,7 @@ import com.cburch.logisim.data.Direction;
 import com.cburch.logisim.data.Value;
 import com.cburch.logisim.fpga.designrulecheck.CorrectLabel;
 import com.cburch.logisim.gui.icons.ArithmeticIcon;
+import com.cburch.logisim.instance.InstanceConfig;
 import com.cburch.logisim.instance.InstanceFactory;
 import com.cburch.logisim.instance.InstancePainter;
 import com.cburch.logisim.instance.InstanceState;
@@ -93,21 +94,32 @@ public class Subtractor extends InstanceFactory {
     GraphicsUtil.switchToWidth(gfx, 1);
   }
 
+  private static final class Config {
+    final BitWidth width;
+    final int delay;
+
+    Config(AttributeSet attrs) {
+      width = attrs.getValue(StdAttr.WIDTH);
+      delay = (width.getWidth() + 4) * Adder.PER_DELAY;
+    }
+  }
+
+  private static final InstanceConfig<Config> CONFIG = new InstanceConfig<>(Config::new);
+
   @Override
   public void propagate(InstanceState state) {
     // get attributes
-    BitWidth data = state.getAttributeValue(StdAttr.WIDTH);
+    final var config = CONFIG.get(state);
 
     // compute outputs
     final var a = state.getPortValue(IN0);
     final var b = state.getPortValue(IN1);
     var bIn = state.getPortValue(B_IN);
     if (bIn == Value.UNKNOWN || bIn == Value.NIL) bIn = Value.FALSE;
-    final var outs = Adder.computeSum(data, a, b.not(), bIn.not());
+    final var outs = Adder.computeSum(config.width, a, b.not(), bIn.not());
 
     // propagate them
-    final var delay = (data.getWidth() + 4) * Adder.PER_DELAY;
-    state.setPort(OUT, outs[0], delay);
-    state.setPort(B_OUT, outs[1].not(), delay);
+    state.setPort(OUT, outs[0], config.delay);
+    state.setPort(B_OUT, outs[1].not(), config.delay);
   }
 }
@@ -13,6 +13,7 @@ import com.cburch.logisim.LogisimVersion;
 import com.cburch.logisim.analyze.model.Expression;
 import com.cburch.logisim.analyze.model.Expressions;
 import com.cburch.logisim.circuit.ExpressionComputer;
+import com.cburch.logisim.circuit.LevelizedModel;
 import com.cburch.logisim.comp.TextField;
 import com.cburch.logisim.data.Attribute;
 import com.cburch.logisim.data.AttributeSet;
@@ -20,7 +21,6 @@ import com.cburch.logisim.data.Bounds;
 import com.cburch.logisim.data.Direction;
 import com.cburch.logisim.data.Location;
 import com.cburch.logisim.data.Value;
-import com.cburch.logisim.file.Options;
 import com.cburch.logisim.fpga.designrulecheck.CorrectLabel;
 import com.cburch.logisim.fpga.hdlgenerator.HdlGeneratorFactory;
 import com.cburch.logisim.instance.Instance;
@@ -41,6 +41,7 @@ import java.awt.Color;
 import java.awt.Font;
 import java.awt.Graphics2D;
 import java.awt.font.TextLayout;
+import java.util.ArrayList;
 
 abstract class AbstractGate extends InstanceFactory {
   static Value pullOutput(Value value, Object outType) {
@@ -116,6 +117,9 @@ abstract class AbstractGate extends InstanceFactory {
 
   protected abstract Value computeOutput(Value[] inputs, int numInputs, InstanceState state);
 
+  /** Returns the function of the gate for the levelized engine, see {@link LevelizedModel}. */
+  protected abstract int getLevelizedFunction(AttributeSet attrs);
+
   void computePorts(Instance instance) {
     final var attrs = (GateAttributes) instance.getAttributeSet();
     int inputs = attrs.inputs;
@@ -304,9 +308,51 @@ abstract class AbstractGate extends InstanceFactory {
             }
           };
     }
+    if (key == LevelizedModel.class) {
+      return (LevelizedModel) compiler -> compileLevelized(instance, compiler);
+    }
     return super.getInstanceFeature(instance, key);
   }
 
+  private void compileLevelized(Instance instance, LevelizedModel.Compiler compiler)
+      throws LevelizedModel.UnsupportedDesignException {
+    final var attrs = (GateAttributes) instance.getAttributeSet();
+    if (attrs.out != GateAttributes.OUTPUT_01) {
+      throw new LevelizedModel.UnsupportedDesignException("three-state output");
+    }
+    final var width = attrs.width.getWidth();
+    final var errorIfUndefined =
+        compiler.getInstanceState().getProject().getOptions().isGateUndefinedError();
+    final var inputs = new ArrayList<int[]>();
+    var error = false;
+    for (var i = 1; i <= attrs.inputs; i++) {
+      final var loc = instance.getPortLocation(i);
+      if (compiler.isConnected(loc)) {
+        final var nets = compiler.getNets(loc, width);
+        if (((attrs.negated >> (i - 1)) & 1) == 1) {
+          for (var b = 0; b < width; b++) nets[b] = ~nets[b];
+        }
+        inputs.add(nets);
+      } else if (errorIfUndefined) {
+        error = true;
+      }
+    }
+
+    final var function = getLevelizedFunction(attrs);
+    final var out = instance.getPortLocation(0);
+    final var outputs = compiler.getNets(out, width);
+    for (var b = 0; b < width; b++) {
+      if (inputs.isEmpty() || error) {
+        compiler.addConstant(outputs[b], LevelizedModel.ERROR);
+        continue;
+      }
+      final var bits = new int[inputs.size()];
+      for (var i = 0; i < bits.length; i++) bits[i] = inputs.get(i)[b];
+      compiler.addGate(function, bits, outputs[b]);
+    }
+    compiler.drive(out, outputs);
+  }
+
   @Override
   public Bounds getOffsetBounds(AttributeSet attrsBase) {
     final var attrs = (GateAttributes) attrsBase;
@@ -542,12 +588,11 @@ abstract class AbstractGate extends InstanceFactory {
 
   @Override
   public void propagate(InstanceState state) {
+    // the gate attributes are kept in fields already, so they need no InstanceConfig
     final var attrs = (GateAttributes) state.getAttributeSet();
     final var inputCount = attrs.inputs;
     final var negated = attrs.negated;
-    final var opts = state.getProject().getOptions().getAttributeSet();
-    final var errorIfUndefined =
-        opts.getValue(Options.ATTR_GATE_UNDEFINED).equals(Options.GATE_UNDEFINED_ERROR);
+    final var errorIfUndefined = state.getProject().getOptions().isGateUndefinedError();
 
     final var inputs = new Value[inputCount];
     var numInputs = 0;
@@ -12,6 +12,7 @@ package com.cburch.logisim.std.gates;
 import static com.cburch.logisim.std.Strings.S;
 
 import com.cburch.logisim.circuit.ExpressionComputer;
+import com.cburch.logisim.circuit.LevelizedModel;
 import com.cburch.logisim.data.Attribute;
 import com.cburch.logisim.data.AttributeSet;
 import com.cburch.logisim.data.BitWidth;
@@ -19,7 +20,6 @@ import com.cburch.logisim.data.Bounds;
 import com.cburch.logisim.data.Direction;
 import com.cburch.logisim.data.Location;
 import com.cburch.logisim.data.Value;
-import com.cburch.logisim.file.Options;
 import com.cburch.logisim.fpga.designrulecheck.CorrectLabel;
 import com.cburch.logisim.instance.Instance;
 import com.cburch.logisim.instance.InstanceFactory;
@@ -46,9 +46,7 @@ class Buffer extends InstanceFactory {
   // static methods - shared with other classes
   //
   static Value repair(InstanceState state, Value v) {
-    final var opts = state.getProject().getOptions().getAttributeSet();
-    Object onUndefined = opts.getValue(Options.ATTR_GATE_UNDEFINED);
-    final var errorIfUndefined = onUndefined.equals(Options.GATE_UNDEFINED_ERROR);
+    final var errorIfUndefined = state.getProject().getOptions().isGateUndefinedError();
     Value repaired;
     if (errorIfUndefined) {
       final var vw = v.getWidth();
@@ -69,8 +67,35 @@ class Buffer extends InstanceFactory {
     return AbstractGate.pullOutput(repaired, outType);
   }
 
+  /**
+   * Compiles a buffer or NOT gate for the levelized engine, mapping each bit through the table,
+   * and like {@link #repair} making the undefined bits errors if the options ask for it.
+   */
+  static void compileLevelized(
+      Instance instance, LevelizedModel.Compiler compiler, byte[] table)
+      throws LevelizedModel.UnsupportedDesignException {
+    if (instance.getAttributeValue(GateAttributes.ATTR_OUTPUT) != GateAttributes.OUTPUT_01) {
+      throw new LevelizedModel.UnsupportedDesignException("three-state output");
+    }
+    final var map = table.clone();
+    if (compiler.getInstanceState().getProject().getOptions().isGateUndefinedError()) {
+      for (var i = 0; i < map.length; i++) {
+        if (map[i] == LevelizedModel.UNKNOWN) map[i] = LevelizedModel.ERROR;
+      }
+    }
+    final var width = instance.getAttributeValue(StdAttr.WIDTH).getWidth();
+    final var inputs = compiler.getNets(instance.getPortLocation(1), width);
+    final var outputs = compiler.getNets(instance.getPortLocation(0), width);
+    for (var b = 0; b < width; b++) compiler.addMap(inputs[b], map, outputs[b]);
+    compiler.drive(instance.getPortLocation(0), outputs);
+  }
+
   public static final InstanceFactory FACTORY = new Buffer();
 
+  private static final byte[] IDENTITY = {
+    LevelizedModel.FALSE, LevelizedModel.TRUE, LevelizedModel.UNKNOWN, LevelizedModel.ERROR
+  };
+
   private Buffer() {
     super(_ID, S.getter("bufferComponent"), new AbstractBufferHdlGenerator(false));
     setAttributes(
@@ -135,6 +160,9 @@ class Buffer extends InstanceFactory {
         }
       };
     }
+    if (key == LevelizedModel.class) {
+      return (LevelizedModel) compiler -> compileLevelized(instance, compiler, IDENTITY);
+    }
     return super.getInstanceFeature(instance, key);
   }
 
@@ -21,7 +21,6 @@ import com.cburch.logisim.data.Bounds;
 import com.cburch.logisim.data.Direction;
 import com.cburch.logisim.data.Location;
 import com.cburch.logisim.data.Value;
-import com.cburch.logisim.file.Options;
 import com.cburch.logisim.instance.Instance;
 import com.cburch.logisim.instance.InstanceFactory;
 import com.cburch.logisim.instance.InstancePainter;
@@ -256,8 +255,7 @@ class ControlledBuffer extends InstanceFactory {
     } else {
       Value out;
       if (control == Value.UNKNOWN || control == Value.NIL) {
-        final var opts = state.getProject().getOptions().getAttributeSet();
-        if (opts.getValue(Options.ATTR_GATE_UNDEFINED).equals(Options.GATE_UNDEFINED_ERROR)) {
+        if (state.getProject().getOptions().isGateUndefinedError()) {
           out = Value.createError(width);
         } else {
           out = Value.createUnknown(width);
@@ -13,6 +13,8 @@ import static com.cburch.logisim.std.Strings.S;
 
 import com.cburch.logisim.analyze.model.Expression;
 import com.cburch.logisim.analyze.model.Expressions;
+import com.cburch.logisim.circuit.LevelizedModel;
+import com.cburch.logisim.data.AttributeSet;
 import com.cburch.logisim.data.Value;
 import com.cburch.logisim.instance.InstancePainter;
 import com.cburch.logisim.instance.InstanceState;
@@ -49,6 +51,11 @@ class EvenParityGate extends AbstractGate {
     return GateFunctions.computeOddParity(inputs, numInputs).not();
   }
 
+  @Override
+  protected int getLevelizedFunction(AttributeSet attrs) {
+    return LevelizedModel.ODD + LevelizedModel.NEGATED;
+  }
+
   @Override
   protected Value getIdentity() {
     return Value.FALSE;
@@ -13,6 +13,8 @@ import static com.cburch.logisim.std.Strings.S;
 
 import com.cburch.logisim.analyze.model.Expression;
 import com.cburch.logisim.analyze.model.Expressions;
+import com.cburch.logisim.circuit.LevelizedModel;
+import com.cburch.logisim.data.AttributeSet;
 import com.cburch.logisim.data.Value;
 import com.cburch.logisim.fpga.hdlgenerator.Hdl;
 import com.cburch.logisim.instance.Instance;
@@ -77,6 +79,11 @@ class NorGate extends AbstractGate {
     return GateFunctions.computeOr(inputs, numInputs).not();
   }
 
+  @Override
+  protected int getLevelizedFunction(AttributeSet attrs) {
+    return LevelizedModel.OR + LevelizedModel.NEGATED;
+  }
+
   @Override
   protected Value getIdentity() {
     return Value.FALSE;
@@ -13,6 +13,7 @@ import static com.cburch.logisim.std.Strings.S;
 
 import com.cburch.logisim.analyze.model.Expressions;
 import com.cburch.logisim.circuit.ExpressionComputer;
+import com.cburch.logisim.circuit.LevelizedModel;
 import com.cburch.logisim.comp.TextField;
 import com.cburch.logisim.data.Attribute;
 import com.cburch.logisim.data.AttributeOption;
@@ -83,6 +84,10 @@ class NotGate extends InstanceFactory {
 
   public static final InstanceFactory FACTORY = new NotGate();
 
+  private static final byte[] NOT = {
+    LevelizedModel.TRUE, LevelizedModel.FALSE, LevelizedModel.ERROR, LevelizedModel.ERROR
+  };
+
   private NotGate() {
     super(_ID, S.getter("notGateComponent"), new AbstractBufferHdlGenerator(true));
     setAttributes(
@@ -152,6 +157,9 @@ class NotGate extends InstanceFactory {
             }
           };
     }
+    if (key == LevelizedModel.class) {
+      return (LevelizedModel) compiler -> Buffer.compileLevelized(instance, compiler, NOT);
+    }
     return super.getInstanceFeature(instance, key);
   }
 
@@ -13,6 +13,7 @@ import static com.cburch.logisim.std.Strings.S;
 
 import com.cburch.logisim.analyze.model.Expression;
 import com.cburch.logisim.analyze.model.Expressions;
+import com.cburch.logisim.circuit.LevelizedModel;
 import com.cburch.logisim.data.AttributeSet;
 import com.cburch.logisim.data.Value;
 import com.cburch.logisim.instance.Instance;
@@ -58,6 +59,14 @@ class XnorGate extends AbstractGate {
     }
   }
 
+  @Override
+  protected int getLevelizedFunction(AttributeSet attrs) {
+    if (attrs.getValue(GateAttributes.ATTR_XOR) == GateAttributes.XOR_ODD) {
+      return LevelizedModel.ODD + LevelizedModel.NEGATED;
+    }
+    return LevelizedModel.ONE + LevelizedModel.NEGATED;
+  }
+
   @Override
   protected Value getIdentity() {
     return Value.FALSE;
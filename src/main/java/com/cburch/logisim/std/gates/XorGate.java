@@ -13,6 +13,7 @@ import static com.cburch.logisim.std.Strings.S;
 
 import com.cburch.logisim.analyze.model.Expression;
 import com.cburch.logisim.analyze.model.Expressions;
+import com.cburch.logisim.circuit.LevelizedModel;
 import com.cburch.logisim.data.AttributeSet;
 import com.cburch.logisim.data.Value;
 import com.cburch.logisim.instance.Instance;
@@ -70,6 +71,12 @@ class XorGate extends AbstractGate {
     }
   }
 
+  @Override
+  protected int getLevelizedFunction(AttributeSet attrs) {
+    final var behavior = attrs.getValue(GateAttributes.ATTR_XOR);
+    return behavior == GateAttributes.XOR_ODD ? LevelizedModel.ODD : LevelizedModel.ONE;
+  }
+
   @Override
   protected Value getIdentity() {
     return Value.FALSE;
@@ -13,6 +13,9 @@ import static com.cburch.logisim.vhdl.Strings.S;
 
 import com.cburch.hdl.HdlModel;
 import com.cburch.hdl.HdlModelListener;
+import com.cburch.logisim.circuit.Circuit;
+import com.cburch.logisim.circuit.CircuitState;
+import com.cburch.logisim.comp.Component;
 import com.cburch.logisim.data.Attribute;
 import com.cburch.logisim.data.AttributeSet;
 import com.cburch.logisim.data.Bounds;
@@ -27,7 +30,6 @@ import com.cburch.logisim.instance.StdAttr;
 import com.cburch.logisim.util.GraphicsUtil;
 import com.cburch.logisim.util.StringUtil;
 import com.cburch.logisim.vhdl.base.VhdlSimConstants;
-import com.cburch.logisim.vhdl.sim.VhdlSimulatorTop;
 import java.awt.Color;
 import java.awt.Window;
 import java.io.IOException;
@@ -242,59 +244,7 @@ public class VhdlEntityComponent extends InstanceFactory {
 
     if (state.getProject().getVhdlSimulator().isEnabled()
         && state.getProject().getVhdlSimulator().isRunning()) {
-
-      VhdlSimulatorTop vhdlSimulator = state.getProject().getVhdlSimulator();
-
-      for (final var p : state.getInstance().getPorts()) {
-        final var index = state.getPortIndex(p);
-        final var val = state.getPortValue(index);
-
-        String vhdlEntityName = getSimName(state.getAttributeSet());
-
-        String message =
-            p.getType()
-                + ":"
-                + vhdlEntityName
-                + "_"
-                + p.getToolTip()
-                + ":"
-                + val.toBinaryString()
-                + ":"
-                + index;
-
-        vhdlSimulator.send(message);
-      }
-
-      vhdlSimulator.send("sync");
-
-      /* Get response from tcl server */
-      String server_response;
-      while ((server_response = vhdlSimulator.receive()) != null
-          && server_response.length() > 0
-          && !server_response.equals("sync")) {
-
-        final var parameters = server_response.split(":");
-
-        final var busValue = parameters[1];
-
-        final var vector_values = new Value[busValue.length()];
-
-        var k = busValue.length() - 1;
-        for (final var bit : busValue.toCharArray()) {
-          try {
-            switch (Character.getNumericValue(bit)) {
-              case 0 -> vector_values[k] = Value.FALSE;
-              case 1 -> vector_values[k] = Value.TRUE;
-              default -> vector_values[k] = Value.UNKNOWN;
-            }
-          } catch (NumberFormatException e) {
-            vector_values[k] = Value.UNKNOWN;
-          }
-          k--;
-        }
-
-        state.setPort(Integer.parseInt(parameters[2]), Value.create(vector_values), 1);
-      }
+      state.getProject().getVhdlSimulator().propagate(state, getSimName(state.getAttributeSet()));
 
       /* VhdlSimulation stopped/disabled */
     } else {
@@ -318,6 +268,12 @@ public class VhdlEntityComponent extends InstanceFactory {
     }
   }
 
+  @Override
+  public void removeComponent(Circuit circ, Component c, CircuitState state) {
+    if (state != null && state.getProject() != null)
+      state.getProject().getVhdlSimulator().removeComponent(c);
+  }
+
   /**
    * Save the VHDL entity in a file. The file is used for VHDL components simulation by
    * QUestasim/Modelsim
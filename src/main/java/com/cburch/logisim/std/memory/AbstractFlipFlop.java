@@ -11,6 +11,7 @@ package com.cburch.logisim.std.memory;
 
 import static com.cburch.logisim.std.Strings.S;
 
+import com.cburch.logisim.circuit.LevelizedModel;
 import com.cburch.logisim.data.Attribute;
 import com.cburch.logisim.data.AttributeOption;
 import com.cburch.logisim.data.AttributeSet;
@@ -22,6 +23,7 @@ import com.cburch.logisim.fpga.designrulecheck.Netlist;
 import com.cburch.logisim.fpga.designrulecheck.netlistComponent;
 import com.cburch.logisim.fpga.hdlgenerator.HdlGeneratorFactory;
 import com.cburch.logisim.instance.Instance;
+import com.cburch.logisim.instance.InstanceConfig;
 import com.cburch.logisim.instance.InstanceData;
 import com.cburch.logisim.instance.InstanceFactory;
 import com.cburch.logisim.instance.InstanceLogger;
@@ -374,6 +376,20 @@ abstract class AbstractFlipFlop extends InstanceFactory {
     GraphicsUtil.switchToWidth(g, 1);
   }
 
+  private static final class Config {
+    final Object trigger;
+
+    Config(AttributeSet attrs) {
+      // the flip-flops that allow level triggers have the other trigger attribute
+      trigger =
+          attrs.containsAttribute(StdAttr.TRIGGER)
+              ? attrs.getValue(StdAttr.TRIGGER)
+              : attrs.getValue(StdAttr.EDGE_TRIGGER);
+    }
+  }
+
+  private static final InstanceConfig<Config> CONFIG = new InstanceConfig<>(Config::new);
+
   @Override
   public void propagate(InstanceState state) {
     // boolean changed = false;
@@ -385,8 +401,7 @@ abstract class AbstractFlipFlop extends InstanceFactory {
     }
 
     int n = numInputs;
-    Object triggerType = state.getAttributeValue(triggerAttribute);
-    boolean triggered = data.updateClock(state.getPortValue(n), triggerType);
+    boolean triggered = data.updateClock(state.getPortValue(n), CONFIG.get(state).trigger);
 
     if (state.getPortValue(n + 3) == Value.TRUE) { // clear requested
       // changed |= data.curValue != Value.FALSE;
@@ -413,6 +428,95 @@ abstract class AbstractFlipFlop extends InstanceFactory {
     state.setPort(n + 2, data.curValue.not(), MemoryLibrary.DELAY);
   }
 
+  /** Maps a bit to false if it is known and to an error otherwise. */
+  protected static final byte[] KNOWN = {
+    LevelizedModel.FALSE, LevelizedModel.FALSE, LevelizedModel.ERROR, LevelizedModel.ERROR
+  };
+
+  private static final byte[] NOT = {
+    LevelizedModel.TRUE, LevelizedModel.FALSE, LevelizedModel.ERROR, LevelizedModel.ERROR
+  };
+
+  /**
+   * Adds the gates that compute the next value of the flip-flop like {@link #computeValue} to the
+   * levelized engine, and returns the net of their result. The flip-flop keeps its value if the
+   * result is neither true nor false.
+   */
+  protected abstract int compileNextValue(
+      LevelizedModel.Compiler compiler, int[] inputs, int current)
+      throws LevelizedModel.UnsupportedDesignException;
+
+  @Override
+  protected Object getInstanceFeature(Instance instance, Object key) {
+    if (key == LevelizedModel.class) {
+      return (LevelizedModel) compiler -> compileLevelized(instance, compiler);
+    }
+    return super.getInstanceFeature(instance, key);
+  }
+
+  private void compileLevelized(Instance instance, LevelizedModel.Compiler compiler)
+      throws LevelizedModel.UnsupportedDesignException {
+    final var trigger = CONFIG.get(instance).trigger;
+    final boolean fallingEdge;
+    if (trigger == StdAttr.TRIG_FALLING) {
+      fallingEdge = true;
+    } else if (trigger == null || trigger == StdAttr.TRIG_RISING) {
+      fallingEdge = false;
+    } else {
+      throw new LevelizedModel.UnsupportedDesignException("latch");
+    }
+    final var n = numInputs;
+    final var inputs = new int[n];
+    for (var i = 0; i < n; i++) inputs[i] = net(instance, compiler, i);
+    final var q = net(instance, compiler, n + 1);
+    final var qBar = net(instance, compiler, n + 2);
+    compiler.addFlipFlop(
+        net(instance, compiler, n),
+        fallingEdge,
+        net(instance, compiler, n + 3),
+        net(instance, compiler, n + 4),
+        compileNextValue(compiler, inputs, q),
+        q,
+        new Storage(compiler.getInstanceState()));
+    compiler.addMap(q, NOT, qBar);
+    compiler.drive(instance.getPortLocation(n + 1), new int[] {q});
+    compiler.drive(instance.getPortLocation(n + 2), new int[] {qBar});
+  }
+
+  private static int net(Instance instance, LevelizedModel.Compiler compiler, int port)
+      throws LevelizedModel.UnsupportedDesignException {
+    return compiler.getNets(instance.getPortLocation(port), 1)[0];
+  }
+
+  /** Keeps the state of the flip-flop in its StateData, where propagate finds it. */
+  private record Storage(InstanceState state) implements LevelizedModel.Storage {
+    private StateData getData() {
+      var data = (StateData) state.getData();
+      if (data == null) {
+        data = new StateData();
+        state.setData(data);
+      }
+      return data;
+    }
+
+    @Override
+    public Value getValue() {
+      return getData().curValue;
+    }
+
+    @Override
+    public Value getLastClock() {
+      return getData().getLastClock();
+    }
+
+    @Override
+    public void set(Value value, Value lastClock) {
+      final var data = getData();
+      data.curValue = value;
+      data.setLastClock(lastClock);
+    }
+  }
+
   @Override
   public boolean checkForGatedClocks(netlistComponent comp) {
     return Netlist.isFlipFlop(comp.getComponent().getAttributeSet());
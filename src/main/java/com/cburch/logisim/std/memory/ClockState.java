@@ -28,6 +28,14 @@ public class ClockState implements Cloneable {
     }
   }
 
+  Value getLastClock() {
+    return lastClock;
+  }
+
+  void setLastClock(Value value) {
+    lastClock = value;
+  }
+
   public boolean updateClock(Value newClock, Object trigger) {
     final var oldClock = lastClock;
     lastClock = newClock;
@@ -17,12 +17,14 @@ import com.cburch.logisim.data.Attribute;
 import com.cburch.logisim.data.AttributeOption;
 import com.cburch.logisim.data.AttributeSet;
 import com.cburch.logisim.data.Attributes;
+import com.cburch.logisim.data.BitWidth;
 import com.cburch.logisim.data.Bounds;
 import com.cburch.logisim.data.Direction;
 import com.cburch.logisim.data.Value;
 import com.cburch.logisim.fpga.designrulecheck.netlistComponent;
 import com.cburch.logisim.gui.icons.CounterIcon;
 import com.cburch.logisim.instance.Instance;
+import com.cburch.logisim.instance.InstanceConfig;
 import com.cburch.logisim.instance.InstanceFactory;
 import com.cburch.logisim.instance.InstancePainter;
 import com.cburch.logisim.instance.InstanceState;
@@ -512,19 +514,35 @@ public class Counter extends InstanceFactory implements DynamicElementProvider {
     }
   }
 
+  private static final class Config {
+    final BitWidth width;
+    final Object trigger;
+    final BigInteger max;
+    final Object onGoal;
+
+    Config(AttributeSet attrs) {
+      width = attrs.getValue(StdAttr.WIDTH);
+      trigger = attrs.getValue(StdAttr.EDGE_TRIGGER);
+      max = new BigInteger(Long.toUnsignedString(attrs.getValue(ATTR_MAX)));
+      onGoal = attrs.getValue(ATTR_ON_GOAL);
+    }
+  }
+
+  private static final InstanceConfig<Config> CONFIG = new InstanceConfig<>(Config::new);
+
   @Override
   public void propagate(InstanceState state) {
+    final var config = CONFIG.get(state);
     var data = (RegisterData) state.getData();
     if (data == null) {
-      data = new RegisterData(state.getAttributeValue(StdAttr.WIDTH));
+      data = new RegisterData(config.width);
       state.setData(data);
     }
 
-    final var dataWidth = state.getAttributeValue(StdAttr.WIDTH);
-    Object triggerType = state.getAttributeValue(StdAttr.EDGE_TRIGGER);
-    final var max = new BigInteger(Long.toUnsignedString(state.getAttributeValue(ATTR_MAX)));
+    final var dataWidth = config.width;
+    final var max = config.max;
     final var clock = state.getPortValue(CK);
-    final var triggered = data.updateClock(clock, triggerType);
+    final var triggered = data.updateClock(clock, config.trigger);
 
     Value newValue;
     boolean carry;
@@ -550,7 +568,7 @@ public class Counter extends InstanceFactory implements DynamicElementProvider {
       } else if (en) {
         BigInteger goal = (UpCount) ? max : BigInteger.ZERO;
         if (oldValue.compareTo(goal) == 0) {
-          Object onGoal = state.getAttributeValue(ATTR_ON_GOAL);
+          final var onGoal = config.onGoal;
           if (onGoal == ON_GOAL_WRAP) {
             newVal = (UpCount) ? BigInteger.ZERO : max;
           } else if (onGoal == ON_GOAL_STAY) {
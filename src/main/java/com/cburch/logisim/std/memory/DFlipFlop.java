@@ -11,6 +11,7 @@ package com.cburch.logisim.std.memory;
 
 import static com.cburch.logisim.std.Strings.S;
 
+import com.cburch.logisim.circuit.LevelizedModel;
 import com.cburch.logisim.data.Value;
 import com.cburch.logisim.gui.icons.FlipFlopIcon;
 import com.cburch.logisim.instance.Port;
@@ -54,6 +55,11 @@ public class DFlipFlop extends AbstractFlipFlop {
     return inputs[0];
   }
 
+  @Override
+  protected int compileNextValue(LevelizedModel.Compiler compiler, int[] inputs, int current) {
+    return inputs[0];
+  }
+
   @Override
   protected String getInputName(int index) {
     return "D";
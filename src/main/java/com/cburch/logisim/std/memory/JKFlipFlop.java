@@ -11,6 +11,7 @@ package com.cburch.logisim.std.memory;
 
 import static com.cburch.logisim.std.Strings.S;
 
+import com.cburch.logisim.circuit.LevelizedModel;
 import com.cburch.logisim.data.Value;
 import com.cburch.logisim.gui.icons.FlipFlopIcon;
 import com.cburch.logisim.instance.Port;
@@ -72,6 +73,23 @@ public class JKFlipFlop extends AbstractFlipFlop {
     return Value.UNKNOWN;
   }
 
+  @Override
+  protected int compileNextValue(LevelizedModel.Compiler compiler, int[] inputs, int current)
+      throws LevelizedModel.UnsupportedDesignException {
+    final var j = inputs[0];
+    final var k = inputs[1];
+    final var nets = compiler.newNets(6);
+    // set, toggle and hold; with J or K not known, the errors keep the value
+    compiler.addGate(LevelizedModel.AND, new int[] {j, ~k}, nets[0]);
+    compiler.addGate(LevelizedModel.AND, new int[] {j, k, ~current}, nets[1]);
+    compiler.addGate(LevelizedModel.AND, new int[] {~j, ~k, current}, nets[2]);
+    compiler.addMap(j, KNOWN, nets[3]);
+    compiler.addMap(k, KNOWN, nets[4]);
+    compiler.addGate(
+        LevelizedModel.OR, new int[] {nets[0], nets[1], nets[2], nets[3], nets[4]}, nets[5]);
+    return nets[5];
+  }
+
   @Override
   protected String getInputName(int index) {
     return index == 0 ? "J" : "K";
@@ -24,6 +24,7 @@ import com.cburch.logisim.fpga.designrulecheck.netlistComponent;
 import com.cburch.logisim.gui.hex.HexFrame;
 import com.cburch.logisim.gui.icons.ArithmeticIcon;
 import com.cburch.logisim.instance.Instance;
+import com.cburch.logisim.instance.InstanceConfig;
 import com.cburch.logisim.instance.InstanceLogger;
 import com.cburch.logisim.instance.InstancePainter;
 import com.cburch.logisim.instance.InstanceState;
@@ -223,23 +224,73 @@ public class Ram extends Mem {
     }
   }
 
+  private static final class Config {
+    final BitWidth dataBits;
+    final boolean separate;
+    final boolean clearPin;
+    final boolean lineEnables;
+    final boolean allowMisaligned;
+    final Object trigger;
+    final boolean async;
+    final boolean asyncRead;
+    final boolean readAfterWrite;
+    final int addrIndex;
+    final int clkIndex;
+    final int weIndex;
+    final int oeIndex;
+    final int clrIndex;
+    final int dataLines;
+    final int[] dataInIndex;
+    final int[] dataOutIndex;
+    final int[] leIndex;
+    final int[] beIndex;
+    final Value cleared;
+
+    Config(AttributeSet attrs) {
+      dataBits = attrs.getValue(DATA_ATTR);
+      separate = isSeparate(attrs);
+      clearPin = attrs.getValue(RamAttributes.CLEAR_PIN);
+      lineEnables = attrs.getValue(Mem.ENABLES_ATTR).equals(Mem.USELINEENABLES);
+      allowMisaligned = attrs.getValue(ALLOW_MISALIGNED);
+      trigger = attrs.getValue(StdAttr.TRIGGER);
+      async = trigger.equals(StdAttr.TRIG_HIGH) || trigger.equals(StdAttr.TRIG_LOW);
+      asyncRead = async || attrs.getValue(Mem.ASYNC_READ);
+      readAfterWrite = attrs.getValue(Mem.READ_ATTR).equals(Mem.READAFTERWRITE);
+      addrIndex = RamAppearance.getAddrIndex(0, attrs);
+      clkIndex = RamAppearance.getClkIndex(0, attrs);
+      weIndex = RamAppearance.getWEIndex(0, attrs);
+      oeIndex = RamAppearance.getOEIndex(0, attrs);
+      clrIndex = RamAppearance.getClrIndex(0, attrs);
+      dataLines = Math.max(1, RamAppearance.getNrLEPorts(attrs));
+      final var nrDataPorts = Math.max(dataLines, RamAppearance.getNrDataOutPorts(attrs));
+      dataInIndex = new int[nrDataPorts];
+      dataOutIndex = new int[nrDataPorts];
+      for (var i = 0; i < nrDataPorts; i++) {
+        dataInIndex[i] = RamAppearance.getDataInIndex(i, attrs);
+        dataOutIndex[i] = RamAppearance.getDataOutIndex(i, attrs);
+      }
+      leIndex = new int[dataLines];
+      for (var i = 0; i < dataLines; i++) leIndex[i] = RamAppearance.getLEIndex(i, attrs);
+      beIndex = new int[RamAppearance.getNrBEPorts(attrs)];
+      for (var i = 0; i < beIndex.length; i++) beIndex[i] = RamAppearance.getBEIndex(i, attrs);
+      cleared = separate ? Value.createKnown(dataBits, 0) : Value.createUnknown(dataBits);
+    }
+  }
+
+  private static final InstanceConfig<Config> CONFIG = new InstanceConfig<>(Config::new);
+
   @Override
   public void propagate(InstanceState state) {
-    final var attrs = state.getAttributeSet();
+    final var config = CONFIG.get(state);
     final var myState = (RamState) getState(state);
 
     // first we check the clear pin
-    if (attrs.getValue(RamAttributes.CLEAR_PIN)) {
-      final var clearValue = state.getPortValue(RamAppearance.getClrIndex(0, attrs));
+    if (config.clearPin) {
+      final var clearValue = state.getPortValue(config.clrIndex);
       if (clearValue.equals(Value.TRUE)) {
         myState.getContents().clear();
-        final var dataBits = state.getAttributeValue(DATA_ATTR);
-
-        for (var i = 0; i < RamAppearance.getNrDataOutPorts(attrs); i++) {
-          final var portVal = isSeparate(attrs)
-                  ? Value.createKnown(dataBits, 0)
-                  : Value.createUnknown(dataBits);
-          state.setPort(RamAppearance.getDataOutIndex(i, attrs), portVal, DELAY);
+        for (var i = 0; i < config.dataOutIndex.length; i++) {
+          state.setPort(config.dataOutIndex[i], config.cleared, DELAY);
         }
 
         return;
@@ -247,7 +298,7 @@ public class Ram extends Mem {
     }
 
     // next we get the address and the mem value currently stored
-    final var addrValue = state.getPortValue(RamAppearance.getAddrIndex(0, attrs));
+    final var addrValue = state.getPortValue(config.addrIndex);
     long addr = addrValue.toLongValue();
     final var goodAddr = addrValue.isFullyDefined() && addr >= 0;
     if (goodAddr && addr != myState.getCurrent()) {
@@ -256,81 +307,74 @@ public class Ram extends Mem {
     }
 
     // now we handle the two different behaviors, line-enables or byte-enables
-    if (attrs.getValue(Mem.ENABLES_ATTR).equals(Mem.USELINEENABLES)) {
-      propagateLineEnables(state, addr, goodAddr, addrValue.isErrorValue());
+    if (config.lineEnables) {
+      propagateLineEnables(state, config, myState, addr, goodAddr, addrValue.isErrorValue());
     } else {
-      propagateByteEnables(state, addr, goodAddr, addrValue.isErrorValue());
+      propagateByteEnables(state, config, myState, addr, goodAddr, addrValue.isErrorValue());
     }
   }
 
-  private void propagateLineEnables(InstanceState state, long addr, boolean goodAddr, boolean errorValue) {
-    final var attrs = state.getAttributeSet();
-    final var myState = (RamState) getState(state);
-    final var separate = isSeparate(attrs);
-
-    final var dataLines = Math.max(1, RamAppearance.getNrLEPorts(attrs));
+  private void propagateLineEnables(InstanceState state, Config config, RamState myState, long addr,
+      boolean goodAddr, boolean errorValue) {
+    final var dataLines = config.dataLines;
     final var misaligned = addr % dataLines != 0;
-    final var misalignError = misaligned && !state.getAttributeValue(ALLOW_MISALIGNED);
+    final var misalignError = misaligned && !config.allowMisaligned;
 
     // perform writes
-    Object trigger = state.getAttributeValue(StdAttr.TRIGGER);
-    final var triggered = myState.setClock(state.getPortValue(RamAppearance.getClkIndex(0, attrs)), trigger);
-    final var writeEnabled = triggered && (state.getPortValue(RamAppearance.getWEIndex(0, attrs)) == Value.TRUE);
+    final var triggered = myState.setClock(state.getPortValue(config.clkIndex), config.trigger);
+    final var writeEnabled = triggered && (state.getPortValue(config.weIndex) == Value.TRUE);
     if (writeEnabled && goodAddr && !misalignError) {
       for (var i = 0; i < dataLines; i++) {
         if (dataLines > 1) {
-          final var le = state.getPortValue(RamAppearance.getLEIndex(i, attrs));
+          final var le = state.getPortValue(config.leIndex[i]);
           if (le != null && le.equals(Value.FALSE))
             continue;
         }
-        long dataValue = state.getPortValue(RamAppearance.getDataInIndex(i, attrs)).toLongValue();
+        long dataValue = state.getPortValue(config.dataInIndex[i]).toLongValue();
         myState.getContents().set(addr + i, dataValue);
       }
     }
 
     // perform reads
-    final var width = state.getAttributeValue(DATA_ATTR);
-    final var outputEnabled = separate || !state.getPortValue(RamAppearance.getOEIndex(0, attrs)).equals(Value.FALSE);
+    final var width = config.dataBits;
+    final var outputEnabled =
+        config.separate || !state.getPortValue(config.oeIndex).equals(Value.FALSE);
     if (outputEnabled && goodAddr && !misalignError) {
       for (var i = 0; i < dataLines; i++) {
         long val = myState.getContents().get(addr + i);
-        state.setPort(RamAppearance.getDataOutIndex(i, attrs), Value.createKnown(width, val), DELAY);
+        state.setPort(config.dataOutIndex[i], Value.createKnown(width, val), DELAY);
       }
     } else if (outputEnabled && (errorValue || (goodAddr && misalignError))) {
       for (var i = 0; i < dataLines; i++)
-        state.setPort(RamAppearance.getDataOutIndex(i, attrs), Value.createError(width), DELAY);
+        state.setPort(config.dataOutIndex[i], Value.createError(width), DELAY);
     } else {
       for (var i = 0; i < dataLines; i++)
-        state.setPort(RamAppearance.getDataOutIndex(i, attrs), Value.createUnknown(width), DELAY);
+        state.setPort(config.dataOutIndex[i], Value.createUnknown(width), DELAY);
     }
   }
 
-  private void propagateByteEnables(InstanceState state, long addr, boolean goodAddr, boolean errorValue) {
-    final var attrs = state.getAttributeSet();
-    final var myState = (RamState) getState(state);
-    final var separate = isSeparate(attrs);
+  private void propagateByteEnables(InstanceState state, Config config, RamState myState, long addr,
+      boolean goodAddr, boolean errorValue) {
     long oldMemValue = myState.getContents().get(myState.getCurrent());
     long newMemValue = oldMemValue;
     // perform writes
-    Object trigger = state.getAttributeValue(StdAttr.TRIGGER);
-    final var weValue = state.getPortValue(RamAppearance.getWEIndex(0, attrs));
-    final var async = trigger.equals(StdAttr.TRIG_HIGH) || trigger.equals(StdAttr.TRIG_LOW);
-    final var edge =
-        !async && myState
-            .setClock(state.getPortValue(RamAppearance.getClkIndex(0, attrs)), trigger);
+    final var trigger = config.trigger;
+    final var weValue = state.getPortValue(config.weIndex);
+    final var async = config.async;
+    final var edge = !async && myState.setClock(state.getPortValue(config.clkIndex), trigger);
     final var weAsync =
         (trigger.equals(StdAttr.TRIG_HIGH) && weValue.equals(Value.TRUE))
             || (trigger.equals(StdAttr.TRIG_LOW) && weValue.equals(Value.FALSE));
     final var weTriggered = (async && weAsync) || (edge && weValue.equals(Value.TRUE));
     if (goodAddr && weTriggered) {
-      long dataInValue = state.getPortValue(RamAppearance.getDataInIndex(0, attrs)).toLongValue();
-      if (RamAppearance.getNrBEPorts(attrs) == 0) {
+      long dataInValue = state.getPortValue(config.dataInIndex[0]).toLongValue();
+      if (config.beIndex.length == 0) {
         newMemValue = dataInValue;
       } else {
-        for (var i = 0; i < RamAppearance.getNrBEPorts(attrs); i++) {
+        for (var i = 0; i < config.beIndex.length; i++) {
           long mask = 0xFF << (i * 8);
           long andMask = ~mask;
-          if (state.getPortValue(RamAppearance.getBEIndex(i, attrs)).equals(Value.TRUE)) {
+          if (state.getPortValue(config.beIndex[i]).equals(Value.TRUE)) {
             newMemValue &= andMask;
             newMemValue |= (dataInValue & mask);
           }
@@ -340,11 +384,12 @@ public class Ram extends Mem {
     }
 
     // perform reads
-    final var dataBits = state.getAttributeValue(DATA_ATTR);
-    final var outputNotEnabled = state.getPortValue(RamAppearance.getOEIndex(0, attrs)).equals(Value.FALSE);
-    if (!separate && outputNotEnabled) {
+    final var dataBits = config.dataBits;
+    final var dataOut = config.dataOutIndex[0];
+    final var outputNotEnabled = state.getPortValue(config.oeIndex).equals(Value.FALSE);
+    if (!config.separate && outputNotEnabled) {
       /* put the bus in tri-state in case of a combined bus and no output enable */
-      state.setPort(RamAppearance.getDataOutIndex(0, attrs), Value.createUnknown(dataBits), DELAY);
+      state.setPort(dataOut, Value.createUnknown(dataBits), DELAY);
       return;
     }
     /* if the OE is not activated return */
@@ -352,22 +397,20 @@ public class Ram extends Mem {
 
     /* if the address is bogus set error value */
     if (!goodAddr || errorValue) {
-      state.setPort(RamAppearance.getDataOutIndex(0, attrs), Value.createError(dataBits), DELAY);
+      state.setPort(dataOut, Value.createError(dataBits), DELAY);
       return;
     }
 
-    final var asyncRead = async || attrs.getValue(Mem.ASYNC_READ);
-
-    if (asyncRead) {
-      state.setPort(RamAppearance.getDataOutIndex(0, attrs), Value.createKnown(dataBits, newMemValue), DELAY);
+    if (config.asyncRead) {
+      state.setPort(dataOut, Value.createKnown(dataBits, newMemValue), DELAY);
       return;
     }
 
     if (edge) {
-      if (attrs.getValue(Mem.READ_ATTR).equals(Mem.READAFTERWRITE))
-        state.setPort(RamAppearance.getDataOutIndex(0, attrs), Value.createKnown(dataBits, newMemValue), DELAY);
+      if (config.readAfterWrite)
+        state.setPort(dataOut, Value.createKnown(dataBits, newMemValue), DELAY);
       else
-        state.setPort(RamAppearance.getDataOutIndex(0, attrs), Value.createKnown(dataBits, oldMemValue), DELAY);
+        state.setPort(dataOut, Value.createKnown(dataBits, oldMemValue), DELAY);
     }
   }
 
@@ -21,6 +21,7 @@ import com.cburch.logisim.data.Value;
 import com.cburch.logisim.fpga.designrulecheck.netlistComponent;
 import com.cburch.logisim.gui.icons.RandomIcon;
 import com.cburch.logisim.instance.Instance;
+import com.cburch.logisim.instance.InstanceConfig;
 import com.cburch.logisim.instance.InstanceData;
 import com.cburch.logisim.instance.InstanceFactory;
 import com.cburch.logisim.instance.InstanceLogger;
@@ -326,26 +327,39 @@ public class Random extends InstanceFactory {
     else paintInstanceEvolution(painter);
   }
 
+  private static final class Config {
+    final BitWidth width;
+    final Object trigger;
+    final Integer seed;
+
+    Config(AttributeSet attrs) {
+      width = attrs.getValue(StdAttr.WIDTH);
+      trigger = attrs.getValue(StdAttr.EDGE_TRIGGER);
+      seed = attrs.getValue(ATTR_SEED);
+    }
+  }
+
+  private static final InstanceConfig<Config> CONFIG = new InstanceConfig<>(Config::new);
+
   @Override
   public void propagate(InstanceState state) {
+    final var config = CONFIG.get(state);
     var data = (StateData) state.getData();
     if (data == null) {
-      data = new StateData(state.getAttributeValue(ATTR_SEED));
+      data = new StateData(config.seed);
       state.setData(data);
     }
 
-    final var dataWidth = state.getAttributeValue(StdAttr.WIDTH);
-    Object triggerType = state.getAttributeValue(StdAttr.EDGE_TRIGGER);
-    final var triggered = data.updateClock(state.getPortValue(CK), triggerType);
+    final var triggered = data.updateClock(state.getPortValue(CK), config.trigger);
 
-    data.propagateReset(state.getPortValue(RST), state.getAttributeValue(ATTR_SEED));
+    data.propagateReset(state.getPortValue(RST), config.seed);
     if (state.getPortValue(RST) == Value.TRUE) {
-      data.reset(state.getAttributeValue(ATTR_SEED));
+      data.reset(config.seed);
     } else if (triggered && state.getPortValue(NXT) != Value.FALSE) {
       data.step();
     }
 
-    state.setPort(OUT, Value.createKnown(dataWidth, data.value), 4);
+    state.setPort(OUT, Value.createKnown(config.width, data.value), 4);
   }
 
   @Override
@@ -11,6 +11,7 @@ package com.cburch.logisim.std.memory;
 
 import static com.cburch.logisim.std.Strings.S;
 
+import com.cburch.logisim.circuit.LevelizedModel;
 import com.cburch.logisim.circuit.appear.DynamicElement;
 import com.cburch.logisim.circuit.appear.DynamicElementProvider;
 import com.cburch.logisim.data.Attribute;
@@ -25,6 +26,7 @@ import com.cburch.logisim.fpga.designrulecheck.Netlist;
 import com.cburch.logisim.fpga.designrulecheck.netlistComponent;
 import com.cburch.logisim.gui.icons.FlipFlopIcon;
 import com.cburch.logisim.instance.Instance;
+import com.cburch.logisim.instance.InstanceConfig;
 import com.cburch.logisim.instance.InstanceFactory;
 import com.cburch.logisim.instance.InstancePainter;
 import com.cburch.logisim.instance.InstanceState;
@@ -317,21 +319,34 @@ public class Register extends InstanceFactory implements DynamicElementProvider
     }
   }
 
+  private static final class Config {
+    final BitWidth width;
+    final Object trigger;
+    final Value cleared;
+
+    Config(AttributeSet attrs) {
+      width = attrs.getValue(StdAttr.WIDTH);
+      trigger = attrs.getValue(StdAttr.TRIGGER);
+      cleared = Value.createKnown(width, 0);
+    }
+  }
+
+  private static final InstanceConfig<Config> CONFIG = new InstanceConfig<>(Config::new);
+
   @Override
   public void propagate(InstanceState state) {
-    final var dataWidth = state.getAttributeValue(StdAttr.WIDTH);
-    Object triggerType = state.getAttributeValue(StdAttr.TRIGGER);
+    final var config = CONFIG.get(state);
     var data = (RegisterData) state.getData();
 
     if (data == null) {
-      data = new RegisterData(dataWidth);
+      data = new RegisterData(config.width);
       state.setData(data);
     }
 
-    final var triggered = data.updateClock(state.getPortValue(CK), triggerType);
+    final var triggered = data.updateClock(state.getPortValue(CK), config.trigger);
 
     if (state.getPortValue(CLR) == Value.TRUE) {
-      data.value = Value.createKnown(dataWidth, 0);
+      data.value = config.cleared;
     } else if (triggered && state.getPortValue(EN) != Value.FALSE) {
       data.value = state.getPortValue(IN);
     }
@@ -339,6 +354,67 @@ public class Register extends InstanceFactory implements DynamicElementProvider
     state.setPort(OUT, data.value, DELAY);
   }
 
+  @Override
+  protected Object getInstanceFeature(Instance instance, Object key) {
+    if (key == LevelizedModel.class) {
+      return (LevelizedModel) compiler -> compileLevelized(instance, compiler);
+    }
+    return super.getInstanceFeature(instance, key);
+  }
+
+  private static void compileLevelized(Instance instance, LevelizedModel.Compiler compiler)
+      throws LevelizedModel.UnsupportedDesignException {
+    final var config = CONFIG.get(instance);
+    final boolean fallingEdge;
+    if (config.trigger == StdAttr.TRIG_FALLING) {
+      fallingEdge = true;
+    } else if (config.trigger == null || config.trigger == StdAttr.TRIG_RISING) {
+      fallingEdge = false;
+    } else {
+      throw new LevelizedModel.UnsupportedDesignException("latch");
+    }
+    final var width = config.width.getWidth();
+    final var outputs = compiler.getNets(instance.getPortLocation(OUT), width);
+    compiler.addRegister(
+        compiler.getNets(instance.getPortLocation(CK), 1)[0],
+        fallingEdge,
+        compiler.getNets(instance.getPortLocation(CLR), 1)[0],
+        compiler.getNets(instance.getPortLocation(EN), 1)[0],
+        compiler.getNets(instance.getPortLocation(IN), width),
+        outputs,
+        new Storage(compiler.getInstanceState(), config.width));
+    compiler.drive(instance.getPortLocation(OUT), outputs);
+  }
+
+  /** Keeps the state of the register in its RegisterData, where propagate finds it. */
+  private record Storage(InstanceState state, BitWidth width) implements LevelizedModel.Storage {
+    private RegisterData getData() {
+      var data = (RegisterData) state.getData();
+      if (data == null) {
+        data = new RegisterData(width);
+        state.setData(data);
+      }
+      return data;
+    }
+
+    @Override
+    public Value getValue() {
+      return getData().value;
+    }
+
+    @Override
+    public Value getLastClock() {
+      return getData().getLastClock();
+    }
+
+    @Override
+    public void set(Value value, Value lastClock) {
+      final var data = getData();
+      data.value = value;
+      data.setLastClock(lastClock);
+    }
+  }
+
   @Override
   public boolean checkForGatedClocks(netlistComponent comp) {
     return Netlist.isFlipFlop(comp.getComponent().getAttributeSet());
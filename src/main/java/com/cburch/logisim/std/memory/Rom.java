@@ -17,6 +17,7 @@ import com.cburch.logisim.circuit.CircuitState;
 import com.cburch.logisim.comp.Component;
 import com.cburch.logisim.data.Attribute;
 import com.cburch.logisim.data.AttributeSet;
+import com.cburch.logisim.data.BitWidth;
 import com.cburch.logisim.data.Bounds;
 import com.cburch.logisim.data.Value;
 import com.cburch.logisim.gui.hex.HexFile;
@@ -25,6 +26,7 @@ import com.cburch.logisim.gui.icons.ArithmeticIcon;
 import com.cburch.logisim.gui.main.Frame;
 import com.cburch.logisim.instance.Instance;
 import com.cburch.logisim.instance.InstanceComponent;
+import com.cburch.logisim.instance.InstanceConfig;
 import com.cburch.logisim.instance.InstancePainter;
 import com.cburch.logisim.instance.InstanceState;
 import com.cburch.logisim.instance.StdAttr;
@@ -211,24 +213,47 @@ public class Rom extends Mem {
     }
   }
 
+  private static final class Config {
+    final BitWidth dataBits;
+    final boolean allowMisaligned;
+    final int addrIndex;
+    final int[] dataOutIndex;
+    final Value error;
+    final Value unknown;
+
+    Config(AttributeSet attrs) {
+      dataBits = attrs.getValue(DATA_ATTR);
+      allowMisaligned = attrs.getValue(ALLOW_MISALIGNED);
+      addrIndex = RamAppearance.getAddrIndex(0, attrs);
+      dataOutIndex = new int[RamAppearance.getNrDataOutPorts(attrs)];
+      for (var i = 0; i < dataOutIndex.length; i++) {
+        dataOutIndex[i] = RamAppearance.getDataOutIndex(i, attrs);
+      }
+      error = Value.createError(dataBits);
+      unknown = Value.createUnknown(dataBits);
+    }
+  }
+
+  private static final InstanceConfig<Config> CONFIG = new InstanceConfig<>(Config::new);
+
   @Override
   public void propagate(InstanceState state) {
     final var myState = getState(state);
-    final var dataBits = state.getAttributeValue(DATA_ATTR);
-    final var attrs = state.getAttributeSet();
+    final var config = CONFIG.get(state);
+    final var dataBits = config.dataBits;
 
-    final var addrValue = state.getPortValue(RamAppearance.getAddrIndex(0, attrs));
-    final var nrDataLines = RamAppearance.getNrDataOutPorts(attrs);
+    final var addrValue = state.getPortValue(config.addrIndex);
+    final var nrDataLines = config.dataOutIndex.length;
 
     final var addr = addrValue.toLongValue();
     if (addrValue.isErrorValue() || (addrValue.isFullyDefined() && addr < 0)) {
       for (var i = 0; i < nrDataLines; i++)
-        state.setPort(RamAppearance.getDataOutIndex(i, attrs), Value.createError(dataBits), DELAY);
+        state.setPort(config.dataOutIndex[i], config.error, DELAY);
       return;
     }
     if (!addrValue.isFullyDefined()) {
       for (var i = 0; i < nrDataLines; i++)
-        state.setPort(RamAppearance.getDataOutIndex(i, attrs), Value.createUnknown(dataBits), DELAY);
+        state.setPort(config.dataOutIndex[i], config.unknown, DELAY);
       return;
     }
     if (addr != myState.getCurrent()) {
@@ -237,17 +262,18 @@ public class Rom extends Mem {
     }
 
     boolean misaligned = addr % nrDataLines != 0;
-    boolean misalignError = misaligned && !state.getAttributeValue(ALLOW_MISALIGNED);
+    boolean misalignError = misaligned && !config.allowMisaligned;
 
     for (var i = 0; i < nrDataLines; i++) {
       long val = myState.getContents().get(addr + i);
       state.setPort(
-          RamAppearance.getDataOutIndex(i, attrs),
-          misalignError ? Value.createError(dataBits) : Value.createKnown(dataBits, val),
+          config.dataOutIndex[i],
+          misalignError ? config.error : Value.createKnown(dataBits, val),
           DELAY);
     }
   }
 
+
   @Override
   public void removeComponent(Circuit circ, Component c, CircuitState state) {
     closeHexFrame(c);
@@ -11,6 +11,7 @@ package com.cburch.logisim.std.memory;
 
 import static com.cburch.logisim.std.Strings.S;
 
+import com.cburch.logisim.circuit.LevelizedModel;
 import com.cburch.logisim.data.Value;
 import com.cburch.logisim.gui.icons.FlipFlopIcon;
 import com.cburch.logisim.instance.Port;
@@ -68,6 +69,29 @@ public class SRFlipFlop extends AbstractFlipFlop {
     return Value.UNKNOWN;
   }
 
+  // S and R together give an error, which keeps the value
+  private static final byte[] BOTH = {
+    LevelizedModel.FALSE, LevelizedModel.ERROR, LevelizedModel.ERROR, LevelizedModel.ERROR
+  };
+
+  @Override
+  protected int compileNextValue(LevelizedModel.Compiler compiler, int[] inputs, int current)
+      throws LevelizedModel.UnsupportedDesignException {
+    final var s = inputs[0];
+    final var r = inputs[1];
+    final var nets = compiler.newNets(7);
+    // set and hold; with S or R not known, the errors keep the value
+    compiler.addGate(LevelizedModel.AND, new int[] {s, ~r}, nets[0]);
+    compiler.addGate(LevelizedModel.AND, new int[] {~s, ~r, current}, nets[1]);
+    compiler.addGate(LevelizedModel.AND, new int[] {s, r}, nets[2]);
+    compiler.addMap(nets[2], BOTH, nets[3]);
+    compiler.addMap(s, KNOWN, nets[4]);
+    compiler.addMap(r, KNOWN, nets[5]);
+    compiler.addGate(
+        LevelizedModel.OR, new int[] {nets[0], nets[1], nets[3], nets[4], nets[5]}, nets[6]);
+    return nets[6];
+  }
+
   @Override
   protected String getInputName(int index) {
     return index == 0 ? "S" : "R";
@@ -21,6 +21,7 @@ import com.cburch.logisim.data.Value;
 import com.cburch.logisim.fpga.designrulecheck.netlistComponent;
 import com.cburch.logisim.gui.icons.ShifterIcon;
 import com.cburch.logisim.instance.Instance;
+import com.cburch.logisim.instance.InstanceConfig;
 import com.cburch.logisim.instance.InstanceFactory;
 import com.cburch.logisim.instance.InstancePainter;
 import com.cburch.logisim.instance.InstanceState;
@@ -479,14 +480,26 @@ public class ShiftRegister extends InstanceFactory {
     painter.drawClock(CK, Direction.EAST);
   }
 
+  private static final class Config {
+    final Object trigger;
+    final boolean parallel;
+
+    Config(AttributeSet attrs) {
+      trigger = attrs.getValue(StdAttr.EDGE_TRIGGER);
+      parallel = attrs.getValue(ATTR_LOAD);
+    }
+  }
+
+  private static final InstanceConfig<Config> CONFIG = new InstanceConfig<>(Config::new);
+
   @Override
   public void propagate(InstanceState state) {
-    Object triggerType = state.getAttributeValue(StdAttr.EDGE_TRIGGER);
-    final var parallel = state.getAttributeValue(ATTR_LOAD);
+    final var config = CONFIG.get(state);
+    final var parallel = config.parallel;
     ShiftRegisterData data = getData(state);
     final var len = data.getLength();
 
-    final var triggered = data.updateClock(state.getPortValue(CK), triggerType);
+    final var triggered = data.updateClock(state.getPortValue(CK), config.trigger);
     if (state.getPortValue(CLR) == Value.TRUE) {
       data.clear();
     } else if (triggered) {
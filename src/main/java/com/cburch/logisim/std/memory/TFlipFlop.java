@@ -11,6 +11,7 @@ package com.cburch.logisim.std.memory;
 
 import static com.cburch.logisim.std.Strings.S;
 
+import com.cburch.logisim.circuit.LevelizedModel;
 import com.cburch.logisim.data.Value;
 import com.cburch.logisim.gui.icons.FlipFlopIcon;
 import com.cburch.logisim.instance.Port;
@@ -59,6 +60,25 @@ public class TFlipFlop extends AbstractFlipFlop {
     }
   }
 
+  // T toggles only when it is true
+  private static final byte[] TOGGLE = {
+    LevelizedModel.FALSE, LevelizedModel.TRUE, LevelizedModel.FALSE, LevelizedModel.FALSE
+  };
+  // an unknown value counts as false
+  private static final byte[] START = {
+    LevelizedModel.FALSE, LevelizedModel.TRUE, LevelizedModel.FALSE, LevelizedModel.ERROR
+  };
+
+  @Override
+  protected int compileNextValue(LevelizedModel.Compiler compiler, int[] inputs, int current)
+      throws LevelizedModel.UnsupportedDesignException {
+    final var nets = compiler.newNets(3);
+    compiler.addMap(inputs[0], TOGGLE, nets[0]);
+    compiler.addMap(current, START, nets[1]);
+    compiler.addGate(LevelizedModel.ODD, new int[] {nets[0], nets[1]}, nets[2]);
+    return nets[2];
+  }
+
   @Override
   protected String getInputName(int index) {
     return "T";
@@ -22,6 +22,7 @@ import com.cburch.logisim.data.Value;
 import com.cburch.logisim.fpga.designrulecheck.CorrectLabel;
 import com.cburch.logisim.gui.icons.PlexerIcon;
 import com.cburch.logisim.instance.Instance;
+import com.cburch.logisim.instance.InstanceConfig;
 import com.cburch.logisim.instance.InstanceFactory;
 import com.cburch.logisim.instance.InstancePainter;
 import com.cburch.logisim.instance.InstanceState;
@@ -114,18 +115,33 @@ public class BitSelector extends InstanceFactory {
     painter.drawPorts();
   }
 
+  private static final class Config {
+    final BitWidth groupBits;
+    final Value unknown;
+    final Value zero;
+
+    Config(AttributeSet attrs) {
+      groupBits = attrs.getValue(GROUP_ATTR);
+      unknown = Value.createUnknown(groupBits);
+      zero = Value.createKnown(groupBits, 0);
+    }
+  }
+
+  private static final InstanceConfig<Config> CONFIG = new InstanceConfig<>(Config::new);
+
   @Override
   public void propagate(InstanceState state) {
     final var data = state.getPortValue(1);
     final var select = state.getPortValue(2);
-    final var groupBits = state.getAttributeValue(GROUP_ATTR);
+    final var config = CONFIG.get(state);
+    final var groupBits = config.groupBits;
     Value group;
     if (!select.isFullyDefined()) {
-      group = Value.createUnknown(groupBits);
+      group = config.unknown;
     } else {
       int shift = (int) select.toLongValue() * groupBits.getWidth();
       if (shift >= data.getWidth()) {
-        group = Value.createKnown(groupBits, 0);
+        group = config.zero;
       } else if (groupBits.getWidth() == 1) {
         group = data.get(shift);
       } else {
@@ -22,6 +22,7 @@ import com.cburch.logisim.data.Value;
 import com.cburch.logisim.fpga.designrulecheck.CorrectLabel;
 import com.cburch.logisim.gui.icons.PlexerIcon;
 import com.cburch.logisim.instance.Instance;
+import com.cburch.logisim.instance.InstanceConfig;
 import com.cburch.logisim.instance.InstanceFactory;
 import com.cburch.logisim.instance.InstancePainter;
 import com.cburch.logisim.instance.InstanceState;
@@ -243,42 +244,47 @@ public class Decoder extends InstanceFactory {
     painter.drawPorts();
   }
 
+  private static final class Config {
+    final int outputs;
+    final boolean enable;
+    final Value others;
+    final Value disabled;
+
+    Config(AttributeSet attrs) {
+      outputs = 1 << attrs.getValue(PlexersLibrary.ATTR_SELECT).getWidth();
+      enable = attrs.getValue(PlexersLibrary.ATTR_ENABLE);
+      others = attrs.getValue(PlexersLibrary.ATTR_TRISTATE) ? Value.UNKNOWN : Value.FALSE;
+      final var opt = attrs.getValue(PlexersLibrary.ATTR_DISABLED);
+      disabled = opt == PlexersLibrary.DISABLED_ZERO ? Value.FALSE : Value.UNKNOWN;
+    }
+  }
+
+  private static final InstanceConfig<Config> CONFIG = new InstanceConfig<>(Config::new);
+
   @Override
   public void propagate(InstanceState state) {
     // get attributes
-    final var data = BitWidth.ONE;
-    final var select = state.getAttributeValue(PlexersLibrary.ATTR_SELECT);
-    final var threeState = state.getAttributeValue(PlexersLibrary.ATTR_TRISTATE);
-    final var enable = state.getAttributeValue(PlexersLibrary.ATTR_ENABLE);
-    var outputs = 1 << select.getWidth();
-
-    // determine default output values
-    Value others; // the default output
-    if (threeState) {
-      others = Value.UNKNOWN;
-    } else {
-      others = Value.FALSE;
-    }
+    final var config = CONFIG.get(state);
+    final var outputs = config.outputs;
 
     // determine selected output value
+    var others = config.others; // the default output
     var outIndex = -1; // the special output
     Value out = null;
-    final var en = enable ? state.getPortValue(outputs + 1) : Value.TRUE;
+    final var en = config.enable ? state.getPortValue(outputs + 1) : Value.TRUE;
     if (en == Value.FALSE) {
-      Object opt = state.getAttributeValue(PlexersLibrary.ATTR_DISABLED);
-      final var base = opt == PlexersLibrary.DISABLED_ZERO ? Value.FALSE : Value.UNKNOWN;
-      others = Value.repeat(base, data.getWidth());
+      others = config.disabled;
     } else if (en == Value.ERROR && state.isPortConnected(outputs + 1)) {
-      others = Value.createError(data);
+      others = Value.ERROR;
     } else {
       final var sel = state.getPortValue(outputs);
       if (sel.isFullyDefined()) {
         outIndex = (int) sel.toLongValue();
         out = Value.TRUE;
       } else if (sel.isErrorValue()) {
-        others = Value.createError(data);
+        others = Value.ERROR;
       } else {
-        others = Value.createUnknown(data);
+        others = Value.UNKNOWN;
       }
     }
 
@@ -288,6 +294,7 @@ public class Decoder extends InstanceFactory {
     }
   }
 
+
   private void updatePorts(Instance instance) {
     final var facing = instance.getAttributeValue(StdAttr.FACING);
     Object selectLoc = instance.getAttributeValue(StdAttr.SELECT_LOC);
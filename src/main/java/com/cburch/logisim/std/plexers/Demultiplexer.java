@@ -22,6 +22,7 @@ import com.cburch.logisim.data.Value;
 import com.cburch.logisim.fpga.designrulecheck.CorrectLabel;
 import com.cburch.logisim.gui.icons.PlexerIcon;
 import com.cburch.logisim.instance.Instance;
+import com.cburch.logisim.instance.InstanceConfig;
 import com.cburch.logisim.instance.InstanceFactory;
 import com.cburch.logisim.instance.InstancePainter;
 import com.cburch.logisim.instance.InstanceState;
@@ -244,40 +245,56 @@ public class Demultiplexer extends InstanceFactory {
     painter.drawPorts();
   }
 
+  private static final class Config {
+    final int outputs;
+    final boolean enable;
+    final int input;
+    final Value others;
+    final Value disabled;
+    final Value error;
+    final Value unknown;
+
+    Config(AttributeSet attrs) {
+      final var data = attrs.getValue(StdAttr.WIDTH);
+      outputs = 1 << attrs.getValue(PlexersLibrary.ATTR_SELECT).getWidth();
+      enable = attrs.getValue(PlexersLibrary.ATTR_ENABLE);
+      input = outputs + (enable ? 2 : 1);
+      final var threeState = attrs.getValue(PlexersLibrary.ATTR_TRISTATE);
+      others = threeState ? Value.createUnknown(data) : Value.createKnown(data, 0);
+      final var opt = attrs.getValue(PlexersLibrary.ATTR_DISABLED);
+      final var base = opt == PlexersLibrary.DISABLED_ZERO ? Value.FALSE : Value.UNKNOWN;
+      disabled = Value.repeat(base, data.getWidth());
+      error = Value.createError(data);
+      unknown = Value.createUnknown(data);
+    }
+  }
+
+  private static final InstanceConfig<Config> CONFIG = new InstanceConfig<>(Config::new);
+
   @Override
   public void propagate(InstanceState state) {
     // get attributes
-    BitWidth data = state.getAttributeValue(StdAttr.WIDTH);
-    BitWidth select = state.getAttributeValue(PlexersLibrary.ATTR_SELECT);
-    Boolean threeState = state.getAttributeValue(PlexersLibrary.ATTR_TRISTATE);
-    boolean enable = state.getAttributeValue(PlexersLibrary.ATTR_ENABLE);
-    int outputs = 1 << select.getWidth();
-    Value en = enable ? state.getPortValue(outputs + 1) : Value.TRUE;
+    final var config = CONFIG.get(state);
+    final var outputs = config.outputs;
+    final var en = config.enable ? state.getPortValue(outputs + 1) : Value.TRUE;
 
     // determine output values
-    Value others; // the default output
-    if (threeState) {
-      others = Value.createUnknown(data);
-    } else {
-      others = Value.createKnown(data, 0);
-    }
-    int outIndex = -1; // the special output
+    var others = config.others; // the default output
+    var outIndex = -1; // the special output
     Value out = null;
     if (en == Value.FALSE) {
-      Object opt = state.getAttributeValue(PlexersLibrary.ATTR_DISABLED);
-      Value base = opt == PlexersLibrary.DISABLED_ZERO ? Value.FALSE : Value.UNKNOWN;
-      others = Value.repeat(base, data.getWidth());
+      others = config.disabled;
     } else if (en == Value.ERROR && state.isPortConnected(outputs + 1)) {
-      others = Value.createError(data);
+      others = config.error;
     } else {
       final var sel = state.getPortValue(outputs);
       if (sel.isFullyDefined()) {
         outIndex = (int) sel.toLongValue();
-        out = state.getPortValue(outputs + (enable ? 2 : 1));
+        out = state.getPortValue(config.input);
       } else if (sel.isErrorValue()) {
-        others = Value.createError(data);
+        others = config.error;
       } else {
-        others = Value.createUnknown(data);
+        others = config.unknown;
       }
     }
 
@@ -287,6 +304,7 @@ public class Demultiplexer extends InstanceFactory {
     }
   }
 
+
   private void updatePorts(Instance instance) {
     final var facing = instance.getAttributeValue(StdAttr.FACING);
     Object selectLoc = instance.getAttributeValue(StdAttr.SELECT_LOC);
@@ -22,6 +22,7 @@ import com.cburch.logisim.data.Value;
 import com.cburch.logisim.fpga.designrulecheck.CorrectLabel;
 import com.cburch.logisim.gui.icons.PlexerIcon;
 import com.cburch.logisim.instance.Instance;
+import com.cburch.logisim.instance.InstanceConfig;
 import com.cburch.logisim.instance.InstanceFactory;
 import com.cburch.logisim.instance.InstancePainter;
 import com.cburch.logisim.instance.InstanceState;
@@ -259,31 +260,50 @@ public class Multiplexer extends InstanceFactory {
     painter.drawPorts();
   }
 
+  private static final class Config {
+    final int inputs;
+    final boolean enable;
+    final int output;
+    final Value disabled;
+    final Value error;
+    final Value unknown;
+
+    Config(AttributeSet attrs) {
+      final var data = attrs.getValue(StdAttr.WIDTH);
+      inputs = 1 << attrs.getValue(PlexersLibrary.ATTR_SELECT).getWidth();
+      enable = attrs.getValue(PlexersLibrary.ATTR_ENABLE);
+      output = inputs + (enable ? 2 : 1);
+      final var opt = attrs.getValue(PlexersLibrary.ATTR_DISABLED);
+      final var base = opt == PlexersLibrary.DISABLED_ZERO ? Value.FALSE : Value.UNKNOWN;
+      disabled = Value.repeat(base, data.getWidth());
+      error = Value.createError(data);
+      unknown = Value.createUnknown(data);
+    }
+  }
+
+  private static final InstanceConfig<Config> CONFIG = new InstanceConfig<>(Config::new);
+
   @Override
   public void propagate(InstanceState state) {
-    final var data = state.getAttributeValue(StdAttr.WIDTH);
-    final var select = state.getAttributeValue(PlexersLibrary.ATTR_SELECT);
-    final var enable = state.getAttributeValue(PlexersLibrary.ATTR_ENABLE);
-    final var inputs = 1 << select.getWidth();
-    final var en = enable ? state.getPortValue(inputs + 1) : Value.TRUE;
+    final var config = CONFIG.get(state);
+    final var inputs = config.inputs;
+    final var en = config.enable ? state.getPortValue(inputs + 1) : Value.TRUE;
     Value out;
     if (en == Value.FALSE) {
-      Object opt = state.getAttributeValue(PlexersLibrary.ATTR_DISABLED);
-      final var base = opt == PlexersLibrary.DISABLED_ZERO ? Value.FALSE : Value.UNKNOWN;
-      out = Value.repeat(base, data.getWidth());
+      out = config.disabled;
     } else if (en == Value.ERROR && state.isPortConnected(inputs + 1)) {
-      out = Value.createError(data);
+      out = config.error;
     } else {
       final var sel = state.getPortValue(inputs);
       if (sel.isFullyDefined()) {
         out = state.getPortValue((int) sel.toLongValue());
       } else if (sel.isErrorValue()) {
-        out = Value.createError(data);
+        out = config.error;
       } else {
-        out = Value.createUnknown(data);
+        out = config.unknown;
       }
     }
-    state.setPort(inputs + (enable ? 2 : 1), out, PlexersLibrary.DELAY);
+    state.setPort(config.output, out, PlexersLibrary.DELAY);
   }
 
   private void updatePorts(Instance instance) {
@@ -19,6 +19,7 @@ import com.cburch.logisim.data.Direction;
 import com.cburch.logisim.data.Value;
 import com.cburch.logisim.gui.icons.ArithmeticIcon;
 import com.cburch.logisim.instance.Instance;
+import com.cburch.logisim.instance.InstanceConfig;
 import com.cburch.logisim.instance.InstanceFactory;
 import com.cburch.logisim.instance.InstancePainter;
 import com.cburch.logisim.instance.InstanceState;
@@ -126,16 +127,33 @@ public class PriorityEncoder extends InstanceFactory {
     painter.drawPorts();
   }
 
+  private static final class Config {
+    final BitWidth select;
+    final Value unknown;
+    final Value disabled;
+
+    Config(AttributeSet attrs) {
+      select = attrs.getValue(PlexersLibrary.ATTR_SELECT);
+      unknown = Value.createUnknown(select);
+      final var opt = attrs.getValue(PlexersLibrary.ATTR_DISABLED);
+      final var base = opt == PlexersLibrary.DISABLED_ZERO ? Value.FALSE : Value.UNKNOWN;
+      disabled = Value.repeat(base, select.getWidth());
+    }
+  }
+
+  private static final InstanceConfig<Config> CONFIG = new InstanceConfig<>(Config::new);
+
   @Override
   public void propagate(InstanceState state) {
-    final var select = state.getAttributeValue(PlexersLibrary.ATTR_SELECT);
+    final var config = CONFIG.get(state);
+    final var select = config.select;
     var n = 1 << select.getWidth();
     final var enabled = state.getPortValue(n + EN_IN) != Value.FALSE;
 
     int out = -1;
     Value outDefault;
     if (enabled) {
-      outDefault = Value.createUnknown(select);
+      outDefault = config.unknown;
       for (int i = n - 1; i >= 0; i--) {
         if (state.getPortValue(i) == Value.TRUE) {
           out = i;
@@ -143,9 +161,7 @@ public class PriorityEncoder extends InstanceFactory {
         }
       }
     } else {
-      Object opt = state.getAttributeValue(PlexersLibrary.ATTR_DISABLED);
-      Value base = opt == PlexersLibrary.DISABLED_ZERO ? Value.FALSE : Value.UNKNOWN;
-      outDefault = Value.repeat(base, select.getWidth());
+      outDefault = config.disabled;
     }
     if (out < 0) {
       state.setPort(n + OUT, outDefault, PlexersLibrary.DELAY);
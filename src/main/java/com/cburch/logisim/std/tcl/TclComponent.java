@@ -12,7 +12,6 @@ package com.cburch.logisim.std.tcl;
 import com.cburch.logisim.data.AttributeSet;
 import com.cburch.logisim.data.BitWidth;
 import com.cburch.logisim.data.Bounds;
-import com.cburch.logisim.data.Value;
 import com.cburch.logisim.gui.icons.ArithmeticIcon;
 import com.cburch.logisim.instance.Instance;
 import com.cburch.logisim.instance.InstanceFactory;
@@ -23,6 +22,7 @@ import com.cburch.logisim.instance.StdAttr;
 import com.cburch.logisim.util.GraphicsUtil;
 import com.cburch.logisim.util.StringGetter;
 import com.cburch.logisim.util.StringUtil;
+import com.cburch.logisim.vhdl.sim.CosimChannel;
 import java.awt.Color;
 import java.awt.Font;
 import java.util.Arrays;
@@ -197,15 +197,19 @@ public abstract class TclComponent extends InstanceFactory {
      * enought You may change this behavior, but blocking here seemed bad to
      * me
      */
-    if (tclComponentData.isConnected()) {
-
-      /* Send port values to the TCL wrapper */
-      for (final var p : state.getInstance().getPorts()) {
-        final var index = state.getPortIndex(p);
-        final var val = state.getPortValue(index);
-        final var message = p.getType() + ":" + p.getToolTip() + ":" + val.toBinaryString() + ":" + index;
-
-        tclComponentData.send(message);
+    final var channel = tclComponentData.getChannel();
+    if (tclComponentData.isConnected() && channel != null) {
+
+      /* Send the input values that changed to the TCL wrapper */
+      final var ports = state.getInstance().getPorts();
+      final var ids = new int[ports.size()];
+      for (var index = 0; index < ids.length; index++) {
+        final var port = ports.get(index);
+        ids[index] =
+            channel.getId(port.getToolTip(), port.getType(), port.getFixedBitWidth().getWidth());
+        if (CosimChannel.isInput(port.getType())) {
+          channel.drive(ids[index], state.getPortValue(index));
+        }
       }
 
       /*
@@ -214,70 +218,15 @@ public abstract class TclComponent extends InstanceFactory {
        * tick, simply send the updated obs to the console.
        */
       if (tclComponentData.isNewTick()) {
-        tclComponentData.send("sync_force");
-        getPortsFromServer(state, tclComponentData);
-      } else {
-        tclComponentData.send("sync_examine");
-        String serverResponse;
-
-        /* Ignore all messages until "sync" is recieved */
-        while ((serverResponse = tclComponentData.receive()) != null
-            && serverResponse.length() > 0
-            && !serverResponse.equals("sync")) ;
-      }
-    }
-  }
-
-  void getPortsFromServer(InstanceState state, TclComponentData tclComponentData) {
-    String serverResponse;
-    while ((serverResponse = tclComponentData.receive()) != null
-        && serverResponse.length() > 0
-        && !serverResponse.equals("sync")) {
-
-      final var parameters = serverResponse.split(":");
-
-      /* Skip if we receive crap, still better than an out of range */
-      if (parameters.length < 2) continue;
-
-      var busValue = parameters[1];
-      final var portId = Integer.parseInt(parameters[2]);
-
-      // Expected response width
-      final var width = state.getFactory().getPorts().get(portId).getFixedBitWidth().getWidth();
-
-      /*
-       * If the received string is too long, cut the leftmost part to
-       * match the expected length
-       */
-      if (busValue.length() > width) busValue = busValue.substring(busValue.length() - width);
-
-      /*
-       * If the received value is not wide enough, complete with X on
-       * the MSB
-       */
-      final var vectorValues = new Value[width];
-      for (var i = width - 1; i >= busValue.length(); i--) {
-        vectorValues[i] = Value.UNKNOWN;
-      }
-
-      /* Transform char to Logisim Value */
-      var idx = busValue.length() - 1;
-      for (final var bit : busValue.toCharArray()) {
-
-        try {
-          vectorValues[idx] = switch (Character.getNumericValue(bit)) {
-            case 0 -> Value.FALSE;
-            case 1 -> Value.TRUE;
-            default -> Value.UNKNOWN;
-          };
-        } catch (NumberFormatException e) {
-          vectorValues[idx] = Value.ERROR;
+        if (!channel.exchange(CosimChannel.STEP)) return;
+        for (var index = 0; index < ids.length; index++) {
+          if (!CosimChannel.isOutput(ports.get(index).getType())) continue;
+          final var value = channel.getReceived(ids[index]);
+          if (value != null) state.setPort(index, value, 1);
         }
-        idx--;
+      } else if (channel.hasPendingChanges()) {
+        channel.exchange(CosimChannel.EXAMINE);
       }
-
-      /* Affect the value to the port */
-      state.setPort(portId, Value.create(vectorValues), 1);
     }
   }
 
@@ -14,6 +14,7 @@ import com.cburch.logisim.instance.InstanceData;
 import com.cburch.logisim.instance.InstanceState;
 import com.cburch.logisim.instance.InstanceStateImpl;
 import com.cburch.logisim.util.SocketClient;
+import com.cburch.logisim.vhdl.sim.CosimChannel;
 
 /**
  * The TCL components needs some activity for each instance of component. Here we extend the
@@ -41,6 +42,8 @@ public class TclComponentData implements InstanceData {
 
   private TclWrapperListenerThread tclWrapperListenerThread;
 
+  private volatile CosimChannel channel;
+
   private final TclWrapper tclWrapper;
 
   private final InstanceState instanceState;
@@ -99,12 +102,9 @@ public class TclComponentData implements InstanceData {
     return newTick;
   }
 
-  public String receive() {
-    return tclWrapperListenerThread.receive();
-  }
-
-  public void send(String message) {
-    tclClient.send(message);
+  /** Returns the channel to the TCL wrapper, or null if it was not started yet. */
+  public CosimChannel getChannel() {
+    return channel;
   }
 
   public void tclWrapperStartCallback() {
@@ -116,5 +116,6 @@ public class TclComponentData implements InstanceData {
             tclClient,
             ((InstanceStateImpl) instanceState).getCircuitState().getProject().getSimulator());
     tclWrapperListenerThread.start();
+    channel = new CosimChannel(tclClient, tclWrapperListenerThread::receive);
   }
 }
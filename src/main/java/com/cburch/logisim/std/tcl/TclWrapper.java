@@ -11,6 +11,7 @@ package com.cburch.logisim.std.tcl;
 
 import com.cburch.logisim.gui.generic.OptionPane;
 import com.cburch.logisim.tools.MessageBox;
+import com.cburch.logisim.vhdl.sim.CosimChannel;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
@@ -182,7 +183,7 @@ public class TclWrapper {
   }
 
   public void stop() {
-    tclConsole.send("end");
+    tclConsole.getTclClient().sendFrame(new byte[] {CosimChannel.END});
     try {
       tclConsole.getTclClient().getSocket().close();
     } catch (IOException e) {
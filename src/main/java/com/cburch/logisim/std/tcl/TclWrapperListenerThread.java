@@ -12,57 +12,60 @@ package com.cburch.logisim.std.tcl;
 import com.cburch.logisim.circuit.Simulator;
 import com.cburch.logisim.util.SocketClient;
 import com.cburch.logisim.util.UniquelyNamedThread;
-import java.util.LinkedList;
+import com.cburch.logisim.vhdl.sim.CosimChannel;
+import java.util.concurrent.LinkedBlockingQueue;
 
 public class TclWrapperListenerThread extends UniquelyNamedThread {
 
+  // queued when the socket closes, so a blocked receive returns
+  private static final byte[] CLOSED = new byte[0];
+
   final SocketClient socket;
-  final LinkedList<String> messages;
+  final LinkedBlockingQueue<byte[]> messages;
   final Simulator sim;
 
-  Boolean socketOpen = true;
-
   TclWrapperListenerThread(SocketClient socket, Simulator simulator) {
     super("TclWrapperListenerThread");
     this.socket = socket;
-    this.messages = new LinkedList<>();
+    this.messages = new LinkedBlockingQueue<>();
     this.sim = simulator;
   }
 
   /**
-   * Get message from TCL wrapper Messages ar in the lister buffer Read is blocking, unblocks if
-   * socket closes
+   * Get the next frame from the TCL wrapper. Read is blocking, unblocks if the socket closes.
    *
-   * @return The next message
+   * @return The next frame, or null if the socket is closed
    */
-  public String receive() {
-
-    while (socketOpen && messages.size() < 1) {
-      try {
-        sleep(100, 0);
-      } catch (InterruptedException e) {
-        e.printStackTrace();
+  public byte[] receive() {
+    try {
+      final var frame = messages.take();
+      if (frame == CLOSED) {
+        // leave it for the next caller
+        messages.add(CLOSED);
+        return null;
       }
+      return frame;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
     }
-
-    return messages.isEmpty() ? null : messages.pop();
   }
 
   @Override
   public void run() {
-    String line;
+    byte[] frame;
 
-    /* Continuously receive TCL wrapper messages */
-    while ((line = socket.receive()) != null) {
+    /* Continuously receive TCL wrapper frames */
+    while ((frame = socket.receiveFrame()) != null) {
 
-      /* Stock the messages in temp buffer or tick simulation if asked */
-      if (line.equals("run")) {
+      /* Queue the answers, or tick simulation if asked */
+      if (frame.length > 0 && frame[0] == CosimChannel.TICK) {
         sim.tick(1);
       } else {
-        messages.add(line);
+        messages.add(frame);
       }
     }
 
-    socketOpen = false;
+    messages.add(CLOSED);
   }
 }
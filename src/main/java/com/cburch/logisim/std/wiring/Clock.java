@@ -12,6 +12,7 @@ package com.cburch.logisim.std.wiring;
 import static com.cburch.logisim.std.Strings.S;
 
 import com.cburch.logisim.circuit.CircuitState;
+import com.cburch.logisim.circuit.LevelizedModel;
 import com.cburch.logisim.circuit.RadixOption;
 import com.cburch.logisim.comp.Component;
 import com.cburch.logisim.data.Attribute;
@@ -276,6 +277,19 @@ public class Clock extends InstanceFactory {
     painter.drawPorts();
   }
 
+  @Override
+  protected Object getInstanceFeature(Instance instance, Object key) {
+    if (key == LevelizedModel.class) {
+      return (LevelizedModel)
+          compiler -> {
+            final var state = compiler.getInstanceState();
+            final var nets = compiler.getNets(instance.getLocation(), 1);
+            compiler.addSource(nets, () -> getState(state).sending);
+          };
+    }
+    return super.getInstanceFeature(instance, key);
+  }
+
   @Override
   public void propagate(InstanceState state) {
     Value val = state.getPortValue(0);
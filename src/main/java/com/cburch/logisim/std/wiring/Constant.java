@@ -13,6 +13,7 @@ import static com.cburch.logisim.std.Strings.S;
 
 import com.cburch.logisim.analyze.model.Expressions;
 import com.cburch.logisim.circuit.ExpressionComputer;
+import com.cburch.logisim.circuit.LevelizedModel;
 import com.cburch.logisim.data.AbstractAttributeSet;
 import com.cburch.logisim.data.Attribute;
 import com.cburch.logisim.data.AttributeSet;
@@ -159,6 +160,18 @@ public class Constant extends InstanceFactory {
   @Override
   protected Object getInstanceFeature(Instance instance, Object key) {
     if (key == ExpressionComputer.class) return new ConstantExpression(instance);
+    if (key == LevelizedModel.class) {
+      return (LevelizedModel)
+          compiler -> {
+            final var width = instance.getAttributeValue(StdAttr.WIDTH);
+            final var value = Value.createKnown(width, instance.getAttributeValue(ATTR_VALUE));
+            final var nets = compiler.getNets(instance.getPortLocation(0), width.getWidth());
+            for (var i = 0; i < nets.length; i++) {
+              compiler.addConstant(
+                  nets[i], value.get(i) == Value.TRUE ? LevelizedModel.TRUE : LevelizedModel.FALSE);
+            }
+          };
+    }
     return super.getInstanceFeature(instance, key);
   }
 
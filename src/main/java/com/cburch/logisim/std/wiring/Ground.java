@@ -11,6 +11,7 @@ package com.cburch.logisim.std.wiring;
 
 import static com.cburch.logisim.std.Strings.S;
 
+import com.cburch.logisim.circuit.LevelizedModel;
 import com.cburch.logisim.circuit.Wire;
 import com.cburch.logisim.data.Attribute;
 import com.cburch.logisim.data.AttributeSet;
@@ -106,6 +107,20 @@ public class Ground extends InstanceFactory {
     painter.drawPorts();
   }
 
+  @Override
+  protected Object getInstanceFeature(Instance instance, Object key) {
+    if (key == LevelizedModel.class) {
+      return (LevelizedModel)
+          compiler -> {
+            final var width = instance.getAttributeValue(StdAttr.WIDTH).getWidth();
+            for (final var net : compiler.getNets(instance.getPortLocation(0), width)) {
+              compiler.addConstant(net, LevelizedModel.FALSE);
+            }
+          };
+    }
+    return super.getInstanceFeature(instance, key);
+  }
+
   @Override
   public void propagate(InstanceState state) {
     BitWidth width = state.getAttributeValue(StdAttr.WIDTH);
@@ -16,6 +16,7 @@ import com.cburch.contracts.BaseKeyListenerContract;
 import com.cburch.contracts.BaseWindowFocusListenerContract;
 import com.cburch.logisim.LogisimVersion;
 import com.cburch.logisim.circuit.CircuitState;
+import com.cburch.logisim.circuit.LevelizedModel;
 import com.cburch.logisim.circuit.RadixOption;
 import com.cburch.logisim.circuit.Wire;
 import com.cburch.logisim.comp.EndData;
@@ -852,6 +853,54 @@ public class Pin extends InstanceFactory {
     return attrs.type != EndData.OUTPUT_ONLY;
   }
 
+  // how an input pin in a subcircuit passes on the bits from its port, as setValue and propagate
+  private static final byte[] PASS_PULL_UP = {0, 1, 1, 1};
+  private static final byte[] PASS_PULL_DOWN = {0, 1, 0, 0};
+  private static final byte[] PASS_TWO_STATE = {0, 1, 0, 3};
+  private static final byte[] PASS_THREE_STATE = {0, 1, 2, 3};
+
+  @Override
+  protected Object getInstanceFeature(Instance instance, Object key) {
+    if (key == LevelizedModel.class) {
+      return (LevelizedModel) compiler -> compileLevelized(instance, compiler);
+    }
+    return super.getInstanceFeature(instance, key);
+  }
+
+  private void compileLevelized(Instance instance, LevelizedModel.Compiler compiler)
+      throws LevelizedModel.UnsupportedDesignException {
+    final var attrs = (PinAttributes) instance.getAttributeSet();
+    final var nets = compiler.getNets(instance.getPortLocation(0), attrs.width.getWidth());
+    if (compiler.isCircuitRoot()) {
+      // the values of output pins in the root circuit are read from the wires
+      if (attrs.type == EndData.OUTPUT_ONLY) return;
+      final var state = compiler.getInstanceState();
+      final var pullTo =
+          attrs.pull == PULL_UP ? Value.TRUE : attrs.pull == PULL_DOWN ? Value.FALSE : null;
+      compiler.addSource(
+          nets,
+          () -> {
+            final var value = getValue(state);
+            return pullTo == null ? value : pull2(value, attrs.width, pullTo);
+          });
+      return;
+    }
+    final var parent = compiler.getParentNets();
+    if (attrs.type == EndData.OUTPUT_ONLY) {
+      for (var b = 0; b < nets.length; b++) compiler.addMap(nets[b], PASS_THREE_STATE, parent[b]);
+      return;
+    }
+    final byte[] table;
+    if (attrs.pull == PULL_UP) {
+      table = PASS_PULL_UP;
+    } else if (attrs.pull == PULL_DOWN) {
+      table = PASS_PULL_DOWN;
+    } else {
+      table = attrs.threeState ? PASS_THREE_STATE : PASS_TWO_STATE;
+    }
+    for (var b = 0; b < nets.length; b++) compiler.addMap(parent[b], table, nets[b]);
+  }
+
   private void drawNewStyleValue(
       InstancePainter painter, int width, int height, boolean isOutput, boolean isGhost) {
     /* Note: we are here in an translated environment the point (0,0) presents the pin location*/
@@ -9,19 +9,20 @@
 
 package com.cburch.logisim.util;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
-import java.io.PrintWriter;
 import java.net.ServerSocket;
 import java.net.Socket;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Socket client to talk to the binder.
+ * Socket client to talk to the binder. The messages are frames: a 4-byte length followed by that
+ * many bytes.
  *
  * @author christian.mueller@heig-vd.ch
  */
@@ -35,8 +36,8 @@ public class SocketClient {
 
   private Socket socket;
 
-  private BufferedReader socketReader;
-  private PrintWriter socketWriter;
+  private DataInputStream socketReader;
+  private DataOutputStream socketWriter;
 
   public SocketClient() {
 
@@ -67,22 +68,30 @@ public class SocketClient {
     return connected;
   }
 
-  public String receive() {
+  /** Returns the next frame, or null if the connection is closed. */
+  public byte[] receiveFrame() {
 
     try {
-      return socketReader.readLine();
+      final var frame = new byte[socketReader.readInt()];
+      socketReader.readFully(frame);
+      return frame;
+    } catch (EOFException e) {
+      return null;
     } catch (Exception e) {
       logger.error("Cannot read from socket : {}", e.getMessage());
       return null;
     }
   }
 
-  public void send(String message) {
+  public synchronized void sendFrame(byte[] frame) {
+    if (!isConnected()) return;
 
     try {
-      socketWriter.println(message);
+      socketWriter.writeInt(frame.length);
+      socketWriter.write(frame);
+      socketWriter.flush();
     } catch (Exception e) {
-      logger.error("Cannot write {} to socket {}", message, e.getMessage());
+      logger.error("Cannot write frame to socket {}", e.getMessage());
     }
   }
 
@@ -91,11 +100,9 @@ public class SocketClient {
     try {
       socket = server.accept();
 
-      socketReader = new BufferedReader(new InputStreamReader(socket.getInputStream()));
-
-      socketWriter =
-          new PrintWriter(
-              new BufferedWriter(new OutputStreamWriter(socket.getOutputStream())), true);
+      socket.setTcpNoDelay(true);
+      socketReader = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+      socketWriter = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
 
       connected = true;
       return;
@@ -185,57 +185,7 @@ public class VhdlEntity extends InstanceFactory implements HdlModelListener {
 
     if (state.getProject().getVhdlSimulator().isEnabled()
         && state.getProject().getVhdlSimulator().isRunning()) {
-
-      final var vhdlSimulator = state.getProject().getVhdlSimulator();
-
-      for (final var singlePort : state.getInstance().getPorts()) {
-        final var index = state.getPortIndex(singlePort);
-        final var val = state.getPortValue(index);
-        final var vhdlEntityName = getSimName(state.getAttributeSet());
-
-        String message =
-            singlePort.getType()
-                + ":"
-                + vhdlEntityName
-                + "_"
-                + singlePort.getToolTip()
-                + ":"
-                + val.toBinaryString()
-                + ":"
-                + index;
-
-        vhdlSimulator.send(message);
-      }
-
-      vhdlSimulator.send("sync");
-
-      /* Get response from tcl server */
-      String serverResponse;
-      while ((serverResponse = vhdlSimulator.receive()) != null
-          && serverResponse.length() > 0
-          && !serverResponse.equals("sync")) {
-
-        final var parameters = serverResponse.split(":");
-        final var busValue = parameters[1];
-        final var vectorValues = new Value[busValue.length()];
-
-        var idx = busValue.length() - 1;
-        for (final var bit : busValue.toCharArray()) {
-
-          try {
-            vectorValues[idx] = switch (Character.getNumericValue(bit)) {
-              case 0 -> Value.FALSE;
-              case 1 -> Value.TRUE;
-              default -> Value.UNKNOWN;
-            };
-          } catch (NumberFormatException e) {
-            vectorValues[idx] = Value.UNKNOWN;
-          }
-          idx--;
-        }
-
-        state.setPort(Integer.parseInt(parameters[2]), Value.create(vectorValues), 1);
-      }
+      state.getProject().getVhdlSimulator().propagate(state, getSimName(state.getAttributeSet()));
 
       /* VhdlSimulation stopped/disabled */
     } else {
@@ -350,5 +300,7 @@ public class VhdlEntity extends InstanceFactory implements HdlModelListener {
   @Override
   public void removeComponent(Circuit circ, Component c, CircuitState state) {
     removeCircuitUsing(c);
+    if (state != null && state.getProject() != null)
+      state.getProject().getVhdlSimulator().removeComponent(c);
   }
 }
@@ -11,6 +11,7 @@ package com.cburch.logisim.vhdl.gui;
 
 import com.cburch.logisim.proj.Project;
 import com.cburch.logisim.util.SmartScroller;
+import com.cburch.logisim.vhdl.sim.CosimChannel;
 import com.cburch.logisim.vhdl.sim.VhdlSimulatorListener;
 import com.cburch.logisim.vhdl.sim.VhdlSimulatorTop;
 import java.awt.BorderLayout;
@@ -24,6 +25,7 @@ import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JTextArea;
+import javax.swing.Timer;
 import javax.swing.border.EmptyBorder;
 
 public class VhdlSimulatorConsole extends JPanel {
@@ -67,12 +69,25 @@ public class VhdlSimulatorConsole extends JPanel {
         case RUNNING -> color = new Color(40, 180, 40);
       }
 
+      if (vsim.isRunning()) {
+        rateTimer.start();
+      } else {
+        rateTimer.stop();
+        label.setText(TITLE);
+      }
+
       this.repaint();
     }
   }
 
   private static final long serialVersionUID = 1L;
+  private static final String TITLE = "VHDL simulator log";
   private final JLabel label = new JLabel();
+  // shows the throughput of the simulator channel once per second
+  private final Timer rateTimer = new Timer(1000, e -> updateRate());
+  private CosimChannel rateChannel = null;
+  private long lastRoundTrips = 0;
+  private long lastValues = 0;
   private final JScrollPane log = new JScrollPane();
   private final JTextArea logContent = new JTextArea();
   private final VhdlSimState vhdlSimState;
@@ -85,7 +100,7 @@ public class VhdlSimulatorConsole extends JPanel {
     this.setLayout(new BorderLayout());
 
     /* Add title */
-    label.setText("VHDL simulator log");
+    label.setText(TITLE);
     this.add(label, BorderLayout.PAGE_START);
 
     /* Add console log */
@@ -103,6 +118,27 @@ public class VhdlSimulatorConsole extends JPanel {
     this.add(vhdlSimState, BorderLayout.PAGE_END);
   }
 
+  private void updateRate() {
+    final var channel = project.getVhdlSimulator().getChannel();
+    if (channel == null) {
+      label.setText(TITLE);
+      return;
+    }
+    if (channel != rateChannel) {
+      rateChannel = channel;
+      lastRoundTrips = 0;
+      lastValues = 0;
+    }
+    final var roundTrips = channel.getRoundTrips();
+    final var values = channel.getValuesExchanged();
+    label.setText(
+        String.format(
+            "%s (%d exchanges/s, %d values/s)",
+            TITLE, roundTrips - lastRoundTrips, values - lastValues));
+    lastRoundTrips = roundTrips;
+    lastValues = values;
+  }
+
   public void append(String s) {
     logContent.append(s);
   }
@@ -0,0 +1,252 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.vhdl.sim;
+
+import com.cburch.logisim.comp.EndData;
+import com.cburch.logisim.data.Value;
+import com.cburch.logisim.util.SocketClient;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The co-simulation protocol between Logisim and an external simulator (the QuestaSim binder or
+ * the TCL wrapper). Every message is a frame: a 4-byte big-endian length followed by that many
+ * bytes, of which the first is the command.
+ *
+ * <p>A {@link #STEP} or {@link #EXAMINE} frame holds the signals that were not declared yet (id,
+ * port type, width and name) and then the values of the inputs that changed since the previous
+ * frame (id, length and the bits as characters, most significant first). The simulator answers
+ * with a {@link #VALUES} frame that holds the outputs that changed, in the same format. So a
+ * signal name crosses the socket only once, and a step in which nothing changed costs a few bytes.
+ *
+ * <pre>
+ *   STEP     'F' short nrDecls {short id, byte type, byte width, short len, name}
+ *                short nrValues {short id, byte len, bits}
+ *   VALUES   'S' short nrValues {short id, byte len, bits}
+ * </pre>
+ */
+public class CosimChannel {
+  static final Logger logger = LoggerFactory.getLogger(CosimChannel.class);
+
+  /** Drive the inputs, run the simulation and answer with the changed outputs. */
+  public static final byte STEP = 'F';
+  /** Drive the inputs without running the simulation (TCL components). */
+  public static final byte EXAMINE = 'E';
+  /** Restart the simulation; the simulator forgets which values it has sent. */
+  public static final byte RESTART = 'R';
+  /** End the simulator. */
+  public static final byte END = 'Q';
+  /** The answer of the simulator to a step. */
+  public static final byte VALUES = 'S';
+  /** Sent by the TCL wrapper when the script asks for a clock tick. */
+  public static final byte TICK = 'T';
+
+  private static class Signal {
+    final String name;
+    final int type;
+    final int width;
+    Value sent = null;
+    Value received = null;
+    boolean changed = false;
+
+    Signal(String name, int type, int width) {
+      this.name = name;
+      this.type = type;
+      this.width = width;
+    }
+  }
+
+  private final SocketClient socket;
+  private final Supplier<byte[]> replies;
+  private final ArrayList<Signal> signals = new ArrayList<>();
+  private final HashMap<String, Integer> ids = new HashMap<>();
+  private final ArrayList<Integer> changed = new ArrayList<>();
+  // the signals from this index on have not been declared to the simulator yet
+  private int declared = 0;
+
+  private long roundTrips = 0;
+  private long valuesSent = 0;
+  private long valuesReceived = 0;
+
+  /**
+   * Creates a channel that sends its frames on the socket and takes the answers from the
+   * supplier, which returns null when the connection is lost.
+   */
+  public CosimChannel(SocketClient socket, Supplier<byte[]> replies) {
+    this.socket = socket;
+    this.replies = replies;
+  }
+
+  /** Returns the id of the signal, declaring it with the next step if it is new. */
+  public int getId(String name, int type, int width) {
+    final var id = ids.get(name);
+    if (id != null) return id;
+    signals.add(new Signal(name, type, width));
+    ids.put(name, signals.size() - 1);
+    return signals.size() - 1;
+  }
+
+  /** Sets the value of an input; it is sent with the next step only if it changed. */
+  public void drive(int id, Value value) {
+    final var signal = signals.get(id);
+    if (value.equals(signal.sent)) return;
+    signal.sent = value;
+    if (!signal.changed) {
+      signal.changed = true;
+      changed.add(id);
+    }
+  }
+
+  /** Returns the last value the simulator reported for the output, or null if there is none. */
+  public Value getReceived(int id) {
+    return signals.get(id).received;
+  }
+
+  public boolean hasPendingChanges() {
+    return !changed.isEmpty() || declared < signals.size();
+  }
+
+  /**
+   * Sends the pending declarations and changed inputs, and processes the answer of the simulator.
+   * Returns false if the connection was lost.
+   */
+  public boolean exchange(byte command) {
+    socket.sendFrame(encodeStep(command));
+    valuesSent += changed.size();
+    for (final var id : changed) signals.get(id).changed = false;
+    changed.clear();
+    declared = signals.size();
+    roundTrips++;
+    final var reply = replies.get();
+    if (reply == null) return false;
+    decodeValues(reply);
+    return true;
+  }
+
+  /** Sends a command that has no answer, like {@link #RESTART} or {@link #END}. */
+  public void send(byte command) {
+    socket.sendFrame(new byte[] {command});
+    if (command == RESTART) {
+      // after a restart everything is sent again
+      for (final var signal : signals) {
+        signal.sent = null;
+        signal.received = null;
+        signal.changed = false;
+      }
+      changed.clear();
+      declared = 0;
+    }
+  }
+
+  public long getRoundTrips() {
+    return roundTrips;
+  }
+
+  /** Returns the number of changed values that were sent and received. */
+  public long getValuesExchanged() {
+    return valuesSent + valuesReceived;
+  }
+
+  private byte[] encodeStep(byte command) {
+    final var bytes = new ByteArrayOutputStream();
+    final var out = new DataOutputStream(bytes);
+    try {
+      out.writeByte(command);
+      out.writeShort(signals.size() - declared);
+      for (var id = declared; id < signals.size(); id++) {
+        final var signal = signals.get(id);
+        final var name = signal.name.getBytes(StandardCharsets.US_ASCII);
+        out.writeShort(id);
+        out.writeByte(signal.type);
+        out.writeByte(signal.width);
+        out.writeShort(name.length);
+        out.write(name);
+      }
+      out.writeShort(changed.size());
+      for (final var id : changed) {
+        final var bits = signals.get(id).sent.toBinaryString();
+        out.writeShort(id);
+        out.writeByte(bits.length());
+        out.writeBytes(bits);
+      }
+    } catch (IOException e) {
+      // cannot happen on a byte array
+      throw new IllegalStateException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  private void decodeValues(byte[] frame) {
+    final var in = ByteBuffer.wrap(frame);
+    try {
+      final var command = in.get();
+      if (command != VALUES) {
+        logger.warn("Ignoring a frame with command {} from the simulator", (char) command);
+        return;
+      }
+      final var count = in.getShort();
+      for (var i = 0; i < count; i++) {
+        final var id = in.getShort();
+        final var length = in.get() & 0xff;
+        if (length > in.remaining()) throw new BufferUnderflowException();
+        if (id < 0 || id >= signals.size()) {
+          logger.warn("Ignoring a value for unknown signal {} from the simulator", id);
+          in.position(in.position() + length);
+          continue;
+        }
+        final var signal = signals.get(id);
+        signal.received = toValue(frame, in.position(), length, signal.width);
+        in.position(in.position() + length);
+        valuesReceived++;
+      }
+    } catch (BufferUnderflowException e) {
+      // keep what was read
+      logger.warn("Truncated values frame of {} bytes from the simulator", frame.length);
+    }
+  }
+
+  /**
+   * Converts the bits of a value as sent by the simulator, most significant first. If there are
+   * fewer bits than the width the missing ones are unknown, if there are more the leftmost ones
+   * are dropped. Anything but 0 and 1 is unknown.
+   */
+  static Value toValue(byte[] frame, int offset, int length, int width) {
+    var value = 0L;
+    var unknown = 0L;
+    for (var bit = 0; bit < width; bit++) {
+      final var c = bit < length ? frame[offset + length - 1 - bit] : 'U';
+      if (c == '1') {
+        value |= 1L << bit;
+      } else if (c != '0') {
+        unknown |= 1L << bit;
+      }
+    }
+    return Value.create(width, 0, unknown, value);
+  }
+
+  /** Returns true if the port is driven by Logisim, so its value is sent to the simulator. */
+  public static boolean isInput(int type) {
+    return type == EndData.INPUT_ONLY || type == EndData.INPUT_OUTPUT;
+  }
+
+  /** Returns true if the port is driven by the simulator. */
+  public static boolean isOutput(int type) {
+    return type == EndData.OUTPUT_ONLY || type == EndData.INPUT_OUTPUT;
+  }
+}
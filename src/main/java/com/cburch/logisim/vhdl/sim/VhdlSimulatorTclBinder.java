@@ -174,7 +174,9 @@ public class VhdlSimulatorTclBinder {
     if (!running) return;
 
     /* We ask the binder to end itself */
-    if (vsim.getSocketClient() != null) vsim.getSocketClient().send("end");
+    if (vsim.getSocketClient() != null) {
+      vsim.getSocketClient().sendFrame(new byte[] {CosimChannel.END});
+    }
 
     /* Wait for the process to end */
     /*
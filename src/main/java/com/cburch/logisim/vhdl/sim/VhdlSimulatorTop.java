@@ -14,6 +14,9 @@ import com.cburch.logisim.circuit.CircuitListener;
 import com.cburch.logisim.circuit.CircuitState;
 import com.cburch.logisim.comp.Component;
 import com.cburch.logisim.comp.ComponentFactory;
+import com.cburch.logisim.instance.InstanceComponent;
+import com.cburch.logisim.instance.InstanceState;
+import com.cburch.logisim.instance.InstanceStateImpl;
 import com.cburch.logisim.proj.Project;
 import com.cburch.logisim.std.hdl.VhdlEntityComponent;
 import com.cburch.logisim.util.SocketClient;
@@ -26,6 +29,7 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import javax.help.UnsupportedOperationException;
 import org.slf4j.Logger;
@@ -41,10 +45,19 @@ import org.slf4j.LoggerFactory;
  */
 public class VhdlSimulatorTop implements CircuitListener {
 
+  /** A VHDL component in the simulation, with the ids of its ports on the channel. */
+  private static class Endpoint {
+    CircuitState circuitState;
+    InstanceComponent component;
+    int[] ids;
+  }
+
   private final VhdlSimulatorVhdlTop vhdlTop = new VhdlSimulatorVhdlTop(this);
   private final VhdlSimulatorTclComp tclRun = new VhdlSimulatorTclComp(this);
   private VhdlSimulatorTclBinder tclBinder;
   private final SocketClient socketClient = new SocketClient();
+  private CosimChannel channel = null;
+  private final LinkedHashMap<String, Endpoint> endpoints = new LinkedHashMap<>();
 
   public static final Logger logger = LoggerFactory.getLogger(VhdlSimulatorTop.class);
 
@@ -228,6 +241,11 @@ public class VhdlSimulatorTop implements CircuitListener {
     return socketClient;
   }
 
+  /** Returns the channel to the running simulation, or null if it is not running. */
+  public CosimChannel getChannel() {
+    return channel;
+  }
+
   public State getState() {
     return state;
   }
@@ -269,22 +287,62 @@ public class VhdlSimulatorTop implements CircuitListener {
   }
 
   /**
-   * Receive a message from the VHDL simulator
-   *
-   * @return
+   * Drives the inputs of a VHDL component in the simulation and sets its outputs. All VHDL
+   * components share one simulation, so the changed inputs of all of them are sent together: the
+   * simulation runs once for a step in which several components changed, and the components
+   * whose inputs were already sent take their outputs from the last answer.
    */
-  public String receive() {
-    if (!isRunning()) throw new UnsupportedOperationException();
+  public synchronized void propagate(InstanceState state, String simName) {
+    if (!isRunning() || channel == null) throw new UnsupportedOperationException();
+
+    final var ports = state.getInstance().getPorts();
+    var endpoint = endpoints.get(simName);
+    if (endpoint == null || endpoint.ids.length != ports.size()) {
+      endpoint = new Endpoint();
+      endpoint.ids = new int[ports.size()];
+      for (var index = 0; index < ports.size(); index++) {
+        final var port = ports.get(index);
+        endpoint.ids[index] =
+            channel.getId(
+                simName + "_" + port.getToolTip(),
+                port.getType(),
+                port.getFixedBitWidth().getWidth());
+      }
+      endpoints.put(simName, endpoint);
+    }
+    endpoint.circuitState = ((InstanceStateImpl) state).getCircuitState();
+    endpoint.component = state.getInstance().getComponent();
+
+    for (final var other : endpoints.values()) {
+      for (var index = 0; index < other.ids.length; index++) {
+        if (!CosimChannel.isInput(other.component.getEnd(index).getType())) continue;
+        final var location = other.component.getEnd(index).getLocation();
+        channel.drive(other.ids[index], other.circuitState.getValue(location));
+      }
+    }
+    if (channel.hasPendingChanges() && !channel.exchange(CosimChannel.STEP)) {
+      logger.error("Lost the connection to the VHDL simulator");
+      return;
+    }
 
-    return socketClient.receive();
+    for (var index = 0; index < ports.size(); index++) {
+      if (!CosimChannel.isOutput(ports.get(index).getType())) continue;
+      final var value = channel.getReceived(endpoint.ids[index]);
+      if (value != null) state.setPort(index, value, 1);
+    }
+  }
+
+  /** Removes a deleted VHDL component from the simulation, so its inputs are no longer driven. */
+  public synchronized void removeComponent(Component comp) {
+    endpoints.values().removeIf(endpoint -> endpoint.component == comp);
   }
 
   public void removeVhdlSimStateListener(VhdlSimulatorListener l) {
     listeners.remove(l);
   }
 
-  public void reset() {
-    if (isEnabled()) socketClient.send("restart");
+  public synchronized void reset() {
+    if (isRunning() && channel != null) channel.send(CosimChannel.RESTART);
   }
 
   /** Stop and restart. If not running, just start */
@@ -303,17 +361,6 @@ public class VhdlSimulatorTop implements CircuitListener {
     }
   }
 
-  /**
-   * Send a message to the VHDL simulator
-   *
-   * @param message
-   */
-  public void send(String message) {
-    if (!isRunning()) throw new UnsupportedOperationException();
-
-    socketClient.send(message);
-  }
-
   public void setEnabled(Boolean enable) {
     if (enable) enable();
     else disable();
@@ -371,12 +418,20 @@ public class VhdlSimulatorTop implements CircuitListener {
 
     tclBinder.stop();
     socketClient.stop();
+    synchronized (this) {
+      channel = null;
+      endpoints.clear();
+    }
 
     setState(State.ENABLED);
   }
 
   public void tclStartCallback() {
     socketClient.start();
+    synchronized (this) {
+      channel = new CosimChannel(socketClient, socketClient::receiveFrame);
+      endpoints.clear();
+    }
     setState(State.RUNNING);
   }
 }
@@ -19,55 +19,96 @@
 # Version   Author Date               Description
 # v1.1      CMR    25.06.14           - Exit if socket fails
 # v1.2      CMR    23.07.14           - Better error handling, add reset option
+# v1.3                                - Binary frames, only changed values are sent
 #-------------------------------------------------------------------------------
-set Version 1.2
+set Version 1.3
 
-set msgs {}
 set channel 0
 
+# Declared signals by id, and the output values last sent to Logisim
+array set names {}
+array set types {}
+array set last {}
+
+# A frame is a 4-byte big-endian length followed by the command and its data
+proc read_frame {channel} {
+	set header [read $channel 4]
+	if {[string length $header] < 4} {
+		return ""
+	}
+	binary scan $header I length
+	return [read $channel $length]
+}
+
+proc send_frame {channel body} {
+	puts -nonewline $channel [binary format I [string length $body]]$body
+	flush $channel
+}
+
+# Reads the declarations of a step frame and returns the values as a list of id value
+proc parse_step {frame} {
+	global names types
+
+	set pos 1
+	binary scan $frame @${pos}S count
+	incr pos 2
+	for {set i 0} {$i < $count} {incr i} {
+		binary scan $frame @${pos}SccS id type width length
+		incr pos 6
+		set names($id) [string range $frame $pos [expr {$pos + $length - 1}]]
+		set types($id) $type
+		incr pos $length
+	}
+
+	set values {}
+	binary scan $frame @${pos}S count
+	incr pos 2
+	for {set i 0} {$i < $count} {incr i} {
+		binary scan $frame @${pos}Sc id length
+		incr pos 3
+		lappend values $id [string range $frame $pos [expr {$pos + $length - 1}]]
+		incr pos $length
+	}
+	return $values
+}
+
 proc MessageReceived {channel} {
-	global msgs ;
+	global names types last
 
-	if {[eof $channel] || [catch {gets $channel msg}]} {
+	if {[eof $channel] || [catch {set frame [read_frame $channel]}] || [string length $frame] == 0} {
 		end_binder $channel
-  } else {
-
-		# If end of communication is asked
-		if {$msg == "end"} {
+		return
+	}
 
+	switch -- [string index $frame 0] {
+		Q {
 			# Sim end procedure
 			end_binder $channel
-
-		# When restart is requested
-		} elseif {$msg == "restart"} {
+		}
+		R {
 			puts "Restart simulation"
 			if {[catch {restart -f} errmsg]} {
 				puts "Error at simulation reset: $errmsg"
 			}
-			set msgs {}
-
-		# When a sync is received
-		} elseif {$msg == "sync"} {
-
-			# Drive input signals in simulation
-			foreach msg $msgs {
-
-				# Get parameters from message
-				set signal [split $msg :]
-				set type [lindex $signal 0]
-				set name [lindex $signal 1]
-				set value [lindex $signal 2]
-				set id [lindex $signal 3]
+			# Logisim declares all signals again
+			array unset names
+			array unset types
+			array unset last
+		}
+		F {
+			# Drive the input signals that changed
+			foreach {id value} [parse_step $frame] {
+				set name $names($id)
 
 				# If signal is "in"
-				if {$type == 1} {
+				if {$types($id) == 1} {
 					# Drive simulation signal (force signal, no internal logic changes possible)
 					if {[catch {force -freeze sim:/top_sim/$name $value} errmsg]} {
 						puts "Error forcing simulation signal: $errmsg"
 					}
 
 				# If signal is "inout"
-				} elseif {$type == 3} {
+				} elseif {$types($id) == 3} {
 
 					# Use deposit so value can be changed by internal logic
 					if {[catch {force -deposit sim:/top_sim/$name $value} errmsg]} {
@@ -81,40 +122,27 @@ proc MessageReceived {channel} {
 				puts "Error running simulation: $errmsg"
 			}
 
-			# Read output signals from simulation
-			foreach msg $msgs {
-				# Get signal and value from message
-				set signal [split $msg :]
-				set type [lindex $signal 0]
-				set name [lindex $signal 1]
-				set value [lindex $signal 2]
-				set id [lindex $signal 3]
-
-				# If signal is "out" or "inout"
-				if {$type == 2 || $type == 3} {
-
-					# Read in sim
-					if {[catch {set value [examine sim:/top_sim/$name]} errmsg]} {
-						puts "Error examining simulation signal: $errmsg"
-					} else {
-						# Send to logisim
-						puts $channel [concat $name:$value:$id]
-					}
+			# Send the output signals that changed
+			set count 0
+			set body ""
+			foreach id [array names types] {
+				if {$types($id) != 2 && $types($id) != 3} {
+					continue
 				}
+				if {[catch {set value [examine sim:/top_sim/$names($id)]} errmsg]} {
+					puts "Error examining simulation signal: $errmsg"
+					continue
+				}
+				if {[info exists last($id)] && [string equal $last($id) $value]} {
+					continue
+				}
+				set last($id) $value
+				append body [binary format Sc $id [string length $value]] $value
+				incr count
 			}
-
-			# Send sync to alert logisim of end of step
-			puts $channel "sync"
-			#puts "sent : sync"
-			flush $channel
-
-			set msgs {}
-
-		# If it's a signal, add to list
-		} else {
-			lappend msgs $msg ;
+			send_frame $channel [binary format aS S $count]$body
 		}
-  }
+	}
 }
 
 proc {main} {port} {
@@ -131,6 +159,7 @@ proc {main} {port} {
 		puts "TCL_BINDER_CONNECTED"
 		puts "TCL_BINDER_RUNNING"
 
+		fconfigure $channel -translation binary
 		fileevent $channel readable [list MessageReceived $channel]
 
 		vwait forever
@@ -18,11 +18,16 @@
 # Version   Author Date               Description
 # v1.0      CMR 20.08.2014  Original, copied from questasim_binder
 # v1.1      YSR 26.06.2015  Modifications to support and fix issues with sequential systems
+# v1.2                      Binary frames, only changed values are sent
 #-------------------------------------------------------------------------------
-set Version 1.1
+set Version 1.2
 
 set channel 0
-set msgs {}
+
+# Declared ports by id, and the output values last sent to Logisim
+array set port_names {}
+array set port_types {}
+array set port_last {}
 
 
 
@@ -100,7 +105,7 @@ proc force3 {type signal value} {
 proc run {args} {
 	global channel
 
-	send_socket $channel "run"
+	send_frame $channel T
 }
 
 proc restart {args} {
@@ -133,107 +138,99 @@ proc getIndex {signal} {
 	return $index
 }
 
-proc MessageReceived {channel} {
-	global msgs
+# A frame is a 4-byte big-endian length followed by the command and its data
+proc read_frame {channel} {
+	set header [read $channel 4]
+	if {[string length $header] < 4} {
+		return ""
+	}
+	binary scan $header I length
+	return [read $channel $length]
+}
 
-	if {[eof $channel] || [catch {gets $channel msg}]} {
-		end_binder $channel
-  } else {
+proc send_frame {channel body} {
+	puts -nonewline $channel [binary format I [string length $body]]$body
+	flush $channel
+}
 
-		# If end of communication is asked
-		if {$msg == "end"} {
+# Reads a step frame, sets the inputs that changed and resets the outputs
+proc drive_inputs {frame} {
+	global port_names port_types
+
+	set pos 1
+	binary scan $frame @${pos}S count
+	incr pos 2
+	for {set i 0} {$i < $count} {incr i} {
+		binary scan $frame @${pos}SccS id type width length
+		incr pos 6
+		set port_names($id) [string range $frame $pos [expr {$pos + $length - 1}]]
+		set port_types($id) $type
+		incr pos $length
+	}
 
-			# Sim end procedure
-			end_binder $channel
+	binary scan $frame @${pos}S count
+	incr pos 2
+	for {set i 0} {$i < $count} {incr i} {
+		binary scan $frame @${pos}Sc id length
+		incr pos 3
+		# If signal is "in" or "inout"
+		if {$port_types($id) == 1 || $port_types($id) == 3} {
+			set ::$port_names($id) [string range $frame $pos [expr {$pos + $length - 1}]]
+		}
+		incr pos $length
+	}
 
-		# When a sync_force is received
-		} elseif {$msg == "sync_force"} {
-                        #echo "Recieved sync_force!"
-
-			# Drive input signals in simulation
-			foreach msg $msgs {
-
-				# Get parameters from message
-				set signal [split $msg :]
-				set type [lindex $signal 0]
-				set name [lindex $signal 1]
-				set value [lindex $signal 2]
-				set id [lindex $signal 3]
-
-				global $name
-				# If signal is "in" or "inout"
-				if {$type == 1 || $type == 3} {
-					#echo "Received from Logsim : $name:$value"
-					set $name $value
-				} else {
-					set $name X
-				}
-			}
+	foreach id [array names port_types] {
+		if {$port_types($id) == 2} {
+			set ::$port_names($id) X
+		}
+	}
+}
 
-			logisimForce
+proc MessageReceived {channel} {
+	global port_names port_types port_last
 
-			# Read output signals from simulation
-			foreach msg $msgs {
+	if {[eof $channel] || [catch {set frame [read_frame $channel]}] || [string length $frame] == 0} {
+		end_binder $channel
+		return
+	}
 
-				# Get signal and value from message
-				set signal [split $msg :]
-				set type [lindex $signal 0]
-				set name [lindex $signal 1]
-				set value [lindex $signal 2]
-				set id [lindex $signal 3]
+	switch -- [string index $frame 0] {
+		Q {
+			# Sim end procedure
+			end_binder $channel
+		}
+		F {
+			drive_inputs $frame
 
+			logisimForce
 
-				# If signal is "out" or "inout"
-				if {$type == 2 || $type == 3} {
-					#echo "Send [concat $name:[set $name]:$id] to logisim"
-					# Send to logisim
-					send_socket $channel [concat $name:[set $name]:$id]
+			# Send the output signals that changed
+			set count 0
+			set body ""
+			foreach id [array names port_types] {
+				if {$port_types($id) != 2 && $port_types($id) != 3} {
+					continue
 				}
-			}
-
-			# Send sync to alert logisim of end of step
-			#echo "Send : sync"
-			send_socket $channel "sync"
-
-			set msgs {}
-
-		# When a sync_examine is received
-		} elseif {$msg == "sync_examine"} {
-                        #echo "Recieved sync_examine!"
-
-			# Drive input signals in simulation
-			foreach msg $msgs {
-
-				# Get parameters from message
-				set signal [split $msg :]
-				set type [lindex $signal 0]
-				set name [lindex $signal 1]
-				set value [lindex $signal 2]
-				set id [lindex $signal 3]
-
-				global $name
-				# If signal is "in" or "inout"
-				if {$type == 1 || $type == 3} {
-					#echo "Received from Logsim : $name:$value"
-					set $name $value
-				} else {
-					set $name X
+				set value [set ::$port_names($id)]
+				if {[info exists port_last($id)] && [string equal $port_last($id) $value]} {
+					continue
 				}
+				set port_last($id) $value
+				append body [binary format Sc $id [string length $value]] $value
+				incr count
 			}
+			send_frame $channel [binary format aS S $count]$body
+		}
+		E {
+			drive_inputs $frame
 
 			logisimExamine
 
-			# Send sync to alert logisim of end of step
-			#echo "Send : sync"
-			send_socket $channel "sync"
-
-			set msgs {}
-
-		# If it's a signal, add to list
-		} else {
-			lappend msgs $msg ;
+			# Alert logisim of end of step
+			send_frame $channel [binary format aS S 0]
 		}
-  }
+	}
 }
 
 proc end_binder {channel} {
@@ -245,7 +242,6 @@ proc end_binder {channel} {
 
 proc init_wrapper {} {
 
-	global msgs
 	global argv
 	global channel
 
@@ -262,16 +258,11 @@ proc init_wrapper {} {
 		puts "TCL_WRAPPER_RUNNING"
 	}
 
-	# fconfigure $channel -buffering line
+	fconfigure $channel -translation binary
 	fileevent $channel readable [list MessageReceived $channel]
 
 }
 
-proc send_socket {channel message} {
-	puts $channel $message
-	flush $channel
-}
-
 proc echo {message} {
 	puts "\[TCL\] $message"
 }
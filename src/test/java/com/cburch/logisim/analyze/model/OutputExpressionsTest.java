@@ -0,0 +1,61 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.analyze.model;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.cburch.logisim.TestBase;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.SwingUtilities;
+import org.junit.jupiter.api.Test;
+
+public class OutputExpressionsTest extends TestBase {
+
+  /**
+   * Applies the minimal form of an output of a table too big to be minimized on the event thread
+   * while it is still pending, and checks that neither the expression nor the column is lost.
+   */
+  @Test
+  public void testPendingMinimalFormIsNotApplied() throws Exception {
+    // runs on the event thread, so that the minimizer cannot publish its result in between
+    SwingUtilities.invokeAndWait(
+        () -> {
+          try {
+            final var model = new AnalyzerModel();
+            final var inputs = new ArrayList<Var>();
+            for (var i = 0; i < Implicant.MAXIMAL_NR_OF_INPUTS_FOR_AUTO_MINIMAL_FORM + 1; i++) {
+              inputs.add(new Var("i" + i, 1));
+            }
+            model.setVariables(inputs, List.of(new Var("y", 1)));
+            final var exprs = model.getOutputExpressions();
+            exprs.enableUpdates();
+            final var expr = Parser.parse("i0 i1 + i2", model);
+            exprs.setExpression("y", expr);
+            final var column = model.getTruthTable().getOutputColumn(0).clone();
+
+            exprs.setMinimizedFormat("y", AnalyzerModel.FORMAT_PRODUCT_OF_SUMS);
+            assertTrue(exprs.isMinimalPending("y"));
+            assertNull(exprs.getMinimalExpression("y"));
+            assertFalse(exprs.isExpressionMinimal("y"));
+
+            exprs.setExpression("y", exprs.getMinimalExpression("y"));
+            assertSame(expr, exprs.getExpression("y"));
+            assertArrayEquals(column, model.getTruthTable().getOutputColumn(0));
+          } catch (ParserException e) {
+            throw new IllegalStateException(e);
+          }
+        });
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.analyze.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.cburch.logisim.TestBase;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import org.junit.jupiter.api.Test;
+
+public class TwoLevelMinimizerTest extends TestBase {
+
+  private static Entry[] randomColumn(int nrOfInputs, long seed) {
+    final var random = new Random(seed);
+    final var column = new Entry[1 << nrOfInputs];
+    for (var row = 0; row < column.length; row++) {
+      final var pick = random.nextInt(10);
+      column[row] = pick == 0 ? Entry.DONT_CARE : pick < 6 ? Entry.ONE : Entry.ZERO;
+    }
+    return column;
+  }
+
+  /** Checks that the cubes cover all desired rows, and none of the rows that must be false. */
+  private static void assertCover(int format, Entry[] column, long[] cubes) {
+    final var desired = format == AnalyzerModel.FORMAT_SUM_OF_PRODUCTS ? Entry.ONE : Entry.ZERO;
+    final var covered = new boolean[column.length];
+    for (final var cube : cubes) {
+      final var unknowns = TwoLevelMinimizer.unknowns(cube);
+      for (var row = 0; row < column.length; row++) {
+        if ((row & ~unknowns) != TwoLevelMinimizer.values(cube)) continue;
+        assertTrue(column[row] == desired || column[row] == Entry.DONT_CARE);
+        covered[row] = true;
+      }
+    }
+    for (var row = 0; row < column.length; row++) {
+      if (column[row] == desired) assertTrue(covered[row]);
+    }
+  }
+
+  @Test
+  public void testCyclicCoverIsMinimal() {
+    // f = m(0, 1, 2, 5, 6, 7) has no essential primes, the minimal cover has three terms
+    final var column = new Entry[8];
+    for (var row = 0; row < 8; row++) {
+      column[row] = row == 3 || row == 4 ? Entry.ZERO : Entry.ONE;
+    }
+    final var cubes =
+        new TwoLevelMinimizer(AnalyzerModel.FORMAT_SUM_OF_PRODUCTS, 3, column, null).minimize();
+    assertEquals(3, cubes.length);
+    assertCover(AnalyzerModel.FORMAT_SUM_OF_PRODUCTS, column, cubes);
+  }
+
+  @Test
+  public void testExactAndHeuristicCovers() {
+    for (final var nrOfInputs : new int[] {4, 8, 10, 12, 14}) {
+      final var column = randomColumn(nrOfInputs, nrOfInputs);
+      for (final var format :
+          new int[] {AnalyzerModel.FORMAT_SUM_OF_PRODUCTS, AnalyzerModel.FORMAT_PRODUCT_OF_SUMS}) {
+        final var cubes = new TwoLevelMinimizer(format, nrOfInputs, column, null).minimize();
+        assertNotEquals(0, cubes.length);
+        assertCover(format, column, cubes);
+      }
+    }
+  }
+
+  @Test
+  public void testInterruptCancels() {
+    final var minimizer =
+        new TwoLevelMinimizer(AnalyzerModel.FORMAT_SUM_OF_PRODUCTS, 8, randomColumn(8, 1), null);
+    Thread.currentThread().interrupt();
+    try {
+      assertThrows(CancellationException.class, minimizer::minimize);
+    } finally {
+      Thread.interrupted();
+    }
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.circuit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.cburch.logisim.TestBase;
+import com.cburch.logisim.data.Direction;
+import com.cburch.logisim.data.Location;
+import com.cburch.logisim.file.Options;
+import com.cburch.logisim.instance.StdAttr;
+import com.cburch.logisim.proj.Project;
+import com.cburch.logisim.std.wiring.Clock;
+import com.cburch.logisim.std.wiring.Pin;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.swing.SwingUtilities;
+import org.junit.jupiter.api.Test;
+
+public class CircuitWiresConcurrencyTest extends TestBase {
+
+  private static final int EDITS = 2000;
+
+  /**
+   * Ticks a clock as fast as possible on one thread while another thread keeps cutting and
+   * reconnecting the wire between the clock and an output pin. The event dispatch thread is kept
+   * busy all the time, so the test also fails if the simulation waits for it.
+   */
+  @Test
+  public void testEditWiresWhileTicking() throws Exception {
+    final var clockLoc = Location.create(100, 100, true);
+    final var middle = Location.create(200, 100, true);
+    final var pinLoc = Location.create(300, 100, true);
+    final var pinAttrs = Pin.FACTORY.createAttributeSet();
+    pinAttrs.setValue(Pin.ATTR_TYPE, true);
+    pinAttrs.setValue(StdAttr.FACING, Direction.WEST);
+    final var second = Wire.create(middle, pinLoc);
+
+    final var circuit = new Circuit("main", null, null);
+    final var xn = new CircuitMutation(circuit);
+    xn.add(Clock.FACTORY.createComponent(clockLoc, Clock.FACTORY.createAttributeSet()));
+    xn.add(Pin.FACTORY.createComponent(pinLoc, pinAttrs));
+    xn.add(Wire.create(clockLoc, middle));
+    xn.add(second);
+    xn.execute();
+
+    final var state = new CircuitState(createProject(), circuit);
+    final var prop = state.getPropagator();
+    final var stop = new AtomicBoolean();
+    final var ticks = new AtomicLong();
+    final var failure = new AtomicReference<Throwable>();
+    final var simulator =
+        new Thread(
+            () -> {
+              try {
+                while (!stop.get()) {
+                  prop.toggleClocks();
+                  prop.propagate();
+                  ticks.incrementAndGet();
+                }
+              } catch (Throwable t) {
+                failure.set(t);
+              }
+            });
+
+    final var edtBusy = new CountDownLatch(1);
+    final var edtRelease = new CountDownLatch(1);
+    SwingUtilities.invokeLater(
+        () -> {
+          edtBusy.countDown();
+          try {
+            edtRelease.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        });
+    edtBusy.await();
+    try {
+      assertTimeoutPreemptively(
+          Duration.ofSeconds(60),
+          () -> {
+            simulator.start();
+            for (var i = 0; i < EDITS; i++) {
+              final var edit = new CircuitMutation(circuit);
+              if (i % 2 == 0) edit.remove(second);
+              else edit.add(second);
+              edit.execute();
+            }
+            stop.set(true);
+            simulator.join();
+          });
+    } finally {
+      edtRelease.countDown();
+    }
+
+    assertNull(failure.get(), "simulation failed while editing");
+    assertTrue(ticks.get() > 0, "simulation did not tick");
+    prop.propagate();
+    assertEquals(state.getValue(clockLoc), state.getValue(pinLoc));
+  }
+
+  private static Project createProject() {
+    final var options = new Options();
+    final var proj = mock(Project.class);
+    when(proj.getOptions()).thenReturn(options);
+    when(proj.getSimulator()).thenReturn(mock(Simulator.class));
+    return proj;
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.circuit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.cburch.logisim.TestBase;
+import com.cburch.logisim.data.Location;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class ComponentIndexTest extends TestBase {
+
+  private static Wire wire(int x0, int y0, int x1, int y1) {
+    return Wire.create(Location.create(x0, y0, false), Location.create(x1, y1, false));
+  }
+
+  @Test
+  public void testQueryFindsOnlyNearbyWiresInOrder() {
+    final var index = new ComponentIndex();
+    final var far = wire(10000, 10000, 10000, 10200);
+    final var first = wire(0, 0, 1000, 0);
+    final var second = wire(500, -100, 500, 100);
+    index.add(far, false);
+    index.add(first, false);
+    index.add(second, false);
+
+    assertEquals(List.of(first, second), index.query(500, 0, 0, 0, false));
+    assertEquals(List.of(first), index.query(900, 0, 0, 0, false));
+    assertEquals(List.of(), index.query(5000, 5000, 10, 10, false));
+    // an area larger than all cells in use
+    assertEquals(List.of(far, first, second), index.query(-1 << 20, -1 << 20, 1 << 21, 1 << 21,
+        false));
+
+    index.remove(first);
+    assertEquals(List.of(second), index.query(500, 0, 0, 0, false));
+    index.clear();
+    assertEquals(List.of(), index.query(500, 0, 0, 0, false));
+  }
+
+  @Test
+  public void testLabelledComponentsAreAlwaysCandidates() {
+    final var index = new ComponentIndex();
+    final var labelled = wire(0, 0, 100, 0);
+    index.add(labelled, true);
+    assertEquals(List.of(), index.query(5000, 5000, 0, 0, false));
+    assertEquals(List.of(labelled), index.query(5000, 5000, 0, 0, true));
+    index.labelChanged(labelled, false);
+    assertEquals(List.of(), index.query(5000, 5000, 0, 0, true));
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.circuit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.cburch.logisim.TestBase;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class DirtySetTest extends TestBase {
+
+  private static List<String> drain(DirtySet<String> set) {
+    final var ret = new ArrayList<String>();
+    set.drain(ret::add);
+    return ret;
+  }
+
+  private static void onOtherThread(Runnable action) throws InterruptedException {
+    final var thread = new Thread(action);
+    thread.start();
+    thread.join();
+  }
+
+  @Test
+  public void testOwnerKeepsOrderWithoutDuplicates() {
+    final var set = new DirtySet<String>();
+    drain(set); // take ownership
+    set.add("b");
+    set.add("a");
+    set.add("b");
+    assertEquals(List.of("b", "a"), drain(set));
+    set.add("b");
+    assertEquals(List.of("b"), drain(set));
+    assertEquals(List.of(), drain(set));
+  }
+
+  @Test
+  public void testOtherThreadsHandOverInOrder() throws InterruptedException {
+    final var set = new DirtySet<String>();
+    drain(set);
+    set.add("a");
+    set.add("b");
+    onOtherThread(
+        () -> {
+          set.remove("a");
+          set.add("c");
+          set.add("b");
+        });
+    assertEquals(List.of("b", "c"), drain(set));
+    set.add("a");
+    onOtherThread(set::clear);
+    onOtherThread(() -> set.add("d"));
+    assertEquals(List.of("d"), drain(set));
+  }
+
+  @Test
+  public void testAddWhileDraining() {
+    final var set = new DirtySet<String>();
+    drain(set);
+    set.add("a");
+    final var seen = new ArrayList<String>();
+    set.drain(
+        s -> {
+          seen.add(s);
+          set.add("a");
+        });
+    assertEquals(List.of("a"), seen);
+    assertEquals(List.of("a"), drain(set));
+  }
+
+  @Test
+  public void testDrainedElementsAreForgotten() {
+    final var set = new DirtySet<String>();
+    drain(set);
+    for (var i = 0; i < 100; i++) set.add("e" + i);
+    assertEquals(100, set.memberCount());
+    assertEquals(100, drain(set).size());
+    assertEquals(0, set.memberCount());
+    set.add("e1");
+    set.remove("e2");
+    assertEquals(1, set.memberCount());
+  }
+
+  @Test
+  public void testFormerOwnerHandsOver() throws InterruptedException {
+    final var set = new DirtySet<String>();
+    drain(set);
+    set.add("a");
+    final var seen = new ArrayList<String>();
+    onOtherThread(() -> seen.addAll(drain(set)));
+    assertEquals(List.of("a"), seen);
+    // this thread is no longer the owner, so its adds reach the new owner's next drain
+    set.add("b");
+    seen.clear();
+    onOtherThread(() -> seen.addAll(drain(set)));
+    assertEquals(List.of("b"), seen);
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.circuit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.cburch.logisim.TestBase;
+import com.cburch.logisim.data.Direction;
+import com.cburch.logisim.data.Location;
+import com.cburch.logisim.data.Value;
+import com.cburch.logisim.file.Options;
+import com.cburch.logisim.instance.StdAttr;
+import com.cburch.logisim.proj.Project;
+import com.cburch.logisim.std.gates.GatesLibrary;
+import com.cburch.logisim.std.wiring.Pin;
+import com.cburch.logisim.tools.AddTool;
+import org.junit.jupiter.api.Test;
+
+public class InstanceStateCacheTest extends TestBase {
+
+  @Test
+  public void testStateIsReusedUntilRemoved() {
+    final var main = new Circuit("main", null, null);
+    final var pin = Pin.FACTORY.createComponent(
+        Location.create(100, 100, true), Pin.FACTORY.createAttributeSet());
+    final var mutation = new CircuitMutation(main);
+    mutation.add(pin);
+    mutation.execute();
+
+    final var proj = mock(Project.class);
+    when(proj.getOptions()).thenReturn(new Options());
+    main.setProject(proj);
+    final var state = new CircuitState(proj, main);
+    final var instanceState = state.getInstanceState(pin);
+    assertSame(instanceState, state.getInstanceState(pin));
+
+    Pin.FACTORY.setValue(instanceState, Value.TRUE);
+    state.markComponentAsDirty(pin);
+    state.getPropagator().propagate();
+    assertEquals(Value.TRUE, instanceState.getPortValue(0));
+    assertEquals(state.getValue(pin.getEnd(0).getLocation()), instanceState.getPortValue(0));
+
+    final var removal = new CircuitMutation(main);
+    removal.remove(pin);
+    removal.execute();
+    assertNotSame(instanceState, state.getInstanceState(pin));
+  }
+
+  /** Turns a gate, which moves its ends in place, and checks that its port slots follow. */
+  @Test
+  public void testPortSlotsFollowEndsMovedInPlace() {
+    final var main = new Circuit("main", null, null);
+    final var and = ((AddTool) new GatesLibrary().getTool("AND Gate")).getFactory();
+    final var gate = and.createComponent(Location.create(200, 100, true), and.createAttributeSet());
+    final var mutation = new CircuitMutation(main);
+    mutation.add(gate);
+    mutation.execute();
+
+    final var proj = mock(Project.class);
+    when(proj.getOptions()).thenReturn(new Options());
+    when(proj.getSimulator()).thenReturn(mock(Simulator.class));
+    main.setProject(proj);
+    final var state = new CircuitState(proj, main);
+    final var slots = state.getPortSlots(gate, null);
+    assertSame(slots, state.getPortSlots(gate, slots));
+
+    final var ends = gate.getEnds();
+    final var turn = new CircuitMutation(main);
+    turn.set(gate, StdAttr.FACING, Direction.SOUTH);
+    turn.execute();
+    assertSame(ends, gate.getEnds());
+    final var moved = state.getPortSlots(gate, slots);
+    assertNotSame(slots, moved);
+    for (var port = 0; port < ends.size(); port++) {
+      assertEquals(gate.getEnd(port).getLocation(), moved.getLocation(port));
+    }
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.circuit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.cburch.logisim.TestBase;
+import com.cburch.logisim.comp.Component;
+import com.cburch.logisim.comp.ComponentFactory;
+import com.cburch.logisim.data.AttributeOption;
+import com.cburch.logisim.data.BitWidth;
+import com.cburch.logisim.data.Direction;
+import com.cburch.logisim.data.Location;
+import com.cburch.logisim.data.Value;
+import com.cburch.logisim.file.Options;
+import com.cburch.logisim.instance.StdAttr;
+import com.cburch.logisim.proj.Project;
+import com.cburch.logisim.std.gates.GatesLibrary;
+import com.cburch.logisim.std.memory.DFlipFlop;
+import com.cburch.logisim.std.memory.JKFlipFlop;
+import com.cburch.logisim.std.memory.Register;
+import com.cburch.logisim.std.memory.SRFlipFlop;
+import com.cburch.logisim.std.memory.TFlipFlop;
+import com.cburch.logisim.std.wiring.Constant;
+import com.cburch.logisim.std.wiring.Ground;
+import com.cburch.logisim.std.wiring.Pin;
+import com.cburch.logisim.std.wiring.Power;
+import com.cburch.logisim.tools.AddTool;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class LevelizedSimulationTest extends TestBase {
+
+  private static final int INSTANCES = 8;
+  private static final int ROUNDS = 200;
+
+  /**
+   * Drives the same random input sequence, clocks included, into subcircuits of gates, a register,
+   * flip-flops and constants, once with each engine, and checks that the levelized engines give the outputs of the
+   * event engine after every round.
+   */
+  @Test
+  public void testLevelizedMatchesEvents() {
+    final var gates = new GatesLibrary();
+    final var xor = ((AddTool) gates.getTool("XOR Gate")).getFactory();
+    final var and = ((AddTool) gates.getTool("AND Gate")).getFactory();
+    final var cell = new Circuit("cell", null, null);
+    final var cellMutation = new CircuitMutation(cell);
+    addWithPins(cellMutation, create(xor, Location.create(200, 100, true)), null, null);
+    addWithPins(cellMutation, create(and, Location.create(200, 200, true)), null, null);
+    final var register = new Register();
+    final var regAttrs = register.createAttributeSet();
+    regAttrs.setValue(StdAttr.WIDTH, BitWidth.ONE);
+    final var reg = register.createComponent(Location.create(200, 300, true), regAttrs);
+    addWithPins(cellMutation, reg, null, null);
+    final var flipFlops =
+        List.of(new DFlipFlop(), new TFlipFlop(), new JKFlipFlop(), new SRFlipFlop());
+    for (var i = 0; i < flipFlops.size(); i++) {
+      addWithPins(
+          cellMutation, create(flipFlops.get(i), Location.create(200, 400 + 100 * i, true)),
+          null, null);
+    }
+    addWithPins(cellMutation, create(Constant.FACTORY, Location.create(400, 100, true)), null, null);
+    addWithPins(cellMutation, create(new Power(), Location.create(400, 200, true)), null, null);
+    addWithPins(cellMutation, create(new Ground(), Location.create(400, 300, true)), null, null);
+    cellMutation.execute();
+
+    final var main = new Circuit("main", null, null);
+    final var mainMutation = new CircuitMutation(main);
+    final var inputs = new ArrayList<Component>();
+    final var outputs = new ArrayList<Component>();
+    final var factory = cell.getSubcircuitFactory();
+    for (var i = 0; i < INSTANCES; i++) {
+      final var sub = create(factory, Location.create(400, 100 + 1000 * i, true));
+      addWithPins(mainMutation, sub, inputs, outputs);
+    }
+    mainMutation.execute();
+
+    final var events = new CircuitState(createProject(Options.SIM_ENGINE_EVENT), main);
+    final var levelized = new CircuitState(createProject(Options.SIM_ENGINE_LEVELIZED), main);
+    final var checked = new CircuitState(createProject(Options.SIM_ENGINE_CHECK), main);
+    final var states = List.of(events, levelized, checked);
+    final var rand = new Random(4321);
+    for (var round = 0; round < ROUNDS; round++) {
+      for (final var pin : inputs) {
+        if (round > 0 && rand.nextBoolean()) continue;
+        final var val = rand.nextBoolean() ? Value.TRUE : Value.FALSE;
+        for (final var state : states) setInput(state, pin, val);
+      }
+      for (final var state : states) state.getPropagator().propagate();
+      for (final var pin : outputs) {
+        final var expected = Pin.FACTORY.getValue(events.getInstanceState(pin));
+        assertEquals(
+            expected,
+            Pin.FACTORY.getValue(levelized.getInstanceState(pin)),
+            "levelized output mismatch in round " + round);
+        assertEquals(
+            expected,
+            Pin.FACTORY.getValue(checked.getInstanceState(pin)),
+            "cross-checked output mismatch in round " + round);
+      }
+    }
+    assertNull(events.getPropagator().getLevelized());
+    assertNotNull(levelized.getPropagator().getLevelized());
+    final var check = checked.getPropagator().getLevelized();
+    assertNotNull(check);
+    assertEquals(0L, check.getMismatchCount());
+  }
+
+  private static Project createProject(AttributeOption engine) {
+    final var options = new Options();
+    options.getAttributeSet().setValue(Options.ATTR_SIM_ENGINE, engine);
+    final var proj = mock(Project.class);
+    when(proj.getOptions()).thenReturn(options);
+    when(proj.getSimulator()).thenReturn(mock(Simulator.class));
+    return proj;
+  }
+
+  private static Component create(ComponentFactory factory, Location loc) {
+    return factory.createComponent(loc, factory.createAttributeSet());
+  }
+
+  /** Adds the component together with a one-bit pin on each of its ends. */
+  private static void addWithPins(CircuitMutation xn, Component comp, List<Component> inputs,
+      List<Component> outputs) {
+    xn.add(comp);
+    for (final var end : comp.getEnds()) {
+      final var isOutput = end.isOutput();
+      final var attrs = Pin.FACTORY.createAttributeSet();
+      attrs.setValue(Pin.ATTR_TYPE, isOutput);
+      attrs.setValue(StdAttr.FACING, isOutput ? Direction.WEST : Direction.EAST);
+      final var pin = Pin.FACTORY.createComponent(end.getLocation(), attrs);
+      xn.add(pin);
+      final var list = isOutput ? outputs : inputs;
+      if (list != null) list.add(pin);
+    }
+  }
+
+  private static void setInput(CircuitState state, Component pin, Value val) {
+    Pin.FACTORY.setValue(state.getInstanceState(pin), val);
+    state.markComponentAsDirty(pin);
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.circuit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.cburch.logisim.TestBase;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class PropagationQueueTest extends TestBase {
+
+  /**
+   * Feeds the same random schedule to both schedulers, including counter wraparound and delays
+   * longer than the calendar ring, and checks they hand out the changes in the same order.
+   */
+  @Test
+  public void testCalendarMatchesHeapOrder() {
+    for (var seed = 0; seed < 20; seed++) {
+      final var rand = new Random(seed);
+      final var heap = new HeapPropagationQueue();
+      final var calendar = new CalendarPropagationQueue();
+      var clock = (seed % 2 == 0) ? 0 : Integer.MAX_VALUE - 5000;
+      var serial = (seed % 4 < 2) ? 0 : Integer.MAX_VALUE - 3000;
+      for (var step = 0; step < 10000; step++) {
+        final var adds = rand.nextInt(6);
+        for (var i = 0; i < adds; i++) {
+          final var delay = rand.nextInt(10) == 0 ? 1 + rand.nextInt(2000) : 1 + rand.nextInt(40);
+          heap.add(heap.obtain(clock + delay, serial, null, null, null, null));
+          calendar.add(calendar.obtain(clock + delay, serial, null, null, null, null));
+          serial++;
+        }
+        final var polls = rand.nextInt(7);
+        for (var i = 0; i < polls && !heap.isEmpty(); i++) {
+          final var expected = heap.poll();
+          final var actual = calendar.poll();
+          assertEquals(expected.time, actual.time);
+          assertEquals(expected.serialNumber, actual.serialNumber);
+          clock = expected.time;
+          calendar.recycle(actual);
+        }
+        assertEquals(heap.size(), calendar.size());
+      }
+      calendar.clear();
+      assertNull(calendar.peek());
+    }
+  }
+}
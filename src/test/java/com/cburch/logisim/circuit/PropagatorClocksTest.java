@@ -0,0 +1,76 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.circuit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.cburch.logisim.TestBase;
+import com.cburch.logisim.comp.Component;
+import com.cburch.logisim.data.Location;
+import com.cburch.logisim.file.Options;
+import com.cburch.logisim.proj.Project;
+import com.cburch.logisim.std.wiring.Clock;
+import java.util.ArrayList;
+import org.junit.jupiter.api.Test;
+
+public class PropagatorClocksTest extends TestBase {
+
+  @Test
+  public void testTicksOnlyClocksInTheTree() {
+    final var cell = new Circuit("cell", null, null);
+    final var clock = Clock.FACTORY.createComponent(
+        Location.create(100, 100, true), Clock.FACTORY.createAttributeSet());
+    final var cellMutation = new CircuitMutation(cell);
+    cellMutation.add(clock);
+    cellMutation.execute();
+
+    final var main = new Circuit("main", null, null);
+    final var mainMutation = new CircuitMutation(main);
+    final var factory = cell.getSubcircuitFactory();
+    final var subs = new ArrayList<Component>();
+    for (var i = 0; i < 3; i++) {
+      final var sub = factory.createComponent(
+          Location.create(400, 100 + 200 * i, true), factory.createAttributeSet());
+      mainMutation.add(sub);
+      subs.add(sub);
+    }
+    mainMutation.execute();
+
+    final var proj = mock(Project.class);
+    when(proj.getOptions()).thenReturn(new Options());
+    when(proj.getSimulator()).thenReturn(mock(Simulator.class));
+    main.setProject(proj);
+    final var state = new CircuitState(proj, main);
+    final var prop = state.getPropagator();
+    // the main circuit has no clocks of its own
+    assertFalse(prop.toggleClocks());
+    prop.propagate();
+    assertEquals(3, state.getSubStates().size());
+
+    assertTrue(prop.toggleClocks());
+    for (final var sub : state.getSubStates()) assertNotNull(sub.getData(clock));
+
+    // a removed subcircuit is not ticked any more
+    final var removed = (CircuitState) state.getData(subs.get(0));
+    final var removal = new CircuitMutation(main);
+    removal.remove(subs.get(0));
+    removal.execute();
+    assertNull(removed.getData(clock));
+    assertTrue(prop.toggleClocks());
+    assertNull(removed.getData(clock));
+    assertEquals(2, state.getSubStates().size());
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.circuit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.cburch.logisim.TestBase;
+import com.cburch.logisim.comp.Component;
+import com.cburch.logisim.comp.ComponentFactory;
+import com.cburch.logisim.data.Direction;
+import com.cburch.logisim.data.Location;
+import com.cburch.logisim.data.Value;
+import com.cburch.logisim.file.Options;
+import com.cburch.logisim.instance.StdAttr;
+import com.cburch.logisim.proj.Project;
+import com.cburch.logisim.std.gates.GatesLibrary;
+import com.cburch.logisim.std.wiring.Pin;
+import com.cburch.logisim.tools.AddTool;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class PropagatorDeterminismTest extends TestBase {
+
+  private static final int INSTANCES = 32;
+  private static final int ROUNDS = 200;
+
+  /**
+   * Drives the same random input sequence into a circuit made of many independent subcircuit
+   * instances, once with the serial engine and once with parallel propagation, and checks that
+   * both produce the same outputs after every round and process the same number of events. Each
+   * engine simulates its own copy of the circuit, as states of the same circuit see each other's
+   * invalidations.
+   */
+  @Test
+  public void testParallelMatchesSerial() {
+    final var serial = createDesign(false);
+    final var parallel = createDesign(true);
+    final var rand = new Random(1234);
+    for (var round = 0; round < ROUNDS; round++) {
+      for (var i = 0; i < serial.inputs.size(); i++) {
+        if (round > 0 && rand.nextBoolean()) continue;
+        final var val = rand.nextBoolean() ? Value.TRUE : Value.FALSE;
+        setInput(serial.state, serial.inputs.get(i), val);
+        setInput(parallel.state, parallel.inputs.get(i), val);
+      }
+      serial.state.getPropagator().propagate();
+      parallel.state.getPropagator().propagate();
+      for (var i = 0; i < serial.outputs.size(); i++) {
+        assertEquals(
+            Pin.FACTORY.getValue(serial.state.getInstanceState(serial.outputs.get(i))),
+            Pin.FACTORY.getValue(parallel.state.getInstanceState(parallel.outputs.get(i))),
+            "output mismatch in round " + round);
+      }
+      assertEquals(
+          serial.state.getPropagator().getEventCount(),
+          parallel.state.getPropagator().getEventCount(),
+          "event count mismatch in round " + round);
+    }
+  }
+
+  private record Design(CircuitState state, List<Component> inputs, List<Component> outputs) {}
+
+  private static Design createDesign(boolean parallel) {
+    final var gates = new GatesLibrary();
+    final var xor = ((AddTool) gates.getTool("XOR Gate")).getFactory();
+    final var and = ((AddTool) gates.getTool("AND Gate")).getFactory();
+    final var cell = new Circuit("cell", null, null);
+    final var cellMutation = new CircuitMutation(cell);
+    addWithPins(cellMutation, create(xor, Location.create(200, 100, true)), null, null);
+    addWithPins(cellMutation, create(and, Location.create(200, 200, true)), null, null);
+    cellMutation.execute();
+
+    final var main = new Circuit("main", null, null);
+    final var mainMutation = new CircuitMutation(main);
+    final var inputs = new ArrayList<Component>();
+    final var outputs = new ArrayList<Component>();
+    final var factory = cell.getSubcircuitFactory();
+    for (var i = 0; i < INSTANCES; i++) {
+      final var sub = create(factory, Location.create(400, 100 + 200 * i, true));
+      addWithPins(mainMutation, sub, inputs, outputs);
+    }
+    mainMutation.execute();
+    return new Design(new CircuitState(createProject(parallel), main), inputs, outputs);
+  }
+
+  private static Project createProject(boolean parallel) {
+    final var options = new Options();
+    options.getAttributeSet().setValue(Options.ATTR_SIM_PARALLEL, parallel);
+    final var proj = mock(Project.class);
+    when(proj.getOptions()).thenReturn(options);
+    when(proj.getSimulator()).thenReturn(mock(Simulator.class));
+    return proj;
+  }
+
+  private static Component create(ComponentFactory factory, Location loc) {
+    return factory.createComponent(loc, factory.createAttributeSet());
+  }
+
+  /** Adds the component together with a one-bit pin on each of its ends. */
+  private static void addWithPins(CircuitMutation xn, Component comp, List<Component> inputs,
+      List<Component> outputs) {
+    xn.add(comp);
+    for (final var end : comp.getEnds()) {
+      final var isOutput = end.isOutput();
+      final var attrs = Pin.FACTORY.createAttributeSet();
+      attrs.setValue(Pin.ATTR_TYPE, isOutput);
+      attrs.setValue(StdAttr.FACING, isOutput ? Direction.WEST : Direction.EAST);
+      final var pin = Pin.FACTORY.createComponent(end.getLocation(), attrs);
+      xn.add(pin);
+      final var list = isOutput ? outputs : inputs;
+      if (list != null) list.add(pin);
+    }
+  }
+
+  private static void setInput(CircuitState state, Component pin, Value val) {
+    Pin.FACTORY.setValue(state.getInstanceState(pin), val);
+    state.markComponentAsDirty(pin);
+  }
+}
@@ -0,0 +1,181 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.fpga.designrulecheck;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.cburch.logisim.TestBase;
+import com.cburch.logisim.circuit.Circuit;
+import com.cburch.logisim.circuit.CircuitMutation;
+import com.cburch.logisim.circuit.SplitterAttributes;
+import com.cburch.logisim.circuit.SplitterFactory;
+import com.cburch.logisim.circuit.Wire;
+import com.cburch.logisim.comp.Component;
+import com.cburch.logisim.data.BitWidth;
+import com.cburch.logisim.data.Location;
+import com.cburch.logisim.instance.StdAttr;
+import com.cburch.logisim.std.gates.GateAttributes;
+import com.cburch.logisim.std.gates.GatesLibrary;
+import com.cburch.logisim.std.wiring.Pin;
+import com.cburch.logisim.std.wiring.Tunnel;
+import com.cburch.logisim.tools.AddTool;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+public class NetlistTest extends TestBase {
+
+  /**
+   * Builds a circuit whose nets are joined by wires, tunnels and splitters, and checks that the
+   * nets, their parent buses and the connections of the components are the ones the former
+   * pairwise netlist builder assigned to it.
+   */
+  @Test
+  public void testNetsOfSplittersAndTunnels() {
+    final var circ = new Circuit("main", null, null);
+    final var xn = new CircuitMutation(circ);
+    // a 4-bit input A, split into single bits at (170,60) to (170,90)
+    final var inA = pin(loc(100, 100), 4, "A", false);
+    xn.add(inA);
+    xn.add(Wire.create(loc(100, 100), loc(150, 100)));
+    xn.add(splitter(loc(150, 100), 4));
+    xn.add(tunnel(loc(170, 60), "B0"));
+    xn.add(Wire.create(loc(170, 70), loc(200, 70)));
+    xn.add(tunnel(loc(200, 70), "B1"));
+    xn.add(tunnel(loc(170, 90), "B3"));
+    // an AND gate of bits 0 and 1, fed through the tunnels
+    final var and = ((AddTool) new GatesLibrary().getTool("AND Gate")).getFactory();
+    final var gateAttrs = and.createAttributeSet();
+    gateAttrs.setValue(GateAttributes.ATTR_INPUTS, 2);
+    gateAttrs.setValue(StdAttr.LABEL, "G");
+    final var gate = and.createComponent(loc(400, 200), gateAttrs);
+    xn.add(gate);
+    xn.add(tunnel(loc(350, 180), "B0"));
+    xn.add(Wire.create(loc(300, 220), loc(350, 220)));
+    xn.add(tunnel(loc(300, 220), "B1"));
+    // a 2-bit output Y of the AND gate and bit 3, joined by a splitter
+    xn.add(splitter(loc(500, 300), 2));
+    xn.add(Wire.create(loc(400, 200), loc(400, 280)));
+    xn.add(Wire.create(loc(400, 280), loc(520, 280)));
+    xn.add(tunnel(loc(520, 290), "B3"));
+    xn.add(Wire.create(loc(450, 300), loc(500, 300)));
+    final var outY = pin(loc(450, 300), 2, "Y", true);
+    xn.add(outY);
+    // a 1-bit output Z of bit 0, through a third tunnel
+    xn.add(Wire.create(loc(300, 400), loc(350, 400)));
+    xn.add(tunnel(loc(350, 400), "B0"));
+    final var outZ = pin(loc(300, 400), 1, "Z", true);
+    xn.add(outZ);
+    xn.execute();
+
+    final var netlist = new Netlist(circ);
+    assertEquals(Netlist.DRC_PASSED, netlist.designRuleCheckResult(true, new ArrayList<>()));
+    assertEquals(6, netlist.getAllNets().size());
+    assertEquals(1, netlist.numberOfNets());
+    assertEquals(2, netlist.numberOfBusses());
+
+    final var busA = netAt(netlist, loc(100, 100));
+    assertEquals(Set.of(loc(100, 100), loc(150, 100)), busA.getPoints());
+    assertTrue(busA.isRootNet());
+    assertEquals(4, busA.getBitWidth());
+    final var busY = netAt(netlist, loc(450, 300));
+    assertEquals(Set.of(loc(450, 300), loc(500, 300)), busY.getPoints());
+    assertTrue(busY.isRootNet());
+    assertEquals(2, busY.getBitWidth());
+
+    final var bit0 = netAt(netlist, loc(170, 60));
+    assertEquals(
+        Set.of(loc(170, 60), loc(350, 180), loc(300, 400), loc(350, 400)), bit0.getPoints());
+    assertEquals(Set.of("B0"), bit0.getTunnelNames());
+    assertChildOf(bit0, busA, 0);
+    final var bit1 = netAt(netlist, loc(170, 70));
+    assertEquals(
+        Set.of(loc(170, 70), loc(200, 70), loc(300, 220), loc(350, 220)), bit1.getPoints());
+    assertChildOf(bit1, busA, 1);
+    final var gateOut = netAt(netlist, loc(400, 200));
+    assertEquals(Set.of(loc(400, 200), loc(400, 280), loc(520, 280)), gateOut.getPoints());
+    assertChildOf(gateOut, busY, 0);
+    // bit 3 only joins two splitter ends, it stays a net of its own
+    final var bit3 = netAt(netlist, loc(170, 90));
+    assertEquals(Set.of(loc(170, 90), loc(520, 290)), bit3.getPoints());
+    assertTrue(bit3.isRootNet());
+
+    final var gateComp = find(netlist.getNormalComponents(), gate);
+    assertConnected(gateComp, 0, busY, 0);
+    assertConnected(gateComp, 1, busA, 0);
+    assertConnected(gateComp, 2, busA, 1);
+    assertConnected(find(List.of(netlist.getInputPin(0)), inA), 0, busA, 0, 1, 2, 3);
+    final var outputs = new ArrayList<netlistComponent>();
+    for (var i = 0; i < netlist.numberOfOutputPorts(); i++) outputs.add(netlist.getOutputPin(i));
+    assertConnected(find(outputs, outY), 0, busY, 0, 1);
+    assertConnected(find(outputs, outZ), 0, busA, 0);
+  }
+
+  private static Location loc(int x, int y) {
+    return Location.create(x, y, true);
+  }
+
+  private static Net netAt(Netlist netlist, Location loc) {
+    for (final var net : netlist.getAllNets()) {
+      if (net.contains(loc)) return net;
+    }
+    throw new AssertionError("no net at " + loc);
+  }
+
+  private static void assertChildOf(Net net, Net parent, int bit) {
+    assertFalse(net.isRootNet());
+    assertEquals(parent, net.getParent());
+    assertEquals(bit, net.getBit((byte) 0));
+  }
+
+  private static netlistComponent find(List<netlistComponent> comps, Component comp) {
+    for (final var nc : comps) {
+      if (nc.getComponent() == comp) return nc;
+    }
+    throw new AssertionError("not in the netlist: " + comp);
+  }
+
+  /** Checks that the bits of the end are connected to the given bits of a root net. */
+  private static void assertConnected(netlistComponent comp, int endIndex, Net net, int... bits) {
+    final var end = comp.getEnd(endIndex);
+    assertNotNull(end);
+    assertEquals(bits.length, end.getNrOfBits());
+    for (var i = 0; i < bits.length; i++) {
+      final var point = end.get((byte) i);
+      assertEquals(net, point.getParentNet());
+      assertEquals(bits[i], (int) point.getParentNetBitIndex());
+    }
+  }
+
+  private static Component splitter(Location loc, int fanout) {
+    final var attrs = SplitterFactory.instance.createAttributeSet();
+    attrs.setValue(SplitterAttributes.ATTR_FANOUT, fanout);
+    attrs.setValue(SplitterAttributes.ATTR_WIDTH, BitWidth.create(fanout));
+    return SplitterFactory.instance.createComponent(loc, attrs);
+  }
+
+  private static Component tunnel(Location loc, String label) {
+    final var attrs = Tunnel.FACTORY.createAttributeSet();
+    attrs.setValue(StdAttr.LABEL, label);
+    return Tunnel.FACTORY.createComponent(loc, attrs);
+  }
+
+  private static Component pin(Location loc, int width, String label, boolean output) {
+    final var attrs = Pin.FACTORY.createAttributeSet();
+    attrs.setValue(StdAttr.WIDTH, BitWidth.create(width));
+    attrs.setValue(StdAttr.LABEL, label);
+    attrs.setValue(Pin.ATTR_TYPE, output);
+    return Pin.FACTORY.createComponent(loc, attrs);
+  }
+}
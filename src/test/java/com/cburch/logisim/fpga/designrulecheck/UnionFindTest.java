@@ -0,0 +1,43 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.fpga.designrulecheck;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import com.cburch.logisim.TestBase;
+import com.cburch.logisim.data.Location;
+import org.junit.jupiter.api.Test;
+
+public class UnionFindTest extends TestBase {
+
+  @Test
+  public void testChainsOfWireEndsJoin() {
+    final var sets = new UnionFind<Location>();
+    // a chain of 100 segments, each sharing an end with the next one
+    for (var i = 0; i < 100; i++) {
+      sets.union(Location.create(10 * i, 0, false), Location.create(10 * (i + 1), 0, false));
+    }
+    sets.union(Location.create(0, 50, false), Location.create(10, 50, false));
+
+    final var root = sets.find(Location.create(0, 0, false));
+    assertEquals(root, sets.find(Location.create(1000, 0, false)));
+    assertEquals(root, sets.find(Location.create(500, 0, false)));
+    assertNotEquals(root, sets.find(Location.create(0, 50, false)));
+    assertEquals(
+        sets.find(Location.create(0, 50, false)), sets.find(Location.create(10, 50, false)));
+    // an element that was never joined is its own set
+    final var alone = Location.create(-10, -10, false);
+    assertEquals(alone, sets.find(alone));
+
+    sets.union(Location.create(10, 50, false), Location.create(1000, 0, false));
+    assertEquals(sets.find(Location.create(0, 0, false)), sets.find(Location.create(0, 50, false)));
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.fpga.file;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mockStatic;
+
+import com.cburch.logisim.TestBase;
+import com.cburch.logisim.fpga.hdlgenerator.Hdl;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+public class HdlFileWriterTest extends TestBase {
+
+  @TempDir File tempDir;
+
+  @Test
+  public void testKeepsUnchangedAndRemovesOldFiles() throws Exception {
+    try (final var mockedHdl = mockStatic(Hdl.class, Mockito.CALLS_REAL_METHODS)) {
+      mockedHdl.when(Hdl::isVhdl).thenReturn(false);
+      final var verilogDir = new File(tempDir, "verilog");
+      final var circuitDir = new File(verilogDir, "circuit").getPath();
+
+      var writer = new HdlFileWriter(verilogDir.getPath());
+      assertTrue(writer.add(circuitDir, "main", false, List.of("module main;", "endmodule")));
+      assertTrue(writer.add(circuitDir, "old", false, List.of("module old;", "endmodule")));
+      // the same file twice is an error
+      assertFalse(writer.add(circuitDir, "old", false, List.of("module old;")));
+      assertTrue(writer.finish(true));
+
+      final var main = new File(circuitDir, "main.v");
+      final var old = new File(circuitDir, "old.v");
+      assertEquals("module main;\nendmodule\n", Files.readString(main.toPath()));
+      final var stamp = FileTime.fromMillis(1000000000000L);
+      Files.setLastModifiedTime(main.toPath(), stamp);
+
+      writer = new HdlFileWriter(verilogDir.getPath());
+      assertTrue(writer.add(circuitDir, "main", false, List.of("module main;", "endmodule")));
+      assertTrue(writer.add(circuitDir, "other", false, List.of("module other;", "endmodule")));
+      assertTrue(writer.finish(true));
+
+      assertEquals(stamp, Files.getLastModifiedTime(main.toPath()));
+      assertFalse(old.exists());
+      assertTrue(new File(circuitDir, "other.v").exists());
+    }
+  }
+}
@@ -0,0 +1,168 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.gui.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.cburch.logisim.TestBase;
+import com.cburch.logisim.circuit.Circuit;
+import com.cburch.logisim.circuit.CircuitMutation;
+import com.cburch.logisim.circuit.CircuitState;
+import com.cburch.logisim.circuit.Simulator;
+import com.cburch.logisim.comp.ComponentFactory;
+import com.cburch.logisim.data.Direction;
+import com.cburch.logisim.data.FailException;
+import com.cburch.logisim.data.Location;
+import com.cburch.logisim.data.TestVector;
+import com.cburch.logisim.file.Options;
+import com.cburch.logisim.instance.Instance;
+import com.cburch.logisim.instance.StdAttr;
+import com.cburch.logisim.proj.Project;
+import com.cburch.logisim.std.gates.GatesLibrary;
+import com.cburch.logisim.std.memory.Register;
+import com.cburch.logisim.std.wiring.Pin;
+import com.cburch.logisim.tools.AddTool;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TestVectorRunnerTest extends TestBase {
+
+  // the rows of an AND gate, of which the third one expects the wrong output
+  private static final String VECTOR = "A B Y\n0 0 0\n0 1 0\n1 0 1\n1 1 1\n";
+
+  @TempDir Path tempDir;
+
+  private Project project;
+  private Circuit circuit;
+  private Instance[] pins;
+  private TestVector vector;
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    final var and = ((AddTool) new GatesLibrary().getTool("AND Gate")).getFactory();
+    circuit = new Circuit("main", null, null);
+    final var gate = and.createComponent(Location.create(200, 100, true), and.createAttributeSet());
+    final var xn = new CircuitMutation(circuit);
+    xn.add(gate);
+    final var a = pin(gate.getEnd(1).getLocation(), "A", false);
+    final var b = pin(gate.getEnd(2).getLocation(), "B", false);
+    final var y = pin(gate.getEnd(0).getLocation(), "Y", true);
+    xn.add(a.getComponent());
+    xn.add(b.getComponent());
+    xn.add(y.getComponent());
+    xn.execute();
+    pins = new Instance[] {a, b, y};
+
+    project = mock(Project.class);
+    when(project.getOptions()).thenReturn(new Options());
+    when(project.getSimulator()).thenReturn(mock(Simulator.class));
+    final var state = new CircuitState(project, circuit);
+    when(project.getCircuitState()).thenReturn(state);
+
+    final var file = tempDir.resolve("and.txt");
+    Files.writeString(file, VECTOR);
+    vector = new TestVector(file.toFile());
+  }
+
+  /** Runs the rows with one and with several threads and checks that row 3 fails either way. */
+  @Test
+  public void testRowsGiveTheSameResultsWithThreads() throws InterruptedException {
+    for (final var threads : new int[] {1, 3}) {
+      final var results = new TestVectorRunner(project, circuit, vector, pins, false).run(threads,
+          done -> { });
+      assertEquals(4, results.length);
+      for (var row = 0; row < results.length; row++) {
+        if (row == 2) {
+          assertTrue(results[row].error() instanceof FailException);
+        } else {
+          assertNull(results[row].error(), "row " + (row + 1) + " with " + threads + " threads");
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testIncrementalRunsAreOptIn() throws InterruptedException {
+    assertFalse(new TestVectorRunner(project, circuit, vector, pins, false).isIncremental());
+    final var runner = new TestVectorRunner(project, circuit, vector, pins, true);
+    assertTrue(runner.isIncremental());
+    final var results = runner.run(1, done -> { });
+    assertTrue(results[2].error() instanceof FailException);
+    assertNull(results[3].error());
+
+    // a register keeps state from one row to the next
+    final var register = new Register();
+    final var xn = new CircuitMutation(circuit);
+    xn.add(register.createComponent(Location.create(400, 300, true),
+        register.createAttributeSet()));
+    xn.execute();
+    assertFalse(new TestVectorRunner(project, circuit, vector, pins, true).isIncremental());
+  }
+
+  @Test
+  public void testJunitReport() throws Exception {
+    final var runner = new TestVectorRunner(project, circuit, vector, pins, false);
+    runner.run(1, done -> { });
+    final var report = write(runner, "report.xml");
+    assertTrue(report.contains(
+        "<testsuite name=\"main\" tests=\"4\" failures=\"1\" errors=\"0\""), report);
+    assertTrue(report.contains("<testcase classname=\"and&lt;1&gt;\" name=\"row 1\""), report);
+    assertTrue(report.contains("name=\"row 3\""), report);
+    assertEquals(1, count(report, "<failure message="));
+    assertTrue(report.trim().endsWith("</testsuite>"), report);
+  }
+
+  @Test
+  public void testJsonReport() throws Exception {
+    final var runner = new TestVectorRunner(project, circuit, vector, pins, false);
+    runner.run(1, done -> { });
+    final var report = write(runner, "report.json");
+    assertTrue(report.contains("\"circuit\": \"main\""), report);
+    assertTrue(report.contains("\"vector\": \"and<1>\""), report);
+    assertTrue(report.contains("\"incremental\": false"), report);
+    assertTrue(report.contains("\"passed\": 3"), report);
+    assertTrue(report.contains("\"failed\": 1"), report);
+    assertEquals(3, count(report, "\"status\": \"pass\""));
+    assertTrue(report.contains("{\"row\": 3, "), report);
+    assertEquals(1, count(report, "\"status\": \"fail\", \"message\": \""));
+  }
+
+  private String write(TestVectorRunner runner, String name) throws IOException {
+    final File file = tempDir.resolve(name).toFile();
+    runner.writeReport(file, "and<1>");
+    return Files.readString(file.toPath(), StandardCharsets.UTF_8);
+  }
+
+  private static int count(String text, String part) {
+    var ret = 0;
+    for (var i = text.indexOf(part); i >= 0; i = text.indexOf(part, i + 1)) ret++;
+    return ret;
+  }
+
+  private static Instance pin(Location loc, String label, boolean output) {
+    final ComponentFactory factory = Pin.FACTORY;
+    final var attrs = factory.createAttributeSet();
+    attrs.setValue(Pin.ATTR_TYPE, output);
+    attrs.setValue(StdAttr.FACING, output ? Direction.WEST : Direction.EAST);
+    attrs.setValue(StdAttr.LABEL, label);
+    return Instance.getInstanceFor(factory.createComponent(loc, attrs));
+  }
+}
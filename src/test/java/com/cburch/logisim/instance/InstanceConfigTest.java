@@ -0,0 +1,45 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.instance;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.cburch.logisim.TestBase;
+import com.cburch.logisim.data.BitWidth;
+import com.cburch.logisim.data.Location;
+import com.cburch.logisim.std.wiring.Pin;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+public class InstanceConfigTest extends TestBase {
+
+  @Test
+  public void testConfigIsDerivedAgainOnlyAfterAnAttributeChanged() {
+    final var builds = new AtomicInteger();
+    final var config =
+        new InstanceConfig<>(
+            attrs -> {
+              builds.incrementAndGet();
+              return attrs.getValue(StdAttr.WIDTH).getWidth();
+            });
+    final var pin =
+        Pin.FACTORY.createComponent(Location.create(100, 100, true), Pin.FACTORY.createAttributeSet());
+    final var instance = Instance.getInstanceFor(pin);
+
+    assertEquals(1, (int) config.get(instance));
+    assertEquals(1, (int) config.get(instance));
+    assertEquals(1, builds.get());
+
+    pin.getAttributeSet().setValue(StdAttr.WIDTH, BitWidth.create(8));
+    assertEquals(8, (int) config.get(instance));
+    assertEquals(8, (int) config.get(instance));
+    assertEquals(2, builds.get());
+  }
+}
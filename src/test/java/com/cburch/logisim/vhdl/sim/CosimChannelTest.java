@@ -0,0 +1,95 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.vhdl.sim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.cburch.logisim.TestBase;
+import com.cburch.logisim.comp.EndData;
+import com.cburch.logisim.data.Value;
+import com.cburch.logisim.util.SocketClient;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+public class CosimChannelTest extends TestBase {
+
+  @Test
+  public void testOnlyChangesAreExchanged() throws Exception {
+    final var client = new SocketClient();
+    final var standIn = new CosimStandIn(client.getServerPort());
+    standIn.start();
+    client.start();
+    try {
+      final var channel = new CosimChannel(client, client::receiveFrame);
+      final var ai = channel.getId("a_i", EndData.INPUT_ONLY, 4);
+      final var ao = channel.getId("a_o", EndData.OUTPUT_ONLY, 4);
+      final var bi = channel.getId("b_i", EndData.INPUT_ONLY, 1);
+      final var bo = channel.getId("b_o", EndData.OUTPUT_ONLY, 1);
+      assertEquals(ai, channel.getId("a_i", EndData.INPUT_ONLY, 4));
+      // the declarations are pending
+      assertTrue(channel.hasPendingChanges());
+
+      channel.drive(ai, Value.createKnown(4, 5));
+      channel.drive(bi, Value.TRUE);
+      assertTrue(channel.exchange(CosimChannel.STEP));
+      assertEquals(Value.createKnown(4, 5), channel.getReceived(ao));
+      assertEquals(Value.TRUE, channel.getReceived(bo));
+      assertEquals(1, channel.getRoundTrips());
+      assertEquals(4, channel.getValuesExchanged());
+
+      // an input that did not change is not sent again
+      channel.drive(ai, Value.createKnown(4, 5));
+      assertFalse(channel.hasPendingChanges());
+
+      channel.drive(bi, Value.FALSE);
+      assertTrue(channel.exchange(CosimChannel.STEP));
+      assertEquals(Value.createKnown(4, 5), channel.getReceived(ao));
+      assertEquals(Value.FALSE, channel.getReceived(bo));
+      assertEquals(2, channel.getRoundTrips());
+      assertEquals(6, channel.getValuesExchanged());
+
+      channel.send(CosimChannel.END);
+      standIn.join(5000);
+      assertEquals(2, standIn.steps);
+    } finally {
+      client.stop();
+    }
+  }
+
+  @Test
+  public void testTruncatedFrameKeepsWhatWasRead() {
+    // values for signals 0 ("101"), 5 (unknown) and 1, which is cut off after one of its bits
+    final var frame = new byte[] {CosimChannel.VALUES, 0, 3, 0, 0, 3, '1', '0', '1', 0, 5, 1, '1',
+        0, 1, 2, '1'};
+    final var channel = new CosimChannel(new SocketClient(), () -> frame);
+    final var a = channel.getId("a_o", EndData.OUTPUT_ONLY, 3);
+    final var b = channel.getId("b_o", EndData.OUTPUT_ONLY, 2);
+    assertTrue(channel.exchange(CosimChannel.STEP));
+    assertEquals(Value.createKnown(3, 5), channel.getReceived(a));
+    assertNull(channel.getReceived(b));
+
+    final var wrong = new CosimChannel(new SocketClient(), () -> new byte[] {CosimChannel.TICK});
+    final var c = wrong.getId("c_o", EndData.OUTPUT_ONLY, 1);
+    assertTrue(wrong.exchange(CosimChannel.STEP));
+    assertNull(wrong.getReceived(c));
+  }
+
+  @Test
+  public void testToValue() {
+    final var bits = "10x1".getBytes(StandardCharsets.US_ASCII);
+    assertEquals(Value.create(4, 0, 2, 9), CosimChannel.toValue(bits, 0, 4, 4));
+    // missing bits are unknown, extra ones are dropped
+    assertEquals(Value.create(6, 0, 0x32, 9), CosimChannel.toValue(bits, 0, 4, 6));
+    assertEquals(Value.create(2, 0, 2, 1), CosimChannel.toValue(bits, 0, 4, 2));
+  }
+}
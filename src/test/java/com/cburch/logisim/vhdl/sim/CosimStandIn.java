@@ -0,0 +1,112 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.vhdl.sim;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+
+/**
+ * A stand-in for the simulator binder: it connects to the Logisim socket and answers the steps
+ * like the binder does, by copying every input {@code <name>_i} to the output {@code <name>_o}.
+ * Only the outputs that changed are sent back.
+ */
+class CosimStandIn extends Thread {
+  private final int port;
+  private final HashMap<Integer, String> names = new HashMap<>();
+  private final HashMap<String, Integer> ids = new HashMap<>();
+  private final HashMap<Integer, String> last = new HashMap<>();
+  volatile int steps = 0;
+
+  CosimStandIn(int port) {
+    super("CosimStandIn");
+    this.port = port;
+    setDaemon(true);
+  }
+
+  @Override
+  public void run() {
+    try (final var socket = new Socket("localhost", port)) {
+      final var in = new DataInputStream(socket.getInputStream());
+      final var out = new DataOutputStream(socket.getOutputStream());
+      while (true) {
+        final var frame = new byte[in.readInt()];
+        in.readFully(frame);
+        switch (frame[0]) {
+          case CosimChannel.STEP, CosimChannel.EXAMINE -> {
+            final var reply = step(frame, frame[0] == CosimChannel.STEP);
+            out.writeInt(reply.length);
+            out.write(reply);
+            out.flush();
+            steps++;
+          }
+          case CosimChannel.RESTART -> {
+            names.clear();
+            ids.clear();
+            last.clear();
+          }
+          case CosimChannel.END -> {
+            return;
+          }
+          default -> throw new IOException("unexpected command " + frame[0]);
+        }
+      }
+    } catch (EOFException e) {
+      // Logisim closed the connection
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private byte[] step(byte[] frame, boolean run) throws IOException {
+    final var in = ByteBuffer.wrap(frame, 1, frame.length - 1);
+    final var nrDecls = in.getShort();
+    for (var i = 0; i < nrDecls; i++) {
+      final int id = in.getShort();
+      in.get(); // type
+      in.get(); // width
+      final var name = new byte[in.getShort()];
+      in.get(name);
+      names.put(id, new String(name, StandardCharsets.US_ASCII));
+      ids.put(names.get(id), id);
+    }
+    final var changed = new HashMap<Integer, String>();
+    final var nrValues = in.getShort();
+    for (var i = 0; i < nrValues; i++) {
+      final int id = in.getShort();
+      final var bits = new byte[in.get()];
+      in.get(bits);
+      final var name = names.get(id);
+      final var output = ids.get(name.substring(0, name.length() - 2) + "_o");
+      final var value = new String(bits, StandardCharsets.US_ASCII);
+      if (run && output != null && !value.equals(last.get(output))) {
+        last.put(output, value);
+        changed.put(output, value);
+      }
+    }
+
+    final var bytes = new ByteArrayOutputStream();
+    final var out = new DataOutputStream(bytes);
+    out.writeByte(CosimChannel.VALUES);
+    out.writeShort(changed.size());
+    for (final var entry : changed.entrySet()) {
+      out.writeShort(entry.getKey());
+      out.writeByte(entry.getValue().length());
+      out.writeBytes(entry.getValue());
+    }
+    return bytes.toByteArray();
+  }
+}